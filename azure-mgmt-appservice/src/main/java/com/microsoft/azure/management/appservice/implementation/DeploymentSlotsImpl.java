@@ -43,6 +43,11 @@ class DeploymentSlotsImpl
         this.parent = parent;
         final WebAppsInner innerCollection = this.inner();
         converter = new PagedListConverter<SiteInner, DeploymentSlot>() {
+            @Override
+            protected int maxConcurrency() {
+                return WebAppBaseImpl.MAX_CONCURRENT_SITE_CONVERSIONS;
+            }
+
             @Override
             public Observable<DeploymentSlot> typeConvertAsync(final SiteInner siteInner) {
                 return Observable.zip(
@@ -55,7 +60,7 @@ class DeploymentSlotsImpl
                             }
                         });
             }
-        };
+        }.withMetricsListener(parent.manager().metricsListener(), "LIST Microsoft.Web/sites/slots");
     }
 
     @Override
@@ -36,6 +36,11 @@ class FunctionAppsImpl
     FunctionAppsImpl(final AppServiceManager manager) {
         super(manager.inner().webApps(), manager);
         converter = new PagedListConverter<SiteInner, FunctionApp>() {
+            @Override
+            protected int maxConcurrency() {
+                return WebAppBaseImpl.MAX_CONCURRENT_SITE_CONVERSIONS;
+            }
+
             @Override
             public Observable<FunctionApp> typeConvertAsync(final SiteInner siteInner) {
                 return Observable.zip(
@@ -53,7 +58,7 @@ class FunctionAppsImpl
             protected boolean filter(SiteInner inner) {
                 return "functionapp".equalsIgnoreCase(inner.kind());
             }
-        };
+        }.withMetricsListener(manager.metricsListener(), "LIST Microsoft.Web/sites");
     }
 
     @Override
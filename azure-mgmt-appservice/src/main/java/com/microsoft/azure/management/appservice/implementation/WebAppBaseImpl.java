@@ -76,7 +76,6 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.TreeMap;
-import java.util.concurrent.Callable;
 
 /**
  * The implementation for WebAppBase.
@@ -98,6 +97,12 @@ abstract class WebAppBaseImpl<
             WebAppBase.Update<FluentT>,
             WebAppBase.UpdateStages.WithWebContainer<FluentT> {
 
+    /**
+     * The maximum number of sites converted concurrently when listing, each conversion fetching
+     * the site configuration and the logs configuration.
+     */
+    static final int MAX_CONCURRENT_SITE_CONVERSIONS = 10;
+
     private static final Map<AzureEnvironment, String> DNS_MAP = new HashMap<AzureEnvironment, String>() {{
         put(AzureEnvironment.AZURE, "azurewebsites.net");
         put(AzureEnvironment.AZURE_CHINA, "chinacloudsites.cn");
@@ -1126,16 +1131,11 @@ abstract class WebAppBaseImpl<
                         return createOrUpdateSourceControl(sourceControl.inner());
                     }
                 })
-                .delay(new Func1<SiteSourceControlInner, Observable<Long>>() {
+                .flatMap(new Func1<SiteSourceControlInner, Observable<SiteSourceControlInner>>() {
                     @Override
-                    public Observable<Long> call(SiteSourceControlInner siteSourceControlInner) {
-                        return Observable.fromCallable(new Callable<Long>() {
-                            @Override
-                            public Long call() throws Exception {
-                                SdkContext.sleep(30000);
-                                return 30000L;
-                            }
-                        });
+                    public Observable<SiteSourceControlInner> call(SiteSourceControlInner siteSourceControlInner) {
+                        // Waits on the shared timer rather than pinning a thread
+                        return SdkContext.delayedEmitAsync(siteSourceControlInner, 30000);
                     }
                 })
                 .map(new Func1<SiteSourceControlInner, Indexable>() {
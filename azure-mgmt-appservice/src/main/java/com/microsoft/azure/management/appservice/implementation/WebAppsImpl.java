@@ -36,6 +36,11 @@ class WebAppsImpl
     WebAppsImpl(final AppServiceManager manager) {
         super(manager.inner().webApps(), manager);
         converter = new PagedListConverter<SiteInner, WebApp>() {
+            @Override
+            protected int maxConcurrency() {
+                return WebAppBaseImpl.MAX_CONCURRENT_SITE_CONVERSIONS;
+            }
+
             @Override
             protected boolean filter(SiteInner inner) {
                 return inner.kind() == null || Arrays.asList(inner.kind().split(",")).contains("app");
@@ -53,7 +58,7 @@ class WebAppsImpl
                             }
                         });
             }
-        };
+        }.withMetricsListener(manager.metricsListener(), "LIST Microsoft.Web/sites");
     }
 
     @Override
@@ -0,0 +1,61 @@
+/**
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for
+ * license information.
+ */
+
+package com.microsoft.azure.management.benchmarks;
+
+import com.microsoft.azure.management.compute.StorageAccountTypes;
+import com.microsoft.azure.management.compute.VirtualMachineSizeTypes;
+import com.microsoft.azure.management.resources.fluentcore.arm.Region;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of the lookup of expandable enum values and regions by name.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ExpandableStringEnumBenchmarks {
+    @Benchmark
+    public VirtualMachineSizeTypes fromString() {
+        return VirtualMachineSizeTypes.fromString("Standard_D2_v2");
+    }
+
+    @Benchmark
+    public VirtualMachineSizeTypes fromStringIgnoringCase() {
+        return VirtualMachineSizeTypes.fromString("standard_d2_v2");
+    }
+
+    @Benchmark
+    @Threads(8)
+    public StorageAccountTypes fromStringContended() {
+        return StorageAccountTypes.fromString("Premium_LRS");
+    }
+
+    @Benchmark
+    public Region regionFromName() {
+        return Region.fromName("westus");
+    }
+
+    @Benchmark
+    @Threads(8)
+    public Region regionFromNameContended() {
+        return Region.fromName("West US");
+    }
+}
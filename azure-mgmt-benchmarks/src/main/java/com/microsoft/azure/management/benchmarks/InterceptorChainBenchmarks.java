@@ -0,0 +1,119 @@
+/**
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for
+ * license information.
+ */
+
+package com.microsoft.azure.management.benchmarks;
+
+import com.microsoft.azure.AzureResponseBuilder;
+import com.microsoft.azure.management.resources.ResourceGroup;
+import com.microsoft.azure.management.resources.fluentcore.utils.ResourceManagerThrottlingInterceptor;
+import com.microsoft.azure.management.resources.fluentcore.utils.RetryPolicy;
+import com.microsoft.azure.management.resources.fluentcore.utils.RetryPolicyInterceptor;
+import com.microsoft.azure.management.resources.implementation.ResourceManager;
+import com.microsoft.azure.serializer.AzureJacksonAdapter;
+import com.microsoft.rest.RestClient;
+import com.microsoft.rest.credentials.TokenCredentials;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of the overhead of the interceptor chain and of the full client stack,
+ * with requests served by an in-process web server.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class InterceptorChainBenchmarks {
+    private static final String SUBSCRIPTION_ID = "00000000-0000-0000-0000-000000000000";
+    private static final String RESOURCE_GROUP = "{\"id\":\"/subscriptions/" + SUBSCRIPTION_ID + "/resourceGroups/rg1\","
+            + "\"name\":\"rg1\",\"location\":\"westus\",\"properties\":{\"provisioningState\":\"Succeeded\"}}";
+
+    private MockWebServer server;
+    private OkHttpClient bareClient;
+    private OkHttpClient interceptedClient;
+    private ResourceManager resourceManager;
+    private String url;
+
+    @Setup
+    public void setup() throws IOException {
+        server = new MockWebServer();
+        server.setDispatcher(new Dispatcher() {
+            @Override
+            public MockResponse dispatch(RecordedRequest request) {
+                return new MockResponse()
+                        .setResponseCode(200)
+                        .setHeader("Content-Type", "application/json")
+                        .setHeader("x-ms-ratelimit-remaining-subscription-reads", "11999")
+                        .setBody(RESOURCE_GROUP);
+            }
+        });
+        server.start();
+        url = server.url("/subscriptions/" + SUBSCRIPTION_ID + "/resourcegroups/rg1?api-version=2019-05-01").toString();
+
+        bareClient = new OkHttpClient();
+        interceptedClient = bareClient.newBuilder()
+                .addInterceptor(new RetryPolicyInterceptor(new RetryPolicy()))
+                .addInterceptor(new ResourceManagerThrottlingInterceptor())
+                .build();
+
+        RestClient restClient = new RestClient.Builder()
+                .withBaseUrl(server.url("/").toString())
+                .withCredentials(new TokenCredentials("Bearer", "token"))
+                .withSerializerAdapter(new AzureJacksonAdapter())
+                .withResponseBuilderFactory(new AzureResponseBuilder.Factory())
+                .withInterceptor(new RetryPolicyInterceptor(new RetryPolicy()))
+                .withInterceptor(new ResourceManagerThrottlingInterceptor())
+                .build();
+        resourceManager = ResourceManager.authenticate(restClient).withSubscription(SUBSCRIPTION_ID);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        server.shutdown();
+    }
+
+    @Benchmark
+    public int bareClient() throws IOException {
+        return execute(bareClient);
+    }
+
+    @Benchmark
+    public int interceptedClient() throws IOException {
+        return execute(interceptedClient);
+    }
+
+    @Benchmark
+    public ResourceGroup resourceManager() {
+        return resourceManager.resourceGroups().getByName("rg1");
+    }
+
+    private int execute(OkHttpClient client) throws IOException {
+        try (Response response = client.newCall(new Request.Builder().url(url).build()).execute()) {
+            return response.body().string().length();
+        }
+    }
+}
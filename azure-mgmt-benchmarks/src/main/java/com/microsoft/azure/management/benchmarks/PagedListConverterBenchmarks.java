@@ -0,0 +1,98 @@
+/**
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for
+ * license information.
+ */
+
+package com.microsoft.azure.management.benchmarks;
+
+import com.microsoft.azure.Page;
+import com.microsoft.azure.PagedList;
+import com.microsoft.azure.management.resources.fluentcore.utils.PagedListConverter;
+import com.microsoft.azure.management.resources.implementation.PageImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import rx.Observable;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of the conversion of paged lists of inner models into paged lists of fluent models.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PagedListConverterBenchmarks {
+    private static final int PAGE_COUNT = 10;
+
+    @Param({"100", "1000"})
+    private int pageSize;
+
+    @Param({"0", "8"})
+    private int maxConcurrency;
+
+    @Benchmark
+    public int convertAndIterate() {
+        int count = 0;
+        for (String item : converter().convert(innerList())) {
+            count += item.length();
+        }
+        return count;
+    }
+
+    @Benchmark
+    public int convertAndIterateWithPrefetch() {
+        int count = 0;
+        for (String item : converter().convert(innerList(), 2)) {
+            count += item.length();
+        }
+        return count;
+    }
+
+    private PagedListConverter<Integer, String> converter() {
+        return new PagedListConverter<Integer, String>() {
+            @Override
+            public Observable<String> typeConvertAsync(Integer inner) {
+                return Observable.just(String.valueOf(inner));
+            }
+
+            @Override
+            protected int maxConcurrency() {
+                return maxConcurrency;
+            }
+        };
+    }
+
+    private PagedList<Integer> innerList() {
+        return new PagedList<Integer>(page(0)) {
+            @Override
+            public Page<Integer> nextPage(String nextPageLink) {
+                return page(Integer.parseInt(nextPageLink));
+            }
+        };
+    }
+
+    private Page<Integer> page(int index) {
+        List<Integer> items = new ArrayList<>(pageSize);
+        for (int i = 0; i < pageSize; i++) {
+            items.add(index * pageSize + i);
+        }
+        PageImpl<Integer> page = new PageImpl<>();
+        page.setItems(items);
+        page.setNextPageLink(index + 1 < PAGE_COUNT ? String.valueOf(index + 1) : null);
+        return page;
+    }
+}
@@ -0,0 +1,114 @@
+/**
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for
+ * license information.
+ */
+
+package com.microsoft.azure.management.benchmarks;
+
+import com.microsoft.azure.management.resources.fluentcore.arm.ResourceId;
+import com.microsoft.azure.management.resources.fluentcore.arm.ResourceUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of the parsing of resource IDs.
+ * <p>
+ * The benchmarks parse the same ID over and over, which is then found in the cache of parsed IDs.
+ * The cold benchmarks rotate through more distinct IDs than the cache holds, so that each ID is
+ * parsed again.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ResourceIdBenchmarks {
+    // More than the two generations of 4096 IDs of the cache
+    private static final int COLD_ID_COUNT = 16384;
+
+    @Param({
+        "/subscriptions/00000000-0000-0000-0000-000000000000/resourceGroups/rg1/providers/Microsoft.Compute/virtualMachines/vm1",
+        "/subscriptions/00000000-0000-0000-0000-000000000000/resourceGroups/rg1/providers/Microsoft.Network/virtualNetworks/vnet1/subnets/subnet1"
+    })
+    private String id;
+
+    private String[] coldIds;
+    private int nextColdId;
+
+    @Setup
+    public void setup() {
+        coldIds = new String[COLD_ID_COUNT];
+        for (int i = 0; i < COLD_ID_COUNT; i++) {
+            coldIds[i] = id.replace("/resourceGroups/rg1/", "/resourceGroups/rg" + i + "/");
+        }
+    }
+
+    private String nextColdId() {
+        String coldId = coldIds[nextColdId];
+        nextColdId = (nextColdId + 1) % COLD_ID_COUNT;
+        return coldId;
+    }
+
+    @Benchmark
+    public ResourceId fromString() {
+        return ResourceId.fromString(id);
+    }
+
+    @Benchmark
+    public ResourceId fromStringCold() {
+        return ResourceId.fromString(nextColdId());
+    }
+
+    @Benchmark
+    public String groupFromResourceId() {
+        return ResourceUtils.groupFromResourceId(id);
+    }
+
+    @Benchmark
+    public String nameFromResourceId() {
+        return ResourceUtils.nameFromResourceId(id);
+    }
+
+    @Benchmark
+    public String nameFromResourceIdCold() {
+        return ResourceUtils.nameFromResourceId(nextColdId());
+    }
+
+    @Benchmark
+    public String resourceProviderFromResourceId() {
+        return ResourceUtils.resourceProviderFromResourceId(id);
+    }
+
+    @Benchmark
+    public String resourceTypeFromResourceId() {
+        return ResourceUtils.resourceTypeFromResourceId(id);
+    }
+
+    @Benchmark
+    public String parentResourceIdFromResourceId() {
+        return ResourceUtils.parentResourceIdFromResourceId(id);
+    }
+
+    @Benchmark
+    public String parentResourceIdFromResourceIdCold() {
+        return ResourceUtils.parentResourceIdFromResourceId(nextColdId());
+    }
+
+    @Benchmark
+    public String extractFromResourceId() {
+        return ResourceUtils.extractFromResourceId(id, "resourceGroups");
+    }
+}
@@ -0,0 +1,154 @@
+/**
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for
+ * license information.
+ */
+
+package com.microsoft.azure.management.benchmarks;
+
+import com.microsoft.azure.SubResource;
+import com.microsoft.azure.management.appservice.HostNameSslState;
+import com.microsoft.azure.management.appservice.NameValuePair;
+import com.microsoft.azure.management.appservice.SiteConfig;
+import com.microsoft.azure.management.appservice.SslState;
+import com.microsoft.azure.management.appservice.implementation.SiteInner;
+import com.microsoft.azure.management.compute.DataDisk;
+import com.microsoft.azure.management.compute.DiskCreateOptionTypes;
+import com.microsoft.azure.management.compute.HardwareProfile;
+import com.microsoft.azure.management.compute.NetworkInterfaceReference;
+import com.microsoft.azure.management.compute.NetworkProfile;
+import com.microsoft.azure.management.compute.OSDisk;
+import com.microsoft.azure.management.compute.OSProfile;
+import com.microsoft.azure.management.compute.StorageProfile;
+import com.microsoft.azure.management.compute.VirtualMachineSizeTypes;
+import com.microsoft.azure.management.compute.implementation.VirtualMachineInner;
+import com.microsoft.azure.serializer.AzureJacksonAdapter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of the JSON serialization and deserialization of large inner models.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SerializationBenchmarks {
+    private static final String SUBSCRIPTION = "/subscriptions/00000000-0000-0000-0000-000000000000/resourceGroups/rg1";
+
+    private final AzureJacksonAdapter adapter = new AzureJacksonAdapter();
+    private VirtualMachineInner virtualMachine;
+    private String virtualMachineJson;
+    private SiteInner site;
+    private String siteJson;
+
+    @Setup
+    public void setup() throws IOException {
+        virtualMachine = virtualMachine();
+        virtualMachineJson = adapter.serialize(virtualMachine);
+        site = site();
+        siteJson = adapter.serialize(site);
+    }
+
+    @Benchmark
+    public String serializeVirtualMachine() throws IOException {
+        return adapter.serialize(virtualMachine);
+    }
+
+    @Benchmark
+    public VirtualMachineInner deserializeVirtualMachine() throws IOException {
+        return adapter.deserialize(virtualMachineJson, VirtualMachineInner.class);
+    }
+
+    @Benchmark
+    public String serializeSite() throws IOException {
+        return adapter.serialize(site);
+    }
+
+    @Benchmark
+    public SiteInner deserializeSite() throws IOException {
+        return adapter.deserialize(siteJson, SiteInner.class);
+    }
+
+    private static VirtualMachineInner virtualMachine() {
+        List<DataDisk> dataDisks = new ArrayList<>();
+        for (int i = 0; i < 32; i++) {
+            dataDisks.add(new DataDisk()
+                    .withLun(i)
+                    .withName("disk" + i)
+                    .withDiskSizeGB(1024)
+                    .withCreateOption(DiskCreateOptionTypes.EMPTY));
+        }
+        List<NetworkInterfaceReference> networkInterfaces = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            NetworkInterfaceReference networkInterface = new NetworkInterfaceReference().withPrimary(i == 0);
+            networkInterface.withId(SUBSCRIPTION + "/providers/Microsoft.Network/networkInterfaces/nic" + i);
+            networkInterfaces.add(networkInterface);
+        }
+        VirtualMachineInner inner = new VirtualMachineInner()
+                .withHardwareProfile(new HardwareProfile().withVmSize(VirtualMachineSizeTypes.STANDARD_D2_V2))
+                .withStorageProfile(new StorageProfile()
+                        .withOsDisk(new OSDisk()
+                                .withName("osdisk")
+                                .withCreateOption(DiskCreateOptionTypes.FROM_IMAGE))
+                        .withDataDisks(dataDisks))
+                .withOsProfile(new OSProfile()
+                        .withComputerName("vm1")
+                        .withAdminUsername("azureuser"))
+                .withNetworkProfile(new NetworkProfile().withNetworkInterfaces(networkInterfaces))
+                .withAvailabilitySet(new SubResource().withId(SUBSCRIPTION + "/providers/Microsoft.Compute/availabilitySets/as1"));
+        inner.withLocation("westus");
+        inner.withTags(tags());
+        return inner;
+    }
+
+    private static SiteInner site() {
+        List<HostNameSslState> hostNameSslStates = new ArrayList<>();
+        for (int i = 0; i < 16; i++) {
+            hostNameSslStates.add(new HostNameSslState()
+                    .withName("host" + i + ".contoso.com")
+                    .withSslState(SslState.DISABLED));
+        }
+        List<NameValuePair> appSettings = new ArrayList<>();
+        for (int i = 0; i < 64; i++) {
+            appSettings.add(new NameValuePair().withName("SETTING_" + i).withValue("value" + i));
+        }
+        SiteInner inner = new SiteInner()
+                .withEnabled(true)
+                .withServerFarmId(SUBSCRIPTION + "/providers/Microsoft.Web/serverfarms/plan1")
+                .withHostNameSslStates(hostNameSslStates)
+                .withSiteConfig(new SiteConfig()
+                        .withNumberOfWorkers(2)
+                        .withNetFrameworkVersion("v4.0")
+                        .withAppSettings(appSettings))
+                .withHttpsOnly(true);
+        inner.withLocation("westus");
+        inner.withTags(tags());
+        return inner;
+    }
+
+    private static Map<String, String> tags() {
+        Map<String, String> tags = new HashMap<>();
+        for (int i = 0; i < 16; i++) {
+            tags.put("tag" + i, "value" + i);
+        }
+        return tags;
+    }
+}
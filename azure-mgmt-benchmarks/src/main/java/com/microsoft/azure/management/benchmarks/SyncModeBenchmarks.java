@@ -0,0 +1,108 @@
+/**
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for
+ * license information.
+ */
+
+package com.microsoft.azure.management.benchmarks;
+
+import com.microsoft.azure.management.resources.ResourceGroup;
+import com.microsoft.azure.management.resources.fluentcore.arm.Region;
+import com.microsoft.azure.management.resources.fluentcore.utils.SdkContext;
+import com.microsoft.azure.management.resources.implementation.ResourceManager;
+import com.microsoft.azure.management.simulator.ArmSimulator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of the throughput of concurrent synchronous calls, made from platform threads or from
+ * virtual threads, with the work running on the SDK Rx scheduler or on the calling threads.
+ * <p>
+ * The calls create resource groups in an {@link ArmSimulator} responding after a fixed latency.
+ * The virtual thread executor is looked up by reflection, so the virtual executor runs on Java 21 or later only.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SyncModeBenchmarks {
+    private static final int CALLS = 256;
+
+    @Param({"platform", "virtual"})
+    private String executor;
+
+    @Param({"false", "true"})
+    private boolean callingThreadMode;
+
+    @Param({"20"})
+    private long latencyMillis;
+
+    private ArmSimulator simulator;
+    private ResourceManager resourceManager;
+    private ExecutorService executorService;
+
+    @Setup
+    public void setup() throws Exception {
+        simulator = new ArmSimulator().withLatency(latencyMillis).withOperationPolls(0).start();
+        resourceManager = ResourceManager.authenticate(simulator.credentials())
+                .withSubscription(ArmSimulator.SUBSCRIPTION_ID);
+        SdkContext.setCallingThreadMode(callingThreadMode);
+        if ("virtual".equals(executor)) {
+            executorService = (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } else {
+            executorService = Executors.newFixedThreadPool(CALLS);
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        executorService.shutdownNow();
+        SdkContext.setCallingThreadMode(false);
+        simulator.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(CALLS)
+    public int createResourceGroups() throws InterruptedException, ExecutionException {
+        List<Future<ResourceGroup>> futures = new ArrayList<>(CALLS);
+        for (int i = 0; i < CALLS; i++) {
+            final String name = "rg" + i;
+            futures.add(executorService.submit(new Callable<ResourceGroup>() {
+                @Override
+                public ResourceGroup call() {
+                    return resourceManager.resourceGroups().define(name).withRegion(Region.US_WEST).create();
+                }
+            }));
+        }
+        int created = 0;
+        for (Future<ResourceGroup> future : futures) {
+            if (future.get() != null) {
+                created++;
+            }
+        }
+        return created;
+    }
+}
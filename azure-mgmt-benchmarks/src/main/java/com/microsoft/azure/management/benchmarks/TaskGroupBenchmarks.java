@@ -0,0 +1,83 @@
+/**
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for
+ * license information.
+ */
+
+package com.microsoft.azure.management.benchmarks;
+
+import com.microsoft.azure.management.resources.fluentcore.dag.FunctionalTaskItem;
+import com.microsoft.azure.management.resources.fluentcore.dag.IndexableTaskItem;
+import com.microsoft.azure.management.resources.fluentcore.dag.TaskGroup;
+import com.microsoft.azure.management.resources.fluentcore.model.Indexable;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import rx.Observable;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of the construction and invocation of task groups made of stubbed tasks.
+ * <p>
+ * The root task depends on a number of branches, each branch being a chain of tasks.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TaskGroupBenchmarks {
+    private static final FunctionalTaskItem STUB_TASK = new FunctionalTaskItem() {
+        @Override
+        public Observable<Indexable> call(Context context) {
+            return context.voidObservable();
+        }
+    };
+
+    @Param({"10", "100"})
+    private int branches;
+
+    @Param({"1", "5"})
+    private int depth;
+
+    @Benchmark
+    public TaskGroup build() {
+        return buildGroup();
+    }
+
+    @Benchmark
+    public Indexable buildAndInvoke() {
+        TaskGroup taskGroup = buildGroup();
+        return taskGroup.invokeAsync(taskGroup.newInvocationContext()).toBlocking().last();
+    }
+
+    @Benchmark
+    public Indexable buildAndInvokeWithConcurrencyLimit() {
+        TaskGroup taskGroup = buildGroup();
+        return taskGroup.invokeAsync(taskGroup.newInvocationContext().withConcurrencyLimit(4)).toBlocking().last();
+    }
+
+    private TaskGroup buildGroup() {
+        IndexableTaskItem root = IndexableTaskItem.create(STUB_TASK);
+        for (int i = 0; i < branches; i++) {
+            IndexableTaskItem head = IndexableTaskItem.create(STUB_TASK);
+            IndexableTaskItem current = head;
+            for (int j = 1; j < depth; j++) {
+                IndexableTaskItem next = IndexableTaskItem.create(STUB_TASK);
+                current.taskGroup().addDependencyTaskGroup(next.taskGroup());
+                current = next;
+            }
+            root.taskGroup().addDependencyTaskGroup(head.taskGroup());
+        }
+        return root.taskGroup();
+    }
+}
@@ -0,0 +1,9 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License. See License.txt in the project root for
+// license information.
+
+/**
+ * This package contains JMH benchmarks of the hot paths of the management libraries.
+ * Build with the benchmarks profile and run with "java -jar target/benchmarks.jar".
+ */
+package com.microsoft.azure.management.benchmarks;
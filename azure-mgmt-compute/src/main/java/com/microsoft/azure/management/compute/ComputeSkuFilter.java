@@ -0,0 +1,201 @@
+/**
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for
+ * license information.
+ */
+
+package com.microsoft.azure.management.compute;
+
+import com.microsoft.azure.management.resources.fluentcore.arm.Region;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * The conditions compute SKUs are listed by, all of which a SKU must meet.
+ * <p>
+ * Capabilities are matched by name ignoring case, e.g. the virtual machine sizes of a region with
+ * at least 8 vCPUs, accelerated networking and no restriction:
+ * <pre>{@code
+ * new ComputeSkuFilter()
+ *     .withRegion(Region.US_EAST)
+ *     .withResourceType(ComputeResourceType.VIRTUALMACHINES)
+ *     .withCapabilityAtLeast("vCPUs", 8)
+ *     .withCapability("AcceleratedNetworkingEnabled", "True")
+ *     .withoutRestrictions();
+ * }</pre>
+ */
+public class ComputeSkuFilter {
+    private Region region;
+    private ComputeResourceType resourceType;
+    private String name;
+    private final Map<String, Double> minimumCapabilities = new LinkedHashMap<>();
+    private final Map<String, Double> maximumCapabilities = new LinkedHashMap<>();
+    private final Map<String, String> capabilities = new LinkedHashMap<>();
+    private boolean availabilityZonesRequired;
+    private boolean restrictionsExcluded;
+
+    /**
+     * Restricts the SKUs to those available in a region.
+     *
+     * @param region the region
+     * @return the filter itself
+     */
+    public ComputeSkuFilter withRegion(Region region) {
+        this.region = region;
+        return this;
+    }
+
+    /**
+     * Restricts the SKUs to those of a resource type.
+     *
+     * @param resourceType the compute resource type
+     * @return the filter itself
+     */
+    public ComputeSkuFilter withResourceType(ComputeResourceType resourceType) {
+        this.resourceType = resourceType;
+        return this;
+    }
+
+    /**
+     * Restricts the SKUs to those of a name, e.g. a virtual machine size.
+     *
+     * @param name the SKU name
+     * @return the filter itself
+     */
+    public ComputeSkuFilter withName(String name) {
+        this.name = name;
+        return this;
+    }
+
+    /**
+     * Restricts the SKUs to those with a numeric capability of at least a value.
+     *
+     * @param capabilityName the capability name, e.g. vCPUs or MemoryGB
+     * @param minimum the minimum value, inclusive
+     * @return the filter itself
+     */
+    public ComputeSkuFilter withCapabilityAtLeast(String capabilityName, double minimum) {
+        this.minimumCapabilities.put(capabilityName.toLowerCase(Locale.ROOT), minimum);
+        return this;
+    }
+
+    /**
+     * Restricts the SKUs to those with a numeric capability of at most a value.
+     *
+     * @param capabilityName the capability name, e.g. vCPUs or MemoryGB
+     * @param maximum the maximum value, inclusive
+     * @return the filter itself
+     */
+    public ComputeSkuFilter withCapabilityAtMost(String capabilityName, double maximum) {
+        this.maximumCapabilities.put(capabilityName.toLowerCase(Locale.ROOT), maximum);
+        return this;
+    }
+
+    /**
+     * Restricts the SKUs to those with a capability of a value, compared ignoring case.
+     *
+     * @param capabilityName the capability name, e.g. AcceleratedNetworkingEnabled
+     * @param value the value, e.g. True
+     * @return the filter itself
+     */
+    public ComputeSkuFilter withCapability(String capabilityName, String value) {
+        this.capabilities.put(capabilityName.toLowerCase(Locale.ROOT), value);
+        return this;
+    }
+
+    /**
+     * Restricts the SKUs to those supporting availability zones in the region of the filter, or in
+     * at least one region if the filter has no region.
+     *
+     * @return the filter itself
+     */
+    public ComputeSkuFilter withAvailabilityZones() {
+        this.availabilityZonesRequired = true;
+        return this;
+    }
+
+    /**
+     * Excludes the SKUs restricted in the region of the filter for the subscription, or restricted in
+     * any region if the filter has no region.
+     *
+     * @return the filter itself
+     */
+    public ComputeSkuFilter withoutRestrictions() {
+        this.restrictionsExcluded = true;
+        return this;
+    }
+
+    /**
+     * @return the region of the SKUs, null for any region
+     */
+    public Region region() {
+        return region;
+    }
+
+    /**
+     * @return the resource type of the SKUs, null for any resource type
+     */
+    public ComputeResourceType resourceType() {
+        return resourceType;
+    }
+
+    /**
+     * @return the name of the SKUs, null for any name
+     */
+    public String name() {
+        return name;
+    }
+
+    /**
+     * @return the minimum values of numeric capabilities, keyed by lower case capability name
+     */
+    public Map<String, Double> minimumCapabilities() {
+        return Collections.unmodifiableMap(minimumCapabilities);
+    }
+
+    /**
+     * @return the maximum values of numeric capabilities, keyed by lower case capability name
+     */
+    public Map<String, Double> maximumCapabilities() {
+        return Collections.unmodifiableMap(maximumCapabilities);
+    }
+
+    /**
+     * @return the values of capabilities, keyed by lower case capability name
+     */
+    public Map<String, String> capabilities() {
+        return Collections.unmodifiableMap(capabilities);
+    }
+
+    /**
+     * @return the names of the capabilities with a minimum or a maximum value
+     */
+    public List<String> rangeCapabilityNames() {
+        List<String> names = new ArrayList<>(minimumCapabilities.keySet());
+        for (String capabilityName : maximumCapabilities.keySet()) {
+            if (!minimumCapabilities.containsKey(capabilityName)) {
+                names.add(capabilityName);
+            }
+        }
+        return names;
+    }
+
+    /**
+     * @return true if the SKUs must support availability zones
+     */
+    public boolean availabilityZonesRequired() {
+        return availabilityZonesRequired;
+    }
+
+    /**
+     * @return true if the restricted SKUs are excluded
+     */
+    public boolean restrictionsExcluded() {
+        return restrictionsExcluded;
+    }
+}
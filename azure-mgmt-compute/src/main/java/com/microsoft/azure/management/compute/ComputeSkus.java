@@ -18,6 +18,9 @@ import com.microsoft.azure.management.resources.fluentcore.collection.SupportsLi
 import com.microsoft.azure.management.resources.fluentcore.model.HasInner;
 import rx.Observable;
 
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
 
 /**
  * Entry point to compute service SKUs.
@@ -62,4 +65,34 @@ public interface ComputeSkus
      * @return an observable that emits skus
      */
     Observable<ComputeSku> listbyRegionAndResourceTypeAsync(Region region, ComputeResourceType resourceType);
+
+    /**
+     * Lists the skus meeting all the conditions of a filter.
+     * <p>
+     * The skus are listed from an index of the skus of the subscription, fetched once per time to live.
+     *
+     * @param filter the filter
+     * @return the skus list
+     */
+    List<ComputeSku> listByFilter(ComputeSkuFilter filter);
+
+    /**
+     * Lists the skus meeting all the conditions of a filter.
+     * <p>
+     * The skus are listed from an index of the skus of the subscription, fetched once per time to live.
+     *
+     * @param filter the filter
+     * @return an observable that emits skus
+     */
+    Observable<ComputeSku> listByFilterAsync(ComputeSkuFilter filter);
+
+    /**
+     * Sets how long the index of the skus of the subscription is used before being fetched again, 10 minutes
+     * by default. The index also serves the listings by region and by resource type.
+     *
+     * @param timeToLive the time to live, 0 to fetch the skus for every listing
+     * @param unit the time unit of the time to live
+     * @return the skus entry point itself
+     */
+    ComputeSkus withIndexTimeToLive(long timeToLive, TimeUnit unit);
 }
@@ -0,0 +1,124 @@
+/**
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for
+ * license information.
+ */
+
+package com.microsoft.azure.management.compute;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The settings of an operation rolled out to the instances of a virtual machine scale set, or to
+ * virtual machines.
+ * <p>
+ * The instances are processed in batches, one batch after the other, with up to a maximum number of
+ * instances processed concurrently within a batch. Once more instances than allowed have failed, the
+ * remaining batches are skipped, so that a faulty change does not take the whole scale set down. An
+ * instance whose operation does not complete within the timeout is reported as failed.
+ */
+public class InstanceOperationOptions {
+    private int batchSize = 10;
+    private int maxConcurrency = 10;
+    private long pauseBetweenBatchesMillis;
+    private int maxFailedInstances;
+    private long timeoutPerInstanceMillis;
+
+    /**
+     * Sets the number of instances per batch, 10 by default.
+     *
+     * @param batchSize the number of instances per batch
+     * @return the options itself
+     */
+    public InstanceOperationOptions withBatchSize(int batchSize) {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("The batch size must be positive.");
+        }
+        this.batchSize = batchSize;
+        return this;
+    }
+
+    /**
+     * Sets the maximum number of instances processed concurrently within a batch, 10 by default.
+     *
+     * @param maxConcurrency the maximum number of concurrent instance operations
+     * @return the options itself
+     */
+    public InstanceOperationOptions withMaxConcurrency(int maxConcurrency) {
+        if (maxConcurrency <= 0) {
+            throw new IllegalArgumentException("The maximum concurrency must be positive.");
+        }
+        this.maxConcurrency = maxConcurrency;
+        return this;
+    }
+
+    /**
+     * Sets the pause between the end of a batch and the start of the next one, none by default.
+     *
+     * @param pause the pause
+     * @param unit the time unit of the pause
+     * @return the options itself
+     */
+    public InstanceOperationOptions withPauseBetweenBatches(long pause, TimeUnit unit) {
+        this.pauseBetweenBatchesMillis = unit.toMillis(pause);
+        return this;
+    }
+
+    /**
+     * Sets the number of failed instances tolerated before the remaining batches are skipped, 0 by default.
+     *
+     * @param maxFailedInstances the number of failed instances tolerated
+     * @return the options itself
+     */
+    public InstanceOperationOptions withMaxFailedInstances(int maxFailedInstances) {
+        this.maxFailedInstances = maxFailedInstances;
+        return this;
+    }
+
+    /**
+     * Sets the time an instance operation may take before it is reported as failed, none by default.
+     *
+     * @param timeout the timeout
+     * @param unit the time unit of the timeout
+     * @return the options itself
+     */
+    public InstanceOperationOptions withTimeoutPerInstance(long timeout, TimeUnit unit) {
+        this.timeoutPerInstanceMillis = unit.toMillis(timeout);
+        return this;
+    }
+
+    /**
+     * @return the number of instances per batch
+     */
+    public int batchSize() {
+        return batchSize;
+    }
+
+    /**
+     * @return the maximum number of instances processed concurrently within a batch
+     */
+    public int maxConcurrency() {
+        return maxConcurrency;
+    }
+
+    /**
+     * @return the pause between two batches in milliseconds
+     */
+    public long pauseBetweenBatchesMillis() {
+        return pauseBetweenBatchesMillis;
+    }
+
+    /**
+     * @return the number of failed instances tolerated before the remaining batches are skipped
+     */
+    public int maxFailedInstances() {
+        return maxFailedInstances;
+    }
+
+    /**
+     * @return the time an instance operation may take in milliseconds, 0 for no timeout
+     */
+    public long timeoutPerInstanceMillis() {
+        return timeoutPerInstanceMillis;
+    }
+}
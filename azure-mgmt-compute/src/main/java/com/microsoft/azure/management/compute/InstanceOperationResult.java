@@ -0,0 +1,50 @@
+/**
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for
+ * license information.
+ */
+
+package com.microsoft.azure.management.compute;
+
+import com.microsoft.azure.management.apigeneration.Fluent;
+
+/**
+ * The outcome of an operation rolled out to an instance of a virtual machine scale set, or to a virtual machine.
+ */
+@Fluent
+public interface InstanceOperationResult {
+    /**
+     * @return the instance ID of the virtual machine scale set instance, or the resource ID of the virtual machine
+     */
+    String instanceId();
+
+    /**
+     * @return the index of the batch the instance was part of, starting at 0
+     */
+    int batchIndex();
+
+    /**
+     * @return true if the operation succeeded on the instance
+     */
+    boolean isSucceeded();
+
+    /**
+     * @return true if the instance was skipped because too many instances failed in the previous batches
+     */
+    boolean isSkipped();
+
+    /**
+     * @return the error the operation failed with, null if it did not fail
+     */
+    Throwable error();
+
+    /**
+     * @return the time the operation took on the instance in milliseconds, 0 if skipped
+     */
+    long durationMillis();
+
+    /**
+     * @return the result of the command run on the instance, null for the other operations
+     */
+    RunCommandResult runCommandResult();
+}
@@ -0,0 +1,72 @@
+/**
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for
+ * license information.
+ */
+
+package com.microsoft.azure.management.compute;
+
+import com.microsoft.azure.management.apigeneration.Fluent;
+
+import java.util.List;
+
+/**
+ * An index of the virtual machine images of a region, answering image lookups from memory.
+ * <p>
+ * The catalog is a snapshot; it is not updated once loaded. Loading the catalog again with the same
+ * cache file refreshes the publishers crawled longer ago than the maximum age only.
+ */
+@Fluent
+public interface VirtualMachineImageCatalog {
+    /**
+     * @return the name of the region of the images
+     */
+    String region();
+
+    /**
+     * @return the number of images in the catalog
+     */
+    int imageCount();
+
+    /**
+     * @return the names of the publishers that failed to be crawled by this load, whose cached images are kept
+     */
+    List<String> failedPublishers();
+
+    /**
+     * Lists the offers of a publisher.
+     *
+     * @param publisherName publisher name
+     * @return the offer names, empty if the publisher is not in the catalog
+     */
+    List<String> listOffers(String publisherName);
+
+    /**
+     * Lists the SKUs of an offer.
+     *
+     * @param publisherName publisher name
+     * @param offerName offer name
+     * @return the SKU names, empty if the offer is not in the catalog
+     */
+    List<String> listSkus(String publisherName, String offerName);
+
+    /**
+     * Lists the image versions of a SKU.
+     *
+     * @param publisherName publisher name
+     * @param offerName offer name
+     * @param skuName SKU name
+     * @return the versions, latest first, empty if the SKU is not in the catalog
+     */
+    List<String> listVersions(String publisherName, String offerName, String skuName);
+
+    /**
+     * Gets the latest image of a SKU.
+     *
+     * @param publisherName publisher name
+     * @param offerName offer name
+     * @param skuName SKU name
+     * @return the reference to the latest image, with its version, or null if the SKU has no image in the catalog
+     */
+    ImageReference getLatestImage(String publisherName, String offerName, String skuName);
+}
@@ -0,0 +1,104 @@
+/**
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for
+ * license information.
+ */
+
+package com.microsoft.azure.management.compute;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The settings of the loading of a virtual machine image catalog.
+ * <p>
+ * The publishers, offers and SKUs of a region are crawled with a bounded number of concurrent
+ * requests. With a cache file, the catalog is read from the file and only the publishers crawled
+ * longer ago than the maximum age are crawled again, so that a warm start costs no request at all.
+ */
+public class VirtualMachineImageCatalogOptions {
+    private List<String> publishers = Collections.emptyList();
+    private int maxConcurrency = 8;
+    private File cacheFile;
+    private long maxAgeMillis = TimeUnit.DAYS.toMillis(1);
+
+    /**
+     * Restricts the catalog to publishers, all the publishers of the region by default.
+     *
+     * @param publisherNames the publisher names
+     * @return the options itself
+     */
+    public VirtualMachineImageCatalogOptions withPublishers(String... publisherNames) {
+        this.publishers = new ArrayList<>(Arrays.asList(publisherNames));
+        return this;
+    }
+
+    /**
+     * Sets the maximum number of concurrent requests per level of the crawl, 8 by default.
+     *
+     * @param maxConcurrency the maximum number of concurrent requests
+     * @return the options itself
+     */
+    public VirtualMachineImageCatalogOptions withMaxConcurrency(int maxConcurrency) {
+        if (maxConcurrency <= 0) {
+            throw new IllegalArgumentException("The maximum concurrency must be positive.");
+        }
+        this.maxConcurrency = maxConcurrency;
+        return this;
+    }
+
+    /**
+     * Sets the file the catalog is read from and saved to, none by default.
+     *
+     * @param cacheFile the cache file
+     * @return the options itself
+     */
+    public VirtualMachineImageCatalogOptions withCacheFile(File cacheFile) {
+        this.cacheFile = cacheFile;
+        return this;
+    }
+
+    /**
+     * Sets the age past which the cached images of a publisher are crawled again, one day by default.
+     *
+     * @param maxAge the maximum age
+     * @param unit the time unit of the maximum age
+     * @return the options itself
+     */
+    public VirtualMachineImageCatalogOptions withMaxAge(long maxAge, TimeUnit unit) {
+        this.maxAgeMillis = unit.toMillis(maxAge);
+        return this;
+    }
+
+    /**
+     * @return the publisher names the catalog is restricted to, empty for all the publishers
+     */
+    public List<String> publishers() {
+        return Collections.unmodifiableList(publishers);
+    }
+
+    /**
+     * @return the maximum number of concurrent requests per level of the crawl
+     */
+    public int maxConcurrency() {
+        return maxConcurrency;
+    }
+
+    /**
+     * @return the cache file, null if none
+     */
+    public File cacheFile() {
+        return cacheFile;
+    }
+
+    /**
+     * @return the age past which the cached images of a publisher are crawled again, in milliseconds
+     */
+    public long maxAgeMillis() {
+        return maxAgeMillis;
+    }
+}
@@ -8,6 +8,7 @@ package com.microsoft.azure.management.compute;
 import com.microsoft.azure.management.apigeneration.Fluent;
 import com.microsoft.azure.management.resources.fluentcore.arm.Region;
 import com.microsoft.azure.management.resources.fluentcore.collection.SupportsListingByRegion;
+import rx.Observable;
 
 /**
  *  Entry point to virtual machine image management API.
@@ -39,6 +40,24 @@ public interface VirtualMachineImages extends
      */
     VirtualMachineImage getImage(String region, String publisherName, String offerName, String skuName, String version);
 
+    /**
+     * Loads the catalog of the virtual machine images of a region.
+     *
+     * @param regionName the name of the region
+     * @param options the publishers, concurrency and cache file of the catalog, null to crawl all the publishers without cache
+     * @return the catalog
+     */
+    VirtualMachineImageCatalog loadCatalog(String regionName, VirtualMachineImageCatalogOptions options);
+
+    /**
+     * Loads the catalog of the virtual machine images of a region asynchronously.
+     *
+     * @param regionName the name of the region
+     * @param options the publishers, concurrency and cache file of the catalog, null to crawl all the publishers without cache
+     * @return an observable emitting the catalog
+     */
+    Observable<VirtualMachineImageCatalog> loadCatalogAsync(String regionName, VirtualMachineImageCatalogOptions options);
+
     /**
      * @return entry point to virtual machine image publishers
      */
@@ -88,4 +88,71 @@ public interface VirtualMachineScaleSetVMs extends
      */
     @Beta(Beta.SinceVersion.V1_4_0)
     void updateInstances(String... instanceIds);
+
+    /**
+     * Restarts virtual machine instances of the scale set, batch after batch.
+     *
+     * @param options the settings of the rollout, null for the default settings
+     * @param instanceIds the instance IDs, all the instances of the scale set if none
+     * @return an observable emitting the result of each instance as soon as it is known
+     */
+    Observable<InstanceOperationResult> restartInstancesAsync(InstanceOperationOptions options, String... instanceIds);
+
+    /**
+     * Reimages virtual machine instances of the scale set, batch after batch.
+     *
+     * @param options the settings of the rollout, null for the default settings
+     * @param instanceIds the instance IDs, all the instances of the scale set if none
+     * @return an observable emitting the result of each instance as soon as it is known
+     */
+    Observable<InstanceOperationResult> reimageInstancesAsync(InstanceOperationOptions options, String... instanceIds);
+
+    /**
+     * Deallocates virtual machine instances of the scale set, batch after batch.
+     *
+     * @param options the settings of the rollout, null for the default settings
+     * @param instanceIds the instance IDs, all the instances of the scale set if none
+     * @return an observable emitting the result of each instance as soon as it is known
+     */
+    Observable<InstanceOperationResult> deallocateInstancesAsync(InstanceOperationOptions options, String... instanceIds);
+
+    /**
+     * Powers off virtual machine instances of the scale set, batch after batch.
+     *
+     * @param options the settings of the rollout, null for the default settings
+     * @param instanceIds the instance IDs, all the instances of the scale set if none
+     * @return an observable emitting the result of each instance as soon as it is known
+     */
+    Observable<InstanceOperationResult> powerOffInstancesAsync(InstanceOperationOptions options, String... instanceIds);
+
+    /**
+     * Starts virtual machine instances of the scale set, batch after batch.
+     *
+     * @param options the settings of the rollout, null for the default settings
+     * @param instanceIds the instance IDs, all the instances of the scale set if none
+     * @return an observable emitting the result of each instance as soon as it is known
+     */
+    Observable<InstanceOperationResult> startInstancesAsync(InstanceOperationOptions options, String... instanceIds);
+
+    /**
+     * Upgrades virtual machine instances of the scale set to the latest scale set model, batch after batch.
+     * <p>
+     * Each batch is upgraded by a single request, so the instances of a batch succeed or fail together, and
+     * the timeout per instance applies to the upgrade of the whole batch.
+     *
+     * @param options the settings of the rollout, null for the default settings
+     * @param instanceIds the instance IDs, all the instances of the scale set if none
+     * @return an observable emitting the result of each instance as soon as it is known
+     */
+    Observable<InstanceOperationResult> upgradeInstancesAsync(InstanceOperationOptions options, String... instanceIds);
+
+    /**
+     * Runs a command in virtual machine instances of the scale set, batch after batch.
+     *
+     * @param inputCommand the command input
+     * @param options the settings of the rollout, null for the default settings
+     * @param instanceIds the instance IDs, all the instances of the scale set if none
+     * @return an observable emitting the result of each instance, including the command result, as soon as it is known
+     */
+    Observable<InstanceOperationResult> runCommandInInstancesAsync(RunCommandInput inputCommand, InstanceOperationOptions options, String... instanceIds);
 }
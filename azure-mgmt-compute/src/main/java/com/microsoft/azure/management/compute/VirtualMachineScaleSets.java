@@ -27,6 +27,7 @@ import rx.Completable;
 import rx.Observable;
 
 import java.io.IOException;
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -267,4 +268,44 @@ public interface VirtualMachineScaleSets extends
      * @return handle to the asynchronous execution
      */
     Observable<RunCommandResult> runCommandVMInstanceAsync(String groupName, String scaleSetName, String vmId, RunCommandInput inputCommand);
+
+    /**
+     * Runs PowerShell script lines in virtual machine instances in a scale set concurrently.
+     *
+     * @param groupName the resource group name
+     * @param scaleSetName the virtual machine scale set name
+     * @param vmIds the virtual machine instance ids
+     * @param scriptLines PowerShell script lines
+     * @param scriptParameters script parameters
+     * @param options the concurrency, timeout and batches of the run, null to run in up to 10 instances at a time
+     * @return an observable emitting the result of each instance as soon as it is known
+     */
+    Observable<InstanceOperationResult> runPowerShellScriptInVMInstancesAsync(String groupName, String scaleSetName, Collection<String> vmIds, List<String> scriptLines, List<RunCommandInputParameter> scriptParameters, InstanceOperationOptions options);
+
+    /**
+     * Runs shell script lines in virtual machine instances in a scale set concurrently.
+     *
+     * @param groupName the resource group name
+     * @param scaleSetName the virtual machine scale set name
+     * @param vmIds the virtual machine instance ids
+     * @param scriptLines shell script lines
+     * @param scriptParameters script parameters
+     * @param options the concurrency, timeout and batches of the run, null to run in up to 10 instances at a time
+     * @return an observable emitting the result of each instance as soon as it is known
+     */
+    Observable<InstanceOperationResult> runShellScriptInVMInstancesAsync(String groupName, String scaleSetName, Collection<String> vmIds, List<String> scriptLines, List<RunCommandInputParameter> scriptParameters, InstanceOperationOptions options);
+
+    /**
+     * Runs a command in virtual machine instances in a scale set concurrently.
+     * <p>
+     * An instance failing or timing out does not fail the others; its result carries the error.
+     *
+     * @param groupName the resource group name
+     * @param scaleSetName the virtual machine scale set name
+     * @param vmIds the virtual machine instance ids
+     * @param inputCommand command input
+     * @param options the concurrency, timeout and batches of the run, null to run in up to 10 instances at a time
+     * @return an observable emitting the result of each instance as soon as it is known
+     */
+    Observable<InstanceOperationResult> runCommandInVMInstancesAsync(String groupName, String scaleSetName, Collection<String> vmIds, RunCommandInput inputCommand, InstanceOperationOptions options);
 }
@@ -14,6 +14,8 @@ import com.microsoft.azure.management.resources.fluentcore.arm.collection.Suppor
 import com.microsoft.azure.management.resources.fluentcore.arm.collection.SupportsGettingById;
 import com.microsoft.azure.management.resources.fluentcore.arm.collection.SupportsGettingByResourceGroup;
 import com.microsoft.azure.management.resources.fluentcore.arm.collection.SupportsListingByResourceGroup;
+import com.microsoft.azure.management.resources.fluentcore.arm.collection.SupportsListingViews;
+import com.microsoft.azure.management.resources.fluentcore.arm.collection.SupportsListingViewsByResourceGroup;
 import com.microsoft.azure.management.resources.fluentcore.arm.models.HasManager;
 import com.microsoft.azure.management.resources.fluentcore.collection.SupportsBatchCreation;
 import com.microsoft.azure.management.resources.fluentcore.collection.SupportsCreating;
@@ -25,7 +27,9 @@ import com.microsoft.rest.ServiceFuture;
 import rx.Completable;
 import rx.Observable;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 /**
  *  Entry point to virtual machine management API.
@@ -34,6 +38,8 @@ import java.util.List;
 public interface VirtualMachines extends
         SupportsListing<VirtualMachine>,
         SupportsListingByResourceGroup<VirtualMachine>,
+        SupportsListingViews,
+        SupportsListingViewsByResourceGroup,
         SupportsGettingByResourceGroup<VirtualMachine>,
         SupportsGettingById<VirtualMachine>,
         SupportsCreating<VirtualMachine.DefinitionStages.Blank>,
@@ -341,4 +347,110 @@ public interface VirtualMachines extends
      * @return handle to the asynchronous execution
      */
     Observable<RunCommandResult> runCommandAsync(String groupName, String name, RunCommandInput inputCommand);
+
+    /**
+     * Runs PowerShell script lines in virtual machines concurrently.
+     *
+     * @param ids the resource IDs of the virtual machines
+     * @param scriptLines PowerShell script lines
+     * @param scriptParameters script parameters
+     * @param options the concurrency, timeout and batches of the run, null to run in up to 10 virtual machines at a time
+     * @return an observable emitting the result of each virtual machine as soon as it is known
+     */
+    Observable<InstanceOperationResult> runPowerShellScriptInVMsAsync(Collection<String> ids, List<String> scriptLines, List<RunCommandInputParameter> scriptParameters, InstanceOperationOptions options);
+
+    /**
+     * Runs shell script lines in virtual machines concurrently.
+     *
+     * @param ids the resource IDs of the virtual machines
+     * @param scriptLines shell script lines
+     * @param scriptParameters script parameters
+     * @param options the concurrency, timeout and batches of the run, null to run in up to 10 virtual machines at a time
+     * @return an observable emitting the result of each virtual machine as soon as it is known
+     */
+    Observable<InstanceOperationResult> runShellScriptInVMsAsync(Collection<String> ids, List<String> scriptLines, List<RunCommandInputParameter> scriptParameters, InstanceOperationOptions options);
+
+    /**
+     * Runs a command in virtual machines concurrently.
+     * <p>
+     * A virtual machine failing or timing out does not fail the others; its result carries the error.
+     *
+     * @param ids the resource IDs of the virtual machines, all in the subscription of this manager
+     * @param inputCommand command input
+     * @param options the concurrency, timeout and batches of the run, null to run in up to 10 virtual machines at a time
+     * @return an observable emitting the result of each virtual machine as soon as it is known
+     * @throws IllegalArgumentException if a virtual machine is in another subscription
+     */
+    Observable<InstanceOperationResult> runCommandInVMsAsync(Collection<String> ids, RunCommandInput inputCommand, InstanceOperationOptions options);
+
+    /**
+     * Lists the virtual machines in the subscription along with their instance views.
+     * <p>
+     * The instance views are fetched in bulk by paged list calls rather than one call per virtual machine,
+     * so that instanceView() and powerState() of the listed virtual machines do not send any request.
+     *
+     * @return the virtual machines
+     */
+    List<VirtualMachine> listWithInstanceViews();
+
+    /**
+     * Lists the virtual machines in the subscription along with their instance views asynchronously.
+     *
+     * @return an observable emitting the virtual machines
+     */
+    Observable<VirtualMachine> listWithInstanceViewsAsync();
+
+    /**
+     * Lists the virtual machines in a resource group along with their instance views.
+     * <p>
+     * The statusOnly listing of the instance views is only available at the subscription scope, so the
+     * instance views of every virtual machine in the subscription are downloaded and those of the other
+     * resource groups dropped.
+     *
+     * @param resourceGroupName the name of the resource group
+     * @return the virtual machines
+     */
+    List<VirtualMachine> listWithInstanceViewsByResourceGroup(String resourceGroupName);
+
+    /**
+     * Lists the virtual machines in a resource group along with their instance views asynchronously.
+     *
+     * @param resourceGroupName the name of the resource group
+     * @return an observable emitting the virtual machines
+     */
+    Observable<VirtualMachine> listWithInstanceViewsByResourceGroupAsync(String resourceGroupName);
+
+    /**
+     * Lists the power states of the virtual machines in the subscription, by paged list calls
+     * returning only the run time status of the virtual machines.
+     *
+     * @return the power states by virtual machine ID, null for the virtual machines reporting none
+     */
+    Map<String, PowerState> listPowerStates();
+
+    /**
+     * Lists the power states of the virtual machines in the subscription asynchronously.
+     *
+     * @return an observable emitting the power states by virtual machine ID
+     */
+    Observable<Map<String, PowerState>> listPowerStatesAsync();
+
+    /**
+     * Lists the power states of the virtual machines in a resource group.
+     * <p>
+     * The instance views of every virtual machine in the subscription are downloaded, as for
+     * {@link #listWithInstanceViewsByResourceGroup(String)}, and those of the other resource groups dropped.
+     *
+     * @param resourceGroupName the name of the resource group
+     * @return the power states by virtual machine ID, null for the virtual machines reporting none
+     */
+    Map<String, PowerState> listPowerStatesByResourceGroup(String resourceGroupName);
+
+    /**
+     * Lists the power states of the virtual machines in a resource group asynchronously.
+     *
+     * @param resourceGroupName the name of the resource group
+     * @return an observable emitting the power states by virtual machine ID
+     */
+    Observable<Map<String, PowerState>> listPowerStatesByResourceGroupAsync(String resourceGroupName);
 }
@@ -170,7 +170,7 @@ final class ComputeSkuImpl implements ComputeSku {
 
     @Override
     public List<ResourceSkuRestrictions> restrictions() {
-        if (this.inner.capabilities() != null) {
+        if (this.inner.restrictions() != null) {
             return Collections.unmodifiableList(this.inner.restrictions());
         } else {
             return Collections.unmodifiableList(new ArrayList<ResourceSkuRestrictions>());
@@ -0,0 +1,247 @@
+/**
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for
+ * license information.
+ */
+
+package com.microsoft.azure.management.compute.implementation;
+
+import com.microsoft.azure.management.compute.ComputeSku;
+import com.microsoft.azure.management.compute.ComputeSkuFilter;
+import com.microsoft.azure.management.compute.ResourceSkuCapabilities;
+import com.microsoft.azure.management.compute.ResourceSkuLocationInfo;
+import com.microsoft.azure.management.compute.ResourceSkuRestrictions;
+import com.microsoft.azure.management.compute.ResourceSkuRestrictionsType;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * An index of the compute SKUs of a subscription by region, resource type and name.
+ * <p>
+ * The SKUs of a region and resource type are also sorted by the value of each numeric capability,
+ * on first use of the capability, so that a minimum or maximum capability selects a range of SKUs
+ * instead of testing every SKU. The index is immutable once built and can be queried concurrently.
+ */
+final class ComputeSkuIndex {
+    private static final String ANY = "";
+
+    private final Map<String, List<Entry>> entriesByRegionAndType = new HashMap<>();
+    private final Map<String, List<Entry>> entriesByName = new HashMap<>();
+    private final ConcurrentMap<String, NavigableMap<Double, List<Entry>>> entriesByCapability = new ConcurrentHashMap<>();
+
+    ComputeSkuIndex(Collection<ComputeSku> skus) {
+        for (ComputeSku sku : skus) {
+            Entry entry = new Entry(sku);
+            Set<String> regions = new HashSet<>(entry.regions);
+            regions.add(ANY);
+            for (String region : regions) {
+                add(entriesByRegionAndType, key(region, entry.resourceType), entry);
+                if (!ANY.equals(entry.resourceType)) {
+                    add(entriesByRegionAndType, key(region, ANY), entry);
+                }
+            }
+            add(entriesByName, entry.name, entry);
+        }
+    }
+
+    /**
+     * Lists the SKUs meeting all the conditions of a filter.
+     *
+     * @param filter the filter
+     * @return the SKUs
+     */
+    List<ComputeSku> list(ComputeSkuFilter filter) {
+        String region = filter.region() != null ? lowerCase(filter.region().name()) : ANY;
+        String resourceType = filter.resourceType() != null ? lowerCase(filter.resourceType().toString()) : ANY;
+
+        Collection<Entry> candidates;
+        if (filter.name() != null) {
+            candidates = entriesOrEmpty(entriesByName, lowerCase(filter.name()));
+        } else if (!filter.rangeCapabilityNames().isEmpty()) {
+            String capabilityName = filter.rangeCapabilityNames().get(0);
+            Double minimum = filter.minimumCapabilities().get(capabilityName);
+            Double maximum = filter.maximumCapabilities().get(capabilityName);
+            NavigableMap<Double, List<Entry>> range = sortedByCapability(key(region, resourceType), capabilityName);
+            if (minimum != null) {
+                range = range.tailMap(minimum, true);
+            }
+            if (maximum != null) {
+                range = range.headMap(maximum, true);
+            }
+            candidates = new ArrayList<>();
+            for (List<Entry> entries : range.values()) {
+                candidates.addAll(entries);
+            }
+        } else {
+            candidates = entriesOrEmpty(entriesByRegionAndType, key(region, resourceType));
+        }
+
+        List<ComputeSku> skus = new ArrayList<>();
+        for (Entry entry : candidates) {
+            if (entry.matches(filter, region, resourceType)) {
+                skus.add(entry.sku);
+            }
+        }
+        return skus;
+    }
+
+    private NavigableMap<Double, List<Entry>> sortedByCapability(String regionAndType, String capabilityName) {
+        String key = regionAndType + "|" + capabilityName;
+        NavigableMap<Double, List<Entry>> sorted = entriesByCapability.get(key);
+        if (sorted == null) {
+            sorted = new TreeMap<>();
+            for (Entry entry : entriesOrEmpty(entriesByRegionAndType, regionAndType)) {
+                Double value = entry.numericCapability(capabilityName);
+                if (value != null) {
+                    List<Entry> entries = sorted.get(value);
+                    if (entries == null) {
+                        entries = new ArrayList<>();
+                        sorted.put(value, entries);
+                    }
+                    entries.add(entry);
+                }
+            }
+            // Concurrent first uses may sort the same SKUs twice; either result is kept
+            NavigableMap<Double, List<Entry>> existing = entriesByCapability.putIfAbsent(key, sorted);
+            if (existing != null) {
+                sorted = existing;
+            }
+        }
+        return sorted;
+    }
+
+    private static void add(Map<String, List<Entry>> index, String key, Entry entry) {
+        List<Entry> entries = index.get(key);
+        if (entries == null) {
+            entries = new ArrayList<>();
+            index.put(key, entries);
+        }
+        entries.add(entry);
+    }
+
+    private static Collection<Entry> entriesOrEmpty(Map<String, List<Entry>> index, String key) {
+        List<Entry> entries = index.get(key);
+        return entries != null ? entries : Collections.<Entry>emptyList();
+    }
+
+    private static String key(String region, String resourceType) {
+        return region + "/" + resourceType;
+    }
+
+    private static String lowerCase(String value) {
+        return value.toLowerCase(Locale.ROOT);
+    }
+
+    // Locations are names or labels, normalized the same way as Region.fromName
+    private static String regionName(String location) {
+        return lowerCase(location).replace(" ", "");
+    }
+
+    /**
+     * A SKU with its regions, capabilities, zones and restrictions in lookup form.
+     */
+    private static final class Entry {
+        private final ComputeSku sku;
+        private final String name;
+        private final String resourceType;
+        private final Set<String> regions = new HashSet<>();
+        private final Map<String, String> capabilities = new HashMap<>();
+        private final Map<String, Double> numericCapabilities = new HashMap<>();
+        private final Set<String> zonalRegions = new HashSet<>();
+        private final Set<String> restrictedRegions = new HashSet<>();
+
+        private Entry(ComputeSku sku) {
+            ResourceSkuInner inner = sku.inner();
+            this.sku = sku;
+            this.name = inner.name() != null ? lowerCase(inner.name()) : ANY;
+            this.resourceType = inner.resourceType() != null ? lowerCase(inner.resourceType()) : ANY;
+            if (inner.locations() != null) {
+                for (String location : inner.locations()) {
+                    regions.add(regionName(location));
+                }
+            }
+            if (inner.capabilities() != null) {
+                for (ResourceSkuCapabilities capability : inner.capabilities()) {
+                    if (capability.name() != null && capability.value() != null) {
+                        String capabilityName = lowerCase(capability.name());
+                        capabilities.put(capabilityName, capability.value());
+                        try {
+                            numericCapabilities.put(capabilityName, Double.valueOf(capability.value()));
+                        } catch (NumberFormatException e) {
+                            // Not a numeric capability
+                        }
+                    }
+                }
+            }
+            if (inner.locationInfo() != null) {
+                for (ResourceSkuLocationInfo info : inner.locationInfo()) {
+                    if (info.location() != null && info.zones() != null && !info.zones().isEmpty()) {
+                        zonalRegions.add(regionName(info.location()));
+                    }
+                }
+            }
+            if (inner.restrictions() != null) {
+                for (ResourceSkuRestrictions restriction : inner.restrictions()) {
+                    // Zone restrictions leave the region usable without zones
+                    if (restriction.type() == ResourceSkuRestrictionsType.LOCATION && restriction.values() != null) {
+                        for (String location : restriction.values()) {
+                            restrictedRegions.add(regionName(location));
+                        }
+                    }
+                }
+            }
+        }
+
+        private Double numericCapability(String capabilityName) {
+            return numericCapabilities.get(capabilityName);
+        }
+
+        private boolean matches(ComputeSkuFilter filter, String region, String resourceType) {
+            if (!ANY.equals(region) && !regions.contains(region)) {
+                return false;
+            }
+            if (!ANY.equals(resourceType) && !resourceType.equals(this.resourceType)) {
+                return false;
+            }
+            for (Map.Entry<String, Double> minimum : filter.minimumCapabilities().entrySet()) {
+                Double value = numericCapabilities.get(minimum.getKey());
+                if (value == null || value < minimum.getValue()) {
+                    return false;
+                }
+            }
+            for (Map.Entry<String, Double> maximum : filter.maximumCapabilities().entrySet()) {
+                Double value = numericCapabilities.get(maximum.getKey());
+                if (value == null || value > maximum.getValue()) {
+                    return false;
+                }
+            }
+            for (Map.Entry<String, String> capability : filter.capabilities().entrySet()) {
+                String value = capabilities.get(capability.getKey());
+                if (value == null || !value.equalsIgnoreCase(capability.getValue())) {
+                    return false;
+                }
+            }
+            if (filter.availabilityZonesRequired()
+                    && (ANY.equals(region) ? zonalRegions.isEmpty() : !zonalRegions.contains(region))) {
+                return false;
+            }
+            if (filter.restrictionsExcluded()
+                    && (ANY.equals(region) ? !restrictedRegions.isEmpty() : restrictedRegions.contains(region))) {
+                return false;
+            }
+            return true;
+        }
+    }
+}
@@ -12,18 +12,26 @@ import com.microsoft.azure.PagedList;
 import com.microsoft.azure.management.apigeneration.LangDefinition;
 import com.microsoft.azure.management.compute.ComputeResourceType;
 import com.microsoft.azure.management.compute.ComputeSku;
+import com.microsoft.azure.management.compute.ComputeSkuFilter;
 import com.microsoft.azure.management.compute.ComputeSkus;
 import com.microsoft.azure.management.resources.fluentcore.arm.Region;
 import com.microsoft.azure.management.resources.fluentcore.arm.collection.implementation.ReadableWrappersImpl;
 import com.microsoft.rest.RestException;
 import rx.Observable;
+import rx.functions.Action1;
 import rx.functions.Func1;
 
 import java.io.IOException;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * The implementation for {@link ComputeSkus}.
+ * <p>
+ * The listings by region, by resource type and by filter are served from an index of the skus of the
+ * subscription, fetched once per time to live rather than once per listing. Concurrent listings share
+ * a single fetch.
  */
 @LangDefinition
 final class ComputeSkusImpl
@@ -32,6 +40,8 @@ final class ComputeSkusImpl
         implements
         ComputeSkus {
     private final ComputeManager manager;
+    private final AtomicReference<Observable<LoadedIndex>> index = new AtomicReference<>();
+    private volatile long indexTimeToLiveNanos = TimeUnit.MINUTES.toNanos(10);
 
     ComputeSkusImpl(ComputeManager computeManager) {
         this.manager = computeManager;
@@ -69,13 +79,7 @@ final class ComputeSkusImpl
 
     @Override
     public Observable<ComputeSku> listByRegionAsync(final Region region) {
-        return this.listAsync()
-                .filter(new Func1<ComputeSku, Boolean>() {
-                    @Override
-                    public Boolean call(ComputeSku computeSku) {
-                        return computeSku.regions() != null && computeSku.regions().contains(region);
-                    }
-                });
+        return this.listByFilterAsync(new ComputeSkuFilter().withRegion(region));
     }
 
     @Override
@@ -95,13 +99,7 @@ final class ComputeSkusImpl
 
     @Override
     public Observable<ComputeSku> listByResourceTypeAsync(final ComputeResourceType resourceType) {
-        return this.listAsync()
-                .filter(new Func1<ComputeSku, Boolean>() {
-                    @Override
-                    public Boolean call(ComputeSku computeSku) {
-                        return computeSku.resourceType() != null && computeSku.resourceType().equals(resourceType);
-                    }
-                });
+        return this.listByFilterAsync(new ComputeSkuFilter().withResourceType(resourceType));
     }
 
     @Override
@@ -111,16 +109,89 @@ final class ComputeSkusImpl
 
     @Override
     public Observable<ComputeSku> listbyRegionAndResourceTypeAsync(final Region region, final ComputeResourceType resourceType) {
-        return this.listAsync()
-                .filter(new Func1<ComputeSku, Boolean>() {
+        return this.listByFilterAsync(new ComputeSkuFilter().withRegion(region).withResourceType(resourceType));
+    }
+
+    @Override
+    public List<ComputeSku> listByFilter(ComputeSkuFilter filter) {
+        return this.indexAsync().toBlocking().last().list(filter);
+    }
+
+    @Override
+    public Observable<ComputeSku> listByFilterAsync(final ComputeSkuFilter filter) {
+        return this.indexAsync().flatMap(new Func1<ComputeSkuIndex, Observable<ComputeSku>>() {
+            @Override
+            public Observable<ComputeSku> call(ComputeSkuIndex index) {
+                return Observable.from(index.list(filter));
+            }
+        });
+    }
+
+    @Override
+    public ComputeSkus withIndexTimeToLive(long timeToLive, TimeUnit unit) {
+        this.indexTimeToLiveNanos = unit.toNanos(timeToLive);
+        this.index.set(null);
+        return this;
+    }
+
+    private Observable<ComputeSkuIndex> indexAsync() {
+        final Observable<LoadedIndex> current = index.get();
+        if (current != null) {
+            return current.flatMap(new Func1<LoadedIndex, Observable<ComputeSkuIndex>>() {
+                @Override
+                public Observable<ComputeSkuIndex> call(LoadedIndex loaded) {
+                    if (loaded.isExpired(indexTimeToLiveNanos)) {
+                        index.compareAndSet(current, null);
+                        return indexAsync();
+                    }
+                    return Observable.just(loaded.index);
+                }
+            });
+        }
+        final AtomicReference<Observable<LoadedIndex>> load = new AtomicReference<>();
+        load.set(this.listAsync()
+                .toList()
+                .map(new Func1<List<ComputeSku>, LoadedIndex>() {
+                    @Override
+                    public LoadedIndex call(List<ComputeSku> skus) {
+                        return new LoadedIndex(new ComputeSkuIndex(skus));
+                    }
+                })
+                .doOnError(new Action1<Throwable>() {
                     @Override
-                    public Boolean call(ComputeSku computeSku) {
-                        return computeSku.resourceType() != null
-                                && computeSku.resourceType().equals(resourceType)
-                                && computeSku.regions() != null
-                                && computeSku.regions().contains(region);
+                    public void call(Throwable throwable) {
+                        // Failed loads are not cached
+                        index.compareAndSet(load.get(), null);
                     }
-                });
+                })
+                .cache());
+        if (indexTimeToLiveNanos <= 0) {
+            return load.get().map(LoadedIndex.INDEX);
+        }
+        return index.compareAndSet(null, load.get()) ? load.get().map(LoadedIndex.INDEX) : indexAsync();
+    }
+
+    /**
+     * A sku index with the time it was loaded.
+     */
+    private static final class LoadedIndex {
+        private static final Func1<LoadedIndex, ComputeSkuIndex> INDEX = new Func1<LoadedIndex, ComputeSkuIndex>() {
+            @Override
+            public ComputeSkuIndex call(LoadedIndex loaded) {
+                return loaded.index;
+            }
+        };
+
+        private final ComputeSkuIndex index;
+        private final long loadedNanos = System.nanoTime();
+
+        private LoadedIndex(ComputeSkuIndex index) {
+            this.index = index;
+        }
+
+        private boolean isExpired(long timeToLiveNanos) {
+            return System.nanoTime() - loadedNanos > timeToLiveNanos;
+        }
     }
 
     /**
@@ -0,0 +1,80 @@
+/**
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for
+ * license information.
+ */
+package com.microsoft.azure.management.compute.implementation;
+
+import com.microsoft.azure.management.apigeneration.LangDefinition;
+import com.microsoft.azure.management.compute.InstanceOperationResult;
+import com.microsoft.azure.management.compute.RunCommandResult;
+
+/**
+ * The implementation of InstanceOperationResult.
+ */
+@LangDefinition
+class InstanceOperationResultImpl implements InstanceOperationResult {
+    private final String instanceId;
+    private final int batchIndex;
+    private final boolean skipped;
+    private final Throwable error;
+    private final long durationMillis;
+    private final RunCommandResult runCommandResult;
+
+    private InstanceOperationResultImpl(String instanceId, int batchIndex, boolean skipped, Throwable error,
+                                        long durationMillis, RunCommandResult runCommandResult) {
+        this.instanceId = instanceId;
+        this.batchIndex = batchIndex;
+        this.skipped = skipped;
+        this.error = error;
+        this.durationMillis = durationMillis;
+        this.runCommandResult = runCommandResult;
+    }
+
+    static InstanceOperationResult succeeded(String instanceId, int batchIndex, long durationMillis, RunCommandResult runCommandResult) {
+        return new InstanceOperationResultImpl(instanceId, batchIndex, false, null, durationMillis, runCommandResult);
+    }
+
+    static InstanceOperationResult failed(String instanceId, int batchIndex, long durationMillis, Throwable error) {
+        return new InstanceOperationResultImpl(instanceId, batchIndex, false, error, durationMillis, null);
+    }
+
+    static InstanceOperationResult skipped(String instanceId, int batchIndex) {
+        return new InstanceOperationResultImpl(instanceId, batchIndex, true, null, 0, null);
+    }
+
+    @Override
+    public String instanceId() {
+        return this.instanceId;
+    }
+
+    @Override
+    public int batchIndex() {
+        return this.batchIndex;
+    }
+
+    @Override
+    public boolean isSucceeded() {
+        return !this.skipped && this.error == null;
+    }
+
+    @Override
+    public boolean isSkipped() {
+        return this.skipped;
+    }
+
+    @Override
+    public Throwable error() {
+        return this.error;
+    }
+
+    @Override
+    public long durationMillis() {
+        return this.durationMillis;
+    }
+
+    @Override
+    public RunCommandResult runCommandResult() {
+        return this.runCommandResult;
+    }
+}
@@ -0,0 +1,243 @@
+/**
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for
+ * license information.
+ */
+package com.microsoft.azure.management.compute.implementation;
+
+import com.microsoft.azure.management.compute.InstanceOperationOptions;
+import com.microsoft.azure.management.compute.InstanceOperationResult;
+import com.microsoft.azure.management.compute.RunCommandResult;
+import com.microsoft.azure.management.resources.fluentcore.utils.SdkContext;
+import rx.Observable;
+import rx.functions.Func0;
+import rx.functions.Func1;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Rolls an operation out to instances of a virtual machine scale set, or to virtual machines, batch after batch.
+ * <p>
+ * Within a batch the instances are processed concurrently up to the maximum concurrency, and the next
+ * batch starts once all the instances of the batch are done and the pause has elapsed. The failures are
+ * counted across batches; once more instances than tolerated have failed, the instances of the remaining
+ * batches are reported as skipped without being processed.
+ * <p>
+ * An operation taking many instances at once, such as a scale set instance upgrade, is instead sent once
+ * per batch with the IDs of the batch, all the instances of the batch sharing its outcome.
+ */
+final class InstanceOperationRollout {
+    private final InstanceOperationOptions options;
+    private final Func1<String, Observable<RunCommandResult>> operation;
+    private final Func1<List<String>, Observable<Void>> batchOperation;
+    private final AtomicInteger failedInstances = new AtomicInteger();
+
+    private InstanceOperationRollout(InstanceOperationOptions options,
+                                     Func1<String, Observable<RunCommandResult>> operation,
+                                     Func1<List<String>, Observable<Void>> batchOperation) {
+        this.options = options != null ? options : new InstanceOperationOptions();
+        this.operation = operation;
+        this.batchOperation = batchOperation;
+    }
+
+    /**
+     * Rolls an operation out to instances.
+     *
+     * @param instanceIds the instance IDs, in the order of the batches
+     * @param options the settings of the rollout, may be null for the default settings
+     * @param operation the operation on an instance, emitting the result of the command for run command operations
+     * @return an observable emitting the result of each instance as soon as it is known
+     */
+    static Observable<InstanceOperationResult> rollOutAsync(Observable<String> instanceIds,
+                                                            final InstanceOperationOptions options,
+                                                            final Func1<String, Observable<RunCommandResult>> operation) {
+        return instanceIds.toList().flatMap(new Func1<List<String>, Observable<InstanceOperationResult>>() {
+            @Override
+            public Observable<InstanceOperationResult> call(List<String> ids) {
+                // A new rollout per subscriber, so that two runs do not share their failure count
+                return new InstanceOperationRollout(options, operation, null).rollOutAsync(ids);
+            }
+        });
+    }
+
+    /**
+     * Rolls an operation out to instances, sending it once per batch. The timeout per instance applies
+     * to the operation on the whole batch.
+     *
+     * @param instanceIds the instance IDs, in the order of the batches
+     * @param options the settings of the rollout, may be null for the default settings
+     * @param batchOperation the operation on the instances of a batch
+     * @return an observable emitting the result of each instance once its batch is done
+     */
+    static Observable<InstanceOperationResult> rollOutBatchesAsync(Observable<String> instanceIds,
+                                                                   final InstanceOperationOptions options,
+                                                                   final Func1<List<String>, Observable<Void>> batchOperation) {
+        return instanceIds.toList().flatMap(new Func1<List<String>, Observable<InstanceOperationResult>>() {
+            @Override
+            public Observable<InstanceOperationResult> call(List<String> ids) {
+                return new InstanceOperationRollout(options, null, batchOperation).rollOutAsync(ids);
+            }
+        });
+    }
+
+    /**
+     * Defaults the settings of a command run in many instances to a single batch, so that no instance
+     * waits for slower instances of a previous batch.
+     *
+     * @param options the settings of the rollout, may be null
+     * @return the settings, or a single batch of up to 10 concurrent instances if none
+     */
+    static InstanceOperationOptions singleBatchIfNull(InstanceOperationOptions options) {
+        return options != null ? options : new InstanceOperationOptions().withBatchSize(Integer.MAX_VALUE);
+    }
+
+    /**
+     * Adapts an operation completing without result.
+     *
+     * @param operation the operation on an instance
+     * @return the operation emitting a null command result
+     */
+    static Func1<String, Observable<RunCommandResult>> withoutResult(final Func1<String, Observable<Void>> operation) {
+        return new Func1<String, Observable<RunCommandResult>>() {
+            @Override
+            public Observable<RunCommandResult> call(String instanceId) {
+                return operation.call(instanceId).lastOrDefault(null).map(new Func1<Void, RunCommandResult>() {
+                    @Override
+                    public RunCommandResult call(Void aVoid) {
+                        return null;
+                    }
+                });
+            }
+        };
+    }
+
+    private Observable<InstanceOperationResult> rollOutAsync(List<String> instanceIds) {
+        final List<List<String>> batches = new ArrayList<>();
+        for (int i = 0; i < instanceIds.size(); i += options.batchSize()) {
+            batches.add(instanceIds.subList(i, i + Math.min(instanceIds.size() - i, options.batchSize())));
+        }
+        return Observable.range(0, batches.size())
+                .concatMap(new Func1<Integer, Observable<InstanceOperationResult>>() {
+                    @Override
+                    public Observable<InstanceOperationResult> call(final Integer batchIndex) {
+                        return batchAsync(batches.get(batchIndex), batchIndex);
+                    }
+                });
+    }
+
+    private Observable<InstanceOperationResult> batchAsync(final List<String> batch, final int batchIndex) {
+        // Deferred, since whether the batch runs depends on the failures of the batches before it
+        return Observable.defer(new Func0<Observable<InstanceOperationResult>>() {
+            @Override
+            public Observable<InstanceOperationResult> call() {
+                if (isFailureThresholdExceeded()) {
+                    return skipAsync(batch, batchIndex);
+                }
+                long pauseMillis = options.pauseBetweenBatchesMillis();
+                Observable<Integer> start = batchIndex > 0 && pauseMillis > 0
+                        ? SdkContext.delayedEmitAsync(batchIndex, (int) Math.min(Integer.MAX_VALUE, pauseMillis))
+                        : Observable.just(batchIndex);
+                return start.concatMap(new Func1<Integer, Observable<InstanceOperationResult>>() {
+                    @Override
+                    public Observable<InstanceOperationResult> call(Integer index) {
+                        if (isFailureThresholdExceeded()) {
+                            return skipAsync(batch, batchIndex);
+                        }
+                        if (batchOperation != null) {
+                            return wholeBatchAsync(batch, batchIndex);
+                        }
+                        return Observable.from(batch).flatMap(new Func1<String, Observable<InstanceOperationResult>>() {
+                            @Override
+                            public Observable<InstanceOperationResult> call(String instanceId) {
+                                return instanceAsync(instanceId, batchIndex);
+                            }
+                        }, options.maxConcurrency());
+                    }
+                });
+            }
+        });
+    }
+
+    private Observable<InstanceOperationResult> instanceAsync(final String instanceId, final int batchIndex) {
+        return Observable.defer(new Func0<Observable<InstanceOperationResult>>() {
+            @Override
+            public Observable<InstanceOperationResult> call() {
+                final long startNanos = System.nanoTime();
+                Observable<RunCommandResult> result = operation.call(instanceId).lastOrDefault(null);
+                if (options.timeoutPerInstanceMillis() > 0) {
+                    result = result.timeout(options.timeoutPerInstanceMillis(), TimeUnit.MILLISECONDS);
+                }
+                return result
+                        .map(new Func1<RunCommandResult, InstanceOperationResult>() {
+                            @Override
+                            public InstanceOperationResult call(RunCommandResult runCommandResult) {
+                                return InstanceOperationResultImpl.succeeded(instanceId, batchIndex, elapsedMillis(startNanos), runCommandResult);
+                            }
+                        })
+                        .onErrorReturn(new Func1<Throwable, InstanceOperationResult>() {
+                            @Override
+                            public InstanceOperationResult call(Throwable throwable) {
+                                failedInstances.incrementAndGet();
+                                return InstanceOperationResultImpl.failed(instanceId, batchIndex, elapsedMillis(startNanos), throwable);
+                            }
+                        });
+            }
+        });
+    }
+
+    private Observable<InstanceOperationResult> wholeBatchAsync(final List<String> batch, final int batchIndex) {
+        final long startNanos = System.nanoTime();
+        Observable<Void> result = batchOperation.call(batch).lastOrDefault(null);
+        if (options.timeoutPerInstanceMillis() > 0) {
+            result = result.timeout(options.timeoutPerInstanceMillis(), TimeUnit.MILLISECONDS);
+        }
+        return result
+                .map(new Func1<Void, Throwable>() {
+                    @Override
+                    public Throwable call(Void aVoid) {
+                        return null;
+                    }
+                })
+                .onErrorReturn(new Func1<Throwable, Throwable>() {
+                    @Override
+                    public Throwable call(Throwable throwable) {
+                        failedInstances.addAndGet(batch.size());
+                        return throwable;
+                    }
+                })
+                .concatMap(new Func1<Throwable, Observable<InstanceOperationResult>>() {
+                    @Override
+                    public Observable<InstanceOperationResult> call(final Throwable throwable) {
+                        final long elapsedMillis = elapsedMillis(startNanos);
+                        return Observable.from(batch).map(new Func1<String, InstanceOperationResult>() {
+                            @Override
+                            public InstanceOperationResult call(String instanceId) {
+                                return throwable == null
+                                        ? InstanceOperationResultImpl.succeeded(instanceId, batchIndex, elapsedMillis, null)
+                                        : InstanceOperationResultImpl.failed(instanceId, batchIndex, elapsedMillis, throwable);
+                            }
+                        });
+                    }
+                });
+    }
+
+    private Observable<InstanceOperationResult> skipAsync(List<String> batch, final int batchIndex) {
+        return Observable.from(batch).map(new Func1<String, InstanceOperationResult>() {
+            @Override
+            public InstanceOperationResult call(String instanceId) {
+                return InstanceOperationResultImpl.skipped(instanceId, batchIndex);
+            }
+        });
+    }
+
+    private boolean isFailureThresholdExceeded() {
+        return failedInstances.get() > options.maxFailedInstances();
+    }
+
+    private static long elapsedMillis(long startNanos) {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+    }
+}
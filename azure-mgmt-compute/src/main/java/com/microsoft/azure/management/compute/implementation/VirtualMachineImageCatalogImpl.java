@@ -0,0 +1,382 @@
+/**
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for
+ * license information.
+ */
+package com.microsoft.azure.management.compute.implementation;
+
+import com.microsoft.azure.management.apigeneration.LangDefinition;
+import com.microsoft.azure.management.compute.ImageReference;
+import com.microsoft.azure.management.compute.VirtualMachineImageCatalog;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * The implementation for {@link VirtualMachineImageCatalog}.
+ * <p>
+ * The SKUs are kept sorted by publisher, offer and SKU, ignoring case, so that the offers of a
+ * publisher and the SKUs of an offer are contiguous ranges of the index. The catalog is saved as a
+ * compact binary file, one record per SKU with its versions, read back in a single sequential pass.
+ */
+@LangDefinition
+class VirtualMachineImageCatalogImpl implements VirtualMachineImageCatalog {
+    private static final int FILE_MAGIC = 0x564d4943;
+    private static final int FILE_VERSION = 1;
+    private static final char SEPARATOR = '\u0000';
+
+    private final String region;
+    private final long publishersListedAtMillis;
+    private final Map<String, Publisher> publishers;
+    private final NavigableMap<String, Sku> skus;
+    private final List<String> failedPublishers;
+    private final int imageCount;
+
+    private VirtualMachineImageCatalogImpl(String region,
+                                           long publishersListedAtMillis,
+                                           Map<String, Publisher> publishers,
+                                           NavigableMap<String, Sku> skus,
+                                           List<String> failedPublishers) {
+        this.region = region;
+        this.publishersListedAtMillis = publishersListedAtMillis;
+        this.publishers = publishers;
+        this.skus = skus;
+        this.failedPublishers = failedPublishers;
+        int count = 0;
+        for (Sku sku : skus.values()) {
+            count += sku.versions.length;
+        }
+        this.imageCount = count;
+    }
+
+    static VirtualMachineImageCatalogImpl empty(String region) {
+        return new VirtualMachineImageCatalogImpl(region, 0, new HashMap<String, Publisher>(), new TreeMap<String, Sku>(),
+                Collections.<String>emptyList());
+    }
+
+    /**
+     * Reads a catalog saved by {@link #writeTo(File)}.
+     *
+     * @param file the catalog file
+     * @param region the name of the region of the catalog
+     * @return the catalog, or an empty catalog if the file does not exist, is of another region or is not readable
+     */
+    static VirtualMachineImageCatalogImpl readFrom(File file, String region) {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            if (in.readInt() != FILE_MAGIC || in.readInt() != FILE_VERSION || !in.readUTF().equalsIgnoreCase(region)) {
+                return empty(region);
+            }
+            long publishersListedAtMillis = in.readLong();
+            Map<String, Publisher> publishers = new HashMap<>();
+            for (int i = in.readInt(); i > 0; i--) {
+                Publisher publisher = new Publisher(in.readUTF(), in.readLong());
+                publishers.put(key(publisher.name), publisher);
+            }
+            NavigableMap<String, Sku> skus = new TreeMap<>();
+            for (int i = in.readInt(); i > 0; i--) {
+                String publisherName = in.readUTF();
+                String offerName = in.readUTF();
+                String skuName = in.readUTF();
+                String[] versions = new String[in.readInt()];
+                for (int j = 0; j < versions.length; j++) {
+                    versions[j] = in.readUTF();
+                }
+                Sku sku = new Sku(publisherName, offerName, skuName, versions);
+                skus.put(key(publisherName, offerName, skuName), sku);
+            }
+            return new VirtualMachineImageCatalogImpl(region, publishersListedAtMillis, publishers, skus,
+                    Collections.<String>emptyList());
+        } catch (FileNotFoundException e) {
+            return empty(region);
+        } catch (IOException e) {
+            // A truncated or corrupted cache is crawled again
+            return empty(region);
+        }
+    }
+
+    /**
+     * Saves the catalog, replacing the file only once the catalog is fully written.
+     *
+     * @param file the catalog file
+     * @throws IOException if the catalog cannot be written
+     */
+    void writeTo(File file) throws IOException {
+        File directory = file.getAbsoluteFile().getParentFile();
+        if (!directory.exists() && !directory.mkdirs()) {
+            throw new IOException("Cannot create the directory " + directory);
+        }
+        File temporaryFile = File.createTempFile(file.getName(), ".tmp", directory);
+        try {
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(temporaryFile)))) {
+                out.writeInt(FILE_MAGIC);
+                out.writeInt(FILE_VERSION);
+                out.writeUTF(region);
+                out.writeLong(publishersListedAtMillis);
+                out.writeInt(publishers.size());
+                for (Publisher publisher : publishers.values()) {
+                    out.writeUTF(publisher.name);
+                    out.writeLong(publisher.crawledAtMillis);
+                }
+                out.writeInt(skus.size());
+                for (Sku sku : skus.values()) {
+                    out.writeUTF(sku.publisherName);
+                    out.writeUTF(sku.offerName);
+                    out.writeUTF(sku.skuName);
+                    out.writeInt(sku.versions.length);
+                    for (String version : sku.versions) {
+                        out.writeUTF(version);
+                    }
+                }
+            }
+            Files.move(temporaryFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temporaryFile.toPath());
+        }
+    }
+
+    /**
+     * @param oldestMillis the time before which the publisher list is stale
+     * @return the publisher names of the region, or null if the region was not listed since the given time
+     */
+    List<String> publisherNamesListedSince(long oldestMillis) {
+        if (publishersListedAtMillis < oldestMillis) {
+            return null;
+        }
+        List<String> names = new ArrayList<>();
+        for (Publisher publisher : publishers.values()) {
+            names.add(publisher.name);
+        }
+        return names;
+    }
+
+    /**
+     * @param publisherName publisher name
+     * @param oldestMillis the time before which the images of a publisher are stale
+     * @return true if the images of the publisher were crawled since the given time
+     */
+    boolean isCrawledSince(String publisherName, long oldestMillis) {
+        Publisher publisher = publishers.get(key(publisherName));
+        return publisher != null && publisher.crawledAtMillis >= oldestMillis;
+    }
+
+    /**
+     * Creates a catalog with the images of publishers crawled again. The publishers failing to be crawled
+     * keep their images of this catalog, and are crawled again by the next load.
+     *
+     * @param listedPublisherNames all the publisher names of the region if just listed, null otherwise
+     * @param crawledPublisherNames the names of the publishers crawled again
+     * @param crawledSkus the SKUs of the publishers crawled again
+     * @param failedPublisherNames the names of the publishers failing to be crawled
+     * @param nowMillis the time of the crawl
+     * @return the new catalog
+     */
+    VirtualMachineImageCatalogImpl merge(List<String> listedPublisherNames,
+                                         Collection<String> crawledPublisherNames,
+                                         Collection<Sku> crawledSkus,
+                                         Collection<String> failedPublisherNames,
+                                         long nowMillis) {
+        Set<String> removed = new LinkedHashSet<>();
+        for (String publisherName : crawledPublisherNames) {
+            removed.add(key(publisherName));
+        }
+        if (listedPublisherNames != null) {
+            Set<String> listed = new LinkedHashSet<>();
+            for (String publisherName : listedPublisherNames) {
+                listed.add(key(publisherName));
+            }
+            for (String publisherKey : publishers.keySet()) {
+                if (!listed.contains(publisherKey)) {
+                    removed.add(publisherKey);
+                }
+            }
+        }
+
+        Map<String, Publisher> mergedPublishers = new HashMap<>(publishers);
+        NavigableMap<String, Sku> mergedSkus = new TreeMap<>(skus);
+        for (String publisherKey : removed) {
+            mergedPublishers.remove(publisherKey);
+            mergedSkus.subMap(publisherKey + SEPARATOR, publisherKey + (char) (SEPARATOR + 1)).clear();
+        }
+        for (String publisherName : crawledPublisherNames) {
+            mergedPublishers.put(key(publisherName), new Publisher(publisherName, nowMillis));
+        }
+        for (Sku sku : crawledSkus) {
+            mergedSkus.put(key(sku.publisherName, sku.offerName, sku.skuName), sku);
+        }
+        return new VirtualMachineImageCatalogImpl(region,
+                listedPublisherNames != null ? nowMillis : publishersListedAtMillis,
+                mergedPublishers,
+                mergedSkus,
+                Collections.unmodifiableList(new ArrayList<String>(failedPublisherNames)));
+    }
+
+    @Override
+    public String region() {
+        return region;
+    }
+
+    @Override
+    public int imageCount() {
+        return imageCount;
+    }
+
+    @Override
+    public List<String> failedPublishers() {
+        return failedPublishers;
+    }
+
+    @Override
+    public List<String> listOffers(String publisherName) {
+        Set<String> offers = new LinkedHashSet<>();
+        for (Sku sku : range(key(publisherName)).values()) {
+            offers.add(sku.offerName);
+        }
+        return new ArrayList<>(offers);
+    }
+
+    @Override
+    public List<String> listSkus(String publisherName, String offerName) {
+        List<String> names = new ArrayList<>();
+        for (Sku sku : range(key(publisherName, offerName)).values()) {
+            names.add(sku.skuName);
+        }
+        return names;
+    }
+
+    @Override
+    public List<String> listVersions(String publisherName, String offerName, String skuName) {
+        Sku sku = skus.get(key(publisherName, offerName, skuName));
+        return sku == null ? Collections.<String>emptyList() : Collections.unmodifiableList(Arrays.asList(sku.versions));
+    }
+
+    @Override
+    public ImageReference getLatestImage(String publisherName, String offerName, String skuName) {
+        Sku sku = skus.get(key(publisherName, offerName, skuName));
+        if (sku == null || sku.versions.length == 0) {
+            return null;
+        }
+        return new ImageReference()
+                .withPublisher(sku.publisherName)
+                .withOffer(sku.offerName)
+                .withSku(sku.skuName)
+                .withVersion(sku.versions[0]);
+    }
+
+    private NavigableMap<String, Sku> range(String prefix) {
+        return skus.subMap(prefix + SEPARATOR, true, prefix + (char) (SEPARATOR + 1), false);
+    }
+
+    private static String key(String... names) {
+        StringBuilder key = new StringBuilder();
+        for (String name : names) {
+            if (key.length() > 0) {
+                key.append(SEPARATOR);
+            }
+            key.append(name.toLowerCase(Locale.ROOT));
+        }
+        return key.toString();
+    }
+
+    /**
+     * A publisher of the catalog, with the time its images were crawled.
+     */
+    private static final class Publisher {
+        private final String name;
+        private final long crawledAtMillis;
+
+        private Publisher(String name, long crawledAtMillis) {
+            this.name = name;
+            this.crawledAtMillis = crawledAtMillis;
+        }
+    }
+
+    /**
+     * A SKU of the catalog, with its image versions latest first.
+     */
+    static final class Sku {
+        private final String publisherName;
+        private final String offerName;
+        private final String skuName;
+        private final String[] versions;
+
+        Sku(String publisherName, String offerName, String skuName, Collection<String> versions) {
+            this(publisherName, offerName, skuName, versions.toArray(new String[versions.size()]));
+            Arrays.sort(this.versions, Collections.reverseOrder(VERSION_ORDER));
+        }
+
+        private Sku(String publisherName, String offerName, String skuName, String[] versions) {
+            this.publisherName = publisherName;
+            this.offerName = offerName;
+            this.skuName = skuName;
+            this.versions = versions;
+        }
+
+        String publisherName() {
+            return publisherName;
+        }
+    }
+
+    /**
+     * Orders versions by their numeric parts, so that 18.04.202001010 comes after 18.04.201912180 and 10.0 after 9.0.
+     */
+    static final Comparator<String> VERSION_ORDER = new Comparator<String>() {
+        @Override
+        public int compare(String left, String right) {
+            String[] leftParts = left.split("\\.");
+            String[] rightParts = right.split("\\.");
+            for (int i = 0; i < Math.min(leftParts.length, rightParts.length); i++) {
+                int result = compareParts(leftParts[i], rightParts[i]);
+                if (result != 0) {
+                    return result;
+                }
+            }
+            return Integer.compare(leftParts.length, rightParts.length);
+        }
+
+        private int compareParts(String left, String right) {
+            if (isNumber(left) && isNumber(right)) {
+                String leftDigits = left.replaceFirst("^0+(?=.)", "");
+                String rightDigits = right.replaceFirst("^0+(?=.)", "");
+                if (leftDigits.length() != rightDigits.length()) {
+                    return Integer.compare(leftDigits.length(), rightDigits.length());
+                }
+                return leftDigits.compareTo(rightDigits);
+            }
+            return left.compareToIgnoreCase(right);
+        }
+
+        private boolean isNumber(String part) {
+            if (part.isEmpty()) {
+                return false;
+            }
+            for (int i = 0; i < part.length(); i++) {
+                if (!Character.isDigit(part.charAt(i))) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    };
+}
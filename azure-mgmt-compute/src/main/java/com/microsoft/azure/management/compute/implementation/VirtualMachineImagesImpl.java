@@ -8,6 +8,8 @@ package com.microsoft.azure.management.compute.implementation;
 import com.microsoft.azure.PagedList;
 import com.microsoft.azure.management.apigeneration.LangDefinition;
 import com.microsoft.azure.management.compute.VirtualMachineImage;
+import com.microsoft.azure.management.compute.VirtualMachineImageCatalog;
+import com.microsoft.azure.management.compute.VirtualMachineImageCatalogOptions;
 import com.microsoft.azure.management.compute.VirtualMachineImages;
 import com.microsoft.azure.management.compute.VirtualMachineOffer;
 import com.microsoft.azure.management.compute.VirtualMachinePublisher;
@@ -15,9 +17,16 @@ import com.microsoft.azure.management.compute.VirtualMachinePublishers;
 import com.microsoft.azure.management.compute.VirtualMachineSku;
 import com.microsoft.azure.management.resources.fluentcore.arm.Region;
 import rx.Observable;
+import rx.exceptions.Exceptions;
+import rx.functions.Func0;
 import rx.functions.Func1;
 
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * The implementation for {@link VirtualMachineImages}.
@@ -129,6 +138,172 @@ class VirtualMachineImagesImpl
                 });
     }
 
+    @Override
+    public VirtualMachineImageCatalog loadCatalog(String regionName, VirtualMachineImageCatalogOptions options) {
+        return loadCatalogAsync(regionName, options).toBlocking().last();
+    }
+
+    @Override
+    public Observable<VirtualMachineImageCatalog> loadCatalogAsync(final String regionName, VirtualMachineImageCatalogOptions options) {
+        final VirtualMachineImageCatalogOptions catalogOptions = options != null ? options : new VirtualMachineImageCatalogOptions();
+        return Observable.defer(new Func0<Observable<VirtualMachineImageCatalog>>() {
+            @Override
+            public Observable<VirtualMachineImageCatalog> call() {
+                final long nowMillis = System.currentTimeMillis();
+                final long oldestMillis = nowMillis - catalogOptions.maxAgeMillis();
+                final VirtualMachineImageCatalogImpl cached = catalogOptions.cacheFile() != null
+                        ? VirtualMachineImageCatalogImpl.readFrom(catalogOptions.cacheFile(), regionName)
+                        : VirtualMachineImageCatalogImpl.empty(regionName);
+
+                // The publishers of the region are listed again only once the cached list is stale
+                final List<String> cachedPublisherNames = cached.publisherNamesListedSince(oldestMillis);
+                final boolean publishersListed = catalogOptions.publishers().isEmpty() && cachedPublisherNames == null;
+                final Observable<List<String>> listedPublisherNames;
+                if (!catalogOptions.publishers().isEmpty()) {
+                    listedPublisherNames = Observable.just(catalogOptions.publishers());
+                } else if (!publishersListed) {
+                    listedPublisherNames = Observable.just(cachedPublisherNames);
+                } else {
+                    listedPublisherNames = client.listPublishersAsync(regionName).map(new Func1<List<VirtualMachineImageResourceInner>, List<String>>() {
+                        @Override
+                        public List<String> call(List<VirtualMachineImageResourceInner> inners) {
+                            return names(inners);
+                        }
+                    });
+                }
+
+                return listedPublisherNames.flatMap(new Func1<List<String>, Observable<VirtualMachineImageCatalog>>() {
+                    @Override
+                    public Observable<VirtualMachineImageCatalog> call(final List<String> publisherNames) {
+                        final List<String> stalePublisherNames = new ArrayList<>();
+                        for (String publisherName : publisherNames) {
+                            if (!cached.isCrawledSince(publisherName, oldestMillis)) {
+                                stalePublisherNames.add(publisherName);
+                            }
+                        }
+                        if (stalePublisherNames.isEmpty() && !publishersListed) {
+                            return Observable.<VirtualMachineImageCatalog>just(cached);
+                        }
+                        final Set<String> failedPublisherNames = Collections.newSetFromMap(new ConcurrentHashMap<String, Boolean>());
+                        return crawlAsync(regionName, stalePublisherNames, catalogOptions.maxConcurrency(), failedPublisherNames)
+                                .toList()
+                                .map(new Func1<List<VirtualMachineImageCatalogImpl.Sku>, VirtualMachineImageCatalog>() {
+                                    @Override
+                                    public VirtualMachineImageCatalog call(List<VirtualMachineImageCatalogImpl.Sku> skus) {
+                                        // A failed publisher keeps its cached images rather than the part of them crawled
+                                        List<String> crawledPublisherNames = new ArrayList<>();
+                                        List<String> failed = new ArrayList<>();
+                                        for (String publisherName : stalePublisherNames) {
+                                            if (failedPublisherNames.contains(publisherName)) {
+                                                failed.add(publisherName);
+                                            } else {
+                                                crawledPublisherNames.add(publisherName);
+                                            }
+                                        }
+                                        List<VirtualMachineImageCatalogImpl.Sku> crawledSkus = new ArrayList<>();
+                                        for (VirtualMachineImageCatalogImpl.Sku sku : skus) {
+                                            if (!failedPublisherNames.contains(sku.publisherName())) {
+                                                crawledSkus.add(sku);
+                                            }
+                                        }
+                                        VirtualMachineImageCatalogImpl catalog = cached.merge(publishersListed ? publisherNames : null,
+                                                crawledPublisherNames, crawledSkus, failed, nowMillis);
+                                        if (catalogOptions.cacheFile() != null) {
+                                            try {
+                                                catalog.writeTo(catalogOptions.cacheFile());
+                                            } catch (IOException e) {
+                                                throw Exceptions.propagate(e);
+                                            }
+                                        }
+                                        return catalog;
+                                    }
+                                });
+                    }
+                });
+            }
+        });
+    }
+
+    /**
+     * Crawls the offers, SKUs and image versions of publishers, each level running up to a
+     * maximum number of requests at once rather than one publisher, offer or SKU after the other.
+     * A failed request does not fail the crawl, its publisher being added to the failed publishers.
+     */
+    private Observable<VirtualMachineImageCatalogImpl.Sku> crawlAsync(final String regionName,
+                                                                      List<String> publisherNames,
+                                                                      int maxConcurrency,
+                                                                      final Set<String> failedPublisherNames) {
+        return Observable.from(publisherNames)
+                .flatMap(new Func1<String, Observable<String[]>>() {
+                    @Override
+                    public Observable<String[]> call(final String publisherName) {
+                        return client.listOffersAsync(regionName, publisherName)
+                                .flatMap(new Func1<List<VirtualMachineImageResourceInner>, Observable<String[]>>() {
+                                    @Override
+                                    public Observable<String[]> call(List<VirtualMachineImageResourceInner> offers) {
+                                        List<String[]> paths = new ArrayList<>();
+                                        for (String offerName : names(offers)) {
+                                            paths.add(new String[] {publisherName, offerName});
+                                        }
+                                        return Observable.from(paths);
+                                    }
+                                })
+                                .onErrorResumeNext(VirtualMachineImagesImpl.<String[]>failed(publisherName, failedPublisherNames));
+                    }
+                }, maxConcurrency)
+                .flatMap(new Func1<String[], Observable<String[]>>() {
+                    @Override
+                    public Observable<String[]> call(final String[] offerPath) {
+                        return client.listSkusAsync(regionName, offerPath[0], offerPath[1])
+                                .flatMap(new Func1<List<VirtualMachineImageResourceInner>, Observable<String[]>>() {
+                                    @Override
+                                    public Observable<String[]> call(List<VirtualMachineImageResourceInner> skus) {
+                                        List<String[]> paths = new ArrayList<>();
+                                        for (String skuName : names(skus)) {
+                                            paths.add(new String[] {offerPath[0], offerPath[1], skuName});
+                                        }
+                                        return Observable.from(paths);
+                                    }
+                                })
+                                .onErrorResumeNext(VirtualMachineImagesImpl.<String[]>failed(offerPath[0], failedPublisherNames));
+                    }
+                }, maxConcurrency)
+                .flatMap(new Func1<String[], Observable<VirtualMachineImageCatalogImpl.Sku>>() {
+                    @Override
+                    public Observable<VirtualMachineImageCatalogImpl.Sku> call(final String[] skuPath) {
+                        return client.listAsync(regionName, skuPath[0], skuPath[1], skuPath[2])
+                                .map(new Func1<List<VirtualMachineImageResourceInner>, VirtualMachineImageCatalogImpl.Sku>() {
+                                    @Override
+                                    public VirtualMachineImageCatalogImpl.Sku call(List<VirtualMachineImageResourceInner> images) {
+                                        return new VirtualMachineImageCatalogImpl.Sku(skuPath[0], skuPath[1], skuPath[2], names(images));
+                                    }
+                                })
+                                .onErrorResumeNext(VirtualMachineImagesImpl.<VirtualMachineImageCatalogImpl.Sku>failed(skuPath[0], failedPublisherNames));
+                    }
+                }, maxConcurrency);
+    }
+
+    private static <T> Func1<Throwable, Observable<T>> failed(final String publisherName,
+                                                              final Set<String> failedPublisherNames) {
+        return new Func1<Throwable, Observable<T>>() {
+            @Override
+            public Observable<T> call(Throwable throwable) {
+                failedPublisherNames.add(publisherName);
+                return Observable.<T>empty();
+            }
+        };
+    }
+
+    private static List<String> names(List<VirtualMachineImageResourceInner> inners) {
+        List<String> names = new ArrayList<>();
+        if (inners != null) {
+            for (VirtualMachineImageResourceInner inner : inners) {
+                names.add(inner.name());
+            }
+        }
+        return names;
+    }
+
     @Override
     public VirtualMachinePublishers publishers() {
         return this.publishers;
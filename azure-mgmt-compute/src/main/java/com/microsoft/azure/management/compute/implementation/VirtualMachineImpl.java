@@ -1682,6 +1682,15 @@ class VirtualMachineImpl
         return PowerState.fromInstanceView(this.instanceView());
     }
 
+    /**
+     * Sets the instance view fetched along with the model, e.g. by a bulk listing.
+     *
+     * @param instanceView the instance view
+     */
+    void setInstanceView(VirtualMachineInstanceView instanceView) {
+        this.virtualMachineInstanceView = instanceView;
+    }
+
     @Override
     public boolean isBootDiagnosticsEnabled() {
         return this.bootDiagnosticsHandler.isBootDiagnosticsEnabled();
@@ -7,6 +7,10 @@ package com.microsoft.azure.management.compute.implementation;
 
 import com.microsoft.azure.PagedList;
 import com.microsoft.azure.management.apigeneration.LangDefinition;
+import com.microsoft.azure.management.compute.InstanceOperationOptions;
+import com.microsoft.azure.management.compute.InstanceOperationResult;
+import com.microsoft.azure.management.compute.RunCommandInput;
+import com.microsoft.azure.management.compute.RunCommandResult;
 import com.microsoft.azure.management.compute.VirtualMachineScaleSetVM;
 import com.microsoft.azure.management.compute.VirtualMachineScaleSetVMs;
 import com.microsoft.azure.management.resources.fluentcore.arm.collection.implementation.ReadableWrappersImpl;
@@ -127,4 +131,104 @@ class VirtualMachineScaleSetVMsImpl
     public void updateInstances(String... instanceIds) {
         this.updateInstancesAsync(instanceIds).await();
     }
+
+    @Override
+    public Observable<InstanceOperationResult> restartInstancesAsync(InstanceOperationOptions options, String... instanceIds) {
+        return this.rollOutAsync(options, instanceIds, InstanceOperationRollout.withoutResult(new Func1<String, Observable<Void>>() {
+            @Override
+            public Observable<Void> call(String instanceId) {
+                return client.restartAsync(scaleSet.resourceGroupName(), scaleSet.name(), instanceId);
+            }
+        }));
+    }
+
+    @Override
+    public Observable<InstanceOperationResult> reimageInstancesAsync(InstanceOperationOptions options, String... instanceIds) {
+        return this.rollOutAsync(options, instanceIds, InstanceOperationRollout.withoutResult(new Func1<String, Observable<Void>>() {
+            @Override
+            public Observable<Void> call(String instanceId) {
+                return client.reimageAsync(scaleSet.resourceGroupName(), scaleSet.name(), instanceId);
+            }
+        }));
+    }
+
+    @Override
+    public Observable<InstanceOperationResult> deallocateInstancesAsync(InstanceOperationOptions options, String... instanceIds) {
+        return this.rollOutAsync(options, instanceIds, InstanceOperationRollout.withoutResult(new Func1<String, Observable<Void>>() {
+            @Override
+            public Observable<Void> call(String instanceId) {
+                return client.deallocateAsync(scaleSet.resourceGroupName(), scaleSet.name(), instanceId);
+            }
+        }));
+    }
+
+    @Override
+    public Observable<InstanceOperationResult> powerOffInstancesAsync(InstanceOperationOptions options, String... instanceIds) {
+        return this.rollOutAsync(options, instanceIds, InstanceOperationRollout.withoutResult(new Func1<String, Observable<Void>>() {
+            @Override
+            public Observable<Void> call(String instanceId) {
+                return client.powerOffAsync(scaleSet.resourceGroupName(), scaleSet.name(), instanceId);
+            }
+        }));
+    }
+
+    @Override
+    public Observable<InstanceOperationResult> startInstancesAsync(InstanceOperationOptions options, String... instanceIds) {
+        return this.rollOutAsync(options, instanceIds, InstanceOperationRollout.withoutResult(new Func1<String, Observable<Void>>() {
+            @Override
+            public Observable<Void> call(String instanceId) {
+                return client.startAsync(scaleSet.resourceGroupName(), scaleSet.name(), instanceId);
+            }
+        }));
+    }
+
+    @Override
+    public Observable<InstanceOperationResult> upgradeInstancesAsync(InstanceOperationOptions options, String... instanceIds) {
+        final VirtualMachineScaleSetsInner scaleSetInnerManager = this.scaleSet.manager().virtualMachineScaleSets().inner();
+        // A single upgrade call per batch, rather than one call per instance
+        return InstanceOperationRollout.rollOutBatchesAsync(this.instanceIdsAsync(instanceIds), options,
+                new Func1<List<String>, Observable<Void>>() {
+                    @Override
+                    public Observable<Void> call(List<String> batch) {
+                        return scaleSetInnerManager.updateInstancesAsync(scaleSet.resourceGroupName(), scaleSet.name(),
+                                new ArrayList<String>(batch));
+                    }
+                });
+    }
+
+    @Override
+    public Observable<InstanceOperationResult> runCommandInInstancesAsync(final RunCommandInput inputCommand,
+                                                                          InstanceOperationOptions options,
+                                                                          String... instanceIds) {
+        return this.rollOutAsync(options, instanceIds, new Func1<String, Observable<RunCommandResult>>() {
+            @Override
+            public Observable<RunCommandResult> call(String instanceId) {
+                return client.runCommandAsync(scaleSet.resourceGroupName(), scaleSet.name(), instanceId, inputCommand)
+                        .map(new Func1<RunCommandResultInner, RunCommandResult>() {
+                            @Override
+                            public RunCommandResult call(RunCommandResultInner inner) {
+                                return new RunCommandResultImpl(inner);
+                            }
+                        });
+            }
+        });
+    }
+
+    private Observable<InstanceOperationResult> rollOutAsync(InstanceOperationOptions options,
+                                                             String[] instanceIds,
+                                                             Func1<String, Observable<RunCommandResult>> operation) {
+        return InstanceOperationRollout.rollOutAsync(this.instanceIdsAsync(instanceIds), options, operation);
+    }
+
+    private Observable<String> instanceIdsAsync(String[] instanceIds) {
+        if (instanceIds != null && instanceIds.length > 0) {
+            return Observable.from(instanceIds);
+        }
+        return this.listAsync().map(new Func1<VirtualMachineScaleSetVM, String>() {
+            @Override
+            public String call(VirtualMachineScaleSetVM instance) {
+                return instance.instanceId();
+            }
+        });
+    }
 }
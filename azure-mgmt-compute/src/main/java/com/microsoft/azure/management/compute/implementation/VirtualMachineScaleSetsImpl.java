@@ -6,6 +6,8 @@
 package com.microsoft.azure.management.compute.implementation;
 
 import com.microsoft.azure.management.apigeneration.LangDefinition;
+import com.microsoft.azure.management.compute.InstanceOperationOptions;
+import com.microsoft.azure.management.compute.InstanceOperationResult;
 import com.microsoft.azure.management.compute.RunCommandInput;
 import com.microsoft.azure.management.compute.RunCommandInputParameter;
 import com.microsoft.azure.management.compute.RunCommandResult;
@@ -29,6 +31,7 @@ import rx.Observable;
 import rx.functions.Func1;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -179,6 +182,36 @@ public class VirtualMachineScaleSetsImpl
         );
     }
 
+    @Override
+    public Observable<InstanceOperationResult> runPowerShellScriptInVMInstancesAsync(String groupName, String scaleSetName, Collection<String> vmIds, List<String> scriptLines, List<RunCommandInputParameter> scriptParameters, InstanceOperationOptions options) {
+        RunCommandInput inputCommand = new RunCommandInput();
+        inputCommand.withCommandId("RunPowerShellScript");
+        inputCommand.withScript(scriptLines);
+        inputCommand.withParameters(scriptParameters);
+        return this.runCommandInVMInstancesAsync(groupName, scaleSetName, vmIds, inputCommand, options);
+    }
+
+    @Override
+    public Observable<InstanceOperationResult> runShellScriptInVMInstancesAsync(String groupName, String scaleSetName, Collection<String> vmIds, List<String> scriptLines, List<RunCommandInputParameter> scriptParameters, InstanceOperationOptions options) {
+        RunCommandInput inputCommand = new RunCommandInput();
+        inputCommand.withCommandId("RunShellScript");
+        inputCommand.withScript(scriptLines);
+        inputCommand.withParameters(scriptParameters);
+        return this.runCommandInVMInstancesAsync(groupName, scaleSetName, vmIds, inputCommand, options);
+    }
+
+    @Override
+    public Observable<InstanceOperationResult> runCommandInVMInstancesAsync(final String groupName, final String scaleSetName, Collection<String> vmIds, final RunCommandInput inputCommand, InstanceOperationOptions options) {
+        return InstanceOperationRollout.rollOutAsync(Observable.from(vmIds),
+                InstanceOperationRollout.singleBatchIfNull(options),
+                new Func1<String, Observable<RunCommandResult>>() {
+                    @Override
+                    public Observable<RunCommandResult> call(String vmId) {
+                        return runCommandVMInstanceAsync(groupName, scaleSetName, vmId, inputCommand);
+                    }
+                });
+    }
+
     @Override
     public VirtualMachineScaleSetImpl define(String name) {
         return wrapModel(name);
@@ -10,10 +10,13 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.microsoft.azure.management.apigeneration.LangDefinition;
 import com.microsoft.azure.management.compute.DataDisk;
 import com.microsoft.azure.management.compute.HardwareProfile;
+import com.microsoft.azure.management.compute.InstanceOperationOptions;
+import com.microsoft.azure.management.compute.InstanceOperationResult;
 import com.microsoft.azure.management.compute.NetworkInterfaceReference;
 import com.microsoft.azure.management.compute.NetworkProfile;
 import com.microsoft.azure.management.compute.OSDisk;
 import com.microsoft.azure.management.compute.OSProfile;
+import com.microsoft.azure.management.compute.PowerState;
 import com.microsoft.azure.management.compute.RunCommandInput;
 import com.microsoft.azure.management.compute.RunCommandInputParameter;
 import com.microsoft.azure.management.compute.RunCommandResult;
@@ -24,17 +27,26 @@ import com.microsoft.azure.management.compute.VirtualMachineSizes;
 import com.microsoft.azure.management.compute.VirtualMachines;
 import com.microsoft.azure.management.graphrbac.implementation.GraphRbacManager;
 import com.microsoft.azure.management.network.implementation.NetworkManager;
+import com.microsoft.azure.management.resources.fluentcore.arm.ResourceUtils;
 import com.microsoft.azure.management.resources.fluentcore.arm.collection.implementation.TopLevelModifiableResourcesImpl;
+import com.microsoft.azure.management.resources.fluentcore.arm.models.ResourceView;
+import com.microsoft.azure.management.resources.fluentcore.utils.StreamingListReader;
 import com.microsoft.azure.management.storage.implementation.StorageManager;
 import com.microsoft.rest.ServiceCallback;
 import com.microsoft.rest.ServiceFuture;
+import okhttp3.HttpUrl;
 import rx.Completable;
 import rx.Observable;
 import rx.exceptions.Exceptions;
+import rx.functions.Action2;
+import rx.functions.Func0;
 import rx.functions.Func1;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
 
 /**
  * The implementation for VirtualMachines.
@@ -48,6 +60,16 @@ class VirtualMachinesImpl
         VirtualMachinesInner,
         ComputeManager>
         implements VirtualMachines {
+    /**
+     * The API version VirtualMachinesInner lists virtual machines with, kept in step with the generated client.
+     */
+    static final String LIST_API_VERSION = "2019-03-01";
+    /**
+     * The API version the instance views are listed with, the first one supporting the statusOnly listing
+     * of the virtual machines of a subscription.
+     */
+    static final String STATUS_LIST_API_VERSION = "2020-06-01";
+
     private final StorageManager storageManager;
     private final NetworkManager networkManager;
     private final GraphRbacManager rbacManager;
@@ -259,6 +281,105 @@ class VirtualMachinesImpl
         );
     }
 
+    @Override
+    public Observable<InstanceOperationResult> runPowerShellScriptInVMsAsync(Collection<String> ids, List<String> scriptLines, List<RunCommandInputParameter> scriptParameters, InstanceOperationOptions options) {
+        RunCommandInput inputCommand = new RunCommandInput();
+        inputCommand.withCommandId("RunPowerShellScript");
+        inputCommand.withScript(scriptLines);
+        inputCommand.withParameters(scriptParameters);
+        return this.runCommandInVMsAsync(ids, inputCommand, options);
+    }
+
+    @Override
+    public Observable<InstanceOperationResult> runShellScriptInVMsAsync(Collection<String> ids, List<String> scriptLines, List<RunCommandInputParameter> scriptParameters, InstanceOperationOptions options) {
+        RunCommandInput inputCommand = new RunCommandInput();
+        inputCommand.withCommandId("RunShellScript");
+        inputCommand.withScript(scriptLines);
+        inputCommand.withParameters(scriptParameters);
+        return this.runCommandInVMsAsync(ids, inputCommand, options);
+    }
+
+    @Override
+    public Observable<InstanceOperationResult> runCommandInVMsAsync(Collection<String> ids, final RunCommandInput inputCommand, InstanceOperationOptions options) {
+        for (String id : ids) {
+            // The commands are run through the client of this subscription, whatever the ID says
+            if (!this.manager().subscriptionId().equalsIgnoreCase(ResourceUtils.subscriptionFromResourceId(id))) {
+                throw new IllegalArgumentException("Virtual machine " + id + " is not in subscription "
+                        + this.manager().subscriptionId());
+            }
+        }
+        return InstanceOperationRollout.rollOutAsync(Observable.from(ids),
+                InstanceOperationRollout.singleBatchIfNull(options),
+                new Func1<String, Observable<RunCommandResult>>() {
+                    @Override
+                    public Observable<RunCommandResult> call(String id) {
+                        return runCommandAsync(ResourceUtils.groupFromResourceId(id), ResourceUtils.nameFromResourceId(id), inputCommand);
+                    }
+                });
+    }
+
+    @Override
+    public List<ResourceView> listViews(String... propertyPaths) {
+        return this.listViewsAsync(propertyPaths).toList().toBlocking().single();
+    }
+
+    @Override
+    public Observable<ResourceView> listViewsAsync(String... propertyPaths) {
+        String url = this.listUrlBuilder(null, LIST_API_VERSION).build().toString();
+        return StreamingListReader.listViewsAsync(this.manager().inner().restClient().retrofit(), url, propertyPaths);
+    }
+
+    @Override
+    public List<ResourceView> listViewsByResourceGroup(String resourceGroupName, String... propertyPaths) {
+        return this.listViewsByResourceGroupAsync(resourceGroupName, propertyPaths).toList().toBlocking().single();
+    }
+
+    @Override
+    public Observable<ResourceView> listViewsByResourceGroupAsync(String resourceGroupName, String... propertyPaths) {
+        String url = this.listUrlBuilder(resourceGroupName, LIST_API_VERSION).build().toString();
+        return StreamingListReader.listViewsAsync(this.manager().inner().restClient().retrofit(), url, propertyPaths);
+    }
+
+    @Override
+    public List<VirtualMachine> listWithInstanceViews() {
+        return this.listWithInstanceViewsAsync().toList().toBlocking().single();
+    }
+
+    @Override
+    public Observable<VirtualMachine> listWithInstanceViewsAsync() {
+        return this.listWithInstanceViewsAsync(null);
+    }
+
+    @Override
+    public List<VirtualMachine> listWithInstanceViewsByResourceGroup(String resourceGroupName) {
+        return this.listWithInstanceViewsByResourceGroupAsync(resourceGroupName).toList().toBlocking().single();
+    }
+
+    @Override
+    public Observable<VirtualMachine> listWithInstanceViewsByResourceGroupAsync(String resourceGroupName) {
+        return this.listWithInstanceViewsAsync(resourceGroupName);
+    }
+
+    @Override
+    public Map<String, PowerState> listPowerStates() {
+        return this.listPowerStatesAsync().toBlocking().single();
+    }
+
+    @Override
+    public Observable<Map<String, PowerState>> listPowerStatesAsync() {
+        return this.listPowerStatesAsync(null);
+    }
+
+    @Override
+    public Map<String, PowerState> listPowerStatesByResourceGroup(String resourceGroupName) {
+        return this.listPowerStatesByResourceGroupAsync(resourceGroupName).toBlocking().single();
+    }
+
+    @Override
+    public Observable<Map<String, PowerState>> listPowerStatesByResourceGroupAsync(String resourceGroupName) {
+        return this.listPowerStatesAsync(resourceGroupName);
+    }
+
     // Getters
     @Override
     public VirtualMachineSizes sizes() {
@@ -268,6 +389,92 @@ class VirtualMachinesImpl
 
     // Helper methods
 
+    /**
+     * Builds the URL listing the virtual machines of the subscription, or of a resource group,
+     * the path segments being encoded.
+     */
+    private HttpUrl.Builder listUrlBuilder(String resourceGroupName, String apiVersion) {
+        HttpUrl.Builder builder = this.manager().inner().restClient().retrofit().baseUrl().newBuilder()
+                .addPathSegment("subscriptions")
+                .addPathSegment(this.manager().subscriptionId());
+        if (resourceGroupName != null) {
+            builder.addPathSegment("resourceGroups")
+                    .addPathSegment(resourceGroupName);
+        }
+        return builder.addPathSegments("providers/Microsoft.Compute/virtualMachines")
+                .addQueryParameter("api-version", apiVersion);
+    }
+
+    private Observable<VirtualMachine> listWithInstanceViewsAsync(String resourceGroupName) {
+        final String url = this.listUrlBuilder(resourceGroupName, LIST_API_VERSION).build().toString();
+        // The models and the instance views are read by two paged lists, joined by virtual machine ID
+        return this.listInstanceViewsAsync(resourceGroupName)
+                .flatMap(new Func1<Map<String, VirtualMachineInstanceViewInner>, Observable<VirtualMachine>>() {
+                    @Override
+                    public Observable<VirtualMachine> call(final Map<String, VirtualMachineInstanceViewInner> instanceViews) {
+                        return StreamingListReader.listAsync(manager().inner().restClient().retrofit(), url, VirtualMachineInner.class)
+                                .map(new Func1<VirtualMachineInner, VirtualMachine>() {
+                                    @Override
+                                    public VirtualMachine call(VirtualMachineInner virtualMachineInner) {
+                                        VirtualMachineImpl virtualMachine = wrapModel(virtualMachineInner);
+                                        VirtualMachineInstanceViewInner instanceView = instanceViews.get(virtualMachineInner.id());
+                                        if (instanceView != null) {
+                                            virtualMachine.setInstanceView(new VirtualMachineInstanceViewImpl(instanceView));
+                                        }
+                                        return virtualMachine;
+                                    }
+                                });
+                    }
+                });
+    }
+
+    private Observable<Map<String, PowerState>> listPowerStatesAsync(String resourceGroupName) {
+        return this.listInstanceViewsAsync(resourceGroupName)
+                .map(new Func1<Map<String, VirtualMachineInstanceViewInner>, Map<String, PowerState>>() {
+                    @Override
+                    public Map<String, PowerState> call(Map<String, VirtualMachineInstanceViewInner> instanceViews) {
+                        Map<String, PowerState> powerStates = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+                        for (Map.Entry<String, VirtualMachineInstanceViewInner> instanceView : instanceViews.entrySet()) {
+                            powerStates.put(instanceView.getKey(),
+                                    PowerState.fromInstanceView(new VirtualMachineInstanceViewImpl(instanceView.getValue())));
+                        }
+                        return powerStates;
+                    }
+                });
+    }
+
+    /**
+     * Lists the instance views of the virtual machines in the subscription, or in a resource group,
+     * by ID. The statusOnly listing is only available at the subscription scope, so the virtual machines
+     * of a resource group are filtered from it.
+     */
+    private Observable<Map<String, VirtualMachineInstanceViewInner>> listInstanceViewsAsync(final String resourceGroupName) {
+        String url = this.listUrlBuilder(null, STATUS_LIST_API_VERSION)
+                .addQueryParameter("statusOnly", "true")
+                .build()
+                .toString();
+        return StreamingListReader.listAsync(this.manager().inner().restClient().retrofit(), url, VirtualMachineInner.class)
+                .filter(new Func1<VirtualMachineInner, Boolean>() {
+                    @Override
+                    public Boolean call(VirtualMachineInner virtualMachineInner) {
+                        return virtualMachineInner.id() != null && virtualMachineInner.instanceView() != null
+                                && (resourceGroupName == null
+                                || resourceGroupName.equalsIgnoreCase(ResourceUtils.groupFromResourceId(virtualMachineInner.id())));
+                    }
+                })
+                .collect(new Func0<Map<String, VirtualMachineInstanceViewInner>>() {
+                    @Override
+                    public Map<String, VirtualMachineInstanceViewInner> call() {
+                        return new TreeMap<String, VirtualMachineInstanceViewInner>(String.CASE_INSENSITIVE_ORDER);
+                    }
+                }, new Action2<Map<String, VirtualMachineInstanceViewInner>, VirtualMachineInner>() {
+                    @Override
+                    public void call(Map<String, VirtualMachineInstanceViewInner> instanceViews, VirtualMachineInner virtualMachineInner) {
+                        instanceViews.put(virtualMachineInner.id(), virtualMachineInner.instanceView());
+                    }
+                });
+    }
+
     @Override
     protected VirtualMachineImpl wrapModel(String name) {
         VirtualMachineInner inner = new VirtualMachineInner();
@@ -0,0 +1,64 @@
+/**
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for
+ * license information.
+ */
+
+package com.microsoft.azure.management.compute.implementation;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.microsoft.azure.management.compute.ComputeResourceType;
+import com.microsoft.azure.management.compute.ComputeSku;
+import com.microsoft.azure.management.compute.ComputeSkuFilter;
+import com.microsoft.azure.management.resources.fluentcore.arm.Region;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class ComputeSkuIndexTests {
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    @Test
+    public void canListSkusByRegionTypeAndCapabilities() throws Exception {
+        List<ComputeSku> skus = new ArrayList<>();
+        skus.add(sku("Standard_D2s_v3", "virtualMachines", "eastus", 2, true, null));
+        skus.add(sku("Standard_D8s_v3", "virtualMachines", "eastus", 8, true, null));
+        skus.add(sku("Standard_D16s_v3", "virtualMachines", "eastus", 16, false, null));
+        skus.add(sku("Standard_D32s_v3", "virtualMachines", "eastus", 32, true, "eastus"));
+        skus.add(sku("Standard_D8s_v3", "virtualMachines", "westus", 8, true, null));
+        skus.add(sku("Premium_LRS", "disks", "eastus", 0, false, null));
+        ComputeSkuIndex index = new ComputeSkuIndex(skus);
+
+        Assert.assertEquals(5, index.list(new ComputeSkuFilter().withRegion(Region.US_EAST)).size());
+        Assert.assertEquals(5, index.list(new ComputeSkuFilter().withResourceType(ComputeResourceType.VIRTUALMACHINES)).size());
+        Assert.assertEquals(2, index.list(new ComputeSkuFilter().withName("standard_d8s_v3")).size());
+
+        List<ComputeSku> sizes = index.list(new ComputeSkuFilter()
+                .withRegion(Region.US_EAST)
+                .withResourceType(ComputeResourceType.VIRTUALMACHINES)
+                .withCapabilityAtLeast("vCPUs", 8)
+                .withCapability("AcceleratedNetworkingEnabled", "true")
+                .withoutRestrictions());
+        Assert.assertEquals(1, sizes.size());
+        Assert.assertEquals("Standard_D8s_v3", sizes.get(0).inner().name());
+        Assert.assertTrue(sizes.get(0).regions().contains(Region.US_EAST));
+
+        Assert.assertEquals(3, index.list(new ComputeSkuFilter()
+                .withRegion(Region.US_EAST)
+                .withCapabilityAtLeast("vCPUs", 2)
+                .withCapabilityAtMost("vCPUs", 16)).size());
+        Assert.assertEquals(0, index.list(new ComputeSkuFilter().withRegion(Region.fromName("Unknown"))).size());
+    }
+
+    private static ComputeSku sku(String name, String resourceType, String location, int vCpus,
+                                  boolean acceleratedNetworking, String restrictedLocation) throws Exception {
+        String json = "{\"name\":\"" + name + "\",\"resourceType\":\"" + resourceType + "\","
+                + "\"locations\":[\"" + location + "\"],"
+                + "\"capabilities\":[{\"name\":\"vCPUs\",\"value\":\"" + vCpus + "\"},"
+                + "{\"name\":\"AcceleratedNetworkingEnabled\",\"value\":\"" + (acceleratedNetworking ? "True" : "False") + "\"}],"
+                + "\"restrictions\":[" + (restrictedLocation == null ? "" : "{\"type\":\"Location\",\"values\":[\"" + restrictedLocation + "\"]}") + "]}";
+        return new ComputeSkuImpl(MAPPER.readValue(json, ResourceSkuInner.class));
+    }
+}
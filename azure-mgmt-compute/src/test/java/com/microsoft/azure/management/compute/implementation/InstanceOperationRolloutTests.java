@@ -0,0 +1,210 @@
+/**
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for
+ * license information.
+ */
+
+package com.microsoft.azure.management.compute.implementation;
+
+import com.microsoft.azure.AzureResponseBuilder;
+import com.microsoft.azure.management.compute.InstanceOperationOptions;
+import com.microsoft.azure.management.compute.InstanceOperationResult;
+import com.microsoft.azure.management.compute.RunCommandInput;
+import com.microsoft.azure.management.compute.RunCommandResult;
+import com.microsoft.azure.management.resources.fluentcore.utils.DelayProvider;
+import com.microsoft.azure.management.resources.fluentcore.utils.SdkContext;
+import com.microsoft.azure.serializer.AzureJacksonAdapter;
+import com.microsoft.rest.RestClient;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import rx.Observable;
+import rx.functions.Func1;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+public class InstanceOperationRolloutTests {
+    private static final List<String> IDS = Arrays.asList("0", "1", "2", "3", "4");
+
+    @Before
+    public void setup() {
+        SdkContext.setDelayProvider(new DelayProvider());
+    }
+
+    @Test
+    public void canRollOutBatchAfterBatchInOrder() {
+        RecordingOperation operation = new RecordingOperation();
+
+        List<InstanceOperationResult> results = InstanceOperationRollout.rollOutAsync(Observable.from(IDS),
+                new InstanceOperationOptions().withBatchSize(2).withMaxConcurrency(1), operation)
+                .toList().toBlocking().single();
+
+        Assert.assertEquals(IDS, operation.calls);
+        Assert.assertEquals(IDS.size(), results.size());
+        int[] batchIndexes = {0, 0, 1, 1, 2};
+        for (int i = 0; i < results.size(); i++) {
+            Assert.assertEquals(IDS.get(i), results.get(i).instanceId());
+            Assert.assertEquals(batchIndexes[i], results.get(i).batchIndex());
+            Assert.assertTrue(results.get(i).isSucceeded());
+        }
+    }
+
+    @Test
+    public void canSkipBatchesOnceTooManyInstancesFailed() {
+        RecordingOperation operation = new RecordingOperation("1");
+
+        List<InstanceOperationResult> results = InstanceOperationRollout.rollOutAsync(Observable.from(IDS),
+                new InstanceOperationOptions().withBatchSize(2).withMaxConcurrency(1).withMaxFailedInstances(0), operation)
+                .toList().toBlocking().single();
+
+        Assert.assertEquals(Arrays.asList("0", "1"), operation.calls);
+        Assert.assertEquals(IDS.size(), results.size());
+        Assert.assertTrue(results.get(0).isSucceeded());
+        Assert.assertFalse(results.get(1).isSucceeded());
+        Assert.assertNotNull(results.get(1).error());
+        for (InstanceOperationResult result : results.subList(2, results.size())) {
+            Assert.assertTrue(result.isSkipped());
+            Assert.assertFalse(result.isSucceeded());
+        }
+    }
+
+    @Test
+    public void canPauseBetweenBatches() {
+        RecordingOperation operation = new RecordingOperation();
+
+        InstanceOperationRollout.rollOutAsync(Observable.from(IDS.subList(0, 3)),
+                new InstanceOperationOptions().withBatchSize(1).withPauseBetweenBatches(200, TimeUnit.MILLISECONDS), operation)
+                .toList().toBlocking().single();
+
+        Assert.assertEquals(3, operation.callNanos.size());
+        for (int i = 1; i < operation.callNanos.size(); i++) {
+            long pauseMillis = TimeUnit.NANOSECONDS.toMillis(operation.callNanos.get(i) - operation.callNanos.get(i - 1));
+            Assert.assertTrue("Paused " + pauseMillis + " ms", pauseMillis >= 150);
+        }
+    }
+
+    @Test
+    public void canSendOneCallPerBatch() {
+        final List<List<String>> batches = Collections.synchronizedList(new ArrayList<List<String>>());
+
+        List<InstanceOperationResult> results = InstanceOperationRollout.rollOutBatchesAsync(Observable.from(IDS),
+                new InstanceOperationOptions().withBatchSize(2).withMaxFailedInstances(1),
+                new Func1<List<String>, Observable<Void>>() {
+                    @Override
+                    public Observable<Void> call(List<String> batch) {
+                        batches.add(new ArrayList<String>(batch));
+                        if (batch.contains("3")) {
+                            return Observable.<Void>error(new IllegalStateException("Upgrade failed"));
+                        }
+                        return Observable.<Void>just(null);
+                    }
+                })
+                .toList().toBlocking().single();
+
+        Assert.assertEquals(2, batches.size());
+        Assert.assertEquals(Arrays.asList("0", "1"), batches.get(0));
+        Assert.assertEquals(Arrays.asList("2", "3"), batches.get(1));
+        Assert.assertEquals(IDS.size(), results.size());
+        Assert.assertTrue(results.get(0).isSucceeded());
+        Assert.assertTrue(results.get(1).isSucceeded());
+        // The instances of a failed batch all fail, and 2 failures exceed the threshold of 1
+        Assert.assertEquals("Upgrade failed", results.get(2).error().getMessage());
+        Assert.assertEquals("Upgrade failed", results.get(3).error().getMessage());
+        Assert.assertTrue(results.get(4).isSkipped());
+    }
+
+    @Test
+    public void canReportTimedOutInstancesAsFailed() {
+        List<InstanceOperationResult> results = InstanceOperationRollout.rollOutAsync(Observable.just("slow", "fast"),
+                new InstanceOperationOptions().withMaxFailedInstances(1).withTimeoutPerInstance(100, TimeUnit.MILLISECONDS),
+                new Func1<String, Observable<RunCommandResult>>() {
+                    @Override
+                    public Observable<RunCommandResult> call(String instanceId) {
+                        return "slow".equals(instanceId)
+                                ? Observable.<RunCommandResult>never()
+                                : Observable.<RunCommandResult>just(null);
+                    }
+                })
+                .toList().toBlocking().single();
+
+        Assert.assertEquals(2, results.size());
+        for (InstanceOperationResult result : results) {
+            if ("slow".equals(result.instanceId())) {
+                Assert.assertTrue(result.error() instanceof TimeoutException);
+                Assert.assertTrue(result.durationMillis() >= 100);
+            } else {
+                Assert.assertTrue(result.isSucceeded());
+            }
+        }
+    }
+
+    @Test
+    public void canDefaultToSingleBatch() {
+        InstanceOperationOptions options = InstanceOperationRollout.singleBatchIfNull(null);
+        Assert.assertEquals(Integer.MAX_VALUE, options.batchSize());
+        Assert.assertEquals(10, options.maxConcurrency());
+        Assert.assertEquals(0, options.timeoutPerInstanceMillis());
+
+        InstanceOperationOptions given = new InstanceOperationOptions().withBatchSize(3);
+        Assert.assertSame(given, InstanceOperationRollout.singleBatchIfNull(given));
+
+        // The 25 instances are in the same batch, none waiting for another batch
+        List<String> ids = new ArrayList<>();
+        for (int i = 0; i < 25; i++) {
+            ids.add(Integer.toString(i));
+        }
+        List<InstanceOperationResult> results = InstanceOperationRollout.rollOutAsync(Observable.from(ids),
+                options, new RecordingOperation()).toList().toBlocking().single();
+        Assert.assertEquals(25, results.size());
+        for (InstanceOperationResult result : results) {
+            Assert.assertEquals(0, result.batchIndex());
+        }
+    }
+
+    @Test
+    public void canRejectVirtualMachinesOfOtherSubscriptions() {
+        RestClient restClient = new RestClient.Builder()
+                .withBaseUrl("https://management.azure.com/")
+                .withSerializerAdapter(new AzureJacksonAdapter())
+                .withResponseBuilderFactory(new AzureResponseBuilder.Factory())
+                .build();
+        ComputeManager manager = ComputeManager.authenticate(restClient, "sub1");
+        try {
+            manager.virtualMachines().runCommandInVMsAsync(Arrays.asList(
+                    "/subscriptions/sub1/resourceGroups/rg1/providers/Microsoft.Compute/virtualMachines/vm1",
+                    "/subscriptions/sub2/resourceGroups/rg1/providers/Microsoft.Compute/virtualMachines/vm2"),
+                    new RunCommandInput().withCommandId("RunShellScript"), null);
+            Assert.fail("Expected the virtual machine of sub2 to be rejected");
+        } catch (IllegalArgumentException e) {
+            Assert.assertTrue(e.getMessage().contains("vm2"));
+        }
+    }
+
+    /**
+     * Records the instances it is called for, failing for the given instances.
+     */
+    private static class RecordingOperation implements Func1<String, Observable<RunCommandResult>> {
+        private final List<String> failingIds;
+        private final List<String> calls = Collections.synchronizedList(new ArrayList<String>());
+        private final List<Long> callNanos = Collections.synchronizedList(new ArrayList<Long>());
+
+        RecordingOperation(String... failingIds) {
+            this.failingIds = Arrays.asList(failingIds);
+        }
+
+        @Override
+        public Observable<RunCommandResult> call(String instanceId) {
+            calls.add(instanceId);
+            callNanos.add(System.nanoTime());
+            if (failingIds.contains(instanceId)) {
+                return Observable.<RunCommandResult>error(new IllegalStateException("Failed in " + instanceId));
+            }
+            return Observable.<RunCommandResult>just(null);
+        }
+    }
+}
@@ -0,0 +1,176 @@
+/**
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for
+ * license information.
+ */
+
+package com.microsoft.azure.management.compute.implementation;
+
+import com.microsoft.azure.AzureResponseBuilder;
+import com.microsoft.azure.management.compute.VirtualMachineImageCatalog;
+import com.microsoft.azure.management.compute.VirtualMachineImageCatalogOptions;
+import com.microsoft.azure.serializer.AzureJacksonAdapter;
+import com.microsoft.rest.RestClient;
+import okhttp3.Interceptor;
+import okhttp3.MediaType;
+import okhttp3.Protocol;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+public class VirtualMachineImageCatalogTests {
+    @Test
+    public void canOrderVersionsByNumericParts() {
+        List<String> versions = new ArrayList<>(Arrays.asList(
+                "18.04.202001010", "10.0", "9.0", "18.04.201912180", "1.0.1", "1.0", "01.2", "1.0.beta"));
+        Collections.sort(versions, VirtualMachineImageCatalogImpl.VERSION_ORDER);
+
+        Assert.assertEquals(Arrays.asList("1.0", "1.0.1", "1.0.beta", "01.2", "9.0", "10.0",
+                "18.04.201912180", "18.04.202001010"), versions);
+        Assert.assertEquals(0, VirtualMachineImageCatalogImpl.VERSION_ORDER.compare("1.02", "1.2"));
+    }
+
+    @Test
+    public void canMergeCrawledPublishers() {
+        VirtualMachineImageCatalogImpl catalog = VirtualMachineImageCatalogImpl.empty("westus").merge(
+                Arrays.asList("Canonical", "MicrosoftWindowsServer"),
+                Arrays.asList("Canonical", "MicrosoftWindowsServer"),
+                Arrays.asList(
+                        sku("Canonical", "UbuntuServer", "16.04-LTS", "16.04.201901010"),
+                        sku("Canonical", "UbuntuServer", "18.04-LTS", "18.04.201912180", "18.04.202001010"),
+                        sku("MicrosoftWindowsServer", "WindowsServer", "2019-Datacenter", "2019.0.1")),
+                Collections.<String>emptyList(),
+                1000);
+
+        Assert.assertEquals(4, catalog.imageCount());
+        Assert.assertEquals(Arrays.asList("UbuntuServer"), catalog.listOffers("canonical"));
+        Assert.assertEquals(Arrays.asList("16.04-LTS", "18.04-LTS"), catalog.listSkus("Canonical", "UbuntuServer"));
+        Assert.assertEquals("18.04.202001010", catalog.getLatestImage("Canonical", "UbuntuServer", "18.04-LTS").version());
+        Assert.assertTrue(catalog.isCrawledSince("Canonical", 1000));
+        Assert.assertFalse(catalog.isCrawledSince("Canonical", 1001));
+
+        // Canonical crawled again, and MicrosoftWindowsServer no longer listed
+        VirtualMachineImageCatalogImpl merged = catalog.merge(
+                Arrays.asList("Canonical"),
+                Arrays.asList("Canonical"),
+                Arrays.asList(sku("Canonical", "UbuntuServer", "20.04-LTS", "20.04.202101010")),
+                Collections.<String>emptyList(),
+                2000);
+
+        Assert.assertEquals(1, merged.imageCount());
+        Assert.assertEquals(Arrays.asList("20.04-LTS"), merged.listSkus("Canonical", "UbuntuServer"));
+        Assert.assertTrue(merged.listOffers("MicrosoftWindowsServer").isEmpty());
+        Assert.assertEquals(Arrays.asList("Canonical"), merged.publisherNamesListedSince(2000));
+        Assert.assertTrue(merged.isCrawledSince("Canonical", 2000));
+    }
+
+    @Test
+    public void canWriteAndReadCatalog() throws IOException {
+        VirtualMachineImageCatalogImpl catalog = VirtualMachineImageCatalogImpl.empty("westus").merge(
+                Arrays.asList("Canonical"),
+                Arrays.asList("Canonical"),
+                Arrays.asList(sku("Canonical", "UbuntuServer", "18.04-LTS", "18.04.201912180", "18.04.202001010")),
+                Collections.<String>emptyList(),
+                1000);
+        File file = File.createTempFile("catalog", ".bin");
+        file.deleteOnExit();
+
+        catalog.writeTo(file);
+        VirtualMachineImageCatalogImpl read = VirtualMachineImageCatalogImpl.readFrom(file, "WestUS");
+
+        Assert.assertEquals(2, read.imageCount());
+        Assert.assertEquals(Arrays.asList("18.04.202001010", "18.04.201912180"),
+                read.listVersions("Canonical", "UbuntuServer", "18.04-LTS"));
+        Assert.assertEquals(Arrays.asList("Canonical"), read.publisherNamesListedSince(1000));
+        Assert.assertTrue(read.isCrawledSince("canonical", 1000));
+
+        // A catalog of another region, or a corrupted file, is read as empty
+        Assert.assertEquals(0, VirtualMachineImageCatalogImpl.readFrom(file, "eastus").imageCount());
+        try (FileOutputStream out = new FileOutputStream(file, true)) {
+            out.write(new byte[] {1, 2, 3});
+        }
+        Assert.assertEquals(2, VirtualMachineImageCatalogImpl.readFrom(file, "westus").imageCount());
+        try (FileOutputStream out = new FileOutputStream(file)) {
+            out.write(new byte[] {1, 2, 3});
+        }
+        Assert.assertEquals(0, VirtualMachineImageCatalogImpl.readFrom(file, "westus").imageCount());
+    }
+
+    @Test
+    public void canKeepCachedImagesOfFailedPublishers() throws IOException {
+        File file = File.createTempFile("catalog", ".bin");
+        file.deleteOnExit();
+        // Cached long ago, so that both publishers are crawled again
+        VirtualMachineImageCatalogImpl.empty("westus").merge(
+                null,
+                Arrays.asList("Good", "Failing"),
+                Arrays.asList(
+                        sku("Good", "offer1", "sku1", "0.9"),
+                        sku("Failing", "offer1", "sku1", "1.0")),
+                Collections.<String>emptyList(),
+                0).writeTo(file);
+        final List<String> paths = Collections.synchronizedList(new ArrayList<String>());
+        ComputeManager manager = manager(paths);
+        VirtualMachineImageCatalogOptions options = new VirtualMachineImageCatalogOptions()
+                .withPublishers("Good", "Failing")
+                .withCacheFile(file)
+                .withMaxAge(1, TimeUnit.HOURS);
+
+        VirtualMachineImageCatalog catalog = manager.virtualMachineImages().loadCatalog("westus", options);
+
+        Assert.assertEquals(Arrays.asList("Failing"), catalog.failedPublishers());
+        Assert.assertEquals(Arrays.asList("2.0"), catalog.listVersions("Good", "offer1", "sku1"));
+        Assert.assertEquals(Arrays.asList("1.0"), catalog.listVersions("Failing", "offer1", "sku1"));
+
+        // Only the failed publisher is crawled by the next load
+        paths.clear();
+        catalog = manager.virtualMachineImages().loadCatalog("westus", options);
+        Assert.assertEquals(1, paths.size());
+        Assert.assertTrue(paths.get(0).contains("/publishers/Failing/"));
+        Assert.assertEquals(Arrays.asList("1.0"), catalog.listVersions("Failing", "offer1", "sku1"));
+    }
+
+    private static VirtualMachineImageCatalogImpl.Sku sku(String publisherName, String offerName, String skuName, String... versions) {
+        return new VirtualMachineImageCatalogImpl.Sku(publisherName, offerName, skuName, Arrays.asList(versions));
+    }
+
+    /**
+     * Serves one offer, SKU and version for the Good publisher, and fails the requests of the others.
+     */
+    private static ComputeManager manager(final List<String> paths) {
+        RestClient restClient = new RestClient.Builder()
+                .withBaseUrl("https://management.azure.com/")
+                .withSerializerAdapter(new AzureJacksonAdapter())
+                .withResponseBuilderFactory(new AzureResponseBuilder.Factory())
+                .withInterceptor(new Interceptor() {
+                    @Override
+                    public Response intercept(Chain chain) throws IOException {
+                        String path = chain.request().url().encodedPath();
+                        paths.add(path);
+                        boolean good = path.contains("/publishers/Good/");
+                        String name = path.endsWith("/offers") ? "offer1" : path.endsWith("/skus") ? "sku1" : "2.0";
+                        return new Response.Builder()
+                                .request(chain.request())
+                                .protocol(Protocol.HTTP_1_1)
+                                .code(good ? 200 : 400)
+                                .message(good ? "OK" : "Bad Request")
+                                .body(ResponseBody.create(MediaType.parse("application/json"), good
+                                        ? "[{\"name\":\"" + name + "\",\"location\":\"westus\"}]"
+                                        : "{\"error\":{\"code\":\"BadRequest\",\"message\":\"Failed\"}}"))
+                                .build();
+                    }
+                })
+                .build();
+        return ComputeManager.authenticate(restClient, "sub1");
+    }
+}
@@ -0,0 +1,116 @@
+/**
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for
+ * license information.
+ */
+
+package com.microsoft.azure.management.compute.implementation;
+
+import com.microsoft.azure.AzureResponseBuilder;
+import com.microsoft.azure.management.compute.PowerState;
+import com.microsoft.azure.management.compute.VirtualMachine;
+import com.microsoft.azure.serializer.AzureJacksonAdapter;
+import com.microsoft.rest.RestClient;
+import okhttp3.HttpUrl;
+import okhttp3.Interceptor;
+import okhttp3.MediaType;
+import okhttp3.Protocol;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+public class VirtualMachineListingTests {
+    private static final String EMPTY = "{\"value\":[]}";
+    private static final String VMS = "/subscriptions/sub1/resourceGroups/%s/providers/Microsoft.Compute/virtualMachines/%s";
+
+    @Test
+    public void canListViewsWithEncodedResourceGroupAndGeneratedApiVersion() {
+        final List<HttpUrl> urls = Collections.synchronizedList(new ArrayList<HttpUrl>());
+        ComputeManager manager = manager(urls, EMPTY, EMPTY);
+
+        manager.virtualMachines().listViewsByResourceGroup("rg#1", "properties.hardwareProfile.vmSize");
+        manager.inner().virtualMachines().listByResourceGroup("rg1");
+
+        Assert.assertEquals(2, urls.size());
+        HttpUrl viewsUrl = urls.get(0);
+        Assert.assertEquals("rg#1", viewsUrl.pathSegments().get(3));
+        Assert.assertTrue(viewsUrl.encodedPath().contains("/resourceGroups/rg%231/"));
+        Assert.assertEquals(urls.get(1).queryParameter("api-version"), viewsUrl.queryParameter("api-version"));
+    }
+
+    @Test
+    public void canJoinInstanceViewsById() {
+        final List<HttpUrl> urls = Collections.synchronizedList(new ArrayList<HttpUrl>());
+        String instanceViews = "{\"value\":["
+                + instanceView(String.format(VMS, "rg1", "vm1"), "PowerState/running") + ","
+                + instanceView(String.format(VMS, "rg2", "vm2"), "PowerState/deallocated") + "]}";
+        // The IDs of the models differ in case from those of the instance views
+        String models = "{\"value\":["
+                + model(String.format(VMS, "RG1", "VM1")) + ","
+                + model(String.format(VMS, "RG1", "vm3")) + "]}";
+        ComputeManager manager = manager(urls, instanceViews, models);
+
+        List<VirtualMachine> virtualMachines = manager.virtualMachines().listWithInstanceViewsByResourceGroup("rg1");
+
+        Assert.assertEquals(2, urls.size());
+        HttpUrl statusUrl = urls.get(0);
+        Assert.assertEquals("true", statusUrl.queryParameter("statusOnly"));
+        Assert.assertEquals(VirtualMachinesImpl.STATUS_LIST_API_VERSION, statusUrl.queryParameter("api-version"));
+        Assert.assertFalse(statusUrl.encodedPath().contains("/resourceGroups/"));
+        Assert.assertEquals("rg1", urls.get(1).pathSegments().get(3));
+        Assert.assertEquals(VirtualMachinesImpl.LIST_API_VERSION, urls.get(1).queryParameter("api-version"));
+
+        Assert.assertEquals(2, virtualMachines.size());
+        Assert.assertEquals(PowerState.RUNNING, virtualMachines.get(0).powerState());
+        // The instance views of the listed virtual machines are read without any request
+        Assert.assertEquals(2, urls.size());
+
+        Map<String, PowerState> powerStates = manager.virtualMachines().listPowerStatesByResourceGroup("rg1");
+        Assert.assertEquals(1, powerStates.size());
+        Assert.assertEquals(PowerState.RUNNING, powerStates.get(String.format(VMS, "RG1", "VM1")));
+    }
+
+    private static String instanceView(String id, String powerState) {
+        return "{\"id\":\"" + id + "\",\"name\":\"" + id.substring(id.lastIndexOf('/') + 1) + "\","
+                + "\"properties\":{\"instanceView\":{\"statuses\":[{\"code\":\"" + powerState + "\"}]}}}";
+    }
+
+    private static String model(String id) {
+        return "{\"id\":\"" + id + "\",\"name\":\"" + id.substring(id.lastIndexOf('/') + 1) + "\","
+                + "\"location\":\"westus\",\"properties\":{\"hardwareProfile\":{\"vmSize\":\"Standard_D2s_v3\"}}}";
+    }
+
+    /**
+     * Serves the statusOnly listings with the instance views, and the other requests with the models.
+     */
+    private static ComputeManager manager(final List<HttpUrl> urls, final String instanceViews, final String models) {
+        RestClient restClient = new RestClient.Builder()
+                .withBaseUrl("https://management.azure.com/")
+                .withSerializerAdapter(new AzureJacksonAdapter())
+                .withResponseBuilderFactory(new AzureResponseBuilder.Factory())
+                .withInterceptor(new Interceptor() {
+                    @Override
+                    public Response intercept(Chain chain) throws IOException {
+                        HttpUrl url = chain.request().url();
+                        urls.add(url);
+                        String content = url.queryParameter("statusOnly") != null ? instanceViews : models;
+                        return new Response.Builder()
+                                .request(chain.request())
+                                .protocol(Protocol.HTTP_1_1)
+                                .code(200)
+                                .message("OK")
+                                .body(ResponseBody.create(MediaType.parse("application/json"), content))
+                                .build();
+                    }
+                })
+                .build();
+        return ComputeManager.authenticate(restClient, "sub1");
+    }
+}
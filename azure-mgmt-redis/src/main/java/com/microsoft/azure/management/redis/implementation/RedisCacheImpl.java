@@ -32,13 +32,14 @@ import com.microsoft.azure.management.redis.TlsVersion;
 import com.microsoft.azure.management.resources.fluentcore.arm.ResourceUtils;
 import com.microsoft.azure.management.resources.fluentcore.arm.models.HasId;
 import com.microsoft.azure.management.resources.fluentcore.arm.models.implementation.GroupableResourceImpl;
+import com.microsoft.azure.management.resources.fluentcore.utils.PollingService;
 import com.microsoft.azure.management.resources.fluentcore.utils.SdkContext;
 import com.microsoft.azure.management.resources.fluentcore.utils.Utils;
 import org.joda.time.Period;
 import rx.Completable;
 import rx.Observable;
-import rx.functions.Action1;
 import rx.functions.Func1;
+import rx.functions.Func2;
 
 import java.util.ArrayList;
 import java.util.Collections;
@@ -61,6 +62,8 @@ class RedisCacheImpl
             RedisCachePremium,
             RedisCache.Definition,
             RedisCache.Update {
+    private static final long POLL_INITIAL_DELAY_MILLIS = 10 * 1000;
+    private static final long POLL_MAX_DELAY_MILLIS = 30 * 1000;
     private RedisAccessKeys cachedAccessKeys;
     private RedisCreateParameters createParameters;
     private RedisUpdateParameters updateParameters;
@@ -590,17 +593,31 @@ class RedisCacheImpl
         final RedisCacheImpl self = this;
         return this.manager().inner().redis().updateAsync(resourceGroupName(), name(), updateParameters)
                 .map(innerToFluentMap(this))
-                .doOnNext(new Action1<RedisCache>() {
+                .flatMap(new Func1<RedisCache, Observable<RedisCache>>() {
                     @Override
-                    public void call(RedisCache redisCache) {
-                        while (!redisCache.provisioningState().equalsIgnoreCase("Succeeded")) {
-                            SdkContext.sleep(30 * 1000);
-
-                            RedisResourceInner innerResource = self.manager().inner().redis().getByResourceGroup(resourceGroupName(), name());
-                            ((RedisCacheImpl) redisCache).setInner(innerResource);
-                            self.setInner(innerResource);
-                            self.patchScheduleAdded = false;
+                    public Observable<RedisCache> call(final RedisCache redisCache) {
+                        if (redisCache.provisioningState().equalsIgnoreCase("Succeeded")) {
+                            return Observable.just(redisCache);
                         }
+                        return PollingService.pollAsync(
+                                self.manager().inner().redis().getByResourceGroupAsync(resourceGroupName(), name()),
+                                new Func1<RedisResourceInner, Boolean>() {
+                                    @Override
+                                    public Boolean call(RedisResourceInner innerResource) {
+                                        return innerResource.provisioningState() == ProvisioningState.SUCCEEDED;
+                                    }
+                                },
+                                POLL_INITIAL_DELAY_MILLIS,
+                                POLL_MAX_DELAY_MILLIS)
+                                .map(new Func1<RedisResourceInner, RedisCache>() {
+                                    @Override
+                                    public RedisCache call(RedisResourceInner innerResource) {
+                                        ((RedisCacheImpl) redisCache).setInner(innerResource);
+                                        self.setInner(innerResource);
+                                        self.patchScheduleAdded = false;
+                                        return redisCache;
+                                    }
+                                });
                     }
                 })
                 .flatMap(new Func1<RedisCache, Observable<RedisCache>>() {
@@ -662,20 +679,34 @@ class RedisCacheImpl
                 this.name(),
                 linkedServerName);
 
-        RedisResourceInner innerLinkedResource = null;
-        RedisResourceInner innerResource = null;
-        while (innerLinkedResource == null
-                || innerLinkedResource.provisioningState() != ProvisioningState.SUCCEEDED
-                || innerResource == null
-                || innerResource.provisioningState() != ProvisioningState.SUCCEEDED) {
-            SdkContext.sleep(30 * 1000);
-
-            innerLinkedResource = this.manager().inner().redis().getByResourceGroup(
-                    ResourceUtils.groupFromResourceId(linkedServer.id()),
-                    ResourceUtils.nameFromResourceId(linkedServer.id()));
-
-            innerResource = this.manager().inner().redis().getByResourceGroup(resourceGroupName(), name());
-        }
+        final Observable<Boolean> bothSucceeded = Observable.zip(
+                this.manager().inner().redis().getByResourceGroupAsync(
+                        ResourceUtils.groupFromResourceId(linkedServer.id()),
+                        ResourceUtils.nameFromResourceId(linkedServer.id())),
+                this.manager().inner().redis().getByResourceGroupAsync(resourceGroupName(), name()),
+                new Func2<RedisResourceInner, RedisResourceInner, Boolean>() {
+                    @Override
+                    public Boolean call(RedisResourceInner innerLinkedResource, RedisResourceInner innerResource) {
+                        return innerLinkedResource != null
+                                && innerLinkedResource.provisioningState() == ProvisioningState.SUCCEEDED
+                                && innerResource != null
+                                && innerResource.provisioningState() == ProvisioningState.SUCCEEDED;
+                    }
+                });
+        // Waits before the first poll, for the deletion to be reflected in the provisioning states
+        SdkContext.delayedEmitAsync(false, (int) POLL_INITIAL_DELAY_MILLIS)
+                .flatMap(new Func1<Boolean, Observable<Boolean>>() {
+                    @Override
+                    public Observable<Boolean> call(Boolean ignored) {
+                        return PollingService.pollAsync(bothSucceeded, new Func1<Boolean, Boolean>() {
+                            @Override
+                            public Boolean call(Boolean succeeded) {
+                                return succeeded;
+                            }
+                        }, POLL_INITIAL_DELAY_MILLIS, POLL_MAX_DELAY_MILLIS);
+                    }
+                })
+                .toBlocking().last();
     }
 
     @Override
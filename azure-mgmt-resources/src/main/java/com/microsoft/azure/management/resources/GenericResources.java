@@ -9,6 +9,8 @@ package com.microsoft.azure.management.resources;
 import com.microsoft.azure.management.apigeneration.Fluent;
 import com.microsoft.azure.management.resources.fluentcore.arm.collection.SupportsGettingById;
 import com.microsoft.azure.management.resources.fluentcore.arm.collection.SupportsListingByResourceGroup;
+import com.microsoft.azure.management.resources.fluentcore.arm.collection.SupportsListingViews;
+import com.microsoft.azure.management.resources.fluentcore.arm.collection.SupportsListingViewsByResourceGroup;
 import com.microsoft.azure.management.resources.fluentcore.arm.collection.SupportsListingInResourceGroupByTag;
 import com.microsoft.azure.management.resources.fluentcore.arm.models.HasManager;
 import com.microsoft.azure.management.resources.fluentcore.collection.SupportsCreating;
@@ -18,6 +20,7 @@ import com.microsoft.azure.management.resources.implementation.ResourceManager;
 import com.microsoft.rest.ServiceCallback;
 import com.microsoft.rest.ServiceFuture;
 import rx.Completable;
+import rx.Observable;
 
 import java.util.List;
 
@@ -28,6 +31,8 @@ import java.util.List;
 public interface GenericResources extends
         SupportsListing<GenericResource>,
         SupportsListingByResourceGroup<GenericResource>,
+        SupportsListingViews,
+        SupportsListingViewsByResourceGroup,
         SupportsListingInResourceGroupByTag<GenericResource>,
         SupportsGettingById<GenericResource>,
         SupportsCreating<GenericResource.DefinitionStages.Blank>,
@@ -93,6 +98,48 @@ public interface GenericResources extends
             String resourceType,
             String resourceName);
 
+    /**
+     * Lists all the resources in the subscription as a stream.
+     * <p>
+     * The resources are parsed and emitted one at a time as the pages are received,
+     * so that listing a large number of resources does not hold them all in memory.
+     *
+     * @return an observable emitting the resources
+     */
+    Observable<GenericResource> listStreamingAsync();
+
+    /**
+     * Lists the resources in a resource group as a stream.
+     * <p>
+     * The resources are parsed and emitted one at a time as the pages are received,
+     * so that listing a large number of resources does not hold them all in memory.
+     *
+     * @param resourceGroupName the name of the resource group
+     * @return an observable emitting the resources
+     */
+    Observable<GenericResource> listByResourceGroupStreamingAsync(String resourceGroupName);
+
+    /**
+     * Fetches the resource types of resource providers ahead of the first operations on their resources.
+     * <p>
+     * The default API versions of the resources are resolved from the resource types of their provider,
+     * which are fetched once and cached for an hour.
+     *
+     * @param resourceProviderNamespaces the namespaces of the resource providers
+     */
+    void preloadApiVersions(String... resourceProviderNamespaces);
+
+    /**
+     * Fetches the resource types of resource providers ahead of the first operations on their resources.
+     * <p>
+     * The default API versions of the resources are resolved from the resource types of their provider,
+     * which are fetched once and cached for an hour.
+     *
+     * @param resourceProviderNamespaces the namespaces of the resource providers
+     * @return a completable completed once the resource types are fetched
+     */
+    Completable preloadApiVersionsAsync(String... resourceProviderNamespaces);
+
     /**
      * Move resources from one resource group to another.
      *
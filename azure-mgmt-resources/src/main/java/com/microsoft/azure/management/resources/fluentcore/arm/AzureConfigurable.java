@@ -6,6 +6,10 @@
 
 package com.microsoft.azure.management.resources.fluentcore.arm;
 
+import com.microsoft.azure.management.resources.fluentcore.utils.MetricsListener;
+import com.microsoft.azure.management.resources.fluentcore.utils.RequestCoalescer;
+import com.microsoft.azure.management.resources.fluentcore.utils.ResourceCache;
+import com.microsoft.azure.management.resources.fluentcore.utils.RetryPolicy;
 import com.microsoft.rest.LogLevel;
 import okhttp3.Authenticator;
 import okhttp3.ConnectionPool;
@@ -120,4 +124,41 @@ public interface AzureConfigurable<T extends AzureConfigurable<T>> {
      * @return the configurable object itself for chaining
      */
     T withProxyAuthenticator(Authenticator proxyAuthenticator);
+
+    /**
+     * Sets the retry policy for the requests sent by the managers built from this configuration.
+     * Managers configured with the same policy share its per-subscription retry budget. The policy replaces
+     * the default retries of the client runtime.
+     *
+     * @param retryPolicy the retry policy to use
+     * @return the configurable object itself for chaining
+     */
+    T withRetryPolicy(RetryPolicy retryPolicy);
+
+    /**
+     * Sets the cache of the resources read by the managers built from this configuration.
+     * Cached resources are revalidated with their ETag, so that unchanged resources are not downloaded again.
+     *
+     * @param resourceCache the resource cache to use
+     * @return the configurable object itself for chaining
+     */
+    T withResourceCache(ResourceCache resourceCache);
+
+    /**
+     * Sets the request coalescer of the managers built from this configuration, so that identical
+     * GET requests sent concurrently with the same credentials share a single call.
+     *
+     * @param requestCoalescer the request coalescer to use
+     * @return the configurable object itself for chaining
+     */
+    T withRequestCoalescer(RequestCoalescer requestCoalescer);
+
+    /**
+     * Sets the listener receiving the latency, size, retries and throttling waits of the requests
+     * sent by the managers built from this configuration.
+     *
+     * @param metricsListener the metrics listener to use
+     * @return the configurable object itself for chaining
+     */
+    T withMetricsListener(MetricsListener metricsListener);
 }
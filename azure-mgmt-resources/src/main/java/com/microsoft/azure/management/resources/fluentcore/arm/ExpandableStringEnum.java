@@ -8,36 +8,67 @@ package com.microsoft.azure.management.resources.fluentcore.arm;
 
 import java.util.ArrayList;
 import java.util.Collection;
-import java.util.HashSet;
+import java.util.Locale;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 
 /**
  * Base implementation for expandable, single string enums.
+ * <p>
+ * The values are registered in a lookup table per enum type, keyed by their name as registered and
+ * by their lower-cased name, so that looking up a value by its registered name does not allocate.
+ * Other casings of the name are looked up by their lower-cased name, and are not cached, so that
+ * looking up names of arbitrary casing does not grow the table.
  * @param <T> a specific expandable enum type
  */
 public abstract class ExpandableStringEnum<T extends ExpandableStringEnum<T>> {
-    private static ConcurrentMap<String, ? extends ExpandableStringEnum<?>> valuesByName = null;
+    private static final ConcurrentMap<Class<?>, Values> VALUES_BY_CLASS = new ConcurrentHashMap<>();
 
     private String name;
     private Class<T> clazz;
+    private int hash;
 
-    private static String uniqueKey(Class<?> clazz, String name) {
-        if (clazz != null) {
-            return (clazz.getName() + "#" + name).toLowerCase();
-        } else {
+    /**
+     * The lookup table of the values of an enum type.
+     */
+    private static final class Values {
+        // The values keyed by their lower-cased name, holding a single instance per value
+        private final ConcurrentMap<String, ExpandableStringEnum<?>> byKey = new ConcurrentHashMap<>();
+        // The values keyed by the exact names they were registered with
+        private final ConcurrentMap<String, ExpandableStringEnum<?>> byName = new ConcurrentHashMap<>();
+    }
+
+    private static Values lookupTable(Class<?> clazz, boolean create) {
+        if (clazz == null) {
             throw new IllegalArgumentException();
         }
+        Values values = VALUES_BY_CLASS.get(clazz);
+        if (values == null && create) {
+            Values newValues = new Values();
+            values = VALUES_BY_CLASS.putIfAbsent(clazz, newValues);
+            if (values == null) {
+                values = newValues;
+            }
+        }
+        return values;
     }
 
-    @SuppressWarnings("unchecked")
-    protected T withNameValue(String name, T value, Class<T> clazz) {
-        if (valuesByName == null) {
-            valuesByName = new ConcurrentHashMap<String, T>();
-        }
+    private static String key(String name) {
+        return name.toLowerCase(Locale.ROOT);
+    }
+
+    private void init(String name, Class<T> clazz) {
         this.name = name;
         this.clazz = clazz;
-        ((ConcurrentMap<String, T>) valuesByName).put(uniqueKey(clazz, name), value);
+        this.hash = (clazz.getName() + "#" + name).toLowerCase().hashCode();
+    }
+
+    @SuppressWarnings("unchecked")
+    protected T withNameValue(String name, T value, Class<T> clazz) {
+        init(name, clazz);
+        Values values = lookupTable(clazz, true);
+        values.byKey.put(key(name), value);
+        values.byName.put(name, value);
         return (T) this;
     }
 
@@ -45,36 +76,51 @@ public abstract class ExpandableStringEnum<T extends ExpandableStringEnum<T>> {
     protected static <T extends ExpandableStringEnum<T>> T fromString(String name, Class<T> clazz) {
         if (name == null) {
             return null;
-        } else if (valuesByName != null) {
-            T value = (T) valuesByName.get(uniqueKey(clazz, name));
-            if (value != null) {
-                return value;
-            }
+        }
+        Values values = lookupTable(clazz, true);
+        ExpandableStringEnum<?> existing = values.byName.get(name);
+        if (existing != null) {
+            return (T) existing;
         }
 
-        try {
-            T value = clazz.newInstance();
-            return value.withNameValue(name, value, clazz);
-        } catch (InstantiationException e) {
-            return null;
-        } catch (IllegalAccessException e) {
-            return null;
+        String key = key(name);
+        existing = values.byKey.get(key);
+        if (existing == null) {
+            T value;
+            try {
+                value = clazz.newInstance();
+            } catch (InstantiationException e) {
+                return null;
+            } catch (IllegalAccessException e) {
+                return null;
+            }
+            ((ExpandableStringEnum<T>) value).init(name, clazz);
+            // Keep the first registered value if another thread raced to create it
+            existing = values.byKey.putIfAbsent(key, value);
+            if (existing == null) {
+                existing = value;
+                values.byName.putIfAbsent(name, existing);
+            }
         }
+        return (T) existing;
+    }
+
+    /**
+     * @param clazz the enum type
+     * @return the number of names the values of the enum type are looked up by without allocating
+     */
+    static int registeredNameCount(Class<?> clazz) {
+        Values values = lookupTable(clazz, false);
+        return values == null ? 0 : values.byName.size();
     }
 
     @SuppressWarnings("unchecked")
     protected static <T extends ExpandableStringEnum<T>> Collection<T> values(Class<T> clazz) {
-        // Make a copy of all values
-        Collection<? extends ExpandableStringEnum<?>> values = new ArrayList<>(valuesByName.values());
-
-        Collection<T> list = new HashSet<T>();
-        for (ExpandableStringEnum<?> value : values) {
-            if (value.getClass().isAssignableFrom(clazz)) {
-                list.add((T) value);
-            }
+        Values values = lookupTable(clazz, false);
+        if (values == null) {
+            return new ArrayList<>();
         }
-
-        return list;
+        return new ArrayList<>((Collection<T>) (Collection<?>) values.byKey.values());
     }
 
     @Override
@@ -84,7 +130,7 @@ public abstract class ExpandableStringEnum<T extends ExpandableStringEnum<T>> {
 
     @Override
     public int hashCode() {
-        return uniqueKey(this.clazz, this.name).hashCode();
+        return this.hash;
     }
 
     @SuppressWarnings("unchecked")
@@ -9,15 +9,18 @@ package com.microsoft.azure.management.resources.fluentcore.arm;
 import com.fasterxml.jackson.annotation.JsonValue;
 
 import java.util.Collection;
-import java.util.HashMap;
-import java.util.Map;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 /**
  * Enumeration of the Azure datacenter regions. See https://azure.microsoft.com/regions/
  */
 public final class Region {
     // This needs to be at the beginning for the initialization to happen correctly
-    private static final Map<String, Region> VALUES_BY_NAME = new HashMap<>();
+    private static final ConcurrentMap<String, Region> VALUES_BY_NAME = new ConcurrentHashMap<>();
+    // The regions keyed by their exact name and label, so that the common lookups do not allocate
+    private static final ConcurrentMap<String, Region> VALUES_BY_NAME_OR_LABEL = new ConcurrentHashMap<>();
 
     // CHECKSTYLE IGNORE Javadoc FOR NEXT 52 LINES
     /**************************************************
@@ -106,6 +109,7 @@ public final class Region {
 
     private final String name;
     private final String label;
+    private final int hash;
 
     /**
      * @return predefined Azure regions
@@ -118,7 +122,14 @@ public final class Region {
     private Region(String name, String label) {
         this.name = name;
         this.label = label;
-        VALUES_BY_NAME.put(name.toLowerCase(), this);
+        this.hash = name.toLowerCase(Locale.ROOT).hashCode();
+        // Only the first region created with a given name is registered
+        if (VALUES_BY_NAME.putIfAbsent(name.toLowerCase(Locale.ROOT), this) == null) {
+            VALUES_BY_NAME_OR_LABEL.putIfAbsent(name, this);
+            if (label != null) {
+                VALUES_BY_NAME_OR_LABEL.putIfAbsent(label, this);
+            }
+        }
     }
 
     /**
@@ -129,11 +140,14 @@ public final class Region {
      * @return the newly created region
      */
     public static Region create(String name, String label) {
-        Region region = VALUES_BY_NAME.get(name.toLowerCase());
+        String key = name.toLowerCase(Locale.ROOT);
+        Region region = VALUES_BY_NAME.get(key);
         if (region != null) {
             return region;
         } else {
-            return new Region(name, label);
+            new Region(name, label);
+            // Return the registered region in case another thread created it concurrently
+            return VALUES_BY_NAME.get(key);
         }
     }
 
@@ -169,7 +183,11 @@ public final class Region {
             return null;
         }
 
-        return VALUES_BY_NAME.get(labelOrName.toLowerCase().replace(" ", ""));
+        Region region = VALUES_BY_NAME_OR_LABEL.get(labelOrName);
+        if (region != null) {
+            return region;
+        }
+        return VALUES_BY_NAME.get(normalize(labelOrName));
     }
 
     /**
@@ -183,17 +201,21 @@ public final class Region {
             return null;
         }
 
-        Region region = VALUES_BY_NAME.get(name.toLowerCase().replace(" ", ""));
+        Region region = findByLabelOrName(name);
         if (region != null) {
             return region;
         } else {
-            return Region.create(name.toLowerCase().replace(" ", ""), name);
+            return Region.create(normalize(name), name);
         }
     }
 
+    private static String normalize(String labelOrName) {
+        return labelOrName.toLowerCase(Locale.ROOT).replace(" ", "");
+    }
+
     @Override
     public int hashCode() {
-        return this.name.hashCode();
+        return this.hash;
     }
 
     @Override
@@ -7,8 +7,10 @@
 package com.microsoft.azure.management.resources.fluentcore.arm;
 
 import com.microsoft.azure.management.apigeneration.LangDefinition;
+
 import java.security.InvalidParameterException;
-import org.apache.commons.lang3.StringUtils;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 /**
  * Instantiate itself from a resource id, and give easy access to resource information like subscription, resourceGroup,
@@ -16,14 +18,24 @@ import org.apache.commons.lang3.StringUtils;
  */
 @LangDefinition
 public final class ResourceId {
-
-    private String subscriptionId = null;
-    private String resourceGroupName = null;
-    private String name = null;
-    private String providerNamespace = null;
-    private String resourceType = null;
-    private String id = null;
-    private String parentId = null;
+    private static final int CACHE_GENERATION_SIZE = 4096;
+    // Recently parsed IDs, the current generation being promoted from the previous one on access
+    // and demoted to it when full, so that the least recently used IDs are eventually evicted
+    private static volatile ConcurrentMap<String, ResourceId> cache = new ConcurrentHashMap<>();
+    private static volatile ConcurrentMap<String, ResourceId> previousCache = new ConcurrentHashMap<>();
+
+    private final String id;
+    // The start and end offsets in the ID of the segments separated by '/'
+    private final int[] segmentStarts;
+    private final int[] segmentEnds;
+    private final int segmentCount;
+    // The values below are extracted from the ID on first access
+    private String subscriptionId;
+    private String resourceGroupName;
+    private String name;
+    private String providerNamespace;
+    private String resourceType;
+    private String parentId;
 
     private static String badIdErrorText(String id) {
         return String.format("The specified ID `%s` is not a valid Azure resource ID.", id);
@@ -32,75 +44,67 @@ public final class ResourceId {
     private ResourceId(final String id) {
         if (id == null) {
             // Protect against NPEs from null IDs, preserving legacy behavior for null IDs
+            this.id = null;
+            this.segmentStarts = null;
+            this.segmentEnds = null;
+            this.segmentCount = 0;
             return;
-        } else {
-            // Skip the first '/' if any, and then split using '/'
-            String[] splits = (id.startsWith("/")) ? id.substring(1).split("/") : id.split("/");
-            if (splits.length % 2 == 1) {
-                throw new InvalidParameterException(badIdErrorText(id));
+        }
+        // Format of id:
+        // /subscriptions/<subscriptionId>/resourceGroups/<resourceGroupName>/providers/<providerNamespace>(/<parentResourceType>/<parentName>)*/<resourceType>/<name>
+        //  0             1                2              3                   4         5                                                        N-2            N-1
+
+        // Skip the first '/' if any, and the trailing ones
+        int begin = id.startsWith("/") ? 1 : 0;
+        int end = id.length();
+        while (end > begin && id.charAt(end - 1) == '/') {
+            end--;
+        }
+        int count = 1;
+        for (int i = begin; i < end; i++) {
+            if (id.charAt(i) == '/') {
+                count++;
             }
-
-            // Save the ID itself
-            this.id = id;
-
-            // Format of id:
-            // /subscriptions/<subscriptionId>/resourceGroups/<resourceGroupName>/providers/<providerNamespace>(/<parentResourceType>/<parentName>)*/<resourceType>/<name>
-            //  0             1                2              3                   4         5                                                        N-2            N-1
-
-            // Extract resource type and name
-            if (splits.length < 2) {
-                throw new InvalidParameterException(badIdErrorText(id));
-            } else {
-                this.name = splits[splits.length - 1];
-                this.resourceType = splits[splits.length - 2];
+        }
+        if (begin == end || count % 2 == 1) {
+            throw new InvalidParameterException(badIdErrorText(id));
+        }
+        int[] starts = new int[count];
+        int[] ends = new int[count];
+        int segment = 0;
+        starts[0] = begin;
+        for (int i = begin; i < end; i++) {
+            if (id.charAt(i) == '/') {
+                ends[segment] = i;
+                starts[++segment] = i + 1;
             }
+        }
+        ends[segment] = end;
+
+        this.id = id;
+        this.segmentStarts = starts;
+        this.segmentEnds = ends;
+        this.segmentCount = count;
+
+        // Ensure "subscriptions", "resourceGroups" and "providers"
+        if (!segmentEquals(0, "subscriptions")
+                || (count > 2 && !segmentEquals(2, "resourceGroups"))
+                || (count > 4 && !segmentEquals(4, "providers"))) {
+            throw new InvalidParameterException(badIdErrorText(id));
+        }
+    }
 
-            // Extract parent ID
-            if (splits.length < 10) {
-                this.parentId = null;
-            } else {
-                String[] parentSplits = new String[splits.length - 2];
-                System.arraycopy(splits, 0, parentSplits, 0, splits.length - 2);
-                this.parentId = "/" + StringUtils.join(parentSplits, "/");
-            }
+    private boolean segmentEquals(int index, String value) {
+        int start = segmentStarts[index];
+        return segmentEnds[index] - start == value.length()
+                && id.regionMatches(true, start, value, 0, value.length());
+    }
 
-            for (int i = 0; i < splits.length && i < 6; i++) {
-                switch (i) {
-                case 0:
-                    // Ensure "subscriptions"
-                    if (!splits[i].equalsIgnoreCase("subscriptions")) {
-                        throw new InvalidParameterException(badIdErrorText(id));
-                    }
-                    break;
-                case 1:
-                    // Extract subscription ID
-                    this.subscriptionId = splits[i];
-                    break;
-                case 2:
-                    // Ensure "resourceGroups"
-                    if (!splits[i].equalsIgnoreCase("resourceGroups")) {
-                        throw new InvalidParameterException(badIdErrorText(id));
-                    }
-                    break;
-                case 3:
-                    // Extract resource group name
-                    this.resourceGroupName = splits[i];
-                    break;
-                case 4:
-                    // Ensure "providers"
-                    if (!splits[i].equalsIgnoreCase("providers")) {
-                        throw new InvalidParameterException(badIdErrorText(id));
-                    }
-                    break;
-                case 5:
-                    // Extract provider namespace
-                    this.providerNamespace = splits[i];
-                    break;
-                default:
-                    break;
-                }
-            }
+    private String segment(int index) {
+        if (index >= segmentCount) {
+            return null;
         }
+        return id.substring(segmentStarts[index], segmentEnds[index]);
     }
 
     /**
@@ -109,13 +113,37 @@ public final class ResourceId {
      * @return ResourceId object
      */
     public static ResourceId fromString(String id) {
-        return new ResourceId(id);
+        if (id == null) {
+            return new ResourceId(null);
+        }
+        ConcurrentMap<String, ResourceId> current = cache;
+        ResourceId resourceId = current.get(id);
+        if (resourceId == null) {
+            resourceId = previousCache.get(id);
+            if (resourceId == null) {
+                resourceId = new ResourceId(id);
+            }
+            if (current.size() >= CACHE_GENERATION_SIZE) {
+                synchronized (ResourceId.class) {
+                    if (cache == current) {
+                        previousCache = current;
+                        cache = new ConcurrentHashMap<>();
+                    }
+                }
+                current = cache;
+            }
+            current.put(id, resourceId);
+        }
+        return resourceId;
     }
 
     /**
      * @return subscriptionId of the resource.
      */
     public String subscriptionId() {
+        if (this.subscriptionId == null) {
+            this.subscriptionId = segment(1);
+        }
         return this.subscriptionId;
     }
 
@@ -123,6 +151,9 @@ public final class ResourceId {
      * @return resourceGroupName of the resource.
      */
     public String resourceGroupName() {
+        if (this.resourceGroupName == null) {
+            this.resourceGroupName = segment(3);
+        }
         return this.resourceGroupName;
     }
 
@@ -130,6 +161,9 @@ public final class ResourceId {
      * @return name of the resource.
      */
     public String name() {
+        if (this.name == null && this.id != null) {
+            this.name = segment(segmentCount - 1);
+        }
         return this.name;
     }
 
@@ -137,17 +171,46 @@ public final class ResourceId {
      * @return parent resource id of the resource if any, otherwise null.
      */
     public ResourceId parent() {
-        if (this.id == null || this.parentId == null) {
+        String parentId = this.parentId();
+        if (parentId == null) {
             return null;
         } else {
-            return fromString(this.parentId);
+            return fromString(parentId);
         }
     }
 
+    /**
+     * @return the parent resource id of the resource if any, otherwise null
+     */
+    String parentId() {
+        if (this.parentId == null && this.segmentCount >= 10) {
+            // The parent ID is always rooted
+            int end = this.segmentEnds[this.segmentCount - 3];
+            this.parentId = this.segmentStarts[0] == 1
+                    ? this.id.substring(0, end)
+                    : "/" + this.id.substring(0, end);
+        }
+        return this.parentId;
+    }
+
+    /**
+     * @return the path of the resource relative to its provider namespace, e.g. foos/foo1/bars/bar1,
+     * or an empty string if the resource is not under a provider namespace
+     */
+    String relativePath() {
+        if (this.segmentCount <= 6) {
+            return "";
+        }
+        return this.id.substring(this.segmentStarts[6], this.segmentEnds[this.segmentCount - 1]);
+    }
+
     /**
      * @return name of the provider.
      */
     public String providerNamespace() {
+        if (this.providerNamespace == null) {
+            this.providerNamespace = segment(5);
+        }
         return this.providerNamespace;
     }
 
@@ -155,6 +218,9 @@ public final class ResourceId {
      * @return type of the resource.
      */
     public String resourceType() {
+        if (this.resourceType == null && this.id != null) {
+            this.resourceType = segment(segmentCount - 2);
+        }
         return this.resourceType;
     }
 
@@ -162,10 +228,10 @@ public final class ResourceId {
      * @return full type of the resource.
      */
     public String fullResourceType() {
-        if (this.parentId == null) {
-            return this.providerNamespace + "/" + this.resourceType;
+        if (this.parentId() == null) {
+            return this.providerNamespace() + "/" + this.resourceType();
         } else {
-            return this.parent().fullResourceType() + "/" + this.resourceType;
+            return this.parent().fullResourceType() + "/" + this.resourceType();
         }
     }
 
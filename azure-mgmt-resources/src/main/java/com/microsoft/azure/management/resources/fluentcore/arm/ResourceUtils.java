@@ -9,9 +9,6 @@ package com.microsoft.azure.management.resources.fluentcore.arm;
 import com.microsoft.azure.management.resources.Provider;
 import com.microsoft.azure.management.resources.ProviderResourceType;
 
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
-
 /**
  * Utility methods for Azure resource IDs.
  */
@@ -66,12 +63,7 @@ public final class ResourceUtils {
         if (id == null) {
             return null;
         }
-        ResourceId resourceId = ResourceId.fromString(id);
-        if (resourceId != null && resourceId.parent() != null) {
-            return ResourceId.fromString(id).parent().id();
-        }
-
-        return null;
+        return ResourceId.fromString(id).parentId();
     }
 
     /**
@@ -105,12 +97,7 @@ public final class ResourceUtils {
         if (id == null) {
             return null;
         }
-        String[] paths = id.split("/providers/" + resourceProviderFromResourceId(id) + "/", 2);
-        if (paths.length == 1) {
-            return "";
-        } else {
-            return paths[1];
-        }
+        return ResourceId.fromString(id).relativePath();
     }
 
     /**
@@ -125,15 +112,35 @@ public final class ResourceUtils {
         if (id == null || identifier == null) {
             return id;
         }
-        Pattern pattern = Pattern.compile(identifier + "/[-\\w._]+");
-        Matcher matcher = pattern.matcher(id);
-        if (matcher.find()) {
-            return matcher.group().split("/")[1];
-        } else {
-            return null;
+        // Find the first occurrence of the identifier followed by '/' and at least one
+        // character matching [-\w._], without compiling a pattern for every call
+        int from = 0;
+        while (true) {
+            int index = id.indexOf(identifier, from);
+            if (index < 0) {
+                return null;
+            }
+            int start = index + identifier.length() + 1;
+            if (start <= id.length() && id.charAt(start - 1) == '/') {
+                int end = start;
+                while (end < id.length() && isResourceIdCharacter(id.charAt(end))) {
+                    end++;
+                }
+                if (end > start) {
+                    return id.substring(start, end);
+                }
+            }
+            from = index + 1;
         }
     }
 
+    private static boolean isResourceIdCharacter(char c) {
+        return (c >= 'a' && c <= 'z')
+                || (c >= 'A' && c <= 'Z')
+                || (c >= '0' && c <= '9')
+                || c == '_' || c == '-' || c == '.';
+    }
+
     /**
      * Extract name of the resource from a resource ID.
      * @param id the resource ID
@@ -0,0 +1,41 @@
+/**
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for
+ * license information.
+ */
+
+package com.microsoft.azure.management.resources.fluentcore.arm.collection;
+
+import com.microsoft.azure.management.apigeneration.LangDefinition;
+import com.microsoft.azure.management.apigeneration.LangDefinition.MethodConversion;
+import com.microsoft.azure.management.resources.fluentcore.arm.models.ResourceView;
+import rx.Observable;
+
+import java.util.List;
+
+/**
+ * Provides access to listing Azure resources of a specific type in a specific resource group as compact
+ * read-only views, deserializing only the requested properties of the resources.
+ * <p>
+ * (Note this interface is not intended to be implemented by user code.)
+ */
+@LangDefinition(ContainerName = "CollectionActions", MethodConversionType = MethodConversion.OnlyMethod)
+public interface SupportsListingViewsByResourceGroup {
+    /**
+     * Lists resources of the specified type in the specified resource group as views.
+     *
+     * @param resourceGroupName the name of the resource group to list the resources from
+     * @param propertyPaths the dot separated paths of the properties to read, e.g. "properties.hardwareProfile.vmSize"
+     * @return the list of resource views
+     */
+    List<ResourceView> listViewsByResourceGroup(String resourceGroupName, String... propertyPaths);
+
+    /**
+     * Lists resources of the specified type in the specified resource group as views.
+     *
+     * @param resourceGroupName the name of the resource group to list the resources from
+     * @param propertyPaths the dot separated paths of the properties to read, e.g. "properties.hardwareProfile.vmSize"
+     * @return an observable emitting the resource views as they are read
+     */
+    Observable<ResourceView> listViewsByResourceGroupAsync(String resourceGroupName, String... propertyPaths);
+}
@@ -7,6 +7,8 @@
 package com.microsoft.azure.management.resources.fluentcore.arm.collection.implementation;
 
 import com.microsoft.azure.management.resources.fluentcore.collection.SupportsBatchCreation;
+import com.microsoft.azure.management.resources.fluentcore.dag.TaskGroup;
+import com.microsoft.azure.management.resources.fluentcore.dag.TaskGroupSchedulingStrategy;
 import com.microsoft.azure.management.resources.fluentcore.model.Creatable;
 import com.microsoft.azure.management.resources.fluentcore.model.CreatedResources;
 import com.microsoft.azure.management.resources.fluentcore.model.Indexable;
@@ -55,6 +57,13 @@ public abstract class CreatableResourcesImpl<T extends Indexable, ImplT extends
                 .single();
     }
 
+    @Override
+    public final CreatedResources<T> create(int maxConcurrency, List<Creatable<T>> creatables) {
+        return createAsyncNonStream(maxConcurrency, creatables)
+                .toBlocking()
+                .single();
+    }
+
     @Override
     @SafeVarargs
     public final Observable<Indexable> createAsync(Creatable<T> ... creatables) {
@@ -70,6 +79,13 @@ public abstract class CreatableResourcesImpl<T extends Indexable, ImplT extends
         return rootResource.createAsync();
     }
 
+    @Override
+    public final Observable<Indexable> createAsync(int maxConcurrency, List<Creatable<T>> creatables) {
+        CreatableUpdatableResourcesRootImpl<T> rootResource = new CreatableUpdatableResourcesRootImpl<>();
+        rootResource.addCreatableDependencies(creatables);
+        return rootResource.createAsync(maxConcurrency);
+    }
+
     @Override
     @SafeVarargs
     public final ServiceFuture<CreatedResources<T>> createAsync(final ServiceCallback<CreatedResources<T>> callback, Creatable<T>... creatables) {
@@ -92,6 +108,16 @@ public abstract class CreatableResourcesImpl<T extends Indexable, ImplT extends
                 });
     }
 
+    private Observable<CreatedResources<T>> createAsyncNonStream(int maxConcurrency, List<Creatable<T>> creatables) {
+        return Utils.<CreatableUpdatableResourcesRoot<T>>rootResource(this.createAsync(maxConcurrency, creatables))
+                .map(new Func1<CreatableUpdatableResourcesRoot<T>, CreatedResources<T>>() {
+                    @Override
+                    public CreatedResources<T> call(CreatableUpdatableResourcesRoot<T> tCreatableUpdatableResourcesRoot) {
+                        return new CreatedResourcesImpl<>(tCreatableUpdatableResourcesRoot);
+                    }
+                });
+    }
+
     @SuppressWarnings("unchecked")
     private Observable<CreatedResources<T>> createAsyncNonStream(Creatable<T>... creatables) {
         return Utils.<CreatableUpdatableResourcesRoot<T>>rootResource(this.createAsync(creatables))
@@ -203,6 +229,13 @@ public abstract class CreatableResourcesImpl<T extends Indexable, ImplT extends
             }
         }
 
+        Observable<Indexable> createAsync(int maxConcurrency) {
+            TaskGroup.InvocationContext context = this.taskGroup().newInvocationContext()
+                    .withConcurrencyLimit(maxConcurrency)
+                    .withSchedulingStrategy(TaskGroupSchedulingStrategy.CRITICAL_PATH_FIRST);
+            return this.taskGroup().invokeAsync(context);
+        }
+
         @Override
         public Observable<CreatableUpdatableResourcesRoot<ResourceT>> createResourceAsync() {
             return Observable.just((CreatableUpdatableResourcesRoot<ResourceT>) this);
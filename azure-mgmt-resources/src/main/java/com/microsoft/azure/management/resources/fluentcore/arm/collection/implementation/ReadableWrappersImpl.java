@@ -8,7 +8,9 @@ package com.microsoft.azure.management.resources.fluentcore.arm.collection.imple
 import com.microsoft.azure.Page;
 import com.microsoft.azure.PagedList;
 import com.microsoft.azure.management.resources.fluentcore.utils.PagedListConverter;
+import com.microsoft.azure.management.resources.fluentcore.utils.StreamingListReader;
 import com.microsoft.azure.management.resources.implementation.PageImpl;
+import retrofit2.Retrofit;
 import rx.Observable;
 import rx.functions.Func1;
 
@@ -74,6 +76,17 @@ public abstract class ReadableWrappersImpl<
         return wrapModelAsync(convertListToInnerAsync(innerList));
     }
 
+    /**
+     * Lists the models of a list operation as a stream, without materializing its pages.
+     * @param retrofit the retrofit client
+     * @param url the URL of the first page of the list operation
+     * @param innerType the wrapper inner type
+     * @return Observable for the models.
+     */
+    protected Observable<T> wrapStreamAsync(Retrofit retrofit, String url, Class<InnerT> innerType) {
+        return wrapModelAsync(StreamingListReader.listAsync(retrofit, url, innerType));
+    }
+
     /**
      * Converts Observable of list to Observable of Inner.
      * @param innerList list to be converted.
@@ -10,15 +10,25 @@ import com.microsoft.azure.AzureEnvironment;
 import com.microsoft.azure.AzureResponseBuilder;
 import com.microsoft.azure.credentials.AzureTokenCredentials;
 import com.microsoft.azure.management.resources.fluentcore.arm.AzureConfigurable;
+import com.microsoft.azure.management.resources.fluentcore.utils.MetricsInterceptor;
+import com.microsoft.azure.management.resources.fluentcore.utils.MetricsListener;
 import com.microsoft.azure.management.resources.fluentcore.utils.ProviderRegistrationInterceptor;
+import com.microsoft.azure.management.resources.fluentcore.utils.RequestCoalescer;
+import com.microsoft.azure.management.resources.fluentcore.utils.RequestCoalescingInterceptor;
+import com.microsoft.azure.management.resources.fluentcore.utils.ResourceCache;
+import com.microsoft.azure.management.resources.fluentcore.utils.ResourceCacheInterceptor;
 import com.microsoft.azure.management.resources.fluentcore.utils.ResourceManagerThrottlingInterceptor;
+import com.microsoft.azure.management.resources.fluentcore.utils.RetryPolicy;
+import com.microsoft.azure.management.resources.fluentcore.utils.RetryPolicyInterceptor;
 import com.microsoft.azure.serializer.AzureJacksonAdapter;
 import com.microsoft.rest.LogLevel;
 import com.microsoft.rest.RestClient;
+import com.microsoft.rest.retry.RetryStrategy;
 import okhttp3.Authenticator;
 import okhttp3.ConnectionPool;
 import okhttp3.Dispatcher;
 import okhttp3.Interceptor;
+import okhttp3.Response;
 
 import java.net.Proxy;
 import java.util.concurrent.Executor;
@@ -33,6 +43,10 @@ import java.util.concurrent.TimeUnit;
 public class AzureConfigurableImpl<T extends AzureConfigurable<T>>
         implements AzureConfigurable<T> {
     protected RestClient.Builder restClientBuilder;
+    protected RetryPolicy retryPolicy;
+    protected ResourceCache resourceCache;
+    protected RequestCoalescer requestCoalescer;
+    protected MetricsListener metricsListener;
 
     protected AzureConfigurableImpl() {
         this.restClientBuilder = new RestClient.Builder()
@@ -124,12 +138,59 @@ public class AzureConfigurableImpl<T extends AzureConfigurable<T>>
         return (T) this;
     }
 
+    @SuppressWarnings("unchecked")
+    @Override
+    public T withRetryPolicy(RetryPolicy retryPolicy) {
+        this.retryPolicy = retryPolicy;
+        return (T) this;
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public T withResourceCache(ResourceCache resourceCache) {
+        this.resourceCache = resourceCache;
+        return (T) this;
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public T withRequestCoalescer(RequestCoalescer requestCoalescer) {
+        this.requestCoalescer = requestCoalescer;
+        return (T) this;
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public T withMetricsListener(MetricsListener metricsListener) {
+        this.metricsListener = metricsListener;
+        return (T) this;
+    }
+
     protected RestClient buildRestClient(AzureTokenCredentials credentials, AzureEnvironment.Endpoint endpoint) {
-        RestClient client =  restClientBuilder
+        RestClient.Builder builder = restClientBuilder
                 .withBaseUrl(credentials.environment(), endpoint)
-                .withCredentials(credentials)
-                .withInterceptor(new ProviderRegistrationInterceptor(credentials))
-                .withInterceptor(new ResourceManagerThrottlingInterceptor())
+                .withCredentials(credentials);
+        if (metricsListener != null) {
+            // Added first so that the latency includes the retries and the throttling waits
+            builder = builder.withInterceptor(new MetricsInterceptor(metricsListener));
+        }
+        if (requestCoalescer != null) {
+            // Added before the other interceptors so that the coalesced requests skip them
+            builder = builder.withInterceptor(new RequestCoalescingInterceptor(requestCoalescer, credentials));
+        }
+        builder = builder.withInterceptor(new ProviderRegistrationInterceptor(credentials));
+        if (resourceCache != null) {
+            // Added before the retry interceptor so that the revalidated requests are retried as well
+            builder = builder.withInterceptor(new ResourceCacheInterceptor(resourceCache));
+        }
+        if (retryPolicy != null) {
+            // Added before the throttling interceptor so that every retry is paced as well, and replacing
+            // the retries of the client runtime so that a failed request is not retried by both
+            builder = builder.withInterceptor(new RetryPolicyInterceptor(retryPolicy, metricsListener))
+                    .withRetryStrategy(new NoRetryStrategy());
+        }
+        RestClient client = builder
+                .withInterceptor(new ResourceManagerThrottlingInterceptor(metricsListener))
                 .build();
         if (client.httpClient().proxy() != null) {
             credentials.withProxy(client.httpClient().proxy());
@@ -140,4 +201,18 @@ public class AzureConfigurableImpl<T extends AzureConfigurable<T>>
     protected RestClient buildRestClient(AzureTokenCredentials credentials) {
         return buildRestClient(credentials, AzureEnvironment.Endpoint.RESOURCE_MANAGER);
     }
+
+    /**
+     * A retry strategy never retrying, for the requests retried by a {@link RetryPolicyInterceptor}.
+     */
+    private static final class NoRetryStrategy extends RetryStrategy {
+        private NoRetryStrategy() {
+            super("NoRetry", false);
+        }
+
+        @Override
+        public boolean shouldRetry(int retryCount, Response response) {
+            return false;
+        }
+    }
 }
@@ -6,6 +6,8 @@
 
 package com.microsoft.azure.management.resources.fluentcore.arm.implementation;
 
+import com.microsoft.azure.management.resources.fluentcore.utils.MetricsInterceptor;
+import com.microsoft.azure.management.resources.fluentcore.utils.MetricsListener;
 import com.microsoft.azure.management.resources.implementation.ResourceManager;
 import com.microsoft.rest.RestClient;
 
@@ -16,12 +18,14 @@ public abstract class ManagerBase {
 
     private ResourceManager resourceManager;
     private final String subscriptionId;
+    private final MetricsListener metricsListener;
 
     protected ManagerBase(RestClient restClient, String subscriptionId) {
         if (restClient != null) {
             this.resourceManager = ResourceManager.authenticate(restClient).withSubscription(subscriptionId);
         }
         this.subscriptionId = subscriptionId;
+        this.metricsListener = restClient != null ? MetricsInterceptor.metricsListenerOf(restClient.httpClient()) : null;
     }
 
     /**
@@ -31,6 +35,13 @@ public abstract class ManagerBase {
         return this.subscriptionId;
     }
 
+    /**
+     * @return the listener receiving the metrics of the manager, null if none
+     */
+    public MetricsListener metricsListener() {
+        return this.metricsListener;
+    }
+
     protected final void setResourceManager(ResourceManager resourceManager) {
         this.resourceManager = resourceManager;
     }
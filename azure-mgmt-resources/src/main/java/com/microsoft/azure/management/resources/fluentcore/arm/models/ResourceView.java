@@ -0,0 +1,54 @@
+/**
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for
+ * license information.
+ */
+
+package com.microsoft.azure.management.resources.fluentcore.arm.models;
+
+import com.microsoft.azure.management.apigeneration.Fluent;
+
+import java.util.Map;
+
+/**
+ * A compact read-only view of a resource, holding its identity, location and tags
+ * and only the properties requested when listing.
+ */
+@Fluent
+public interface ResourceView extends
+        HasId,
+        HasName {
+    /**
+     * @return the type of the resource
+     */
+    String type();
+
+    /**
+     * @return the name of the resource group the resource is in
+     */
+    String resourceGroupName();
+
+    /**
+     * @return the name of the region the resource is in
+     */
+    String regionName();
+
+    /**
+     * @return the tags of the resource
+     */
+    Map<String, String> tags();
+
+    /**
+     * Gets a property requested when listing.
+     *
+     * @param path the dot separated path of the property in the resource JSON, e.g. "properties.hardwareProfile.vmSize"
+     * @return the value of a scalar property as text, the JSON of an object or array property,
+     * or null if the property is absent or was not requested
+     */
+    String property(String path);
+
+    /**
+     * @return the requested properties present in the resource, by path
+     */
+    Map<String, String> properties();
+}
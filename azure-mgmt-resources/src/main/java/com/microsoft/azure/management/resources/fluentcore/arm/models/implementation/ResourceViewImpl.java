@@ -0,0 +1,88 @@
+/**
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for
+ * license information.
+ */
+
+package com.microsoft.azure.management.resources.fluentcore.arm.models.implementation;
+
+import com.microsoft.azure.management.resources.fluentcore.arm.ResourceUtils;
+import com.microsoft.azure.management.resources.fluentcore.arm.models.ResourceView;
+
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * The implementation of {@link ResourceView}.
+ * (Internal use only)
+ */
+public final class ResourceViewImpl implements ResourceView {
+    private final String id;
+    private final String name;
+    private final String type;
+    private final String regionName;
+    private final Map<String, String> tags;
+    private final Map<String, String> properties;
+
+    /**
+     * Creates ResourceViewImpl.
+     *
+     * @param id the resource ID
+     * @param name the resource name
+     * @param type the resource type
+     * @param regionName the region name
+     * @param tags the tags, or null
+     * @param properties the requested properties present in the resource, by path
+     */
+    public ResourceViewImpl(String id, String name, String type, String regionName,
+                            Map<String, String> tags, Map<String, String> properties) {
+        this.id = id;
+        this.name = name;
+        this.type = type;
+        this.regionName = regionName;
+        this.tags = tags == null
+                ? Collections.<String, String>emptyMap()
+                : Collections.unmodifiableMap(tags);
+        this.properties = Collections.unmodifiableMap(properties);
+    }
+
+    @Override
+    public String id() {
+        return this.id;
+    }
+
+    @Override
+    public String name() {
+        return this.name;
+    }
+
+    @Override
+    public String type() {
+        return this.type;
+    }
+
+    @Override
+    public String resourceGroupName() {
+        return this.id == null ? null : ResourceUtils.groupFromResourceId(this.id);
+    }
+
+    @Override
+    public String regionName() {
+        return this.regionName;
+    }
+
+    @Override
+    public Map<String, String> tags() {
+        return this.tags;
+    }
+
+    @Override
+    public String property(String path) {
+        return this.properties.get(path);
+    }
+
+    @Override
+    public Map<String, String> properties() {
+        return this.properties;
+    }
+}
@@ -41,6 +41,16 @@ public interface SupportsBatchCreation<ResourceT extends Indexable> {
      */
     CreatedResources<ResourceT> create(List<Creatable<ResourceT>> creatables);
 
+    /**
+     * Executes the create requests on a collection (batch) of resources, running at most the given number of
+     * create requests at a time. Resources the most other resources in the batch depend on are created first.
+     *
+     * @param maxConcurrency the maximum number of create requests running concurrently
+     * @param creatables the list of creatables in the batch
+     * @return the batch operation result from which created resources in this batch can be accessed.
+     */
+    CreatedResources<ResourceT> create(int maxConcurrency, List<Creatable<ResourceT>> creatables);
+
     /**
      * Puts the requests to create a batch of resources into the queue and allow the HTTP client to execute it when
      * system resources are available.
@@ -59,6 +69,16 @@ public interface SupportsBatchCreation<ResourceT extends Indexable> {
      */
     Observable<Indexable> createAsync(List<Creatable<ResourceT>> creatables);
 
+    /**
+     * Puts the requests to create a batch of resources into the queue and allow the HTTP client to execute at most
+     * the given number of them at a time. Resources the most other resources in the batch depend on are created first.
+     *
+     * @param maxConcurrency the maximum number of create requests running concurrently
+     * @param creatables the list of creatables in the batch
+     * @return an observable for the resources
+     */
+    Observable<Indexable> createAsync(int maxConcurrency, List<Creatable<ResourceT>> creatables);
+
     /**
      * Puts the requests to create a batch of resources into the queue and allow the HTTP client to execute it when
      * system resources are available.
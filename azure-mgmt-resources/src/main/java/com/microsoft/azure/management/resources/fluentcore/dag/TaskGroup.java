@@ -7,6 +7,7 @@
 package com.microsoft.azure.management.resources.fluentcore.dag;
 
 import com.microsoft.azure.management.resources.fluentcore.model.Indexable;
+import com.microsoft.azure.management.resources.fluentcore.utils.MetricsListener;
 import rx.Completable;
 import rx.Observable;
 import rx.functions.Func0;
@@ -15,6 +16,7 @@ import rx.schedulers.Schedulers;
 
 import java.util.ArrayList;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -347,19 +349,23 @@ public class TaskGroup
      * @return an observable that emits the result of tasks in the order they finishes.
      */
     private Observable<Indexable> invokeReadyTasksAsync(final InvocationContext context) {
-        TaskGroupEntry<TaskItem> readyTaskEntry = super.getNext();
+        final List<TaskGroupEntry<TaskItem>> readyTaskEntries = new ArrayList<>();
+        for (TaskGroupEntry<TaskItem> readyTaskEntry = super.getNext(); readyTaskEntry != null; readyTaskEntry = super.getNext()) {
+            readyTaskEntries.add(readyTaskEntry);
+        }
+        // When the concurrency is bounded, ready tasks are queued for invocation in priority order
+        //
+        context.scheduler().prioritize(this, readyTaskEntries);
         final List<Observable<Indexable>> observables = new ArrayList<>();
         // Enumerate the ready tasks (those with dependencies resolved) and kickoff them concurrently
         //
-        while (readyTaskEntry != null) {
-            final TaskGroupEntry<TaskItem> currentEntry = readyTaskEntry;
+        for (final TaskGroupEntry<TaskItem> currentEntry : readyTaskEntries) {
             final TaskItem currentTaskItem = currentEntry.data();
             if (currentTaskItem instanceof ProxyTaskItem) {
                 observables.add(invokeAfterPostRunAsync(currentEntry, context));
             } else {
                 observables.add(invokeTaskAsync(currentEntry, context));
             }
-            readyTaskEntry = super.getNext();
         }
         return Observable.mergeDelayError(observables);
     }
@@ -392,7 +398,9 @@ public class TaskGroup
                     //
                     boolean ignoreCachedResult = isRootEntry(entry) || (entry.proxy() != null && isRootEntry(entry.proxy()));
 
-                    Observable<Indexable> taskObservable = entry.invokeTaskAsync(ignoreCachedResult, context);
+                    boolean isCachedResult = !ignoreCachedResult && entry.taskResult() != null;
+                    Observable<Indexable> taskObservable = context.scheduler()
+                            .schedule(TaskGroup.this, entry, entry.invokeTaskAsync(ignoreCachedResult, context), isCachedResult);
                     Func1<Indexable, Observable<Indexable>> onResult = new Func1<Indexable, Observable<Indexable>>() {
                         @Override
                         public Observable<Indexable> call(final Indexable taskResult) {
@@ -574,6 +582,16 @@ public class TaskGroup
         TaskGroup taskGroup();
     }
 
+    /**
+     * An interface representing a task item that creates or updates a resource of a known type.
+     */
+    public interface HasResourceType {
+        /**
+         * @return the type of the resource, used to apply per resource type concurrency limits
+         */
+        Class<?> resourceType();
+    }
+
     /**
      * A mutable type that can be used to pass data around task items during the invocation
      * of the TaskGroup.
@@ -582,6 +600,11 @@ public class TaskGroup
         private final Map<String, Object> properties;
         private final TaskGroup taskGroup;
         private TaskGroupTerminateOnErrorStrategy terminateOnErrorStrategy;
+        private int maxConcurrency;
+        private final Map<Class<?>, Integer> resourceTypeConcurrencyLimits;
+        private TaskGroupSchedulingStrategy schedulingStrategy;
+        private TaskGroupScheduler scheduler;
+        private MetricsListener metricsListener;
 
         /**
          * Creates InvocationContext instance.
@@ -590,6 +613,7 @@ public class TaskGroup
          */
         private InvocationContext(final TaskGroup taskGroup) {
             this.properties = new ConcurrentHashMap<>();
+            this.resourceTypeConcurrencyLimits = new LinkedHashMap<>();
             this.taskGroup = taskGroup;
         }
 
@@ -624,6 +648,98 @@ public class TaskGroup
             return this.terminateOnErrorStrategy;
         }
 
+        /**
+         * Sets the maximum number of tasks in the group that can be invoked concurrently.
+         *
+         * @param maxConcurrency the maximum number of concurrent tasks, 0 for no limit
+         * @return the context
+         */
+        public InvocationContext withConcurrencyLimit(int maxConcurrency) {
+            ensureNotScheduling();
+            this.maxConcurrency = maxConcurrency;
+            return this;
+        }
+
+        /**
+         * Sets the maximum number of tasks creating or updating resources of the given type that can be
+         * invoked concurrently. The limit applies to the task items implementing {@link HasResourceType}
+         * whose resource type is assignable to the given type.
+         *
+         * @param resourceType the resource type, e.g. the fluent interface of the resource
+         * @param maxConcurrency the maximum number of concurrent tasks for the resource type
+         * @return the context
+         */
+        public InvocationContext withConcurrencyLimit(Class<?> resourceType, int maxConcurrency) {
+            ensureNotScheduling();
+            this.resourceTypeConcurrencyLimits.put(resourceType, maxConcurrency);
+            return this;
+        }
+
+        /**
+         * Sets the order in which ready tasks are invoked when the concurrency is limited.
+         *
+         * @param strategy the strategy
+         * @return the context
+         */
+        public InvocationContext withSchedulingStrategy(TaskGroupSchedulingStrategy strategy) {
+            ensureNotScheduling();
+            this.schedulingStrategy = strategy;
+            return this;
+        }
+
+        /**
+         * @return the order in which ready tasks are invoked when the concurrency is limited.
+         */
+        public TaskGroupSchedulingStrategy schedulingStrategy() {
+            if (this.schedulingStrategy == null) {
+                return TaskGroupSchedulingStrategy.CRITICAL_PATH_FIRST;
+            }
+            return this.schedulingStrategy;
+        }
+
+        /**
+         * Sets the listener notified with the timings of each task of the current invocation.
+         *
+         * @param metricsListener the metrics listener
+         * @return the context
+         */
+        public InvocationContext withMetricsListener(MetricsListener metricsListener) {
+            ensureNotScheduling();
+            this.metricsListener = metricsListener;
+            return this;
+        }
+
+        /**
+         * @return the scheduler bounding the concurrency of the current invocation of the TaskGroup.
+         */
+        synchronized TaskGroupScheduler scheduler() {
+            if (this.scheduler == null) {
+                this.scheduler = new TaskGroupScheduler(this.maxConcurrency,
+                        this.resourceTypeConcurrencyLimits,
+                        this.schedulingStrategy(),
+                        this.metricsListener);
+            }
+            return this.scheduler;
+        }
+
+        /**
+         * Gets the timeline of the current invocation of the TaskGroup, recording when each task
+         * became ready, started and ended. The timeline is recorded only when a concurrency limit
+         * or a metrics listener is set.
+         *
+         * @return the timeline, null if it is not recorded or the invocation has not started yet
+         */
+        public synchronized TaskGroupTimeline timeline() {
+            // Not creating the scheduler, which would freeze the concurrency settings before the invocation
+            return this.scheduler != null ? this.scheduler.timeline() : null;
+        }
+
+        private synchronized void ensureNotScheduling() {
+            if (this.scheduler != null) {
+                throw new IllegalStateException("Concurrency settings cannot be changed once the invocation started");
+            }
+        }
+
         /**
          * Put a key-value in the context.
          *
@@ -0,0 +1,402 @@
+/**
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for
+ * license information.
+ */
+
+package com.microsoft.azure.management.resources.fluentcore.dag;
+
+import com.microsoft.azure.management.resources.fluentcore.model.Indexable;
+import com.microsoft.azure.management.resources.fluentcore.utils.MetricsListener;
+import rx.Observable;
+import rx.functions.Action0;
+import rx.functions.Action1;
+import rx.functions.Func0;
+import rx.functions.Func1;
+import rx.subjects.AsyncSubject;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Type that schedules the tasks invoked during the invocation of a {@link TaskGroup}.
+ * <p>
+ * When the concurrency is bounded, a task selected for invocation is queued until a slot is available,
+ * both in the group-wide limit and in the limit of its resource type if any. Queued tasks are started in
+ * the order defined by the {@link TaskGroupSchedulingStrategy}, the critical path being estimated from the
+ * durations of the previous invocations of tasks of the same type.
+ * <p>
+ * The scheduler also records the {@link TaskGroupTimeline} of the invocation, when the concurrency
+ * is bounded or a metrics listener is set.
+ */
+final class TaskGroupScheduler {
+    /**
+     * Marker for the resource types without a concurrency limit.
+     */
+    private static final Class<?> NO_LIMIT = Void.class;
+    /**
+     * The expected duration of the tasks of a type never invoked before.
+     */
+    private static final long DEFAULT_EXPECTED_DURATION_MILLIS = 1000;
+    /**
+     * The durations of the previously invoked tasks, per task type.
+     */
+    private static final ConcurrentHashMap<Class<?>, DurationEstimate> DURATION_ESTIMATES = new ConcurrentHashMap<>();
+
+    private final int maxConcurrency;
+    private final Map<Class<?>, Integer> resourceTypeLimits;
+    private final TaskGroupSchedulingStrategy strategy;
+    private final ConcurrentHashMap<Class<?>, Class<?>> limitKeys = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, Long> remainingPathMillis = new ConcurrentHashMap<>();
+    private final TaskGroupTimeline timeline;
+    /**
+     * The number of drain requests not handled yet, so that a single thread drains at a time.
+     */
+    private final AtomicInteger drainRequests = new AtomicInteger();
+    // The fields below are guarded by 'this'
+    private final TreeSet<PendingTask> pendingTasks;
+    private final Map<Class<?>, Integer> runningByType = new HashMap<>();
+    private int running;
+    private long sequence;
+
+    /**
+     * Creates TaskGroupScheduler.
+     *
+     * @param maxConcurrency the maximum number of tasks running concurrently, 0 or less for no limit
+     * @param resourceTypeLimits the maximum number of tasks running concurrently per resource type
+     * @param strategy the order in which queued tasks are started
+     * @param metricsListener the listener notified when a task completes, may be null
+     */
+    TaskGroupScheduler(int maxConcurrency,
+                       Map<Class<?>, Integer> resourceTypeLimits,
+                       TaskGroupSchedulingStrategy strategy,
+                       MetricsListener metricsListener) {
+        this.maxConcurrency = maxConcurrency;
+        this.resourceTypeLimits = new HashMap<>(resourceTypeLimits);
+        this.timeline = isBounded() || metricsListener != null ? new TaskGroupTimeline(metricsListener) : null;
+        this.strategy = strategy;
+        this.pendingTasks = new TreeSet<>(new Comparator<PendingTask>() {
+            @Override
+            public int compare(PendingTask left, PendingTask right) {
+                if (left.priority != right.priority) {
+                    return left.priority > right.priority ? -1 : 1;
+                }
+                return Long.compare(left.sequence, right.sequence);
+            }
+        });
+    }
+
+    /**
+     * @return true if this scheduler bounds the concurrency, false if every task can run right away
+     */
+    boolean isBounded() {
+        return maxConcurrency > 0 || !resourceTypeLimits.isEmpty();
+    }
+
+    /**
+     * @return the timeline of the invocation, null if it is not recorded
+     */
+    TaskGroupTimeline timeline() {
+        return timeline;
+    }
+
+    /**
+     * Schedules the invocation of a task.
+     *
+     * @param taskGroup the task group being invoked
+     * @param entry the entry holding the task
+     * @param taskObservable the cold observable invoking the task
+     * @param isCached true if the task observable emits a cached result rather than invoking the task
+     * @return an observable that invokes the task once a slot is available
+     */
+    Observable<Indexable> schedule(final TaskGroup taskGroup,
+                                   final TaskGroupEntry<TaskItem> entry,
+                                   final Observable<Indexable> taskObservable,
+                                   final boolean isCached) {
+        if (timeline == null) {
+            return taskObservable;
+        }
+        final Class<?> taskType = taskType(entry.data());
+        final TaskGroupTimeline.Entry timelineEntry = timeline.onReady(entry.key(), taskType);
+        final Observable<Indexable> timedTaskObservable = taskObservable
+                .doOnSubscribe(new Action0() {
+                    @Override
+                    public void call() {
+                        timelineEntry.onStart();
+                    }
+                })
+                .doOnError(new Action1<Throwable>() {
+                    @Override
+                    public void call(Throwable throwable) {
+                        timelineEntry.onEnd(true);
+                    }
+                })
+                .doOnCompleted(new Action0() {
+                    @Override
+                    public void call() {
+                        timelineEntry.onEnd(false);
+                        if (!isCached && timelineEntry.durationMillis() >= 0) {
+                            durationEstimate(taskType).record(timelineEntry.durationMillis());
+                        }
+                    }
+                });
+        if (!isBounded()) {
+            return timedTaskObservable;
+        }
+        return Observable.defer(new Func0<Observable<Indexable>>() {
+            @Override
+            public Observable<Indexable> call() {
+                final PendingTask pendingTask = enqueue(priority(taskGroup, entry), limitKey(taskType));
+                drain();
+                final Action0 release = new Action0() {
+                    @Override
+                    public void call() {
+                        if (pendingTask.released.compareAndSet(false, true)) {
+                            release(pendingTask);
+                            drain();
+                        }
+                    }
+                };
+                return pendingTask.granted
+                        .doOnUnsubscribe(new Action0() {
+                            @Override
+                            public void call() {
+                                cancel(pendingTask, release);
+                            }
+                        })
+                        .flatMap(new Func1<Boolean, Observable<Indexable>>() {
+                            @Override
+                            public Observable<Indexable> call(Boolean granted) {
+                                if (!pendingTask.started.compareAndSet(false, true)) {
+                                    // Cancelled once granted, the slot is already released
+                                    return Observable.empty();
+                                }
+                                return timedTaskObservable
+                                        .doAfterTerminate(release)
+                                        .doOnUnsubscribe(release);
+                            }
+                        });
+            }
+        });
+    }
+
+    /**
+     * Sorts the tasks becoming ready together so that they are queued in priority order.
+     *
+     * @param taskGroup the task group being invoked
+     * @param entries the entries holding the ready tasks
+     */
+    void prioritize(final TaskGroup taskGroup, List<TaskGroupEntry<TaskItem>> entries) {
+        if (!isBounded() || strategy != TaskGroupSchedulingStrategy.CRITICAL_PATH_FIRST) {
+            return;
+        }
+        Collections.sort(entries, new Comparator<TaskGroupEntry<TaskItem>>() {
+            @Override
+            public int compare(TaskGroupEntry<TaskItem> left, TaskGroupEntry<TaskItem> right) {
+                return Long.compare(remainingPathMillis(taskGroup, right), remainingPathMillis(taskGroup, left));
+            }
+        });
+    }
+
+    private synchronized PendingTask enqueue(long priority, Class<?> limitKey) {
+        PendingTask pendingTask = new PendingTask(priority, sequence++, limitKey);
+        pendingTasks.add(pendingTask);
+        return pendingTask;
+    }
+
+    /**
+     * Withdraws a task whose subscriber unsubscribed. A task granted a slot but not started yet
+     * gives its slot back.
+     */
+    private void cancel(PendingTask pendingTask, Action0 release) {
+        synchronized (this) {
+            if (pendingTasks.remove(pendingTask)) {
+                return;
+            }
+        }
+        if (pendingTask.started.compareAndSet(false, true)) {
+            release.call();
+        }
+    }
+
+    private synchronized void release(PendingTask pendingTask) {
+        running--;
+        if (pendingTask.limitKey != NO_LIMIT) {
+            runningByType.put(pendingTask.limitKey, runningByType.get(pendingTask.limitKey) - 1);
+        }
+    }
+
+    /**
+     * Starts the queued tasks for which a slot is available. Grants are signaled outside the lock
+     * since they synchronously subscribe to the tasks. A task completing synchronously drains again
+     * from within a grant; that drain is left to the loop already running, so that the stack does
+     * not grow with the number of tasks.
+     */
+    private void drain() {
+        if (drainRequests.getAndIncrement() != 0) {
+            return;
+        }
+        int missed = 1;
+        while (true) {
+            List<PendingTask> grantedTasks = new ArrayList<>();
+            synchronized (this) {
+                Iterator<PendingTask> iterator = pendingTasks.iterator();
+                while (iterator.hasNext() && (maxConcurrency <= 0 || running < maxConcurrency)) {
+                    PendingTask pendingTask = iterator.next();
+                    if (pendingTask.limitKey != NO_LIMIT) {
+                        Integer runningOfType = runningByType.get(pendingTask.limitKey);
+                        if (runningOfType == null) {
+                            runningOfType = 0;
+                        }
+                        if (runningOfType >= resourceTypeLimits.get(pendingTask.limitKey)) {
+                            continue;
+                        }
+                        runningByType.put(pendingTask.limitKey, runningOfType + 1);
+                    }
+                    running++;
+                    iterator.remove();
+                    grantedTasks.add(pendingTask);
+                }
+            }
+            for (PendingTask pendingTask : grantedTasks) {
+                pendingTask.granted.onNext(true);
+                pendingTask.granted.onCompleted();
+            }
+            missed = drainRequests.addAndGet(-missed);
+            if (missed == 0) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Gets the type of a task, which is the type of the resource it creates or updates if known.
+     *
+     * @param taskItem the task
+     * @return the task type
+     */
+    private static Class<?> taskType(TaskItem taskItem) {
+        if (taskItem instanceof TaskGroup.HasResourceType) {
+            return ((TaskGroup.HasResourceType) taskItem).resourceType();
+        }
+        return taskItem.getClass();
+    }
+
+    /**
+     * Gets the key of the concurrency limit applying to a task type.
+     *
+     * @param taskType the task type
+     * @return the resource type the limit is defined for, or {@link this#NO_LIMIT}
+     */
+    private Class<?> limitKey(Class<?> taskType) {
+        if (resourceTypeLimits.isEmpty()) {
+            return NO_LIMIT;
+        }
+        Class<?> limitKey = limitKeys.get(taskType);
+        if (limitKey == null) {
+            limitKey = NO_LIMIT;
+            for (Class<?> type : resourceTypeLimits.keySet()) {
+                if (type.isAssignableFrom(taskType)) {
+                    limitKey = type;
+                    break;
+                }
+            }
+            limitKeys.putIfAbsent(taskType, limitKey);
+        }
+        return limitKey;
+    }
+
+    /**
+     * Gets the priority of a task, tasks with higher priority are started first.
+     *
+     * @param taskGroup the task group being invoked
+     * @param entry the entry holding the task
+     * @return the priority
+     */
+    private long priority(TaskGroup taskGroup, TaskGroupEntry<TaskItem> entry) {
+        if (strategy == TaskGroupSchedulingStrategy.CRITICAL_PATH_FIRST) {
+            return remainingPathMillis(taskGroup, entry);
+        }
+        return 0;
+    }
+
+    /**
+     * Gets the expected duration of the longest path from a task up to the root task, including the task.
+     *
+     * @param taskGroup the task group being invoked
+     * @param entry the entry holding the task
+     * @return the expected duration of the remaining path in milliseconds
+     */
+    private long remainingPathMillis(TaskGroup taskGroup, TaskGroupEntry<TaskItem> entry) {
+        Long remaining = remainingPathMillis.get(entry.key());
+        if (remaining == null) {
+            long longestDependentPath = 0;
+            for (String dependentKey : entry.dependentKeys()) {
+                TaskGroupEntry<TaskItem> dependent = taskGroup.getNode(dependentKey);
+                if (dependent != null) {
+                    longestDependentPath = Math.max(longestDependentPath, remainingPathMillis(taskGroup, dependent));
+                }
+            }
+            remaining = longestDependentPath + durationEstimate(taskType(entry.data())).expectedMillis();
+            remainingPathMillis.put(entry.key(), remaining);
+        }
+        return remaining;
+    }
+
+    private static DurationEstimate durationEstimate(Class<?> taskType) {
+        DurationEstimate estimate = DURATION_ESTIMATES.get(taskType);
+        if (estimate == null) {
+            DURATION_ESTIMATES.putIfAbsent(taskType, new DurationEstimate());
+            estimate = DURATION_ESTIMATES.get(taskType);
+        }
+        return estimate;
+    }
+
+    /**
+     * The exponentially weighted moving average of the durations of the tasks of a type.
+     */
+    private static final class DurationEstimate {
+        private static final double WEIGHT = 0.2;
+        private double averageMillis = -1;
+
+        synchronized void record(long durationMillis) {
+            if (averageMillis < 0) {
+                averageMillis = durationMillis;
+            } else {
+                averageMillis = WEIGHT * durationMillis + (1 - WEIGHT) * averageMillis;
+            }
+        }
+
+        synchronized long expectedMillis() {
+            // At least 1 ms so that longer chains of unknown or instant tasks still come first
+            return averageMillis < 0 ? DEFAULT_EXPECTED_DURATION_MILLIS : Math.max(1, (long) averageMillis);
+        }
+    }
+
+    /**
+     * A task waiting for a slot.
+     */
+    private static final class PendingTask {
+        private final long priority;
+        private final long sequence;
+        private final Class<?> limitKey;
+        private final AsyncSubject<Boolean> granted = AsyncSubject.create();
+        private final AtomicBoolean started = new AtomicBoolean(false);
+        private final AtomicBoolean released = new AtomicBoolean(false);
+
+        private PendingTask(long priority, long sequence, Class<?> limitKey) {
+            this.priority = priority;
+            this.sequence = sequence;
+            this.limitKey = limitKey;
+        }
+    }
+}
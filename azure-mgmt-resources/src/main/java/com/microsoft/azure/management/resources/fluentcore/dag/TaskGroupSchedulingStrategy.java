@@ -0,0 +1,25 @@
+/**
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for
+ * license information.
+ */
+
+package com.microsoft.azure.management.resources.fluentcore.dag;
+
+/**
+ * Defines the order in which ready tasks are started when the invocation of a task group
+ * is bounded by a concurrency limit.
+ */
+public enum TaskGroupSchedulingStrategy {
+    /**
+     * Indicate that ready tasks are started in the order they become ready.
+     */
+    READY_ORDER,
+    /**
+     * Indicate that among the ready tasks, the ones with the longest expected remaining path
+     * up to the root task are started first, so that the critical path of the group is
+     * not delayed by tasks nothing else is waiting on. The expected duration of a task is
+     * learned from the previous invocations of tasks of the same resource type.
+     */
+    CRITICAL_PATH_FIRST
+}
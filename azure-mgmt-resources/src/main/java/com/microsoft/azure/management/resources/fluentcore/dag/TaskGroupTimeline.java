@@ -0,0 +1,234 @@
+/**
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for
+ * license information.
+ */
+
+package com.microsoft.azure.management.resources.fluentcore.dag;
+
+import com.microsoft.azure.management.resources.fluentcore.utils.MetricsListener;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The timeline of an invocation of a {@link TaskGroup}, recording when each task became ready,
+ * started and ended.
+ * <p>
+ * Times are in milliseconds relative to the start of the invocation. The timeline can be exported
+ * as JSON or in the Chrome trace event format, to be loaded in chrome://tracing.
+ */
+public final class TaskGroupTimeline {
+    private final long originNanos;
+    private final MetricsListener metricsListener;
+    private final ConcurrentLinkedQueue<Entry> entries = new ConcurrentLinkedQueue<>();
+
+    /**
+     * Creates TaskGroupTimeline starting now.
+     */
+    TaskGroupTimeline() {
+        this(null);
+    }
+
+    /**
+     * Creates TaskGroupTimeline starting now, reporting the completed tasks.
+     *
+     * @param metricsListener the listener notified when a task completes, may be null
+     */
+    TaskGroupTimeline(MetricsListener metricsListener) {
+        this.originNanos = System.nanoTime();
+        this.metricsListener = metricsListener;
+    }
+
+    /**
+     * Records that a task became ready, i.e. all its dependencies are resolved.
+     *
+     * @param key the task key
+     * @param taskType the task type
+     * @return the timeline entry of the task
+     */
+    Entry onReady(String key, Class<?> taskType) {
+        Entry entry = new Entry(key, taskType.getSimpleName(), elapsedNanos());
+        entries.add(entry);
+        return entry;
+    }
+
+    private long elapsedNanos() {
+        return System.nanoTime() - originNanos;
+    }
+
+    /**
+     * @return the entries of the timeline, in the order the tasks became ready
+     */
+    public List<Entry> entries() {
+        return Collections.unmodifiableList(new ArrayList<>(entries));
+    }
+
+    /**
+     * @return the timeline as a JSON array of entries
+     */
+    public String toJson() {
+        StringBuilder builder = new StringBuilder("[");
+        boolean first = true;
+        for (Entry entry : entries) {
+            if (!first) {
+                builder.append(',');
+            }
+            first = false;
+            builder.append("{\"key\":").append(quote(entry.key()))
+                    .append(",\"type\":").append(quote(entry.type()))
+                    .append(",\"readyMillis\":").append(entry.readyMillis())
+                    .append(",\"startMillis\":").append(entry.startMillis())
+                    .append(",\"endMillis\":").append(entry.endMillis())
+                    .append(",\"waitOnDependenciesMillis\":").append(entry.waitOnDependenciesMillis())
+                    .append(",\"queuedMillis\":").append(entry.queuedMillis())
+                    .append(",\"failed\":").append(entry.isFailed())
+                    .append('}');
+        }
+        return builder.append(']').toString();
+    }
+
+    /**
+     * @return the timeline in the Chrome trace event format, with one complete event per invoked task
+     */
+    public String toChromeTrace() {
+        StringBuilder builder = new StringBuilder("{\"traceEvents\":[");
+        boolean first = true;
+        for (Entry entry : entries) {
+            if (entry.startNanos < 0) {
+                continue;
+            }
+            if (!first) {
+                builder.append(',');
+            }
+            first = false;
+            long endNanos = entry.endNanos < 0 ? elapsedNanos() : entry.endNanos;
+            builder.append("{\"name\":").append(quote(entry.key()))
+                    .append(",\"cat\":").append(quote(entry.type()))
+                    .append(",\"ph\":\"X\"")
+                    .append(",\"ts\":").append(TimeUnit.NANOSECONDS.toMicros(entry.startNanos))
+                    .append(",\"dur\":").append(TimeUnit.NANOSECONDS.toMicros(endNanos - entry.startNanos))
+                    .append(",\"pid\":1")
+                    .append(",\"tid\":").append(entry.threadId)
+                    .append(",\"args\":{\"waitOnDependenciesMillis\":").append(entry.waitOnDependenciesMillis())
+                    .append(",\"queuedMillis\":").append(entry.queuedMillis())
+                    .append(",\"failed\":").append(entry.isFailed())
+                    .append("}}");
+        }
+        return builder.append("]}").toString();
+    }
+
+    private static String quote(String value) {
+        StringBuilder builder = new StringBuilder("\"");
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"' || c == '\\') {
+                builder.append('\\').append(c);
+            } else if (c < 0x20) {
+                builder.append(String.format("\\u%04x", (int) c));
+            } else {
+                builder.append(c);
+            }
+        }
+        return builder.append('"').toString();
+    }
+
+    /**
+     * The timeline entry of a task.
+     */
+    public final class Entry {
+        private final String key;
+        private final String type;
+        private final long readyNanos;
+        private volatile long startNanos = -1;
+        private volatile long endNanos = -1;
+        private volatile long threadId;
+        private volatile boolean failed;
+
+        private Entry(String key, String type, long readyNanos) {
+            this.key = key;
+            this.type = type;
+            this.readyNanos = readyNanos;
+        }
+
+        void onStart() {
+            this.threadId = Thread.currentThread().getId();
+            this.startNanos = elapsedNanos();
+        }
+
+        void onEnd(boolean failed) {
+            this.failed = failed;
+            this.endNanos = elapsedNanos();
+            if (metricsListener != null) {
+                metricsListener.onTaskCompleted(key, type, queuedMillis(), durationMillis(), failed);
+            }
+        }
+
+        /**
+         * @return the key of the task
+         */
+        public String key() {
+            return this.key;
+        }
+
+        /**
+         * @return the simple name of the task type, i.e. of the resource it creates or updates if known
+         */
+        public String type() {
+            return this.type;
+        }
+
+        /**
+         * @return the time the task became ready, all its dependencies being resolved
+         */
+        public long readyMillis() {
+            return TimeUnit.NANOSECONDS.toMillis(readyNanos);
+        }
+
+        /**
+         * @return the time the task started, -1 if it did not start
+         */
+        public long startMillis() {
+            return startNanos < 0 ? -1 : TimeUnit.NANOSECONDS.toMillis(startNanos);
+        }
+
+        /**
+         * @return the time the task ended, -1 if it did not end
+         */
+        public long endMillis() {
+            return endNanos < 0 ? -1 : TimeUnit.NANOSECONDS.toMillis(endNanos);
+        }
+
+        /**
+         * @return the time spent waiting for the dependencies, from the start of the invocation to the
+         * task becoming ready
+         */
+        public long waitOnDependenciesMillis() {
+            return TimeUnit.NANOSECONDS.toMillis(readyNanos);
+        }
+
+        /**
+         * @return the time spent waiting for a slot once ready, when the concurrency is bounded
+         */
+        public long queuedMillis() {
+            return startNanos < 0 ? -1 : TimeUnit.NANOSECONDS.toMillis(startNanos - readyNanos);
+        }
+
+        /**
+         * @return the duration of the task, -1 if it did not end
+         */
+        public long durationMillis() {
+            return startNanos < 0 || endNanos < 0 ? -1 : TimeUnit.NANOSECONDS.toMillis(endNanos - startNanos);
+        }
+
+        /**
+         * @return true if the task failed
+         */
+        public boolean isFailed() {
+            return this.failed;
+        }
+    }
+}
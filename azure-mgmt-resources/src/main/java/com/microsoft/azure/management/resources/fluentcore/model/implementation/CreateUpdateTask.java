@@ -21,7 +21,7 @@ import rx.functions.Func1;
  *
  * @param <ResourceT> the type of the resource that this task creates or update
  */
-public class CreateUpdateTask<ResourceT extends Indexable> implements TaskItem {
+public class CreateUpdateTask<ResourceT extends Indexable> implements TaskItem, TaskGroup.HasResourceType {
     /**
      * the underlying instance that can create and update the resource.
      */
@@ -95,6 +95,11 @@ public class CreateUpdateTask<ResourceT extends Indexable> implements TaskItem {
         return this.resourceCreatorUpdater.isHot();
     }
 
+    @Override
+    public Class<?> resourceType() {
+        return this.resourceCreatorUpdater.getClass();
+    }
+
 
     /**
      * Represents a type that know how to create or update a resource of type {@link T}.
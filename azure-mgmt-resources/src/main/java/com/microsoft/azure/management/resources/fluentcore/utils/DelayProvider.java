@@ -8,9 +8,10 @@ package com.microsoft.azure.management.resources.fluentcore.utils;
 
 import org.joda.time.DateTime;
 import rx.Observable;
-import rx.schedulers.Schedulers;
+import rx.functions.Func0;
 
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
 
 /**
  * A wrapper class for thread sleep.
@@ -18,12 +19,19 @@ import java.util.concurrent.TimeUnit;
 public class DelayProvider {
     /**
      * Puts current thread on sleep for passed milliseconds.
+     * <p>
+     * The thread is parked rather than put to sleep, which does not pin a virtual thread to its carrier.
+     * The wait ends early if the thread is interrupted, and the interrupt status is kept, so that
+     * callers waiting in a loop, e.g. between retries, can check it and stop waiting.
+     *
      * @param milliseconds time to sleep for
      */
     public void sleep(int milliseconds) {
-        try {
-            Thread.sleep(milliseconds);
-        } catch (InterruptedException e) {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(milliseconds);
+        long remaining = deadline - System.nanoTime();
+        while (remaining > 0 && !Thread.currentThread().isInterrupted()) {
+            LockSupport.parkNanos(remaining);
+            remaining = deadline - System.nanoTime();
         }
     }
 
@@ -36,13 +44,24 @@ public class DelayProvider {
 
     /**
      * Creates an observable that emits the given item after the specified time in milliseconds.
+     * The wait does not block a thread, the item is emitted on the SDK Rx scheduler; in calling thread
+     * mode, the subscribing thread sleeps instead and emits the item.
      *
      * @param event the event to emit
      * @param milliseconds the delay in milliseconds
      * @param <T> the type of event
      * @return delayed observable
      */
-    public <T> Observable<T>  delayedEmitAsync(T event, int milliseconds) {
-        return Observable.just(event).delay(milliseconds, TimeUnit.MILLISECONDS, Schedulers.immediate());
+    public <T> Observable<T>  delayedEmitAsync(final T event, final int milliseconds) {
+        if (SdkContext.isCallingThreadMode()) {
+            return Observable.defer(new Func0<Observable<T>>() {
+                @Override
+                public Observable<T> call() {
+                    sleep(milliseconds);
+                    return Observable.just(event);
+                }
+            });
+        }
+        return PollingService.delayAsync(event, milliseconds);
     }
 }
@@ -0,0 +1,227 @@
+/**
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for
+ * license information.
+ */
+
+package com.microsoft.azure.management.resources.fluentcore.utils;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A {@link MetricsListener} aggregating the metrics in memory, per operation and per task type.
+ * <p>
+ * The latencies are recorded in histograms with exponential buckets, from which percentiles can be
+ * estimated. The aggregated metrics can be read at any time, e.g. to be published periodically to
+ * a metrics library or a monitoring system.
+ */
+public class HistogramMetricsListener implements MetricsListener {
+    private final ConcurrentMap<String, Histogram> requestLatencies = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, AtomicLong> retries = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, AtomicLong> throttledMillis = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, Histogram> taskDurations = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, Histogram> pageConversionLatencies = new ConcurrentHashMap<>();
+    private final AtomicLong requestBytes = new AtomicLong();
+    private final AtomicLong responseBytes = new AtomicLong();
+    private final AtomicLong failedRequests = new AtomicLong();
+
+    @Override
+    public void onRequestCompleted(String operationName, int statusCode, long latencyMillis, long requestBytes, long responseBytes) {
+        histogram(requestLatencies, operationName).record(latencyMillis);
+        if (requestBytes > 0) {
+            this.requestBytes.addAndGet(requestBytes);
+        }
+        if (responseBytes > 0) {
+            this.responseBytes.addAndGet(responseBytes);
+        }
+        if (statusCode < 0 || statusCode >= 400) {
+            failedRequests.incrementAndGet();
+        }
+    }
+
+    @Override
+    public void onRetry(String operationName, int retryCount, int statusCode) {
+        counter(retries, operationName).incrementAndGet();
+    }
+
+    @Override
+    public void onThrottled(String operationName, long waitMillis) {
+        counter(throttledMillis, operationName).addAndGet(waitMillis);
+    }
+
+    @Override
+    public void onTaskCompleted(String taskKey, String taskType, long queuedMillis, long durationMillis, boolean failed) {
+        histogram(taskDurations, taskType).record(durationMillis);
+    }
+
+    @Override
+    public void onPageConverted(String operationName, int itemCount, long latencyMillis) {
+        histogram(pageConversionLatencies, operationName).record(latencyMillis);
+    }
+
+    /**
+     * @return the latency histograms of the requests, by operation name
+     */
+    public Map<String, Histogram> requestLatencies() {
+        return Collections.unmodifiableMap(new TreeMap<>(requestLatencies));
+    }
+
+    /**
+     * @return the duration histograms of the tasks, by task type
+     */
+    public Map<String, Histogram> taskDurations() {
+        return Collections.unmodifiableMap(new TreeMap<>(taskDurations));
+    }
+
+    /**
+     * @return the conversion latency histograms of the pages of lists, by operation name
+     */
+    public Map<String, Histogram> pageConversionLatencies() {
+        return Collections.unmodifiableMap(new TreeMap<>(pageConversionLatencies));
+    }
+
+    /**
+     * @return the number of retries, by operation name
+     */
+    public Map<String, Long> retries() {
+        return snapshot(retries);
+    }
+
+    /**
+     * @return the time waited before being sent, paced or throttled, in milliseconds, by operation name
+     */
+    public Map<String, Long> throttledMillis() {
+        return snapshot(throttledMillis);
+    }
+
+    /**
+     * @return the total size of the request contents sent
+     */
+    public long requestBytes() {
+        return requestBytes.get();
+    }
+
+    /**
+     * @return the total size of the response contents received, when their size was known
+     */
+    public long responseBytes() {
+        return responseBytes.get();
+    }
+
+    /**
+     * @return the number of requests failed with an error status code or an I/O error
+     */
+    public long failedRequests() {
+        return failedRequests.get();
+    }
+
+    private static Histogram histogram(ConcurrentMap<String, Histogram> histograms, String name) {
+        Histogram histogram = histograms.get(name);
+        if (histogram == null) {
+            histograms.putIfAbsent(name, new Histogram());
+            histogram = histograms.get(name);
+        }
+        return histogram;
+    }
+
+    private static AtomicLong counter(ConcurrentMap<String, AtomicLong> counters, String name) {
+        AtomicLong counter = counters.get(name);
+        if (counter == null) {
+            counters.putIfAbsent(name, new AtomicLong());
+            counter = counters.get(name);
+        }
+        return counter;
+    }
+
+    private static Map<String, Long> snapshot(ConcurrentMap<String, AtomicLong> counters) {
+        Map<String, Long> snapshot = new TreeMap<>();
+        for (Map.Entry<String, AtomicLong> counter : counters.entrySet()) {
+            snapshot.put(counter.getKey(), counter.getValue().get());
+        }
+        return Collections.unmodifiableMap(snapshot);
+    }
+
+    /**
+     * A histogram of durations in milliseconds, with buckets doubling in size.
+     */
+    public static final class Histogram {
+        // Bucket i holds the values in [2^(i-1), 2^i), bucket 0 holds 0
+        private static final int BUCKET_COUNT = 40;
+        private final AtomicLongArray buckets = new AtomicLongArray(BUCKET_COUNT);
+        private final AtomicLong count = new AtomicLong();
+        private final AtomicLong sum = new AtomicLong();
+        private final AtomicLong max = new AtomicLong();
+
+        private Histogram() {
+        }
+
+        void record(long value) {
+            long millis = Math.max(0, value);
+            int bucket = Math.min(BUCKET_COUNT - 1, 64 - Long.numberOfLeadingZeros(millis));
+            buckets.incrementAndGet(bucket);
+            count.incrementAndGet();
+            sum.addAndGet(millis);
+            long currentMax = max.get();
+            while (millis > currentMax && !max.compareAndSet(currentMax, millis)) {
+                currentMax = max.get();
+            }
+        }
+
+        /**
+         * @return the number of recorded values
+         */
+        public long count() {
+            return count.get();
+        }
+
+        /**
+         * @return the sum of the recorded values
+         */
+        public long sum() {
+            return sum.get();
+        }
+
+        /**
+         * @return the largest recorded value
+         */
+        public long max() {
+            return max.get();
+        }
+
+        /**
+         * @return the mean of the recorded values, 0 if none
+         */
+        public double mean() {
+            long n = count.get();
+            return n == 0 ? 0 : sum.get() / (double) n;
+        }
+
+        /**
+         * Estimates a percentile as the upper bound of the bucket holding it, capped by the largest value.
+         *
+         * @param percentile the percentile, between 0 and 100
+         * @return the estimated value, 0 if no value was recorded
+         */
+        public long percentile(double percentile) {
+            long n = count.get();
+            if (n == 0) {
+                return 0;
+            }
+            long rank = Math.max(1, (long) Math.ceil(percentile / 100 * n));
+            long seen = 0;
+            for (int i = 0; i < BUCKET_COUNT; i++) {
+                seen += buckets.get(i);
+                if (seen >= rank) {
+                    return Math.min(i == 0 ? 0 : (1L << i) - 1, max.get());
+                }
+            }
+            return max.get();
+        }
+    }
+}
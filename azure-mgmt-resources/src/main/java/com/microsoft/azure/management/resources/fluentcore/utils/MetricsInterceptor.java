@@ -0,0 +1,103 @@
+/**
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for
+ * license information.
+ */
+
+package com.microsoft.azure.management.resources.fluentcore.utils;
+
+import okhttp3.Interceptor;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * An interceptor reporting the latency and size of the requests to a {@link MetricsListener}.
+ */
+public final class MetricsInterceptor implements Interceptor {
+    private static final String LOGGING_HEADER = "x-ms-logging-context";
+
+    private final MetricsListener metricsListener;
+
+    /**
+     * Initialize a metrics interceptor.
+     * @param metricsListener the listener receiving the metrics
+     */
+    public MetricsInterceptor(MetricsListener metricsListener) {
+        this.metricsListener = metricsListener;
+    }
+
+    @Override
+    public Response intercept(Chain chain) throws IOException {
+        Request request = chain.request();
+        long requestBytes = request.body() != null ? request.body().contentLength() : 0;
+        long startNanos = System.nanoTime();
+        Response response;
+        try {
+            response = chain.proceed(request);
+        } catch (IOException e) {
+            metricsListener.onRequestCompleted(operationName(request), -1, elapsedMillis(startNanos), requestBytes, -1);
+            throw e;
+        }
+        long responseBytes = response.body() != null ? response.body().contentLength() : 0;
+        metricsListener.onRequestCompleted(operationName(request), response.code(), elapsedMillis(startNanos), requestBytes, responseBytes);
+        return response;
+    }
+
+    /**
+     * Finds the listener the requests sent by an HTTP client are reported to.
+     *
+     * @param httpClient the HTTP client
+     * @return the listener of the metrics interceptor of the client, null if it has none
+     */
+    public static MetricsListener metricsListenerOf(OkHttpClient httpClient) {
+        for (Interceptor interceptor : httpClient.interceptors()) {
+            if (interceptor instanceof MetricsInterceptor) {
+                return ((MetricsInterceptor) interceptor).metricsListener;
+            }
+        }
+        return null;
+    }
+
+    private static long elapsedMillis(long startNanos) {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+    }
+
+    /**
+     * Gets the operation name of a request, from its logging context or its method and resource type.
+     *
+     * @param request the request
+     * @return the operation name
+     */
+    static String operationName(Request request) {
+        String context = request.header(LOGGING_HEADER);
+        if (context != null && !context.isEmpty()) {
+            return context;
+        }
+        List<String> segments = request.url().pathSegments();
+        int providers = -1;
+        for (int i = 0; i < segments.size(); i++) {
+            if ("providers".equalsIgnoreCase(segments.get(i))) {
+                providers = i;
+            }
+        }
+        StringBuilder name = new StringBuilder(request.method());
+        if (providers < 0 || providers + 1 >= segments.size()) {
+            // e.g. resource groups or subscriptions
+            for (int i = 0; i < segments.size(); i += 2) {
+                name.append(i == 0 ? ' ' : '/').append(segments.get(i));
+            }
+            return name.toString();
+        }
+        // The namespace followed by the types, skipping the names
+        name.append(' ').append(segments.get(providers + 1));
+        for (int i = providers + 2; i < segments.size(); i += 2) {
+            name.append('/').append(segments.get(i));
+        }
+        return name.toString();
+    }
+}
@@ -0,0 +1,67 @@
+/**
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for
+ * license information.
+ */
+
+package com.microsoft.azure.management.resources.fluentcore.utils;
+
+/**
+ * Receives the metrics of the requests sent by the fluent managers and of the tasks they run.
+ * <p>
+ * The operation name of a request is the value of its x-ms-logging-context header when set,
+ * otherwise its method and resource type, e.g. "GET Microsoft.Compute/virtualMachines".
+ * The methods are called on the threads sending the requests and running the tasks, so they
+ * should be thread safe and return quickly.
+ */
+public interface MetricsListener {
+    /**
+     * Called when a request completes, after all its retries.
+     *
+     * @param operationName the operation name of the request
+     * @param statusCode the status code of the response, -1 if the request failed with an I/O error
+     * @param latencyMillis the time from sending the request to receiving the response headers, retries and throttling waits included
+     * @param requestBytes the size of the request content, -1 if unknown
+     * @param responseBytes the size of the response content, -1 if unknown
+     */
+    void onRequestCompleted(String operationName, int statusCode, long latencyMillis, long requestBytes, long responseBytes);
+
+    /**
+     * Called when a request is retried.
+     *
+     * @param operationName the operation name of the request
+     * @param retryCount the number of the retry, starting at 1
+     * @param statusCode the status code of the failed response, -1 if the request failed with an I/O error
+     */
+    void onRetry(String operationName, int retryCount, int statusCode);
+
+    /**
+     * Called when a request waits before being sent, either paced by the client side limit of its
+     * subscription or throttled by Azure Resource Manager before being sent again.
+     *
+     * @param operationName the operation name of the request
+     * @param waitMillis the time waited before sending the request
+     */
+    void onThrottled(String operationName, long waitMillis);
+
+    /**
+     * Called when a task of a task group completes.
+     *
+     * @param taskKey the key of the task
+     * @param taskType the simple name of the task type
+     * @param queuedMillis the time the task waited for a slot once ready
+     * @param durationMillis the time the task ran
+     * @param failed whether the task failed
+     */
+    void onTaskCompleted(String taskKey, String taskType, long queuedMillis, long durationMillis, boolean failed);
+
+    /**
+     * Called when a page of a list is converted to fluent resources, the conversion of some resources
+     * fetching additional properties from the service.
+     *
+     * @param operationName the operation name of the list, e.g. "LIST Microsoft.Web/sites"
+     * @param itemCount the number of converted items in the page
+     * @param latencyMillis the time taken to convert the page
+     */
+    void onPageConverted(String operationName, int itemCount, long latencyMillis);
+}
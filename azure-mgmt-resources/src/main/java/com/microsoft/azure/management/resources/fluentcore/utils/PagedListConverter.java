@@ -15,6 +15,8 @@ import rx.functions.Func1;
 
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 /**
  * The base class for converting {@link PagedList} of one type of resource to
@@ -26,6 +28,9 @@ import java.util.ArrayList;
  * @param <V> the type of Resource to convert to
  */
 public abstract class PagedListConverter<U, V> {
+    private MetricsListener metricsListener;
+    private String operationName;
+
     /**
      * Override this method to define how to convert each Resource item
      * individually.
@@ -44,6 +49,33 @@ public abstract class PagedListConverter<U, V> {
         return true;
     }
 
+    /**
+     * Override this method to convert the items of a page concurrently, at most the given number
+     * at a time, while keeping the items in the order of the page.
+     * <p>
+     * By default all the items of a page are converted concurrently, in the order the
+     * conversions complete. Converters making additional calls to the service for each item
+     * should bound the concurrency.
+     *
+     * @return the maximum number of items converted concurrently, 0 for no bound
+     */
+    protected int maxConcurrency() {
+        return 0;
+    }
+
+    /**
+     * Reports the time taken to convert each page to a metrics listener.
+     *
+     * @param metricsListener the listener notified each time a page is converted, may be null
+     * @param operationName the operation name of the list, e.g. "LIST Microsoft.Web/sites"
+     * @return the converter
+     */
+    public PagedListConverter<U, V> withMetricsListener(MetricsListener metricsListener, String operationName) {
+        this.metricsListener = metricsListener;
+        this.operationName = operationName;
+        return this;
+    }
+
     /**
      * Converts the paged list.
      *
@@ -77,26 +109,44 @@ public abstract class PagedListConverter<U, V> {
         };
     }
 
+    /**
+     * Converts the paged list, fetching and converting the next pages in the background
+     * while the current page is consumed.
+     *
+     * @param uList the resource list to convert from
+     * @param prefetchPages the maximum number of pages to fetch ahead
+     * @return the converted list
+     */
+    public PagedList<V> convert(final PagedList<U> uList, int prefetchPages) {
+        return PrefetchingPagedList.wrap(convert(uList), prefetchPages);
+    }
+
     private void loadConvertedList(final Page<U> uPage, final Page<V> vPage) {
-        Observable.from(uPage.items())
+        long startNanos = System.nanoTime();
+        Observable<U> items = Observable.from(uPage.items())
                 .filter(new Func1<U, Boolean>() {
                     @Override
                     public Boolean call(U u) {
                         return filter(u);
                     }
-                })
-                .flatMap(new Func1<U, Observable<V>>() {
-                    @Override
-                    public Observable<V> call(U u) {
-                        return typeConvertAsync(u);
-                    }
-                })
-                .map(new Func1<V, V>() {
-                    @Override
-                    public V call(V v) {
-                        vPage.items().add(v);
-                        return v;
-                    }
-                }).toBlocking().subscribe();
+                });
+        Func1<U, Observable<V>> converter = new Func1<U, Observable<V>>() {
+            @Override
+            public Observable<V> call(U u) {
+                return typeConvertAsync(u);
+            }
+        };
+        int maxConcurrency = maxConcurrency();
+        Observable<V> converted = maxConcurrency > 0
+                ? items.concatMapEager(converter, Math.max(1, uPage.items().size()), maxConcurrency)
+                : items.flatMap(converter);
+        // Items are collected before being added to the page, so that they are
+        // published to the caller thread by the blocking call
+        List<V> convertedItems = converted.toList().toBlocking().single();
+        vPage.items().addAll(convertedItems);
+        if (metricsListener != null) {
+            metricsListener.onPageConverted(operationName, convertedItems.size(),
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos));
+        }
     }
 }
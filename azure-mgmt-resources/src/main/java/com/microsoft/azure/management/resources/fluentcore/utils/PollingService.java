@@ -0,0 +1,132 @@
+/**
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for
+ * license information.
+ */
+
+package com.microsoft.azure.management.resources.fluentcore.utils;
+
+import rx.Observable;
+import rx.Scheduler;
+import rx.functions.Func1;
+import rx.schedulers.Schedulers;
+
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Polls long running operations without blocking a thread while waiting.
+ * <p>
+ * All the pending waits share a single timer thread, which only hands the due polls over to the
+ * SDK Rx scheduler, so that thousands of operations can be polled by a few threads. The interval
+ * between two polls starts small and doubles up to a maximum, unless the poll result provides its
+ * own delay, such as a Retry-After value.
+ */
+public final class PollingService {
+    private static final ScheduledThreadPoolExecutor TIMER = createTimer();
+    private static final Scheduler TIMER_SCHEDULER = Schedulers.from(TIMER);
+
+    /**
+     * Creates an observable that emits the given item after a delay, without blocking a thread while waiting.
+     *
+     * @param event the event to emit
+     * @param delayMillis the delay in milliseconds
+     * @param <T> the type of event
+     * @return an observable emitting the event on the SDK Rx scheduler after the delay
+     */
+    public static <T> Observable<T> delayAsync(final T event, long delayMillis) {
+        if (delayMillis <= 0) {
+            return Observable.just(event);
+        }
+        // Handed over to the SDK Rx scheduler only once due, so that the pending waits do not hold its workers
+        return Observable.timer(delayMillis, TimeUnit.MILLISECONDS, TIMER_SCHEDULER)
+                .flatMap(new Func1<Long, Observable<T>>() {
+                    @Override
+                    public Observable<T> call(Long tick) {
+                        return Observable.just(event).subscribeOn(SdkContext.getRxScheduler());
+                    }
+                });
+    }
+
+    /**
+     * Polls until the result of the poll satisfies a condition.
+     *
+     * @param poll the observable sending a poll when subscribed, subscribed once per poll
+     * @param isDone the condition of the end of the polling
+     * @param initialDelayMillis the delay before the second poll
+     * @param maxDelayMillis the maximum delay between two polls
+     * @param <T> the type of the poll result
+     * @return an observable emitting the first result satisfying the condition
+     */
+    public static <T> Observable<T> pollAsync(Observable<T> poll, Func1<T, Boolean> isDone,
+                                              long initialDelayMillis, long maxDelayMillis) {
+        return pollAsync(poll, isDone, null, initialDelayMillis, maxDelayMillis);
+    }
+
+    /**
+     * Polls until the result of the poll satisfies a condition.
+     *
+     * @param poll the observable sending a poll when subscribed, subscribed once per poll
+     * @param isDone the condition of the end of the polling
+     * @param delayHint the delay before the next poll requested by a poll result in milliseconds,
+     *                  or null or a negative value to use the default interval; may be null
+     * @param initialDelayMillis the delay before the second poll
+     * @param maxDelayMillis the maximum delay between two polls
+     * @param <T> the type of the poll result
+     * @return an observable emitting the first result satisfying the condition
+     */
+    public static <T> Observable<T> pollAsync(final Observable<T> poll, final Func1<T, Boolean> isDone,
+                                              final Func1<T, Long> delayHint,
+                                              final long initialDelayMillis, final long maxDelayMillis) {
+        return poll.last().flatMap(new Func1<T, Observable<T>>() {
+            @Override
+            public Observable<T> call(T result) {
+                if (isDone.call(result)) {
+                    return Observable.just(result);
+                }
+                Long hint = delayHint != null ? delayHint.call(result) : null;
+                long delay = hint != null && hint >= 0 ? hint : initialDelayMillis;
+                return SdkContext.delayedEmitAsync(result, (int) Math.min(Integer.MAX_VALUE, delay))
+                        .flatMap(new Func1<T, Observable<T>>() {
+                            @Override
+                            public Observable<T> call(T previous) {
+                                long nextDelay = Math.min(Math.max(1, initialDelayMillis) * 2, maxDelayMillis);
+                                return pollAsync(poll, isDone, delayHint, nextDelay, maxDelayMillis);
+                            }
+                        });
+            }
+        });
+    }
+
+    /**
+     * Checks whether a provisioning state is terminal.
+     *
+     * @param provisioningState the provisioning state of a resource
+     * @return true if the state is Succeeded, Failed or Canceled
+     */
+    public static boolean isTerminalProvisioningState(String provisioningState) {
+        return "Succeeded".equalsIgnoreCase(provisioningState)
+                || "Failed".equalsIgnoreCase(provisioningState)
+                || "Canceled".equalsIgnoreCase(provisioningState);
+    }
+
+    private static ScheduledThreadPoolExecutor createTimer() {
+        final AtomicInteger threadCount = new AtomicInteger();
+        ScheduledThreadPoolExecutor timer = new ScheduledThreadPoolExecutor(1, new ThreadFactory() {
+            @Override
+            public Thread newThread(Runnable runnable) {
+                Thread thread = new Thread(runnable, "azure-polling-timer-" + threadCount.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+        // Cancelled waits, e.g. unsubscribed polls, are dropped right away
+        timer.setRemoveOnCancelPolicy(true);
+        return timer;
+    }
+
+    private PollingService() {
+    }
+}
@@ -0,0 +1,137 @@
+/**
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for
+ * license information.
+ */
+
+package com.microsoft.azure.management.resources.fluentcore.utils;
+
+import com.microsoft.azure.Page;
+import com.microsoft.azure.PagedList;
+import com.microsoft.rest.RestException;
+import rx.Observable;
+import rx.functions.Action1;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+
+/**
+ * A {@link PagedList} fetching the next pages in the background while the current page is consumed.
+ * <p>
+ * Up to the given number of pages are fetched ahead on the SDK Rx scheduler, including their conversion
+ * when the wrapped list is a converted list. Fetching ahead pauses when that many pages are buffered and
+ * resumes as they are consumed. Pages are still fetched one after the other, since the link to a page is
+ * only known once the previous page is retrieved.
+ *
+ * @param <E> the item type
+ */
+public final class PrefetchingPagedList<E> extends PagedList<E> {
+    private final PagedList<E> source;
+    private final int prefetchPages;
+    // The fields below are guarded by 'this'
+    private final Map<String, Observable<Page<E>>> prefetchedPages = new HashMap<>();
+    private String pausedPageLink;
+
+    private PrefetchingPagedList(PagedList<E> source, int prefetchPages) {
+        super(source.currentPage());
+        this.source = source;
+        this.prefetchPages = prefetchPages;
+        if (source.currentPage() != null) {
+            synchronized (this) {
+                prefetchAsync(source.currentPage().nextPageLink());
+            }
+        }
+    }
+
+    /**
+     * Wraps a list, as returned by a list method and before it is iterated, to fetch its next pages ahead.
+     *
+     * @param source the list to wrap
+     * @param prefetchPages the maximum number of pages to fetch ahead
+     * @param <E> the item type
+     * @return the prefetching list
+     */
+    public static <E> PagedList<E> wrap(PagedList<E> source, int prefetchPages) {
+        if (prefetchPages <= 0 || SdkContext.isCallingThreadMode()) {
+            // Nothing would be fetched in the background in calling thread mode
+            return source;
+        }
+        return new PrefetchingPagedList<>(source, prefetchPages);
+    }
+
+    @Override
+    public Page<E> nextPage(String nextPageLink) throws RestException, IOException {
+        Observable<Page<E>> prefetchedPage;
+        synchronized (this) {
+            prefetchedPage = prefetchedPages.remove(nextPageLink);
+            if (pausedPageLink != null) {
+                // A slot is free again, resume fetching ahead
+                String link = pausedPageLink;
+                pausedPageLink = null;
+                prefetchAsync(link);
+            }
+        }
+        Page<E> page;
+        if (prefetchedPage != null) {
+            try {
+                page = prefetchedPage.toBlocking().single();
+            } catch (RuntimeException e) {
+                if (e.getCause() instanceof IOException) {
+                    throw (IOException) e.getCause();
+                }
+                throw e;
+            }
+        } else {
+            page = source.nextPage(nextPageLink);
+            synchronized (this) {
+                prefetchAsync(page.nextPageLink());
+            }
+        }
+        return page;
+    }
+
+    /**
+     * Starts fetching a page in the background, if not fetched yet and a slot is available.
+     * Must be called while holding the lock on this list.
+     *
+     * @param link the link to the page
+     */
+    private void prefetchAsync(final String link) {
+        if (link == null || prefetchedPages.containsKey(link)) {
+            return;
+        }
+        if (prefetchedPages.size() >= prefetchPages) {
+            pausedPageLink = link;
+            return;
+        }
+        Observable<Page<E>> page = Observable.fromCallable(new Callable<Page<E>>() {
+            @Override
+            public Page<E> call() throws Exception {
+                return source.nextPage(link);
+            }
+        })
+        .subscribeOn(SdkContext.getRxScheduler())
+        .doOnNext(new Action1<Page<E>>() {
+            @Override
+            public void call(Page<E> fetchedPage) {
+                synchronized (PrefetchingPagedList.this) {
+                    prefetchAsync(fetchedPage.nextPageLink());
+                }
+            }
+        })
+        .cache();
+        prefetchedPages.put(link, page);
+        // Errors are reported to the consumer of the page
+        page.subscribe(new Action1<Page<E>>() {
+            @Override
+            public void call(Page<E> fetchedPage) {
+            }
+        }, new Action1<Throwable>() {
+            @Override
+            public void call(Throwable throwable) {
+            }
+        });
+    }
+}
@@ -0,0 +1,143 @@
+/**
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for
+ * license information.
+ */
+
+package com.microsoft.azure.management.resources.fluentcore.utils;
+
+import com.microsoft.azure.AzureResponseBuilder;
+import com.microsoft.azure.credentials.AzureTokenCredentials;
+import com.microsoft.azure.management.resources.Provider;
+import com.microsoft.azure.management.resources.implementation.ResourceManager;
+import com.microsoft.azure.serializer.AzureJacksonAdapter;
+import com.microsoft.rest.RestClient;
+import okhttp3.Interceptor;
+import rx.Observable;
+import rx.functions.Action0;
+import rx.functions.Action1;
+import rx.functions.Func1;
+
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Coordinates the automatic registration of resource providers in a subscription.
+ * <p>
+ * Concurrent registrations of the same namespace are collapsed into a single in-flight registration,
+ * which polls the registration state with backoff on the SDK Rx scheduler. Namespaces known to be
+ * registered are remembered for a while, so that requests failing around the same time are simply retried.
+ * A coordinator is owned by the {@link ProviderRegistrationInterceptor} of a client, so that the registrations
+ * are sent with the credentials of that client and the coordinator lives no longer than the client.
+ */
+final class ProviderRegistrationCoordinator {
+    private static final long REGISTERED_TTL_MILLIS = TimeUnit.MINUTES.toMillis(1);
+    private static final int INITIAL_POLL_DELAY_MILLIS = 1000;
+    private static final int MAX_POLL_DELAY_MILLIS = 15 * 1000;
+
+    private final String baseUrl;
+    private final String subscriptionId;
+    private final AzureTokenCredentials credentials;
+    private final Interceptor registrationInterceptor;
+    private final ConcurrentMap<String, Observable<Provider>> inFlightRegistrations = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, Long> registeredNamespaces = new ConcurrentHashMap<>();
+    private volatile ResourceManager resourceManager;
+
+    /**
+     * Creates the coordinator of a subscription.
+     *
+     * @param baseUrl the base URL of Azure Resource Manager
+     * @param subscriptionId the subscription ID
+     * @param credentials the credential authorized to register providers in the subscription
+     * @param registrationInterceptor an interceptor added to the client sending the registrations, or null
+     */
+    ProviderRegistrationCoordinator(String baseUrl, String subscriptionId, AzureTokenCredentials credentials,
+                                    Interceptor registrationInterceptor) {
+        this.baseUrl = baseUrl;
+        this.subscriptionId = subscriptionId;
+        this.credentials = credentials;
+        this.registrationInterceptor = registrationInterceptor;
+    }
+
+    /**
+     * Registers a resource provider namespace, or joins the registration of the namespace already in progress.
+     *
+     * @param namespace the resource provider namespace
+     * @return an observable emitting the registered provider, or nothing if the namespace was recently registered
+     */
+    Observable<Provider> registerAsync(final String namespace) {
+        final String key = namespace.toLowerCase(Locale.ROOT);
+        Long registeredAt = registeredNamespaces.get(key);
+        if (registeredAt != null && System.currentTimeMillis() - registeredAt < REGISTERED_TTL_MILLIS) {
+            return Observable.empty();
+        }
+        Observable<Provider> registration = inFlightRegistrations.get(key);
+        if (registration == null) {
+            Observable<Provider> newRegistration = resourceManager().providers().registerAsync(namespace)
+                .flatMap(new Func1<Provider, Observable<Provider>>() {
+                    @Override
+                    public Observable<Provider> call(Provider provider) {
+                        if (isRegistered(provider)) {
+                            return Observable.just(provider);
+                        }
+                        return PollingService.pollAsync(
+                            resourceManager().providers().getByNameAsync(namespace),
+                            new Func1<Provider, Boolean>() {
+                                @Override
+                                public Boolean call(Provider polled) {
+                                    return isRegistered(polled);
+                                }
+                            },
+                            INITIAL_POLL_DELAY_MILLIS,
+                            MAX_POLL_DELAY_MILLIS);
+                    }
+                })
+                .doOnNext(new Action1<Provider>() {
+                    @Override
+                    public void call(Provider provider) {
+                        registeredNamespaces.put(key, System.currentTimeMillis());
+                    }
+                })
+                .doOnTerminate(new Action0() {
+                    @Override
+                    public void call() {
+                        inFlightRegistrations.remove(key);
+                    }
+                })
+                .subscribeOn(SdkContext.getRxScheduler())
+                .cache();
+            registration = inFlightRegistrations.putIfAbsent(key, newRegistration);
+            if (registration == null) {
+                registration = newRegistration;
+            }
+        }
+        return registration;
+    }
+
+    private static boolean isRegistered(Provider provider) {
+        return !provider.registrationState().equalsIgnoreCase("Unregistered")
+            && !provider.registrationState().equalsIgnoreCase("Registering");
+    }
+
+    private ResourceManager resourceManager() {
+        if (resourceManager == null) {
+            synchronized (this) {
+                if (resourceManager == null) {
+                    RestClient.Builder builder = new RestClient.Builder()
+                        .withBaseUrl(baseUrl)
+                        .withCredentials(credentials)
+                        .withSerializerAdapter(new AzureJacksonAdapter())
+                        .withResponseBuilderFactory(new AzureResponseBuilder.Factory());
+                    if (registrationInterceptor != null) {
+                        builder.withInterceptor(registrationInterceptor);
+                    }
+                    RestClient restClient = builder.build();
+                    resourceManager = ResourceManager.authenticate(restClient).withSubscription(subscriptionId);
+                }
+            }
+        }
+        return resourceManager;
+    }
+}
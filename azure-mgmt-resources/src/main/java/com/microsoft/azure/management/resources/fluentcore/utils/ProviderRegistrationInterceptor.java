@@ -6,13 +6,10 @@
 
 package com.microsoft.azure.management.resources.fluentcore.utils;
 
-import com.microsoft.azure.AzureResponseBuilder;
 import com.microsoft.azure.CloudError;
 import com.microsoft.azure.credentials.AzureTokenCredentials;
-import com.microsoft.azure.management.resources.Provider;
-import com.microsoft.azure.management.resources.implementation.ResourceManager;
 import com.microsoft.azure.serializer.AzureJacksonAdapter;
-import com.microsoft.rest.RestClient;
+import okhttp3.HttpUrl;
 import okhttp3.Interceptor;
 import okhttp3.Response;
 import okhttp3.ResponseBody;
@@ -20,14 +17,27 @@ import okio.Buffer;
 import okio.BufferedSource;
 
 import java.io.IOException;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 /**
  * An interceptor for automatic provider registration in Azure.
+ * <p>
+ * Concurrent registrations of the same namespace in a subscription are collapsed into one registration,
+ * polled in the background, while the failed requests wait for it before being retried. Registrations are
+ * collapsed across the requests sent through the same interceptor, e.g. by all the managers of an
+ * {@code Azure} instance, and are sent with the credential of the interceptor.
  */
 public final class ProviderRegistrationInterceptor implements Interceptor {
+    private static final AzureJacksonAdapter JACKSON_ADAPTER = new AzureJacksonAdapter();
+    private static final Pattern SUBSCRIPTION_PATTERN = Pattern.compile("/subscriptions/([\\w-]+)/", Pattern.CASE_INSENSITIVE);
+    private static final Pattern NAMESPACE_PATTERN = Pattern.compile(".*'(.*)'");
     private final AzureTokenCredentials credentials;
+    private final Interceptor registrationInterceptor;
+    private final ConcurrentMap<String, ProviderRegistrationCoordinator> coordinators = new ConcurrentHashMap<>();
 
     /**
      * Initialize a provider registration interceptor with a credential that's authorized
@@ -35,7 +45,18 @@ public final class ProviderRegistrationInterceptor implements Interceptor {
      * @param credentials the credential for provider registration
      */
     public ProviderRegistrationInterceptor(AzureTokenCredentials credentials) {
+        this(credentials, null);
+    }
+
+    /**
+     * Initialize a provider registration interceptor sending the registrations through an interceptor,
+     * e.g. to play them back in tests.
+     * @param credentials the credential for provider registration
+     * @param registrationInterceptor the interceptor added to the client sending the registrations
+     */
+    ProviderRegistrationInterceptor(AzureTokenCredentials credentials, Interceptor registrationInterceptor) {
         this.credentials = credentials;
+        this.registrationInterceptor = registrationInterceptor;
     }
 
     @Override
@@ -43,36 +64,54 @@ public final class ProviderRegistrationInterceptor implements Interceptor {
         Response response = chain.proceed(chain.request());
         if (!response.isSuccessful()) {
             String content = errorBody(response.body());
-            AzureJacksonAdapter jacksonAdapter = new AzureJacksonAdapter();
-            CloudError cloudError = jacksonAdapter.deserialize(content, CloudError.class);
+            CloudError cloudError = JACKSON_ADAPTER.deserialize(content, CloudError.class);
             if (cloudError != null && "MissingSubscriptionRegistration".equals(cloudError.code())) {
-                Pattern pattern = Pattern.compile("/subscriptions/([\\w-]+)/", Pattern.CASE_INSENSITIVE);
-                Matcher matcher = pattern.matcher(chain.request().url().toString());
-                matcher.find();
-                RestClient restClient = new RestClient.Builder()
-                        .withBaseUrl("https://" + chain.request().url().host())
-                        .withCredentials(credentials)
-                        .withSerializerAdapter(jacksonAdapter)
-                        .withResponseBuilderFactory(new AzureResponseBuilder.Factory())
-                        .build();
-                ResourceManager resourceManager = ResourceManager.authenticate(restClient)
-                        .withSubscription(matcher.group(1));
-                pattern = Pattern.compile(".*'(.*)'");
-                matcher = pattern.matcher(cloudError.message());
-                matcher.find();
-                Provider provider = registerProvider(matcher.group(1), resourceManager);
-                while (provider.registrationState().equalsIgnoreCase("Unregistered")
-                        || provider.registrationState().equalsIgnoreCase("Registering")) {
-                    SdkContext.sleep(5 * 1000);
-                    provider = resourceManager.providers().getByName(provider.namespace());
+                Matcher subscriptionMatcher = SUBSCRIPTION_PATTERN.matcher(chain.request().url().toString());
+                Matcher namespaceMatcher = NAMESPACE_PATTERN.matcher(cloudError.message());
+                if (subscriptionMatcher.find() && namespaceMatcher.find()) {
+                    String namespace = namespaceMatcher.group(1);
+                    try {
+                        coordinator(baseUrl(chain.request().url()), subscriptionMatcher.group(1))
+                            .registerAsync(namespace)
+                            .toBlocking().lastOrDefault(null);
+                    } catch (RuntimeException e) {
+                        closeBody(response);
+                        throw new IOException("Failed to register resource provider " + namespace, e);
+                    }
+                    // Retry
+                    closeBody(response);
+                    response = chain.proceed(chain.request());
                 }
-                // Retry
-                response = chain.proceed(chain.request());
             }
         }
         return response;
     }
 
+    private ProviderRegistrationCoordinator coordinator(String baseUrl, String subscriptionId) {
+        String key = (baseUrl + "/" + subscriptionId).toLowerCase(Locale.ROOT);
+        ProviderRegistrationCoordinator coordinator = coordinators.get(key);
+        if (coordinator == null) {
+            coordinators.putIfAbsent(key,
+                new ProviderRegistrationCoordinator(baseUrl, subscriptionId, credentials, registrationInterceptor));
+            coordinator = coordinators.get(key);
+        }
+        return coordinator;
+    }
+
+    // The scheme and port of the request are kept, e.g. for a local endpoint
+    private static String baseUrl(HttpUrl url) {
+        if ("https".equals(url.scheme()) && url.port() == HttpUrl.defaultPort("https")) {
+            return "https://" + url.host();
+        }
+        return url.scheme() + "://" + url.host() + ":" + url.port();
+    }
+
+    private static void closeBody(Response response) {
+        if (response.body() != null) {
+            response.body().close();
+        }
+    }
+
     private String errorBody(ResponseBody responseBody) throws IOException {
         if (responseBody == null) {
             return null;
@@ -82,8 +121,4 @@ public final class ProviderRegistrationInterceptor implements Interceptor {
         Buffer buffer = source.buffer();
         return buffer.clone().readUtf8();
     }
-
-    private Provider registerProvider(String namespace, ResourceManager resourceManager) {
-        return resourceManager.providers().register(namespace);
-    }
 }
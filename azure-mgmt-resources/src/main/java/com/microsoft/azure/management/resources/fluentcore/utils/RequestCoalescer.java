@@ -0,0 +1,178 @@
+/**
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for
+ * license information.
+ */
+
+package com.microsoft.azure.management.resources.fluentcore.utils;
+
+import okhttp3.Headers;
+import okhttp3.Interceptor;
+import okhttp3.MediaType;
+import okhttp3.Protocol;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import okio.BufferedSource;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CountDownLatch;
+
+/**
+ * Coalesces the identical GET requests sent concurrently by the fluent managers.
+ * <p>
+ * While a GET request is in flight, the same request sent with the same credentials waits for
+ * its response instead of being sent again, and receives a copy of it. Only the responses up to a
+ * maximum size are shared. A response of unknown length, e.g. chunked or compressed, is buffered up
+ * to that size; as soon as it turns out larger, the waiting requests are released and sent on their
+ * own. The in-flight requests live in this object, so all the managers configured with the same
+ * coalescer share them.
+ */
+public class RequestCoalescer {
+    private long maxSharedBytes = 1024 * 1024;
+    private final ConcurrentMap<CallKey, InFlightCall> calls = new ConcurrentHashMap<>();
+
+    /**
+     * Sets the maximum size of a response shared between identical requests.
+     *
+     * @param maxSharedBytes the maximum size in bytes
+     * @return the request coalescer itself
+     */
+    public RequestCoalescer withMaxSharedBytes(long maxSharedBytes) {
+        this.maxSharedBytes = maxSharedBytes;
+        return this;
+    }
+
+    /**
+     * @return the number of requests currently in flight
+     */
+    public int inFlightCount() {
+        return calls.size();
+    }
+
+    /**
+     * Sends a request, or waits for the response of the identical request in flight.
+     *
+     * @param chain the interceptor chain
+     * @param scope the identity of the credentials the request is sent with
+     * @return the response
+     * @throws IOException if the request fails
+     */
+    Response proceed(Interceptor.Chain chain, Object scope) throws IOException {
+        Request request = chain.request();
+        if (!"GET".equalsIgnoreCase(request.method())) {
+            return chain.proceed(request);
+        }
+        CallKey key = new CallKey(scope, request.url().toString());
+        InFlightCall call = new InFlightCall();
+        InFlightCall existing = calls.putIfAbsent(key, call);
+        if (existing != null) {
+            Response response = existing.await(request);
+            return response != null ? response : chain.proceed(request);
+        }
+        try {
+            return call.complete(chain.proceed(request), maxSharedBytes);
+        } catch (IOException e) {
+            call.failure = e;
+            throw e;
+        } finally {
+            // Removed before releasing the waiting requests, so that later requests are sent again
+            calls.remove(key, call);
+            call.done.countDown();
+        }
+    }
+
+    /**
+     * The identity of a request.
+     */
+    private static final class CallKey {
+        private final Object scope;
+        private final String url;
+
+        private CallKey(Object scope, String url) {
+            this.scope = scope;
+            this.url = url;
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * System.identityHashCode(scope) + url.hashCode();
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (!(obj instanceof CallKey)) {
+                return false;
+            }
+            CallKey other = (CallKey) obj;
+            return scope == other.scope && url.equals(other.url);
+        }
+    }
+
+    /**
+     * A request in flight and its outcome, published to the waiting requests by the latch.
+     */
+    private static final class InFlightCall {
+        private final CountDownLatch done = new CountDownLatch(1);
+        private Protocol protocol;
+        private int code;
+        private String message;
+        private Headers headers;
+        private MediaType contentType;
+        private byte[] content;
+        private IOException failure;
+
+        private Response complete(Response response, long maxSharedBytes) throws IOException {
+            ResponseBody body = response.body();
+            if (body == null || body.contentLength() > maxSharedBytes) {
+                return response;
+            }
+            try {
+                BufferedSource source = body.source();
+                if (source.request(maxSharedBytes < Long.MAX_VALUE ? maxSharedBytes + 1 : Long.MAX_VALUE)) {
+                    // Too large to be shared, the buffered bytes are still read by the caller
+                    return response;
+                }
+                this.content = source.readByteArray();
+            } catch (IOException | RuntimeException e) {
+                body.close();
+                throw e;
+            }
+            body.close();
+            this.contentType = body.contentType();
+            this.protocol = response.protocol();
+            this.code = response.code();
+            this.message = response.message();
+            this.headers = response.headers();
+            return response.newBuilder()
+                    .body(ResponseBody.create(contentType, content))
+                    .build();
+        }
+
+        private Response await(Request request) throws IOException {
+            try {
+                done.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while waiting for an identical request");
+            }
+            if (failure != null) {
+                throw new IOException("The identical request in flight failed", failure);
+            }
+            if (content == null) {
+                return null;
+            }
+            return new Response.Builder()
+                    .request(request)
+                    .protocol(protocol)
+                    .code(code)
+                    .message(message)
+                    .headers(headers)
+                    .body(ResponseBody.create(contentType, content))
+                    .build();
+        }
+    }
+}
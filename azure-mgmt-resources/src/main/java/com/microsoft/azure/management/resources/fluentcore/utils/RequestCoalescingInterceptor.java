@@ -0,0 +1,35 @@
+/**
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for
+ * license information.
+ */
+
+package com.microsoft.azure.management.resources.fluentcore.utils;
+
+import okhttp3.Interceptor;
+import okhttp3.Response;
+
+import java.io.IOException;
+
+/**
+ * An interceptor sharing the response of concurrent identical GET requests through a {@link RequestCoalescer}.
+ */
+public final class RequestCoalescingInterceptor implements Interceptor {
+    private final RequestCoalescer requestCoalescer;
+    private final Object credentials;
+
+    /**
+     * Initialize a request coalescing interceptor.
+     * @param requestCoalescer the request coalescer
+     * @param credentials the credentials the requests are sent with, only requests sent with the same credentials are coalesced
+     */
+    public RequestCoalescingInterceptor(RequestCoalescer requestCoalescer, Object credentials) {
+        this.requestCoalescer = requestCoalescer;
+        this.credentials = credentials;
+    }
+
+    @Override
+    public Response intercept(Chain chain) throws IOException {
+        return requestCoalescer.proceed(chain, credentials);
+    }
+}
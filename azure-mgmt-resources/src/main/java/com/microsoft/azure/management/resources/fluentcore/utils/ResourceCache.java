@@ -0,0 +1,235 @@
+/**
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for
+ * license information.
+ */
+
+package com.microsoft.azure.management.resources.fluentcore.utils;
+
+import okhttp3.Headers;
+import okhttp3.MediaType;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A cache of the resources read by the fluent managers, revalidated with their ETag.
+ * <p>
+ * The successful GET responses carrying an ETag header are kept in memory. A following GET of
+ * the same URL is sent with an If-None-Match header, so that an unchanged resource is answered
+ * with a 304 status and no body, the cached content being returned instead. The entries expire
+ * after a time to live and the least recently used entries are evicted beyond a maximum number
+ * of entries. The entries of a resource, its parents and its children are invalidated when a
+ * request other than a GET is sent for it.
+ * <p>
+ * The cache state lives in this object, so all the managers configured with the same cache share it.
+ */
+public class ResourceCache {
+    private long timeToLiveMillis = TimeUnit.MINUTES.toMillis(5);
+    private int maxEntries = 4096;
+    private long maxEntryBytes = 256 * 1024;
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+    /**
+     * Sets the time after which a cached resource is dropped, even if it is unchanged.
+     *
+     * @param timeToLive the time to live of the entries
+     * @param unit the time unit of the time to live
+     * @return the resource cache itself
+     */
+    public ResourceCache withTimeToLive(long timeToLive, TimeUnit unit) {
+        this.timeToLiveMillis = unit.toMillis(timeToLive);
+        return this;
+    }
+
+    /**
+     * Sets the maximum number of cached resources.
+     *
+     * @param maxEntries the maximum number of entries
+     * @return the resource cache itself
+     */
+    public ResourceCache withMaxEntries(int maxEntries) {
+        synchronized (entries) {
+            this.maxEntries = maxEntries;
+            trim();
+        }
+        return this;
+    }
+
+    /**
+     * Sets the maximum size of the content of a cached resource, larger resources are not cached.
+     *
+     * @param maxEntryBytes the maximum size in bytes
+     * @return the resource cache itself
+     */
+    public ResourceCache withMaxEntryBytes(long maxEntryBytes) {
+        this.maxEntryBytes = maxEntryBytes;
+        return this;
+    }
+
+    /**
+     * @return the number of cached resources
+     */
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    /**
+     * Removes all the cached resources.
+     */
+    public void clear() {
+        synchronized (entries) {
+            entries.clear();
+        }
+    }
+
+    /**
+     * Removes the cached entries of a resource, its parents and its children.
+     *
+     * @param resourceId the resource ID or path
+     */
+    public void invalidate(String resourceId) {
+        String path = normalizePath(resourceId);
+        synchronized (entries) {
+            Iterator<Entry> iterator = entries.values().iterator();
+            while (iterator.hasNext()) {
+                String entryPath = iterator.next().path;
+                if (entryPath.startsWith(path) || path.startsWith(entryPath)) {
+                    iterator.remove();
+                }
+            }
+        }
+    }
+
+    /**
+     * Adds the If-None-Match header to a GET request of a cached resource.
+     *
+     * @param request the request
+     * @return the request to send
+     */
+    Request onRequest(Request request) {
+        if (request.header("If-None-Match") != null) {
+            return request;
+        }
+        Entry entry = get(key(request));
+        if (entry == null) {
+            return request;
+        }
+        return request.newBuilder().header("If-None-Match", entry.etag).build();
+    }
+
+    /**
+     * Caches a successful response, or replaces a 304 response with the cached content.
+     *
+     * @param request the request as sent by the caller
+     * @param response the response received
+     * @return the response to return to the caller
+     * @throws IOException if the content of the response cannot be read
+     */
+    Response onResponse(Request request, Response response) throws IOException {
+        String key = key(request);
+        if (response.code() == 304) {
+            Entry entry;
+            synchronized (entries) {
+                // The entry the request was revalidated with, even if it expired since
+                entry = entries.get(key);
+            }
+            if (entry != null && request.header("If-None-Match") == null) {
+                response.close();
+                return response.newBuilder()
+                        .request(request)
+                        .code(200)
+                        .message("OK")
+                        .headers(entry.headers)
+                        .body(ResponseBody.create(entry.contentType, entry.content))
+                        .build();
+            }
+            return response;
+        }
+        String etag = response.header("ETag");
+        if (response.code() != 200 || etag == null || response.body() == null) {
+            remove(key);
+            return response;
+        }
+        ResponseBody peeked = response.peekBody(maxEntryBytes + 1);
+        byte[] content = peeked.bytes();
+        if (content.length <= maxEntryBytes) {
+            put(key, new Entry(normalizePath(request.url().encodedPath()), etag,
+                    response.body().contentType(), content, response.headers()));
+        } else {
+            remove(key);
+        }
+        return response;
+    }
+
+    private Entry get(String key) {
+        synchronized (entries) {
+            Entry entry = entries.get(key);
+            if (entry != null && System.currentTimeMillis() - entry.createdMillis > timeToLiveMillis) {
+                entries.remove(key);
+                return null;
+            }
+            return entry;
+        }
+    }
+
+    private void put(String key, Entry entry) {
+        synchronized (entries) {
+            entries.put(key, entry);
+            trim();
+        }
+    }
+
+    private void remove(String key) {
+        synchronized (entries) {
+            entries.remove(key);
+        }
+    }
+
+    private void trim() {
+        Iterator<Map.Entry<String, Entry>> iterator = entries.entrySet().iterator();
+        while (entries.size() > maxEntries && iterator.hasNext()) {
+            iterator.next();
+            iterator.remove();
+        }
+    }
+
+    private static String key(Request request) {
+        return request.url().toString().toLowerCase(Locale.ROOT);
+    }
+
+    private static String normalizePath(String path) {
+        String normalized = path.toLowerCase(Locale.ROOT);
+        return normalized.endsWith("/") ? normalized.substring(0, normalized.length() - 1) : normalized;
+    }
+
+    /**
+     * A cached response.
+     */
+    private static final class Entry {
+        private final String path;
+        private final String etag;
+        private final MediaType contentType;
+        private final byte[] content;
+        private final Headers headers;
+        private final long createdMillis;
+
+        private Entry(String path, String etag, MediaType contentType, byte[] content, Headers headers) {
+            this.path = path;
+            this.etag = etag;
+            this.contentType = contentType;
+            this.content = content;
+            this.headers = headers;
+            this.createdMillis = System.currentTimeMillis();
+        }
+    }
+}
@@ -0,0 +1,39 @@
+/**
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for
+ * license information.
+ */
+
+package com.microsoft.azure.management.resources.fluentcore.utils;
+
+import okhttp3.Interceptor;
+import okhttp3.Request;
+import okhttp3.Response;
+
+import java.io.IOException;
+
+/**
+ * An interceptor serving the unchanged resources from a {@link ResourceCache}.
+ */
+public final class ResourceCacheInterceptor implements Interceptor {
+    private final ResourceCache resourceCache;
+
+    /**
+     * Initialize a resource cache interceptor with the cache to use.
+     * @param resourceCache the resource cache
+     */
+    public ResourceCacheInterceptor(ResourceCache resourceCache) {
+        this.resourceCache = resourceCache;
+    }
+
+    @Override
+    public Response intercept(Chain chain) throws IOException {
+        Request request = chain.request();
+        if (!"GET".equalsIgnoreCase(request.method())) {
+            resourceCache.invalidate(request.url().encodedPath());
+            return chain.proceed(request);
+        }
+        Response response = chain.proceed(resourceCache.onRequest(request));
+        return resourceCache.onResponse(request, response);
+    }
+}
@@ -0,0 +1,99 @@
+/**
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for
+ * license information.
+ */
+
+package com.microsoft.azure.management.resources.fluentcore.utils;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A token bucket pacing the requests of one subscription against one Azure Resource Manager
+ * request quota (reads or writes).
+ * <p>
+ * The bucket refills at the hourly quota rate and is corrected with the remaining quota
+ * reported by Azure Resource Manager on every response, so that callers start slowing down
+ * before the service starts returning 429. Callers reserve a token and are told how long to
+ * wait for it; no lock is held while waiting.
+ * <p>
+ * Until a remaining quota is reported, the requests are not paced, only held back by the pauses
+ * after 429 responses: requests outside of a subscription, such as tenant level or Graph requests,
+ * are not subject to the subscription quotas and never report them.
+ */
+final class ResourceManagerRateLimiter {
+    private static final long NANOS_PER_HOUR = TimeUnit.HOURS.toNanos(1);
+
+    private final double capacity;
+    private final double tokensPerNano;
+    private double tokens;
+    private long lastRefillNanos;
+    private long pausedUntilNanos;
+    private boolean quotaReported;
+
+    /**
+     * Creates a rate limiter for the given hourly quota.
+     *
+     * @param requestsPerHour the number of requests allowed per hour
+     */
+    ResourceManagerRateLimiter(long requestsPerHour) {
+        this.capacity = requestsPerHour;
+        this.tokensPerNano = (double) requestsPerHour / NANOS_PER_HOUR;
+        this.tokens = requestsPerHour;
+        this.lastRefillNanos = System.nanoTime();
+        this.pausedUntilNanos = this.lastRefillNanos;
+    }
+
+    /**
+     * Reserves a token for one request.
+     *
+     * @return the time in nanoseconds the caller must wait before sending the request, 0 if it can be sent now
+     */
+    synchronized long reserve() {
+        long now = System.nanoTime();
+        if (!quotaReported) {
+            return Math.max(0, pausedUntilNanos - now);
+        }
+        refill(now);
+        tokens -= 1;
+        long waitNanos = 0;
+        if (tokens < 0) {
+            waitNanos = (long) Math.ceil(-tokens / tokensPerNano);
+        }
+        return Math.max(waitNanos, pausedUntilNanos - now);
+    }
+
+    /**
+     * Corrects the bucket with the remaining quota reported by Azure Resource Manager.
+     *
+     * @param remaining the number of remaining requests reported by the service
+     */
+    synchronized void onRemaining(long remaining) {
+        refill(System.nanoTime());
+        quotaReported = true;
+        // Outstanding reservations already account for the deficit, leave them alone
+        if (tokens >= 0) {
+            tokens = Math.min(capacity, Math.max(0, remaining));
+        }
+    }
+
+    /**
+     * Stops issuing tokens for the given time, when Azure Resource Manager has returned 429.
+     *
+     * @param duration the time to pause
+     * @param unit the time unit of the duration
+     */
+    synchronized void pause(long duration, TimeUnit unit) {
+        long now = System.nanoTime();
+        refill(now);
+        pausedUntilNanos = Math.max(pausedUntilNanos, now + unit.toNanos(duration));
+        tokens = Math.min(tokens, 0);
+    }
+
+    private void refill(long now) {
+        if (now > lastRefillNanos) {
+            tokens = Math.min(capacity, tokens + (now - lastRefillNanos) * tokensPerNano);
+            lastRefillNanos = now;
+        }
+    }
+}
@@ -18,105 +18,177 @@ import org.joda.time.Duration;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
+import java.io.InterruptedIOException;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.TimeUnit;
-import java.util.concurrent.locks.ReentrantLock;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
+
 /**
  * An interceptor for automatic retry when Azure Resource Manager is throttling because of too many read/write requests.
  * <p>
  * For each subscription and tenant, Azure Resource Manager limits read requests to 15,000 per hour and
  *   write requests to 1,200 per hour. These limits apply to each Azure Resource Manager instance.
+ * <p>
+ * Requests are paced by a token bucket per subscription and per read/write quota, which is fed by the
+ *   x-ms-ratelimit-remaining-subscription-reads/writes response headers, once they are reported. The
+ *   requests outside of a subscription never report them, and are not paced. When a request is throttled
+ *   anyway, only the requests of the same subscription and quota wait for the Retry-After period, each
+ *   on its own reservation rather than on a shared monitor.
  */
 public class ResourceManagerThrottlingInterceptor implements Interceptor {
     private static final String LOGGING_HEADER = "x-ms-logging-context";
-    private static final ConcurrentMap<String, ReentrantLock> REENTRANT_LOCK_MAP = new ConcurrentHashMap<>();
+    private static final String REMAINING_READS_HEADER = "x-ms-ratelimit-remaining-subscription-reads";
+    private static final String REMAINING_WRITES_HEADER = "x-ms-ratelimit-remaining-subscription-writes";
+    private static final long READS_PER_HOUR = 15000;
+    private static final long WRITES_PER_HOUR = 1200;
+    private static final Pattern RETRY_AFTER_MINUTES_PATTERN = Pattern.compile("try again after '([0-9]*)' minutes", Pattern.CASE_INSENSITIVE);
+    private static final Pattern RETRY_AFTER_SECONDS_PATTERN = Pattern.compile("try again after '([0-9]*)' seconds", Pattern.CASE_INSENSITIVE);
+    private static final ConcurrentMap<String, ResourceManagerRateLimiter> READ_LIMITERS = new ConcurrentHashMap<>();
+    private static final ConcurrentMap<String, ResourceManagerRateLimiter> WRITE_LIMITERS = new ConcurrentHashMap<>();
+
+    private final MetricsListener metricsListener;
+
+    /**
+     * Initialize a throttling interceptor.
+     */
+    public ResourceManagerThrottlingInterceptor() {
+        this(null);
+    }
+
+    /**
+     * Initialize a throttling interceptor reporting the time the requests wait, paced or throttled.
+     * @param metricsListener the listener notified when a request waits, may be null
+     */
+    public ResourceManagerThrottlingInterceptor(MetricsListener metricsListener) {
+        this.metricsListener = metricsListener;
+    }
 
     @Override
     public Response intercept(Chain chain) throws IOException {
-        // Gate control
         String subscriptionId = ResourceUtils.extractFromResourceId(chain.request().url().url().getPath(), "subscriptions");
         if (subscriptionId == null) {
             subscriptionId = "global";
         }
-        REENTRANT_LOCK_MAP.putIfAbsent(subscriptionId, new ReentrantLock());
-        try {
-            synchronized (REENTRANT_LOCK_MAP.get(subscriptionId)) {
-                if (REENTRANT_LOCK_MAP.get(subscriptionId).isLocked()) {
-                    REENTRANT_LOCK_MAP.get(subscriptionId).wait();
-                }
-            }
-        } catch (InterruptedException e) {
-            throw new IOException(e);
+        boolean isRead = isRead(chain.request().method());
+        ResourceManagerRateLimiter limiter = isRead
+            ? limiter(READ_LIMITERS, subscriptionId, READS_PER_HOUR)
+            : limiter(WRITE_LIMITERS, subscriptionId, WRITES_PER_HOUR);
+        String remainingHeader = isRead ? REMAINING_READS_HEADER : REMAINING_WRITES_HEADER;
+
+        // Gate control
+        long pacedMillis = waitFor(limiter.reserve());
+        if (pacedMillis > 0) {
+            onThrottled(chain, pacedMillis);
         }
         Response response = chain.proceed(chain.request());
+        updateRemaining(limiter, response.header(remainingHeader));
         if (response.code() != 429) {
             return response;
         }
 
         try {
-            synchronized (REENTRANT_LOCK_MAP.get(subscriptionId)) {
-                if (REENTRANT_LOCK_MAP.get(subscriptionId).isLocked()) {
-                    REENTRANT_LOCK_MAP.get(subscriptionId).wait();
-                    return chain.proceed(chain.request());
-                } else {
-                    REENTRANT_LOCK_MAP.get(subscriptionId).lock();
+            int retryAfter = retryAfterSeconds(response);
+            if (retryAfter > 0) {
+                String context = chain.request().header(LOGGING_HEADER);
+                if (context == null) {
+                    context = "";
                 }
+                LoggerFactory.getLogger(context)
+                    .info("Azure Resource Manager read/write per hour limit reached. Will retry in: " + retryAfter + " seconds");
+                limiter.pause(TimeUnit.SECONDS.toMillis(retryAfter) + 100, TimeUnit.MILLISECONDS);
+            }
+        } finally {
+            if (response.body() != null) {
+                response.body().close();
             }
-        } catch (InterruptedException e) {
-            throw new IOException(e);
         }
+        onThrottled(chain, waitFor(limiter.reserve()));
+        response = chain.proceed(chain.request());
+        updateRemaining(limiter, response.header(remainingHeader));
+        return response;
+    }
 
-        try {
-            String retryAfterHeader = response.header("Retry-After");
-            int retryAfter = 0;
-            if (retryAfterHeader != null) {
-                DateTime retryWhen = null;
+    private static boolean isRead(String method) {
+        return "GET".equalsIgnoreCase(method) || "HEAD".equalsIgnoreCase(method);
+    }
+
+    private static ResourceManagerRateLimiter limiter(ConcurrentMap<String, ResourceManagerRateLimiter> limiters,
+                                                      String subscriptionId,
+                                                      long requestsPerHour) {
+        ResourceManagerRateLimiter limiter = limiters.get(subscriptionId);
+        if (limiter == null) {
+            limiters.putIfAbsent(subscriptionId, new ResourceManagerRateLimiter(requestsPerHour));
+            limiter = limiters.get(subscriptionId);
+        }
+        return limiter;
+    }
+
+    private static void updateRemaining(ResourceManagerRateLimiter limiter, String remainingHeader) {
+        if (remainingHeader != null) {
+            try {
+                limiter.onRemaining(Long.parseLong(remainingHeader.trim()));
+            } catch (NumberFormatException e) { }
+        }
+    }
+
+    /**
+     * Waits for a reservation of a limiter.
+     *
+     * @param nanos the wait of the reservation in nanoseconds
+     * @return the time actually waited in milliseconds
+     * @throws InterruptedIOException if the thread is interrupted while waiting
+     */
+    private static long waitFor(long nanos) throws InterruptedIOException {
+        if (nanos <= 0) {
+            return 0;
+        }
+        long startNanos = System.nanoTime();
+        SdkContext.sleep((int) Math.min(Integer.MAX_VALUE, TimeUnit.NANOSECONDS.toMillis(nanos) + 1));
+        if (Thread.currentThread().isInterrupted()) {
+            throw new InterruptedIOException("Interrupted while waiting for the request quota");
+        }
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+    }
+
+    private void onThrottled(Chain chain, long waitMillis) {
+        if (metricsListener != null) {
+            metricsListener.onThrottled(MetricsInterceptor.operationName(chain.request()), waitMillis);
+        }
+    }
+
+    private int retryAfterSeconds(Response response) throws IOException {
+        String retryAfterHeader = response.header("Retry-After");
+        int retryAfter = 0;
+        if (retryAfterHeader != null) {
+            DateTime retryWhen = null;
+            try {
+                retryWhen = new DateTimeRfc1123(retryAfterHeader).dateTime();
+            } catch (Exception e) { }
+            if (retryWhen == null) {
                 try {
-                    retryWhen = new DateTimeRfc1123(retryAfterHeader).dateTime();
-                } catch (Exception e) { }
-                if (retryWhen == null) {
                     retryAfter = Integer.parseInt(retryAfterHeader);
-                } else {
-                    retryAfter = new Duration(null, retryWhen).toStandardSeconds().getSeconds();
-                }
+                } catch (NumberFormatException e) { }
+            } else {
+                retryAfter = new Duration(null, retryWhen).toStandardSeconds().getSeconds();
             }
-            if (retryAfter <= 0) {
-                Pattern pattern = Pattern.compile("try again after '([0-9]*)' minutes", Pattern.CASE_INSENSITIVE);
-                Matcher matcher = pattern.matcher(content(response.body()));
+        }
+        if (retryAfter <= 0) {
+            String content = content(response.body());
+            if (content != null) {
+                Matcher matcher = RETRY_AFTER_MINUTES_PATTERN.matcher(content);
                 if (matcher.find()) {
                     retryAfter = (int) TimeUnit.MINUTES.toSeconds(Integer.parseInt(matcher.group(1)));
                 } else {
-                    pattern = Pattern.compile("try again after '([0-9]*)' seconds", Pattern.CASE_INSENSITIVE);
-                    matcher = pattern.matcher(content(response.body()));
+                    matcher = RETRY_AFTER_SECONDS_PATTERN.matcher(content);
                     if (matcher.find()) {
                         retryAfter = Integer.parseInt(matcher.group(1));
                     }
                 }
             }
-            if (retryAfter > 0) {
-                String context = chain.request().header(LOGGING_HEADER);
-                if (context == null) {
-                    context = "";
-                }
-                LoggerFactory.getLogger(context)
-                    .info("Azure Resource Manager read/write per hour limit reached. Will retry in: " + retryAfter + " seconds");
-                SdkContext.sleep((int) (TimeUnit.SECONDS.toMillis(retryAfter) + 100));
-            }
-            return chain.proceed(chain.request());
-        } catch (Throwable t) {
-            throw new IOException(t);
-        } finally {
-            if (response.body() != null) {
-                response.body().close();
-            }
-            synchronized (REENTRANT_LOCK_MAP.get(subscriptionId)) {
-                REENTRANT_LOCK_MAP.get(subscriptionId).unlock();
-                REENTRANT_LOCK_MAP.get(subscriptionId).notifyAll();
-            }
         }
+        return retryAfter;
     }
 
     private String content(ResponseBody responseBody) throws IOException {
@@ -0,0 +1,298 @@
+/**
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for
+ * license information.
+ */
+
+package com.microsoft.azure.management.resources.fluentcore.utils;
+
+import okhttp3.Response;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The retry policy applied to the requests sent by the fluent managers.
+ * <p>
+ * A request failing with a retryable status code or an I/O error is retried with exponential
+ * backoff and jitter, honoring the Retry-After header when present. Only idempotent requests are
+ * retried, since retrying a POST or a PATCH, e.g. a restart, may run the action twice, unless
+ * retries of non idempotent requests are explicitly enabled. Retries are also bounded
+ * per subscription by a retry budget, which only allows a percentage of the requests to be
+ * retried, and by a cap on the number of retries per second. The budget state lives in the
+ * policy, so all the managers configured with the same policy share it.
+ */
+public class RetryPolicy {
+    private int maxRetries = 3;
+    private long initialDelayMillis = 800;
+    private long maxDelayMillis = TimeUnit.SECONDS.toMillis(30);
+    private double retryBudgetPercent = 0.2;
+    private double minRetriesPerSecond = 1;
+    private double maxRetriesPerSecond = 10;
+    private boolean nonIdempotentRetries;
+    private final Map<Integer, Integer> statusCodeRules = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, RetryBudget> budgets = new ConcurrentHashMap<>();
+
+    /**
+     * Creates a retry policy retrying 408, 500, 502, 503 and 504 responses up to 3 times.
+     */
+    public RetryPolicy() {
+        for (int statusCode : new int[] {408, 500, 502, 503, 504}) {
+            statusCodeRules.put(statusCode, -1);
+        }
+    }
+
+    /**
+     * Sets the default maximum number of retries for a request.
+     *
+     * @param maxRetries the maximum number of retries
+     * @return the retry policy itself
+     */
+    public RetryPolicy withMaxRetries(int maxRetries) {
+        this.maxRetries = maxRetries;
+        return this;
+    }
+
+    /**
+     * Sets the delay before the first retry, doubled on every following retry.
+     *
+     * @param delay the initial delay
+     * @param unit the time unit of the delay
+     * @return the retry policy itself
+     */
+    public RetryPolicy withInitialDelay(long delay, TimeUnit unit) {
+        this.initialDelayMillis = unit.toMillis(delay);
+        return this;
+    }
+
+    /**
+     * Sets the maximum delay between two retries.
+     *
+     * @param delay the maximum delay
+     * @param unit the time unit of the delay
+     * @return the retry policy itself
+     */
+    public RetryPolicy withMaxDelay(long delay, TimeUnit unit) {
+        this.maxDelayMillis = unit.toMillis(delay);
+        return this;
+    }
+
+    /**
+     * Retries the responses with the given status code, up to the default maximum number of retries.
+     *
+     * @param statusCode the HTTP status code
+     * @return the retry policy itself
+     */
+    public RetryPolicy withRetryOnStatusCode(int statusCode) {
+        this.statusCodeRules.put(statusCode, -1);
+        return this;
+    }
+
+    /**
+     * Retries the responses with the given status code, up to the given number of retries.
+     *
+     * @param statusCode the HTTP status code
+     * @param maxRetries the maximum number of retries for this status code
+     * @return the retry policy itself
+     */
+    public RetryPolicy withRetryOnStatusCode(int statusCode, int maxRetries) {
+        this.statusCodeRules.put(statusCode, maxRetries);
+        return this;
+    }
+
+    /**
+     * Stops retrying the responses with the given status code.
+     *
+     * @param statusCode the HTTP status code
+     * @return the retry policy itself
+     */
+    public RetryPolicy withoutRetryOnStatusCode(int statusCode) {
+        this.statusCodeRules.remove(statusCode);
+        return this;
+    }
+
+    /**
+     * Enables or disables the retries of POST and PATCH requests, disabled by default.
+     *
+     * @param enabled true to retry the POST and PATCH requests like the idempotent requests
+     * @return the retry policy itself
+     */
+    public RetryPolicy withNonIdempotentRetries(boolean enabled) {
+        this.nonIdempotentRetries = enabled;
+        return this;
+    }
+
+    /**
+     * Sets the retry budget of a subscription, as the percentage of requests that can be retried
+     * on top of a minimum number of retries per second.
+     *
+     * @param percent the ratio of retries to requests, between 0 and 1
+     * @param minRetriesPerSecond the number of retries per second always allowed
+     * @return the retry policy itself
+     */
+    public RetryPolicy withRetryBudget(double percent, double minRetriesPerSecond) {
+        this.retryBudgetPercent = percent;
+        this.minRetriesPerSecond = minRetriesPerSecond;
+        return this;
+    }
+
+    /**
+     * Sets the maximum number of retries per second for a subscription, whatever the budget.
+     *
+     * @param maxRetriesPerSecond the maximum number of retries per second
+     * @return the retry policy itself
+     */
+    public RetryPolicy withMaxRetriesPerSecond(double maxRetriesPerSecond) {
+        this.maxRetriesPerSecond = maxRetriesPerSecond;
+        return this;
+    }
+
+    /**
+     * Gets the maximum number of retries for a response.
+     *
+     * @param statusCode the HTTP status code of the response
+     * @return the maximum number of retries, 0 if the status code is not retryable
+     */
+    public int maxRetries(int statusCode) {
+        Integer rule = statusCodeRules.get(statusCode);
+        if (rule == null) {
+            return 0;
+        }
+        return rule < 0 ? maxRetries : rule;
+    }
+
+    /**
+     * Gets the maximum number of retries for a request failed with an I/O error.
+     *
+     * @return the maximum number of retries
+     */
+    public int maxRetries() {
+        return maxRetries;
+    }
+
+    /**
+     * Gets the maximum number of retries for a response to a request.
+     *
+     * @param method the HTTP method of the request
+     * @param statusCode the HTTP status code of the response
+     * @return the maximum number of retries, 0 if the status code is not retryable or the request not idempotent
+     */
+    public int maxRetries(String method, int statusCode) {
+        return isRetryable(method) ? maxRetries(statusCode) : 0;
+    }
+
+    /**
+     * Gets the maximum number of retries for a request failed with an I/O error.
+     *
+     * @param method the HTTP method of the request
+     * @return the maximum number of retries, 0 if the request is not idempotent
+     */
+    public int maxRetries(String method) {
+        return isRetryable(method) ? maxRetries : 0;
+    }
+
+    private boolean isRetryable(String method) {
+        return nonIdempotentRetries
+                || !("POST".equalsIgnoreCase(method) || "PATCH".equalsIgnoreCase(method));
+    }
+
+    /**
+     * Computes the delay before a retry.
+     *
+     * @param retryCount the number of retries already made
+     * @param response the failed response, or null if the request failed with an I/O error
+     * @return the delay in milliseconds
+     */
+    public long delayMillis(int retryCount, Response response) {
+        long delay = initialDelayMillis << Math.min(retryCount, 30);
+        if (delay <= 0 || delay > maxDelayMillis) {
+            delay = maxDelayMillis;
+        }
+        // Equal jitter: half of the backoff is fixed, the other half is random
+        delay = delay / 2 + ThreadLocalRandom.current().nextLong(delay / 2 + 1);
+        if (response != null) {
+            String retryAfter = response.header("Retry-After");
+            if (retryAfter != null) {
+                try {
+                    delay = Math.max(delay, TimeUnit.SECONDS.toMillis(Long.parseLong(retryAfter.trim())));
+                } catch (NumberFormatException e) { }
+            }
+        }
+        return delay;
+    }
+
+    /**
+     * Records a request sent to a subscription, adding to the retry budget of the subscription.
+     *
+     * @param subscriptionId the subscription ID
+     */
+    public void onRequest(String subscriptionId) {
+        budget(subscriptionId).deposit();
+    }
+
+    /**
+     * Attempts to take a retry from the retry budget of a subscription.
+     *
+     * @param subscriptionId the subscription ID
+     * @return true if the request can be retried, false if the budget is exhausted
+     */
+    public boolean tryAcquireRetry(String subscriptionId) {
+        return budget(subscriptionId).tryWithdraw();
+    }
+
+    private RetryBudget budget(String subscriptionId) {
+        RetryBudget budget = budgets.get(subscriptionId);
+        if (budget == null) {
+            budgets.putIfAbsent(subscriptionId, new RetryBudget());
+            budget = budgets.get(subscriptionId);
+        }
+        return budget;
+    }
+
+    /**
+     * The retry budget of a subscription.
+     */
+    private class RetryBudget {
+        private double balance;
+        private double rateTokens;
+        private long lastRefillNanos;
+
+        RetryBudget() {
+            // Starts with 10 seconds worth of minimum retries
+            this.balance = Math.min(10 * minRetriesPerSecond, maxBalance());
+            this.rateTokens = Math.max(1, maxRetriesPerSecond);
+            this.lastRefillNanos = System.nanoTime();
+        }
+
+        synchronized void deposit() {
+            refill();
+            balance = Math.min(balance + retryBudgetPercent, maxBalance());
+        }
+
+        synchronized boolean tryWithdraw() {
+            refill();
+            if (balance < 1 || rateTokens < 1) {
+                return false;
+            }
+            balance -= 1;
+            rateTokens -= 1;
+            return true;
+        }
+
+        private void refill() {
+            long now = System.nanoTime();
+            double seconds = (now - lastRefillNanos) / (double) TimeUnit.SECONDS.toNanos(1);
+            lastRefillNanos = now;
+            balance = Math.min(balance + seconds * minRetriesPerSecond, maxBalance());
+            rateTokens = Math.min(rateTokens + seconds * maxRetriesPerSecond, Math.max(1, maxRetriesPerSecond));
+        }
+
+        private double maxBalance() {
+            // Allows a burst of up to 10 seconds worth of retries
+            return Math.max(1, 10 * Math.max(minRetriesPerSecond, maxRetriesPerSecond));
+        }
+    }
+}
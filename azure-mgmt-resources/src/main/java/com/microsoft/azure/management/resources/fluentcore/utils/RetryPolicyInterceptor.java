@@ -0,0 +1,86 @@
+/**
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for
+ * license information.
+ */
+
+package com.microsoft.azure.management.resources.fluentcore.utils;
+
+import com.microsoft.azure.management.resources.fluentcore.arm.ResourceUtils;
+import okhttp3.Interceptor;
+import okhttp3.Request;
+import okhttp3.Response;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+
+/**
+ * An interceptor retrying failed requests according to a {@link RetryPolicy}.
+ */
+public final class RetryPolicyInterceptor implements Interceptor {
+    private final RetryPolicy retryPolicy;
+    private final MetricsListener metricsListener;
+
+    /**
+     * Initialize a retry interceptor with the policy to apply.
+     * @param retryPolicy the retry policy
+     */
+    public RetryPolicyInterceptor(RetryPolicy retryPolicy) {
+        this(retryPolicy, null);
+    }
+
+    /**
+     * Initialize a retry interceptor with the policy to apply, reporting the retries.
+     * @param retryPolicy the retry policy
+     * @param metricsListener the listener notified of the retries, may be null
+     */
+    public RetryPolicyInterceptor(RetryPolicy retryPolicy, MetricsListener metricsListener) {
+        this.retryPolicy = retryPolicy;
+        this.metricsListener = metricsListener;
+    }
+
+    @Override
+    public Response intercept(Chain chain) throws IOException {
+        Request request = chain.request();
+        String subscriptionId = ResourceUtils.extractFromResourceId(request.url().url().getPath(), "subscriptions");
+        if (subscriptionId == null) {
+            subscriptionId = "global";
+        }
+        retryPolicy.onRequest(subscriptionId);
+
+        int retryCount = 0;
+        while (true) {
+            Response response = null;
+            IOException failure = null;
+            try {
+                response = chain.proceed(request);
+            } catch (IOException e) {
+                failure = e;
+            }
+            int maxRetries;
+            if (failure != null) {
+                maxRetries = retryPolicy.maxRetries(request.method());
+            } else {
+                maxRetries = retryPolicy.maxRetries(request.method(), response.code());
+            }
+            if (retryCount >= maxRetries || !retryPolicy.tryAcquireRetry(subscriptionId)) {
+                if (failure != null) {
+                    throw failure;
+                }
+                return response;
+            }
+            long delay = retryPolicy.delayMillis(retryCount, response);
+            if (response != null && response.body() != null) {
+                response.body().close();
+            }
+            retryCount++;
+            if (metricsListener != null) {
+                metricsListener.onRetry(MetricsInterceptor.operationName(request), retryCount, response != null ? response.code() : -1);
+            }
+            SdkContext.sleep((int) Math.min(Integer.MAX_VALUE, delay));
+            if (Thread.currentThread().isInterrupted()) {
+                throw new InterruptedIOException("Interrupted while waiting to retry " + request.method() + " " + request.url());
+            }
+        }
+    }
+}
@@ -18,6 +18,7 @@ public class SdkContext {
     private static ResourceNamerFactory resourceNamerFactory = new ResourceNamerFactory();
     private static DelayProvider delayProvider = new DelayProvider();
     private static Scheduler rxScheduler = Schedulers.io();
+    private static volatile boolean callingThreadMode;
 
     /**
      * Function to override the ResourceNamerFactory.
@@ -124,5 +125,28 @@ public class SdkContext {
      */
     public static void setRxScheduler(Scheduler rxScheduler) {
         SdkContext.rxScheduler = rxScheduler;
+        SdkContext.callingThreadMode = false;
+    }
+
+    /**
+     * Sets whether the work of the SDK framework runs on the threads calling it rather than on the Rx Scheduler.
+     * <p>
+     * In this mode the synchronous methods send their requests, poll and wait on the calling thread, parking
+     * it without holding any monitor, which suits virtual threads. The asynchronous methods then block the
+     * subscribing thread, and the independent tasks of a task group run one after the other.
+     * Disabling the mode restores Scheduler.io().
+     *
+     * @param enabled true to run the work on the calling threads
+     */
+    public static void setCallingThreadMode(boolean enabled) {
+        SdkContext.rxScheduler = enabled ? Schedulers.trampoline() : Schedulers.io();
+        SdkContext.callingThreadMode = enabled;
+    }
+
+    /**
+     * @return true if the work of the SDK framework runs on the threads calling it
+     */
+    public static boolean isCallingThreadMode() {
+        return callingThreadMode;
     }
 }
@@ -0,0 +1,281 @@
+/**
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for
+ * license information.
+ */
+
+package com.microsoft.azure.management.resources.fluentcore.utils;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.microsoft.azure.CloudException;
+import com.microsoft.azure.management.resources.fluentcore.arm.models.ResourceView;
+import com.microsoft.azure.management.resources.fluentcore.arm.models.implementation.ResourceViewImpl;
+import com.microsoft.azure.serializer.AzureJacksonAdapter;
+import okhttp3.ResponseBody;
+import retrofit2.Response;
+import retrofit2.Retrofit;
+import retrofit2.http.GET;
+import retrofit2.http.Streaming;
+import retrofit2.http.Url;
+import rx.Observable;
+import rx.Observer;
+import rx.exceptions.Exceptions;
+import rx.observables.SyncOnSubscribe;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Reads the items of an Azure Resource Manager list operation as a stream.
+ * <p>
+ * The pages are parsed incrementally as they are received, each item being emitted as soon as it is
+ * deserialized and only when requested by the subscriber, so that neither a full page nor a list of
+ * items is held in memory. The next page is requested once all the items of the current page are emitted.
+ */
+public final class StreamingListReader {
+    private static final ObjectMapper MAPPER = new AzureJacksonAdapter().serializer();
+
+    /**
+     * A Retrofit service used to read a page without buffering its content.
+     */
+    private interface ListService {
+        @Streaming
+        @GET
+        Observable<Response<ResponseBody>> list(@Url String url);
+    }
+
+    /**
+     * Reads an item from the parser positioned at the start of the item.
+     *
+     * @param <T> the type of the items
+     */
+    private interface ItemReader<T> {
+        T read(JsonParser parser) throws IOException;
+    }
+
+    /**
+     * Lists the items of a list operation.
+     *
+     * @param retrofit the retrofit client
+     * @param url the URL of the first page, absolute or relative to the base URL of the client
+     * @param itemType the type of the items
+     * @param <T> the type of the items
+     * @return an observable emitting the items of all the pages
+     */
+    public static <T> Observable<T> listAsync(Retrofit retrofit, String url, final Class<T> itemType) {
+        return listAsync(retrofit, url, new ItemReader<T>() {
+            @Override
+            public T read(JsonParser parser) throws IOException {
+                return MAPPER.readValue(parser, itemType);
+            }
+        });
+    }
+
+    /**
+     * Lists the resources of a list operation as compact views, deserializing only
+     * their identity, location, tags and the given properties.
+     *
+     * @param retrofit the retrofit client
+     * @param url the URL of the first page, absolute or relative to the base URL of the client
+     * @param propertyPaths the dot separated paths of the properties to read, e.g. "properties.hardwareProfile.vmSize"
+     * @return an observable emitting the views of the resources of all the pages
+     */
+    public static Observable<ResourceView> listViewsAsync(Retrofit retrofit, String url, String... propertyPaths) {
+        final Set<String> paths = new HashSet<>();
+        final Set<String> parentPaths = new HashSet<>();
+        if (propertyPaths != null) {
+            for (String path : propertyPaths) {
+                paths.add(path);
+                for (int i = path.indexOf('.'); i > 0; i = path.indexOf('.', i + 1)) {
+                    parentPaths.add(path.substring(0, i));
+                }
+            }
+        }
+        return listAsync(retrofit, url, new ItemReader<ResourceView>() {
+            @Override
+            public ResourceView read(JsonParser parser) throws IOException {
+                return readView(parser, paths, parentPaths);
+            }
+        });
+    }
+
+    private static <T> Observable<T> listAsync(Retrofit retrofit, final String url, final ItemReader<T> itemReader) {
+        final ListService service = retrofit.create(ListService.class);
+        return Observable.create(new SyncOnSubscribe<PageReader, T>() {
+            @Override
+            protected PageReader generateState() {
+                return new PageReader(service, url);
+            }
+
+            @Override
+            protected PageReader next(PageReader reader, Observer<? super T> observer) {
+                try {
+                    T item = reader.nextItem(itemReader);
+                    if (item != null) {
+                        observer.onNext(item);
+                    } else {
+                        observer.onCompleted();
+                    }
+                } catch (IOException e) {
+                    throw Exceptions.propagate(e);
+                }
+                return reader;
+            }
+
+            @Override
+            protected void onUnsubscribe(PageReader reader) {
+                reader.close();
+            }
+        }).subscribeOn(SdkContext.getRxScheduler());
+    }
+
+    private static ResourceView readView(JsonParser parser, Set<String> paths, Set<String> parentPaths) throws IOException {
+        String id = null;
+        String name = null;
+        String type = null;
+        String location = null;
+        Map<String, String> tags = null;
+        Map<String, String> properties = new HashMap<>();
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String fieldName = parser.getCurrentName();
+            JsonToken value = parser.nextToken();
+            if ("id".equals(fieldName)) {
+                id = readText(parser, value);
+            } else if ("name".equals(fieldName)) {
+                name = readText(parser, value);
+            } else if ("type".equals(fieldName)) {
+                type = readText(parser, value);
+            } else if ("location".equals(fieldName)) {
+                location = readText(parser, value);
+            } else if ("tags".equals(fieldName) && value == JsonToken.START_OBJECT) {
+                tags = new HashMap<>();
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    String tagName = parser.getCurrentName();
+                    tags.put(tagName, readText(parser, parser.nextToken()));
+                }
+            } else {
+                readProperty(parser, fieldName, value, paths, parentPaths, properties);
+            }
+        }
+        return new ResourceViewImpl(id, name, type, location, tags, properties);
+    }
+
+    private static void readProperty(JsonParser parser, String path, JsonToken value,
+                                     Set<String> paths, Set<String> parentPaths, Map<String, String> properties) throws IOException {
+        if (paths.contains(path)) {
+            String text = readText(parser, value);
+            if (text != null) {
+                properties.put(path, text);
+            }
+        } else if (value == JsonToken.START_OBJECT && parentPaths.contains(path)) {
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String fieldName = parser.getCurrentName();
+                readProperty(parser, path + "." + fieldName, parser.nextToken(), paths, parentPaths, properties);
+            }
+        } else {
+            parser.skipChildren();
+        }
+    }
+
+    private static String readText(JsonParser parser, JsonToken value) throws IOException {
+        if (value == JsonToken.START_OBJECT || value == JsonToken.START_ARRAY) {
+            return MAPPER.readTree(parser).toString();
+        } else if (value == null || value == JsonToken.VALUE_NULL) {
+            return null;
+        } else {
+            return parser.getText();
+        }
+    }
+
+    /**
+     * Reads the items of the pages one at a time.
+     */
+    private static final class PageReader {
+        private final ListService service;
+        private String nextLink;
+        private ResponseBody body;
+        private JsonParser parser;
+        private boolean inItems;
+
+        private PageReader(ListService service, String url) {
+            this.service = service;
+            this.nextLink = url;
+        }
+
+        /**
+         * Reads the next item, fetching the next page if needed.
+         *
+         * @param itemReader the reader of the items
+         * @param <T> the type of the items
+         * @return the next item, or null if all the pages were read
+         * @throws IOException if the page cannot be read
+         */
+        private <T> T nextItem(ItemReader<T> itemReader) throws IOException {
+            while (true) {
+                if (parser == null) {
+                    if (nextLink == null) {
+                        return null;
+                    }
+                    open(nextLink);
+                    nextLink = null;
+                }
+                JsonToken token = parser.nextToken();
+                if (inItems) {
+                    if (token == JsonToken.START_OBJECT) {
+                        return itemReader.read(parser);
+                    } else if (token == JsonToken.END_ARRAY) {
+                        inItems = false;
+                    } else {
+                        parser.skipChildren();
+                    }
+                } else if (token == JsonToken.FIELD_NAME) {
+                    String fieldName = parser.getCurrentName();
+                    JsonToken value = parser.nextToken();
+                    if ("value".equals(fieldName) && value == JsonToken.START_ARRAY) {
+                        inItems = true;
+                    } else if ("nextLink".equals(fieldName)) {
+                        nextLink = value == JsonToken.VALUE_NULL ? null : parser.getValueAsString();
+                    } else {
+                        parser.skipChildren();
+                    }
+                } else if (token == null || token == JsonToken.END_OBJECT) {
+                    close();
+                }
+            }
+        }
+
+        private void open(String url) throws IOException {
+            Response<ResponseBody> response = service.list(url).toBlocking().single();
+            if (!response.isSuccessful()) {
+                String content = response.errorBody() != null ? response.errorBody().string() : null;
+                throw new CloudException(String.format("Status code %d, %s", response.code(), content), response);
+            }
+            body = response.body();
+            parser = MAPPER.getFactory().createParser(body.byteStream());
+        }
+
+        private void close() {
+            inItems = false;
+            if (parser != null) {
+                try {
+                    parser.close();
+                } catch (IOException e) {
+                    // Ignore, the response body is closed below
+                }
+                parser = null;
+            }
+            if (body != null) {
+                body.close();
+                body = null;
+            }
+        }
+    }
+
+    private StreamingListReader() {
+    }
+}
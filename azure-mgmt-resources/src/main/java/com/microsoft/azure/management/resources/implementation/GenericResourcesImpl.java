@@ -9,13 +9,15 @@ package com.microsoft.azure.management.resources.implementation;
 import com.microsoft.azure.PagedList;
 import com.microsoft.azure.management.resources.GenericResource;
 import com.microsoft.azure.management.resources.GenericResources;
-import com.microsoft.azure.management.resources.Provider;
 import com.microsoft.azure.management.resources.ResourceGroup;
 import com.microsoft.azure.management.resources.fluentcore.arm.ResourceUtils;
 import com.microsoft.azure.management.resources.fluentcore.arm.collection.implementation.GroupableResourcesImpl;
+import com.microsoft.azure.management.resources.fluentcore.arm.models.ResourceView;
+import com.microsoft.azure.management.resources.fluentcore.utils.StreamingListReader;
 import com.microsoft.azure.management.resources.fluentcore.utils.Utils;
 import com.microsoft.rest.ServiceCallback;
 import com.microsoft.rest.ServiceFuture;
+import okhttp3.HttpUrl;
 import rx.Completable;
 import rx.Observable;
 import rx.functions.Func1;
@@ -87,8 +89,7 @@ final class GenericResourcesImpl
 
     @Override
     public GenericResource getById(String id) {
-        Provider provider = this.manager().providers().getByName(ResourceUtils.resourceProviderFromResourceId(id));
-        String apiVersion = ResourceUtils.defaultApiVersion(id, provider);
+        String apiVersion = getApiVersionFromId(id).toBlocking().single();
         return wrapModel(this.inner().getById(id, apiVersion)).withApiVersion(apiVersion);
     }
 
@@ -222,13 +223,17 @@ final class GenericResourcesImpl
     }
 
     private Observable<String> getApiVersionFromId(final String id) {
-        return this.manager().providers().getByNameAsync(ResourceUtils.resourceProviderFromResourceId(id))
-                .map(new Func1<Provider, String>() {
-                    @Override
-                    public String call(Provider provider) {
-                        return ResourceUtils.defaultApiVersion(id, provider);
-                    }
-                });
+        return this.manager().providerApiVersions().apiVersionAsync(id);
+    }
+
+    @Override
+    public void preloadApiVersions(String... resourceProviderNamespaces) {
+        preloadApiVersionsAsync(resourceProviderNamespaces).await();
+    }
+
+    @Override
+    public Completable preloadApiVersionsAsync(String... resourceProviderNamespaces) {
+        return this.manager().providerApiVersions().preloadAsync(resourceProviderNamespaces).toCompletable();
     }
 
     @Override
@@ -240,4 +245,58 @@ final class GenericResourcesImpl
     public Observable<GenericResource> listByResourceGroupAsync(String resourceGroupName) {
         return wrapPageAsync(this.manager().inner().resources().listByResourceGroupAsync(resourceGroupName));
     }
+
+    @Override
+    public Observable<GenericResource> listStreamingAsync() {
+        return wrapStreamAsync(this.manager().inner().restClient().retrofit(), listUrl(), GenericResourceInner.class);
+    }
+
+    @Override
+    public Observable<GenericResource> listByResourceGroupStreamingAsync(String resourceGroupName) {
+        return wrapStreamAsync(this.manager().inner().restClient().retrofit(),
+                listByResourceGroupUrl(resourceGroupName), GenericResourceInner.class);
+    }
+
+    @Override
+    public List<ResourceView> listViews(String... propertyPaths) {
+        return this.listViewsAsync(propertyPaths).toList().toBlocking().single();
+    }
+
+    @Override
+    public Observable<ResourceView> listViewsAsync(String... propertyPaths) {
+        return StreamingListReader.listViewsAsync(this.manager().inner().restClient().retrofit(), listUrl(), propertyPaths);
+    }
+
+    @Override
+    public List<ResourceView> listViewsByResourceGroup(String resourceGroupName, String... propertyPaths) {
+        return this.listViewsByResourceGroupAsync(resourceGroupName, propertyPaths).toList().toBlocking().single();
+    }
+
+    @Override
+    public Observable<ResourceView> listViewsByResourceGroupAsync(String resourceGroupName, String... propertyPaths) {
+        return StreamingListReader.listViewsAsync(this.manager().inner().restClient().retrofit(),
+                listByResourceGroupUrl(resourceGroupName), propertyPaths);
+    }
+
+    private String listUrl() {
+        return this.subscriptionUrlBuilder()
+                .addPathSegment("resources")
+                .addQueryParameter("api-version", this.manager().inner().apiVersion())
+                .build().toString();
+    }
+
+    private String listByResourceGroupUrl(String resourceGroupName) {
+        return this.subscriptionUrlBuilder()
+                .addPathSegment("resourceGroups")
+                .addPathSegment(resourceGroupName)
+                .addPathSegment("resources")
+                .addQueryParameter("api-version", this.manager().inner().apiVersion())
+                .build().toString();
+    }
+
+    private HttpUrl.Builder subscriptionUrlBuilder() {
+        return this.manager().inner().restClient().retrofit().baseUrl().newBuilder()
+                .addPathSegment("subscriptions")
+                .addPathSegment(this.manager().subscriptionId());
+    }
 }
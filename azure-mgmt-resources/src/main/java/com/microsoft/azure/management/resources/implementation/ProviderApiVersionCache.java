@@ -0,0 +1,180 @@
+/**
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for
+ * license information.
+ */
+
+package com.microsoft.azure.management.resources.implementation;
+
+import com.microsoft.azure.management.resources.Provider;
+import com.microsoft.azure.management.resources.ProviderResourceType;
+import com.microsoft.azure.management.resources.fluentcore.arm.ResourceUtils;
+import rx.Observable;
+import rx.functions.Action1;
+import rx.functions.Func1;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * The default API versions of the resource types of the providers of a subscription.
+ * <p>
+ * The resource types of a provider are fetched once per time to live and indexed, so that the
+ * API version of a resource ID is resolved without fetching the provider again nor scanning its
+ * resource types. Concurrent requests for the same provider share a single call.
+ */
+final class ProviderApiVersionCache {
+    private static final long TIME_TO_LIVE_MILLIS = TimeUnit.HOURS.toMillis(1);
+
+    private final ResourceManager manager;
+    private final ConcurrentMap<String, Observable<ProviderIndex>> indexes = new ConcurrentHashMap<>();
+
+    ProviderApiVersionCache(ResourceManager manager) {
+        this.manager = manager;
+    }
+
+    /**
+     * Gets the default API version of a resource.
+     *
+     * @param id the resource ID
+     * @return an observable emitting the API version
+     */
+    Observable<String> apiVersionAsync(final String id) {
+        return indexAsync(ResourceUtils.resourceProviderFromResourceId(id))
+                .map(new Func1<ProviderIndex, String>() {
+                    @Override
+                    public String call(ProviderIndex index) {
+                        return index.apiVersion(id);
+                    }
+                });
+    }
+
+    /**
+     * Fetches and indexes providers ahead of their first lookup.
+     *
+     * @param namespaces the namespaces of the providers
+     * @return an observable emitting nothing once the providers are indexed
+     */
+    Observable<Void> preloadAsync(String... namespaces) {
+        List<Observable<ProviderIndex>> loads = new ArrayList<>();
+        for (String namespace : namespaces) {
+            loads.add(indexAsync(namespace));
+        }
+        return Observable.merge(loads).ignoreElements().map(new Func1<ProviderIndex, Void>() {
+            @Override
+            public Void call(ProviderIndex index) {
+                return null;
+            }
+        });
+    }
+
+    private Observable<ProviderIndex> indexAsync(String namespace) {
+        final String key = namespace.toLowerCase(Locale.ROOT);
+        final Observable<ProviderIndex> index = indexes.get(key);
+        if (index != null) {
+            return index.flatMap(new Func1<ProviderIndex, Observable<ProviderIndex>>() {
+                @Override
+                public Observable<ProviderIndex> call(ProviderIndex loaded) {
+                    if (loaded.isExpired()) {
+                        indexes.remove(key, index);
+                        return indexAsync(key);
+                    }
+                    return Observable.just(loaded);
+                }
+            });
+        }
+        final AtomicReference<Observable<ProviderIndex>> load = new AtomicReference<>();
+        load.set(manager.providers().getByNameAsync(namespace)
+                .map(new Func1<Provider, ProviderIndex>() {
+                    @Override
+                    public ProviderIndex call(Provider provider) {
+                        return new ProviderIndex(provider);
+                    }
+                })
+                .doOnError(new Action1<Throwable>() {
+                    @Override
+                    public void call(Throwable throwable) {
+                        // Failed loads are not cached
+                        indexes.remove(key, load.get());
+                    }
+                })
+                .cache());
+        Observable<ProviderIndex> existing = indexes.putIfAbsent(key, load.get());
+        return existing != null ? indexAsync(key) : load.get();
+    }
+
+    /**
+     * The resource types of a provider indexed by name.
+     */
+    private static final class ProviderIndex {
+        private static final String NO_MATCH = "";
+
+        private final String namespace;
+        private final List<ProviderResourceType> resourceTypes;
+        private final ConcurrentMap<String, String> apiVersionsByType = new ConcurrentHashMap<>();
+        private final long loadedMillis = System.currentTimeMillis();
+
+        private ProviderIndex(Provider provider) {
+            this.namespace = provider.namespace();
+            // Resource types without any API version are left out, they cannot resolve one
+            this.resourceTypes = new ArrayList<>();
+            if (provider.resourceTypes() != null) {
+                for (ProviderResourceType resourceType : provider.resourceTypes()) {
+                    if (resourceType.apiVersions() == null || resourceType.apiVersions().isEmpty()) {
+                        continue;
+                    }
+                    this.resourceTypes.add(resourceType);
+                    String key = resourceType.resourceType().toLowerCase(Locale.ROOT);
+                    if (!apiVersionsByType.containsKey(key)) {
+                        apiVersionsByType.put(key, resourceType.apiVersions().get(0));
+                    }
+                }
+            }
+        }
+
+        private boolean isExpired() {
+            return System.currentTimeMillis() - loadedMillis > TIME_TO_LIVE_MILLIS;
+        }
+
+        /**
+         * Resolves the API version of a resource the same way as {@link ResourceUtils#defaultApiVersion(String, Provider)}.
+         */
+        private String apiVersion(String id) {
+            String currentId = id;
+            while (currentId != null) {
+                String apiVersion = apiVersionOfType(ResourceUtils.resourceTypeFromResourceId(currentId).toLowerCase(Locale.ROOT));
+                if (apiVersion != NO_MATCH) {
+                    return apiVersion;
+                }
+                currentId = ResourceUtils.parentResourceIdFromResourceId(currentId);
+            }
+            // Fallback: use a random one, not guaranteed to work
+            if (resourceTypes.isEmpty()) {
+                throw new IllegalArgumentException("Provider " + namespace + " has no API version for resource " + id);
+            }
+            return resourceTypes.get(0).apiVersions().get(0);
+        }
+
+        private String apiVersionOfType(String resourceType) {
+            String apiVersion = apiVersionsByType.get(resourceType);
+            if (apiVersion != null) {
+                return apiVersion;
+            }
+            // child resource, e.g. sites/config, resolved once per type
+            apiVersion = NO_MATCH;
+            for (ProviderResourceType prt : resourceTypes) {
+                if (prt.resourceType().toLowerCase(Locale.ROOT).contains("/" + resourceType)) {
+                    apiVersion = prt.apiVersions().get(0);
+                    break;
+                }
+            }
+            apiVersionsByType.putIfAbsent(resourceType, apiVersion);
+            return apiVersion;
+        }
+    }
+}
@@ -43,6 +43,7 @@ public final class ResourceManager extends ManagerBase implements HasInner<Resou
     private Providers providers;
     private PolicyDefinitions policyDefinitions;
     private PolicyAssignments policyAssignments;
+    private final ProviderApiVersionCache providerApiVersions = new ProviderApiVersionCache(this);
 
     /**
      * Creates an instance of ResourceManager that exposes resource management API entry points.
@@ -241,6 +242,13 @@ public final class ResourceManager extends ManagerBase implements HasInner<Resou
         return policyAssignments;
     }
 
+    /**
+     * @return the cache of the default API versions of the resource providers
+     */
+    ProviderApiVersionCache providerApiVersions() {
+        return providerApiVersions;
+    }
+
     @Override
     public ResourceManagementClientImpl inner() {
         return this.resourceManagementClient;
@@ -10,6 +10,8 @@ import com.microsoft.azure.management.resources.fluentcore.arm.ResourceId;
 import org.junit.Assert;
 import org.junit.Test;
 
+import java.security.InvalidParameterException;
+
 /**
  * Test class to test ResourceId class.
  */
@@ -75,4 +77,30 @@ public class ResourceIdTests {
         Assert.assertEquals(resourceId.parent().parent().resourceType(), "applicationGateways");
         Assert.assertEquals(resourceId.parent().parent().fullResourceType(), "Microsoft.Network/applicationGateways");
     }
+
+    @Test
+    public void resourceIdWithoutLeadingSlashHasRootedParent() {
+        ResourceId resourceId = ResourceId.fromString("subscriptions/123/resourceGroups/foo/providers/Microsoft.Bar/bars/bar1/bazs/baz1/");
+
+        Assert.assertEquals("baz1", resourceId.name());
+        Assert.assertEquals("bazs", resourceId.resourceType());
+        Assert.assertEquals("/subscriptions/123/resourceGroups/foo/providers/Microsoft.Bar/bars/bar1", resourceId.parent().id());
+        Assert.assertEquals("Microsoft.Bar/bars/bazs", resourceId.fullResourceType());
+    }
+
+    @Test
+    public void resourceIdIsCached() {
+        String id = "/subscriptions/123/resourceGroups/foo/providers/Microsoft.Bar/bars/cached";
+        Assert.assertSame(ResourceId.fromString(id), ResourceId.fromString(id));
+    }
+
+    @Test(expected = InvalidParameterException.class)
+    public void invalidResourceIdIsRejected() {
+        ResourceId.fromString("/subscriptions/123/resourceGroups");
+    }
+
+    @Test(expected = InvalidParameterException.class)
+    public void resourceIdWithoutSubscriptionIsRejected() {
+        ResourceId.fromString("/resourceGroups/foo");
+    }
 }
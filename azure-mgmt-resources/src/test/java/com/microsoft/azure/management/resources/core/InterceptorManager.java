@@ -25,7 +25,6 @@ import java.net.URI;
 import java.net.URL;
 import java.nio.charset.StandardCharsets;
 import java.util.HashMap;
-import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.zip.GZIPInputStream;
@@ -44,6 +43,8 @@ public class InterceptorManager {
 
     protected RecordedData recordedData;
 
+    private PlaybackRecords playbackRecords;
+
     private final String testName;
 
     private final TestBase.TestMode testMode;
@@ -164,22 +165,12 @@ public class InterceptorManager {
         String incomingUrl = applyReplacementRule(request.url().toString());
         String incomingMethod = request.method();
 
-        incomingUrl = removeHost(incomingUrl);
-        NetworkCallRecord networkCallRecord = null;
-        synchronized (recordedData) {
-            for (Iterator<NetworkCallRecord> iterator = recordedData.getNetworkCallRecords().iterator(); iterator.hasNext(); ) {
-                NetworkCallRecord record = iterator.next();
-                if (record.Method.equalsIgnoreCase(incomingMethod) && removeHost(record.Uri).equalsIgnoreCase(incomingUrl)) {
-                    networkCallRecord = record;
-                    iterator.remove();
-                    break;
-                }
-            }
-        }
+        NetworkCallRecord networkCallRecord = playbackRecords.poll(incomingMethod, incomingUrl);
 
         if (networkCallRecord == null) {
+            incomingUrl = removeHost(incomingUrl);
             System.out.println("NOT FOUND - " + incomingMethod + " " + incomingUrl);
-            System.out.println("Remaining records " + recordedData.getNetworkCallRecords().size());
+            System.out.println("Remaining records " + playbackRecords.size());
             throw new IOException("==> Unexpected request: " + incomingMethod + " " + incomingUrl);
         }
 
@@ -274,8 +265,10 @@ public class InterceptorManager {
         File recordFile = getRecordFile(testName);
         ObjectMapper mapper = new ObjectMapper();
         mapper.enable(SerializationFeature.INDENT_OUTPUT);
-        recordedData = mapper.readValue(recordFile, RecordedData.class);
-        System.out.println("Total records " + recordedData.getNetworkCallRecords().size());
+        playbackRecords = PlaybackRecords.read(recordFile, mapper);
+        recordedData = new RecordedData();
+        recordedData.getVariables().addAll(playbackRecords.getVariables());
+        System.out.println("Total records " + playbackRecords.size());
     }
 
     private void writeDataToFile() throws IOException {
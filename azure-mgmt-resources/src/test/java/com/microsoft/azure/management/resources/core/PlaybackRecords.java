@@ -0,0 +1,120 @@
+/**
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for
+ * license information.
+ */
+
+package com.microsoft.azure.management.resources.core;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.util.LinkedList;
+import java.util.Locale;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The network call records of a session, indexed by method and URL for playback.
+ * <p>
+ * The records sharing a method and a URL are played back in the order they were recorded. Lookups
+ * take constant time and do not lock, so that the requests of a session can be played back concurrently.
+ */
+public class PlaybackRecords {
+    private static final String NETWORK_CALL_RECORDS = "networkCallRecords";
+    private static final String VARIABLES = "variables";
+
+    private final ConcurrentMap<String, Queue<NetworkCallRecord>> recordsByKey = new ConcurrentHashMap<>();
+    private final AtomicInteger remaining = new AtomicInteger();
+    private final LinkedList<String> variables = new LinkedList<>();
+
+    private PlaybackRecords() {
+    }
+
+    /**
+     * Reads the records of a session file one at a time, without loading the whole session as a tree.
+     *
+     * @param recordFile the session file
+     * @param mapper the mapper reading the records
+     * @return the indexed records
+     * @throws IOException if the file cannot be read
+     */
+    public static PlaybackRecords read(File recordFile, ObjectMapper mapper) throws IOException {
+        PlaybackRecords records = new PlaybackRecords();
+        try (JsonParser parser = mapper.getFactory().createParser(recordFile)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new IOException("==> Invalid playback file: " + recordFile);
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.getCurrentName();
+                JsonToken token = parser.nextToken();
+                if (NETWORK_CALL_RECORDS.equals(field) && token == JsonToken.START_ARRAY) {
+                    while (parser.nextToken() == JsonToken.START_OBJECT) {
+                        records.add(parser.readValueAs(NetworkCallRecord.class));
+                    }
+                } else if (VARIABLES.equals(field) && token == JsonToken.START_ARRAY) {
+                    while (parser.nextToken() != JsonToken.END_ARRAY) {
+                        records.variables.add(parser.getValueAsString());
+                    }
+                } else {
+                    parser.skipChildren();
+                }
+            }
+        }
+        return records;
+    }
+
+    /**
+     * Removes the first record of a request not played back yet.
+     *
+     * @param method the method of the request
+     * @param url the URL of the request, with the replacement rules applied
+     * @return the record, or null if none is left for the request
+     */
+    public NetworkCallRecord poll(String method, String url) {
+        Queue<NetworkCallRecord> records = recordsByKey.get(key(method, url));
+        NetworkCallRecord record = records == null ? null : records.poll();
+        if (record != null) {
+            remaining.decrementAndGet();
+        }
+        return record;
+    }
+
+    /**
+     * @return the number of records not played back yet
+     */
+    public int size() {
+        return remaining.get();
+    }
+
+    /**
+     * @return the variables of the session, in the order they were recorded
+     */
+    public LinkedList<String> getVariables() {
+        return variables;
+    }
+
+    private void add(NetworkCallRecord record) {
+        String key = key(record.Method, record.Uri);
+        Queue<NetworkCallRecord> records = recordsByKey.get(key);
+        if (records == null) {
+            recordsByKey.putIfAbsent(key, new ConcurrentLinkedQueue<NetworkCallRecord>());
+            records = recordsByKey.get(key);
+        }
+        records.add(record);
+        remaining.incrementAndGet();
+    }
+
+    // Methods and URLs are matched ignoring case, and URLs regardless of their host
+    static String key(String method, String url) {
+        URI uri = URI.create(url);
+        return (method + " " + uri.getPath() + "?" + uri.getQuery()).toLowerCase(Locale.ROOT);
+    }
+}
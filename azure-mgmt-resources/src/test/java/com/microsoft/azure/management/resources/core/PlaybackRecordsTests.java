@@ -0,0 +1,60 @@
+/**
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for
+ * license information.
+ */
+
+package com.microsoft.azure.management.resources.core;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+public class PlaybackRecordsTests {
+    private static final String VM_URL = "http://localhost:1234/subscriptions/00000000-0000-0000-0000-000000000000"
+            + "/resourceGroups/rg1/providers/Microsoft.Compute/virtualMachines/vm1?api-version=2019-03-01";
+
+    @Test
+    public void canPlayBackRecordsInOrderPerRequest() throws Exception {
+        File recordFile = File.createTempFile("playback", ".json");
+        recordFile.deleteOnExit();
+        try (Writer writer = new OutputStreamWriter(new FileOutputStream(recordFile), StandardCharsets.UTF_8)) {
+            writer.write("{\"networkCallRecords\":["
+                    + record("GET", VM_URL, "first") + ","
+                    + record("PUT", VM_URL, "put") + ","
+                    + record("GET", VM_URL, "second") + "],"
+                    + "\"variables\":[\"vm1\",\"vm2\"],"
+                    + "\"unknown\":{\"ignored\":[1,2]}}");
+        }
+
+        PlaybackRecords records = PlaybackRecords.read(recordFile, new ObjectMapper());
+
+        Assert.assertEquals(3, records.size());
+        Assert.assertEquals(2, records.getVariables().size());
+        Assert.assertEquals("vm1", records.getVariables().get(0));
+        Assert.assertEquals("vm2", records.getVariables().get(1));
+
+        // Matched ignoring case and host
+        String playbackUrl = VM_URL.replace("http://localhost:1234", "https://management.azure.com")
+                .replace("virtualMachines", "VIRTUALMACHINES");
+        Assert.assertEquals("first", records.poll("get", playbackUrl).Response.get("Body"));
+        Assert.assertEquals("second", records.poll("GET", VM_URL).Response.get("Body"));
+        Assert.assertNull(records.poll("GET", VM_URL));
+        Assert.assertEquals(1, records.size());
+
+        Assert.assertEquals("put", records.poll("PUT", playbackUrl).Response.get("Body"));
+        Assert.assertEquals(0, records.size());
+        Assert.assertNull(records.poll("DELETE", VM_URL));
+    }
+
+    private static String record(String method, String url, String body) {
+        return "{\"Method\":\"" + method + "\",\"Uri\":\"" + url + "\",\"Headers\":{},"
+                + "\"Response\":{\"StatusCode\":\"200\",\"Body\":\"" + body + "\"}}";
+    }
+}
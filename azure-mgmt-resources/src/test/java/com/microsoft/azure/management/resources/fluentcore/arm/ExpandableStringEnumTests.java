@@ -0,0 +1,98 @@
+/**
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for
+ * license information.
+ */
+
+package com.microsoft.azure.management.resources.fluentcore.arm;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Collection;
+
+public class ExpandableStringEnumTests {
+    public static final class Color extends ExpandableStringEnum<Color> {
+        public static final Color RED = fromString("Red");
+
+        public static Color fromString(String name) {
+            return fromString(name, Color.class);
+        }
+
+        public static Collection<Color> values() {
+            return values(Color.class);
+        }
+    }
+
+    public static final class Shape extends ExpandableStringEnum<Shape> {
+        public static final Shape SQUARE = fromString("Square");
+
+        public static Shape fromString(String name) {
+            return fromString(name, Shape.class);
+        }
+
+        public static Collection<Shape> values() {
+            return values(Shape.class);
+        }
+    }
+
+    public static final class Direction extends ExpandableStringEnum<Direction> {
+        public static Direction fromString(String name) {
+            return fromString(name, Direction.class);
+        }
+    }
+
+    @Test
+    public void canLookupValuesIgnoringCase() {
+        Assert.assertSame(Color.RED, Color.fromString("Red"));
+        Assert.assertSame(Color.RED, Color.fromString("RED"));
+        Assert.assertSame(Color.RED, Color.fromString("red"));
+        Assert.assertEquals("Red", Color.fromString("rEd").toString());
+        Assert.assertNull(Color.fromString(null));
+    }
+
+    @Test
+    public void canListValuesPerType() {
+        Color green = Color.fromString("Green");
+        Color.fromString("GREEN");
+        Shape.fromString("Circle");
+
+        Collection<Color> colors = Color.values();
+        Assert.assertTrue(colors.contains(Color.RED));
+        Assert.assertTrue(colors.contains(green));
+        Assert.assertEquals(2, colors.size());
+        Assert.assertEquals(2, Shape.values().size());
+        Assert.assertFalse(Color.RED.equals(Shape.SQUARE));
+    }
+
+    @Test
+    public void canLookupCasingsWithoutCachingThem() {
+        Direction north = Direction.fromString("North");
+        int registered = ExpandableStringEnum.registeredNameCount(Direction.class);
+        String name = "north";
+        for (int mask = 0; mask < 1 << name.length(); mask++) {
+            StringBuilder casing = new StringBuilder();
+            for (int i = 0; i < name.length(); i++) {
+                char c = name.charAt(i);
+                casing.append((mask & 1 << i) != 0 ? Character.toUpperCase(c) : c);
+            }
+            Assert.assertSame(north, Direction.fromString(casing.toString()));
+        }
+
+        Assert.assertEquals(registered, ExpandableStringEnum.registeredNameCount(Direction.class));
+    }
+
+    @Test
+    public void canLookupRegionsByNameOrLabel() {
+        Assert.assertSame(Region.US_WEST, Region.findByLabelOrName("westus"));
+        Assert.assertSame(Region.US_WEST, Region.findByLabelOrName("West US"));
+        Assert.assertSame(Region.US_WEST, Region.findByLabelOrName("WEST us"));
+        Assert.assertSame(Region.US_WEST, Region.fromName("WestUS"));
+        Assert.assertNull(Region.findByLabelOrName("nosuchregion"));
+
+        Region created = Region.fromName("Some Region");
+        Assert.assertEquals("someregion", created.name());
+        Assert.assertSame(created, Region.create("SOMEREGION", "Other label"));
+        Assert.assertEquals(Region.create("SomeRegion", null).hashCode(), created.hashCode());
+    }
+}
@@ -0,0 +1,228 @@
+/**
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for
+ * license information.
+ */
+
+package com.microsoft.azure.management.resources.fluentcore.dag;
+
+import com.microsoft.azure.management.resources.fluentcore.model.Indexable;
+import org.junit.Assert;
+import org.junit.Test;
+import rx.Observable;
+import rx.functions.Action0;
+import rx.functions.Func1;
+import rx.schedulers.Schedulers;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class TaskGroupSchedulerTests {
+    @Test
+    public void canBoundConcurrency() {
+        Tracker tracker = new Tracker();
+        TestTaskItem root = new TestTaskItem("root", tracker);
+        for (int i = 0; i < 20; i++) {
+            root.addDependency(new TestTaskItem("leaf" + i, tracker));
+        }
+
+        root.taskGroup().invokeAsync(root.taskGroup().newInvocationContext().withConcurrencyLimit(3))
+                .toBlocking().last();
+
+        Assert.assertEquals(21, tracker.started.size());
+        Assert.assertTrue(tracker.maxRunning.get() <= 3);
+        Assert.assertTrue(tracker.maxRunning.get() > 1);
+    }
+
+    @Test
+    public void canBoundConcurrencyPerResourceType() {
+        Tracker tracker = new Tracker();
+        Tracker diskTracker = new Tracker();
+        TestTaskItem root = new TestTaskItem("root", tracker);
+        for (int i = 0; i < 10; i++) {
+            root.addDependency(new DiskTaskItem("disk" + i, diskTracker));
+            root.addDependency(new TestTaskItem("leaf" + i, tracker));
+        }
+
+        root.taskGroup().invokeAsync(root.taskGroup().newInvocationContext().withConcurrencyLimit(Disk.class, 2))
+                .toBlocking().last();
+
+        Assert.assertEquals(10, diskTracker.started.size());
+        Assert.assertEquals(11, tracker.started.size());
+        Assert.assertTrue(diskTracker.maxRunning.get() <= 2);
+        // The tasks of other types are not bound by the limit
+        Assert.assertTrue(tracker.maxRunning.get() > 2);
+    }
+
+    @Test
+    public void canInvokeCriticalPathFirst() {
+        Tracker tracker = new Tracker();
+        TestTaskItem root = new TestTaskItem("root", tracker);
+        for (int i = 0; i < 5; i++) {
+            root.addDependency(new TestTaskItem("shallow" + i, tracker));
+        }
+        TestTaskItem middle = new TestTaskItem("middle", tracker);
+        TestTaskItem deep = new TestTaskItem("deep", tracker);
+        middle.addDependency(deep);
+        root.addDependency(middle);
+
+        root.taskGroup().invokeAsync(root.taskGroup().newInvocationContext()
+                .withConcurrencyLimit(1)
+                .withSchedulingStrategy(TaskGroupSchedulingStrategy.CRITICAL_PATH_FIRST))
+                .toBlocking().last();
+
+        Assert.assertEquals(8, tracker.started.size());
+        Assert.assertEquals("deep", tracker.started.get(0));
+        Assert.assertEquals("root", tracker.started.get(7));
+        Assert.assertEquals(1, tracker.maxRunning.get());
+    }
+
+    @Test
+    public void canRecordTimeline() {
+        Tracker tracker = new Tracker();
+        TestTaskItem root = new TestTaskItem("root", tracker);
+        TestTaskItem dependency = new TestTaskItem("dependency", tracker);
+        root.addDependency(dependency);
+
+        TaskGroup.InvocationContext context = root.taskGroup().newInvocationContext().withConcurrencyLimit(4);
+        root.taskGroup().invokeAsync(context).toBlocking().last();
+
+        TaskGroupTimeline timeline = context.timeline();
+        Assert.assertEquals(2, timeline.entries().size());
+        TaskGroupTimeline.Entry first = timeline.entries().get(0);
+        TaskGroupTimeline.Entry second = timeline.entries().get(1);
+        Assert.assertEquals("dependency", first.key());
+        Assert.assertEquals("root", second.key());
+        Assert.assertEquals("TestTaskItem", first.type());
+        Assert.assertTrue(first.durationMillis() >= 0);
+        Assert.assertTrue(second.readyMillis() >= first.endMillis());
+        Assert.assertEquals(second.readyMillis(), second.waitOnDependenciesMillis());
+        Assert.assertEquals(first.readyMillis(), first.waitOnDependenciesMillis());
+        Assert.assertFalse(second.isFailed());
+        Assert.assertTrue(timeline.toJson().startsWith("[{\"key\":\"dependency\""));
+        Assert.assertTrue(timeline.toChromeTrace().contains("\"name\":\"root\""));
+    }
+
+    @Test
+    public void canMeasureWaitOnDependencies() {
+        Tracker tracker = new Tracker();
+        TestTaskItem root = new TestTaskItem("root", tracker);
+        root.addDependency(new TestTaskItem("dependency", tracker, 200));
+
+        TaskGroup.InvocationContext context = root.taskGroup().newInvocationContext().withConcurrencyLimit(4);
+        root.taskGroup().invokeAsync(context).toBlocking().last();
+
+        TaskGroupTimeline.Entry dependency = context.timeline().entries().get(0);
+        TaskGroupTimeline.Entry second = context.timeline().entries().get(1);
+        Assert.assertEquals("root", second.key());
+        Assert.assertTrue(dependency.durationMillis() >= 200);
+        // The root waited for the whole run of its dependency
+        Assert.assertTrue(second.waitOnDependenciesMillis() >= 200);
+        Assert.assertTrue(second.waitOnDependenciesMillis() >= dependency.endMillis());
+        Assert.assertTrue(dependency.waitOnDependenciesMillis() < 200);
+    }
+
+    @Test
+    public void canSkipTimelineWhenUnbounded() {
+        Tracker tracker = new Tracker();
+        TestTaskItem root = new TestTaskItem("root", tracker);
+        root.addDependency(new TestTaskItem("dependency", tracker));
+
+        TaskGroup.InvocationContext context = root.taskGroup().newInvocationContext();
+        root.taskGroup().invokeAsync(context).toBlocking().last();
+
+        Assert.assertEquals(2, tracker.started.size());
+        Assert.assertNull(context.timeline());
+    }
+
+    @Test
+    public void canConfigureAfterReadingTimeline() {
+        Tracker tracker = new Tracker();
+        TestTaskItem root = new TestTaskItem("root", tracker);
+        for (int i = 0; i < 4; i++) {
+            root.addDependency(new TestTaskItem("dependency" + i, tracker));
+        }
+
+        TaskGroup.InvocationContext context = root.taskGroup().newInvocationContext();
+        Assert.assertNull(context.timeline());
+        context.withConcurrencyLimit(1);
+        root.taskGroup().invokeAsync(context).toBlocking().last();
+
+        Assert.assertEquals(1, tracker.maxRunning.get());
+        Assert.assertEquals(5, context.timeline().entries().size());
+    }
+
+    interface Disk {
+    }
+
+    class Tracker {
+        private final List<String> started = Collections.synchronizedList(new ArrayList<String>());
+        private final AtomicInteger running = new AtomicInteger();
+        private final AtomicInteger maxRunning = new AtomicInteger();
+
+        void onStart(String name) {
+            started.add(name);
+            int current = running.incrementAndGet();
+            while (true) {
+                int max = maxRunning.get();
+                if (current <= max || maxRunning.compareAndSet(max, current)) {
+                    break;
+                }
+            }
+        }
+
+        void onEnd() {
+            running.decrementAndGet();
+        }
+    }
+
+    class TestTaskItem extends IndexableTaskItem {
+        private final String name;
+        private final Tracker tracker;
+        private final long delayMillis;
+
+        TestTaskItem(String name, Tracker tracker) {
+            this(name, tracker, 10);
+        }
+
+        TestTaskItem(String name, Tracker tracker, long delayMillis) {
+            super(name);
+            this.name = name;
+            this.tracker = tracker;
+            this.delayMillis = delayMillis;
+        }
+
+        @Override
+        protected Observable<Indexable> invokeTaskAsync(TaskGroup.InvocationContext context) {
+            return Observable.just((Indexable) this)
+                    .doOnSubscribe(new Action0() {
+                        @Override
+                        public void call() {
+                            tracker.onStart(name);
+                        }
+                    })
+                    .delay(delayMillis, TimeUnit.MILLISECONDS, Schedulers.computation())
+                    .map(new Func1<Indexable, Indexable>() {
+                        @Override
+                        public Indexable call(Indexable indexable) {
+                            tracker.onEnd();
+                            return indexable;
+                        }
+                    });
+        }
+    }
+
+    class DiskTaskItem extends TestTaskItem implements TaskGroup.HasResourceType {
+        DiskTaskItem(String name, Tracker tracker) {
+            super(name, tracker);
+        }
+
+        @Override
+        public Class<?> resourceType() {
+            return Disk.class;
+        }
+    }
+}
@@ -0,0 +1,131 @@
+/**
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for
+ * license information.
+ */
+
+package com.microsoft.azure.management.resources.fluentcore.utils;
+
+import com.microsoft.azure.management.resources.fluentcore.dag.IndexableTaskItem;
+import com.microsoft.azure.management.resources.fluentcore.dag.TaskGroup;
+import com.microsoft.azure.management.resources.fluentcore.model.Indexable;
+import okhttp3.Interceptor;
+import okhttp3.MediaType;
+import okhttp3.OkHttpClient;
+import okhttp3.Protocol;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import org.junit.Assert;
+import org.junit.Test;
+import rx.Observable;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class MetricsListenerTests {
+    @Test
+    public void canNameOperations() {
+        Assert.assertEquals("GET Microsoft.Compute/virtualMachines", MetricsInterceptor.operationName(new Request.Builder()
+                .url("https://management.azure.com/subscriptions/sub/resourceGroups/rg/providers/Microsoft.Compute/virtualMachines/vm1?api-version=2019-03-01")
+                .build()));
+        Assert.assertEquals("GET Microsoft.Web/sites/config", MetricsInterceptor.operationName(new Request.Builder()
+                .url("https://management.azure.com/subscriptions/sub/resourceGroups/rg/providers/Microsoft.Web/sites/site1/config/web")
+                .build()));
+        Assert.assertEquals("GET subscriptions/resourceGroups", MetricsInterceptor.operationName(new Request.Builder()
+                .url("https://management.azure.com/subscriptions/sub/resourceGroups/rg")
+                .build()));
+        Assert.assertEquals("VirtualMachines.list", MetricsInterceptor.operationName(new Request.Builder()
+                .url("https://management.azure.com/subscriptions/sub/providers/Microsoft.Compute/virtualMachines")
+                .header("x-ms-logging-context", "VirtualMachines.list")
+                .build()));
+    }
+
+    @Test
+    public void canAggregateMetrics() {
+        HistogramMetricsListener listener = new HistogramMetricsListener();
+        for (int i = 1; i <= 100; i++) {
+            listener.onRequestCompleted("GET Microsoft.Compute/virtualMachines", 200, i, 0, 1000);
+        }
+        listener.onRequestCompleted("GET Microsoft.Compute/virtualMachines", 500, 1, 0, -1);
+        listener.onRetry("GET Microsoft.Compute/virtualMachines", 1, 500);
+        listener.onThrottled("PUT Microsoft.Network/virtualNetworks", 2000);
+        listener.onTaskCompleted("vnet1", "NetworkImpl", 0, 300, false);
+
+        HistogramMetricsListener.Histogram latencies = listener.requestLatencies().get("GET Microsoft.Compute/virtualMachines");
+        Assert.assertEquals(101, latencies.count());
+        Assert.assertEquals(100, latencies.max());
+        Assert.assertEquals(1, latencies.percentile(0));
+        Assert.assertEquals(63, latencies.percentile(50));
+        Assert.assertEquals(100, latencies.percentile(99));
+        Assert.assertEquals(100000, listener.responseBytes());
+        Assert.assertEquals(1, listener.failedRequests());
+        Assert.assertEquals(1L, (long) listener.retries().get("GET Microsoft.Compute/virtualMachines"));
+        Assert.assertEquals(2000L, (long) listener.throttledMillis().get("PUT Microsoft.Network/virtualNetworks"));
+        Assert.assertEquals(300, listener.taskDurations().get("NetworkImpl").sum());
+        listener.onPageConverted("LIST Microsoft.Web/sites", 20, 150);
+        Assert.assertEquals(150, listener.pageConversionLatencies().get("LIST Microsoft.Web/sites").max());
+    }
+
+    @Test
+    public void canReportRequestMetricsFromInterceptors() throws Exception {
+        final AtomicInteger sentCount = new AtomicInteger();
+        HistogramMetricsListener listener = new HistogramMetricsListener();
+        OkHttpClient client = new OkHttpClient.Builder()
+                .addInterceptor(new MetricsInterceptor(listener))
+                .addInterceptor(new RetryPolicyInterceptor(new RetryPolicy().withInitialDelay(1, TimeUnit.MILLISECONDS), listener))
+                .addInterceptor(new ResourceManagerThrottlingInterceptor(listener))
+                .addInterceptor(new Interceptor() {
+                    @Override
+                    public Response intercept(Chain chain) throws IOException {
+                        // Unavailable, then throttled, then successful
+                        int sent = sentCount.incrementAndGet();
+                        int code = sent == 1 ? 503 : sent == 2 ? 429 : 200;
+                        return new Response.Builder()
+                                .request(chain.request())
+                                .protocol(Protocol.HTTP_1_1)
+                                .code(code)
+                                .message("")
+                                .body(ResponseBody.create(MediaType.parse("application/json"), "{}"))
+                                .build();
+                    }
+                })
+                .build();
+
+        Response response = client.newCall(new Request.Builder()
+                .url("https://management.azure.com/subscriptions/metrics-sub/providers/Microsoft.Compute/virtualMachines")
+                .build()).execute();
+        response.close();
+
+        String operationName = "GET Microsoft.Compute/virtualMachines";
+        Assert.assertEquals(200, response.code());
+        Assert.assertEquals(3, sentCount.get());
+        Assert.assertEquals(1, listener.requestLatencies().get(operationName).count());
+        Assert.assertEquals(0, listener.failedRequests());
+        Assert.assertEquals(1L, (long) listener.retries().get(operationName));
+        Assert.assertTrue(listener.throttledMillis().containsKey(operationName));
+        Assert.assertSame(listener, MetricsInterceptor.metricsListenerOf(client));
+        Assert.assertNull(MetricsInterceptor.metricsListenerOf(new OkHttpClient()));
+    }
+
+    @Test
+    public void canReportTaskTimings() {
+        HistogramMetricsListener listener = new HistogramMetricsListener();
+        SleepingTaskItem task = new SleepingTaskItem();
+
+        task.taskGroup().invokeAsync(task.taskGroup().newInvocationContext().withMetricsListener(listener))
+                .toBlocking().last();
+
+        HistogramMetricsListener.Histogram durations = listener.taskDurations().get("SleepingTaskItem");
+        Assert.assertEquals(1, durations.count());
+        Assert.assertTrue(durations.sum() >= 10);
+    }
+
+    private static class SleepingTaskItem extends IndexableTaskItem {
+        @Override
+        protected Observable<Indexable> invokeTaskAsync(TaskGroup.InvocationContext context) {
+            return Observable.just((Indexable) this).delay(20, TimeUnit.MILLISECONDS);
+        }
+    }
+}
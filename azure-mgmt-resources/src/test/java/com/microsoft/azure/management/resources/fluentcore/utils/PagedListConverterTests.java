@@ -0,0 +1,79 @@
+/**
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for
+ * license information.
+ */
+
+package com.microsoft.azure.management.resources.fluentcore.utils;
+
+import com.microsoft.azure.Page;
+import com.microsoft.azure.PagedList;
+import com.microsoft.azure.management.resources.implementation.PageImpl;
+import com.microsoft.rest.RestException;
+import org.junit.Assert;
+import org.junit.Test;
+import rx.Observable;
+import rx.functions.Action0;
+import rx.schedulers.Schedulers;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class PagedListConverterTests {
+    @Test
+    public void canConvertConcurrentlyInPageOrder() {
+        final int itemCount = 20;
+        final AtomicInteger inFlight = new AtomicInteger();
+        final AtomicInteger maxInFlight = new AtomicInteger();
+        HistogramMetricsListener listener = new HistogramMetricsListener();
+        PagedListConverter<Integer, String> converter = new PagedListConverter<Integer, String>() {
+            @Override
+            public Observable<String> typeConvertAsync(Integer u) {
+                int current = inFlight.incrementAndGet();
+                if (current > maxInFlight.get()) {
+                    maxInFlight.set(current);
+                }
+                // Later items complete first
+                return Observable.just("item" + u)
+                        .delay(itemCount - u, TimeUnit.MILLISECONDS, Schedulers.computation())
+                        .doOnTerminate(new Action0() {
+                            @Override
+                            public void call() {
+                                inFlight.decrementAndGet();
+                            }
+                        });
+            }
+
+            @Override
+            protected int maxConcurrency() {
+                return 4;
+            }
+        }.withMetricsListener(listener, "LIST items");
+
+        List<Integer> items = new ArrayList<>();
+        for (int i = 0; i < itemCount; i++) {
+            items.add(i);
+        }
+        PageImpl<Integer> page = new PageImpl<>();
+        page.setItems(items);
+        PagedList<String> converted = converter.convert(new PagedList<Integer>(page) {
+            @Override
+            public Page<Integer> nextPage(String nextPageLink) throws RestException, IOException {
+                return null;
+            }
+        });
+
+        Assert.assertEquals(itemCount, converted.size());
+        for (int i = 0; i < itemCount; i++) {
+            Assert.assertEquals("item" + i, converted.get(i));
+        }
+        Assert.assertTrue(maxInFlight.get() <= 4);
+        HistogramMetricsListener.Histogram latencies = listener.pageConversionLatencies().get("LIST items");
+        Assert.assertEquals(1, latencies.count());
+        // The items complete after 1 to 20 ms, 4 at a time
+        Assert.assertTrue(latencies.max() >= itemCount);
+    }
+}
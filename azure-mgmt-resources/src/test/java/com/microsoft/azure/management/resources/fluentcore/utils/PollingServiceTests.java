@@ -0,0 +1,115 @@
+/**
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for
+ * license information.
+ */
+
+package com.microsoft.azure.management.resources.fluentcore.utils;
+
+import org.junit.Assert;
+import org.junit.Test;
+import rx.Observable;
+import rx.functions.Func1;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class PollingServiceTests {
+    @Test
+    public void canPollUntilDone() {
+        final AtomicInteger pollCount = new AtomicInteger();
+        Observable<Integer> poll = Observable.fromCallable(new Callable<Integer>() {
+            @Override
+            public Integer call() {
+                return pollCount.incrementAndGet();
+            }
+        });
+
+        int result = PollingService.pollAsync(poll, new Func1<Integer, Boolean>() {
+            @Override
+            public Boolean call(Integer count) {
+                return count >= 4;
+            }
+        }, 1, 4).toBlocking().single();
+
+        Assert.assertEquals(4, result);
+        Assert.assertEquals(4, pollCount.get());
+    }
+
+    @Test
+    public void canShareTimerAcrossManyPolls() {
+        List<Observable<Integer>> polls = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            final AtomicInteger pollCount = new AtomicInteger();
+            polls.add(PollingService.pollAsync(
+                    Observable.fromCallable(new Callable<Integer>() {
+                        @Override
+                        public Integer call() {
+                            return pollCount.incrementAndGet();
+                        }
+                    }),
+                    new Func1<Integer, Boolean>() {
+                        @Override
+                        public Boolean call(Integer count) {
+                            return count >= 3;
+                        }
+                    },
+                    new Func1<Integer, Long>() {
+                        @Override
+                        public Long call(Integer count) {
+                            // Retry-After like hint
+                            return 20L;
+                        }
+                    },
+                    1000, 1000));
+        }
+
+        long start = System.nanoTime();
+        List<Integer> results = Observable.merge(polls).toList().toBlocking().single();
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        Assert.assertEquals(1000, results.size());
+        // The hint overrides the default interval, and the waits do not block threads
+        Assert.assertTrue(elapsedMillis < 1000);
+    }
+
+    @Test
+    public void canDetectTerminalProvisioningStates() {
+        Assert.assertTrue(PollingService.isTerminalProvisioningState("Succeeded"));
+        Assert.assertTrue(PollingService.isTerminalProvisioningState("failed"));
+        Assert.assertFalse(PollingService.isTerminalProvisioningState("Updating"));
+        Assert.assertFalse(PollingService.isTerminalProvisioningState(null));
+    }
+
+    @Test
+    public void canPollOnCallingThread() {
+        final Thread caller = Thread.currentThread();
+        final List<Thread> pollThreads = new ArrayList<>();
+        final AtomicInteger pollCount = new AtomicInteger();
+        SdkContext.setCallingThreadMode(true);
+        try {
+            int result = PollingService.pollAsync(Observable.fromCallable(new Callable<Integer>() {
+                @Override
+                public Integer call() {
+                    pollThreads.add(Thread.currentThread());
+                    return pollCount.incrementAndGet();
+                }
+            }), new Func1<Integer, Boolean>() {
+                @Override
+                public Boolean call(Integer count) {
+                    return count >= 3;
+                }
+            }, 1, 4).toBlocking().single();
+
+            Assert.assertEquals(3, result);
+            for (Thread pollThread : pollThreads) {
+                Assert.assertSame(caller, pollThread);
+            }
+        } finally {
+            SdkContext.setCallingThreadMode(false);
+        }
+    }
+}
@@ -0,0 +1,70 @@
+/**
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for
+ * license information.
+ */
+
+package com.microsoft.azure.management.resources.fluentcore.utils;
+
+import com.microsoft.azure.Page;
+import com.microsoft.azure.PagedList;
+import com.microsoft.azure.management.resources.implementation.PageImpl;
+import com.microsoft.rest.RestException;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class PrefetchingPagedListTests {
+    private static final int PAGE_COUNT = 6;
+
+    @Test
+    public void canPrefetchPagesInOrderWithinBound() throws Exception {
+        final AtomicInteger fetchedPages = new AtomicInteger(1);
+        final AtomicInteger consumedPages = new AtomicInteger(1);
+        final AtomicInteger maxAhead = new AtomicInteger();
+        PagedList<Integer> source = new PagedList<Integer>(page(0)) {
+            @Override
+            public Page<Integer> nextPage(String nextPageLink) throws RestException, IOException {
+                int ahead = fetchedPages.incrementAndGet() - consumedPages.get();
+                if (ahead > maxAhead.get()) {
+                    maxAhead.set(ahead);
+                }
+                return page(Integer.parseInt(nextPageLink));
+            }
+        };
+
+        PagedList<Integer> list = PrefetchingPagedList.wrap(source, 2);
+        // Let the background fetches fill the buffer
+        Thread.sleep(200);
+        List<Integer> items = new ArrayList<>();
+        int lastPage = 0;
+        for (Integer item : list) {
+            int page = item / 10;
+            if (page != lastPage) {
+                consumedPages.incrementAndGet();
+                lastPage = page;
+            }
+            items.add(item);
+        }
+
+        Assert.assertEquals(PAGE_COUNT * 2, items.size());
+        for (int i = 0; i < PAGE_COUNT; i++) {
+            Assert.assertEquals(i * 10, (int) items.get(i * 2));
+            Assert.assertEquals(i * 10 + 1, (int) items.get(i * 2 + 1));
+        }
+        Assert.assertEquals(PAGE_COUNT, fetchedPages.get());
+        Assert.assertTrue(maxAhead.get() <= 3);
+    }
+
+    private static Page<Integer> page(int index) {
+        PageImpl<Integer> page = new PageImpl<>();
+        page.setItems(new ArrayList<>(Arrays.asList(index * 10, index * 10 + 1)));
+        page.setNextPageLink(index + 1 < PAGE_COUNT ? String.valueOf(index + 1) : null);
+        return page;
+    }
+}
@@ -0,0 +1,180 @@
+/**
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for
+ * license information.
+ */
+
+package com.microsoft.azure.management.resources.fluentcore.utils;
+
+import com.microsoft.azure.AzureEnvironment;
+import com.microsoft.azure.credentials.AzureTokenCredentials;
+import okhttp3.Interceptor;
+import okhttp3.MediaType;
+import okhttp3.OkHttpClient;
+import okhttp3.Protocol;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class ProviderRegistrationInterceptorTests {
+    private static final String URL = "https://management.azure.com/subscriptions/sub1/resourceGroups/rg1"
+            + "/providers/Microsoft.Foo/things/thing1?api-version=2019-01-01";
+    private static final String MISSING_REGISTRATION = "{\"error\":{\"code\":\"MissingSubscriptionRegistration\","
+            + "\"message\":\"The subscription is not registered to use namespace 'Microsoft.Foo'.\"}}";
+    private static final String REGISTERED = "{\"namespace\":\"Microsoft.Foo\",\"registrationState\":\"Registered\"}";
+    private static final String FORBIDDEN = "{\"error\":{\"code\":\"AuthorizationFailed\",\"message\":\"Not allowed.\"}}";
+
+    @Test
+    public void canRegisterProviderOnceForConcurrentRequests() throws Exception {
+        final int requestCount = 4;
+        final CountDownLatch allRejected = new CountDownLatch(requestCount);
+        FakeResourceManager arm = new FakeResourceManager(allRejected);
+        final OkHttpClient client = arm.client(credentials("token-a"));
+
+        ExecutorService executor = Executors.newFixedThreadPool(requestCount);
+        try {
+            List<Future<Integer>> codes = new ArrayList<>();
+            for (int i = 0; i < requestCount; i++) {
+                codes.add(executor.submit(new Callable<Integer>() {
+                    @Override
+                    public Integer call() throws Exception {
+                        Response response = client.newCall(new Request.Builder().url(URL).build()).execute();
+                        response.close();
+                        return response.code();
+                    }
+                }));
+            }
+            for (Future<Integer> code : codes) {
+                Assert.assertEquals(200, (int) code.get(30, TimeUnit.SECONDS));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        Assert.assertEquals(1, arm.registrations.get());
+    }
+
+    @Test
+    public void canSurfaceRegistrationFailureAsIOException() throws Exception {
+        FakeResourceManager arm = new FakeResourceManager(null);
+        arm.registrationAllowed.set(false);
+        OkHttpClient client = arm.client(credentials("token-a"));
+
+        for (int i = 0; i < 2; i++) {
+            try {
+                client.newCall(new Request.Builder().url(URL).build()).execute();
+                Assert.fail("Expected the registration failure to be reported");
+            } catch (IOException e) {
+                Assert.assertTrue(e.getMessage().contains("Microsoft.Foo"));
+            }
+        }
+        // The failed registration is not remembered, the second request tries again
+        Assert.assertEquals(2, arm.registrations.get());
+    }
+
+    @Test
+    public void canRegisterWithCredentialOfEachClient() throws Exception {
+        FakeResourceManager arm = new FakeResourceManager(null);
+        OkHttpClient clientA = arm.client(credentials("token-a"));
+        OkHttpClient clientB = arm.client(credentials("token-b"));
+
+        clientA.newCall(new Request.Builder().url(URL).build()).execute().close();
+        arm.registered.set(false);
+        clientB.newCall(new Request.Builder().url(URL).build()).execute().close();
+
+        Assert.assertEquals(2, arm.registrations.get());
+        Assert.assertEquals(2, arm.authorizations.size());
+        Assert.assertEquals("Bearer token-a", arm.authorizations.get(0));
+        Assert.assertEquals("Bearer token-b", arm.authorizations.get(1));
+    }
+
+    private static AzureTokenCredentials credentials(final String token) {
+        return new AzureTokenCredentials(AzureEnvironment.AZURE, "tenant") {
+            @Override
+            public String getToken(String resource) {
+                return token;
+            }
+        };
+    }
+
+    private static Response response(Request request, int code, String content) {
+        return new Response.Builder()
+                .request(request)
+                .protocol(Protocol.HTTP_1_1)
+                .code(code)
+                .message("")
+                .body(ResponseBody.create(MediaType.parse("application/json"), content))
+                .build();
+    }
+
+    /**
+     * Rejects the requests until Microsoft.Foo is registered, and registers it.
+     */
+    private static class FakeResourceManager {
+        private final AtomicBoolean registered = new AtomicBoolean();
+        private final AtomicBoolean registrationAllowed = new AtomicBoolean(true);
+        private final AtomicInteger registrations = new AtomicInteger();
+        private final List<String> authorizations = Collections.synchronizedList(new ArrayList<String>());
+        private final CountDownLatch allRejected;
+
+        FakeResourceManager(CountDownLatch allRejected) {
+            this.allRejected = allRejected;
+        }
+
+        OkHttpClient client(AzureTokenCredentials credentials) {
+            return new OkHttpClient.Builder()
+                    .addInterceptor(new ProviderRegistrationInterceptor(credentials, new Interceptor() {
+                        @Override
+                        public Response intercept(Chain chain) throws IOException {
+                            return register(chain.request());
+                        }
+                    }))
+                    .addInterceptor(new Interceptor() {
+                        @Override
+                        public Response intercept(Chain chain) throws IOException {
+                            if (registered.get()) {
+                                return response(chain.request(), 200, "{}");
+                            }
+                            if (allRejected != null) {
+                                allRejected.countDown();
+                            }
+                            return response(chain.request(), 409, MISSING_REGISTRATION);
+                        }
+                    })
+                    .build();
+        }
+
+        private Response register(Request request) throws IOException {
+            Assert.assertTrue(request.url().encodedPath().endsWith("/subscriptions/sub1/providers/Microsoft.Foo/register"));
+            registrations.incrementAndGet();
+            authorizations.add(request.header("Authorization"));
+            if (!registrationAllowed.get()) {
+                return response(request, 403, FORBIDDEN);
+            }
+            if (allRejected != null) {
+                try {
+                    // Keep the registration in flight until every request has been rejected
+                    allRejected.await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    throw new IOException(e);
+                }
+            }
+            registered.set(true);
+            return response(request, 200, REGISTERED);
+        }
+    }
+}
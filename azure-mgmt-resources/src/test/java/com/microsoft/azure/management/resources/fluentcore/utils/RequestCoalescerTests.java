@@ -0,0 +1,134 @@
+/**
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for
+ * license information.
+ */
+
+package com.microsoft.azure.management.resources.fluentcore.utils;
+
+import okhttp3.Interceptor;
+import okhttp3.MediaType;
+import okhttp3.OkHttpClient;
+import okhttp3.Protocol;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import okio.Buffer;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class RequestCoalescerTests {
+    private static final String URL = "https://management.azure.com/subscriptions/sub/providers/Microsoft.Network";
+
+    private static final String CONTENT = "{\"namespace\":\"Microsoft.Network\"}";
+
+    @Test
+    public void canShareResponseOfConcurrentRequests() throws Exception {
+        RequestCoalescer coalescer = new RequestCoalescer();
+        Fixture fixture = new Fixture(coalescer, false);
+
+        for (String content : fixture.sendConcurrently(5)) {
+            Assert.assertEquals(CONTENT, content);
+        }
+        Assert.assertEquals(1, fixture.sentCount.get());
+        Assert.assertEquals(0, coalescer.inFlightCount());
+
+        fixture.client.newCall(new Request.Builder().url(URL).build()).execute().close();
+        Assert.assertEquals(2, fixture.sentCount.get());
+    }
+
+    @Test
+    public void canShareResponseOfUnknownLength() throws Exception {
+        RequestCoalescer coalescer = new RequestCoalescer();
+        Fixture fixture = new Fixture(coalescer, true);
+
+        for (String content : fixture.sendConcurrently(5)) {
+            Assert.assertEquals(CONTENT, content);
+        }
+        Assert.assertEquals(1, fixture.sentCount.get());
+    }
+
+    @Test
+    public void canSendOnTheirOwnRequestsWaitingForLargeResponse() throws Exception {
+        RequestCoalescer coalescer = new RequestCoalescer().withMaxSharedBytes(CONTENT.length() - 1);
+        Fixture fixture = new Fixture(coalescer, true);
+
+        for (String content : fixture.sendConcurrently(5)) {
+            Assert.assertEquals(CONTENT, content);
+        }
+        Assert.assertEquals(5, fixture.sentCount.get());
+        Assert.assertEquals(0, coalescer.inFlightCount());
+    }
+
+    /**
+     * A client whose first request is held until all the requests reach the coalescer.
+     */
+    private static class Fixture {
+        private final AtomicInteger sentCount = new AtomicInteger();
+        private final CountDownLatch release = new CountDownLatch(1);
+        private final OkHttpClient client;
+
+        Fixture(RequestCoalescer coalescer, final boolean unknownLength) {
+            this.client = new OkHttpClient.Builder()
+                    .addInterceptor(new RequestCoalescingInterceptor(coalescer, this))
+                    .addInterceptor(new Interceptor() {
+                        @Override
+                        public Response intercept(Chain chain) throws IOException {
+                            sentCount.incrementAndGet();
+                            try {
+                                release.await();
+                            } catch (InterruptedException e) {
+                                throw new IOException(e);
+                            }
+                            MediaType mediaType = MediaType.parse("application/json");
+                            return new Response.Builder()
+                                    .request(chain.request())
+                                    .protocol(Protocol.HTTP_1_1)
+                                    .code(200)
+                                    .message("OK")
+                                    .body(unknownLength
+                                            ? ResponseBody.create(mediaType, -1, new Buffer().writeUtf8(CONTENT))
+                                            : ResponseBody.create(mediaType, CONTENT))
+                                    .build();
+                        }
+                    })
+                    .build();
+        }
+
+        List<String> sendConcurrently(int count) throws Exception {
+            ExecutorService executor = Executors.newFixedThreadPool(count);
+            try {
+                List<Future<String>> results = new ArrayList<>();
+                for (int i = 0; i < count; i++) {
+                    results.add(executor.submit(new Callable<String>() {
+                        @Override
+                        public String call() throws Exception {
+                            return client.newCall(new Request.Builder().url(URL).build()).execute().body().string();
+                        }
+                    }));
+                }
+                // Let all the requests reach the coalescer
+                Thread.sleep(200);
+                release.countDown();
+
+                List<String> contents = new ArrayList<>();
+                for (Future<String> result : results) {
+                    contents.add(result.get());
+                }
+                return contents;
+            } finally {
+                executor.shutdown();
+            }
+        }
+    }
+}
@@ -0,0 +1,105 @@
+/**
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for
+ * license information.
+ */
+
+package com.microsoft.azure.management.resources.fluentcore.utils;
+
+import okhttp3.Interceptor;
+import okhttp3.MediaType;
+import okhttp3.OkHttpClient;
+import okhttp3.Protocol;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+public class ResourceCacheTests {
+    private static final String URL = "https://management.azure.com/subscriptions/sub/resourceGroups/rg/providers/Microsoft.Network/virtualNetworks/vnet";
+    private static final String CONTENT = "{\"name\":\"vnet\"}";
+
+    @Test
+    public void canRevalidateWithETag() throws IOException {
+        final List<String> sentETags = new ArrayList<>();
+        OkHttpClient client = client(new ResourceCache(), sentETags);
+
+        Assert.assertEquals(CONTENT, get(client));
+        Response response = client.newCall(new Request.Builder().url(URL).build()).execute();
+        Assert.assertEquals(200, response.code());
+        Assert.assertEquals(CONTENT, response.body().string());
+
+        Assert.assertEquals(2, sentETags.size());
+        Assert.assertNull(sentETags.get(0));
+        Assert.assertEquals("\"1\"", sentETags.get(1));
+    }
+
+    @Test
+    public void canInvalidateOnUpdate() throws IOException {
+        final List<String> sentETags = new ArrayList<>();
+        ResourceCache cache = new ResourceCache();
+        OkHttpClient client = client(cache, sentETags);
+
+        get(client);
+        Assert.assertEquals(1, cache.size());
+        client.newCall(new Request.Builder()
+                .url(URL + "/subnets/default")
+                .put(RequestBody.create(MediaType.parse("application/json"), "{}"))
+                .build()).execute().close();
+        Assert.assertEquals(0, cache.size());
+
+        get(client);
+        Assert.assertNull(sentETags.get(sentETags.size() - 1));
+    }
+
+    @Test
+    public void canEvictLeastRecentlyUsed() throws IOException {
+        ResourceCache cache = new ResourceCache().withMaxEntries(1);
+        OkHttpClient client = client(cache, new ArrayList<String>());
+
+        get(client);
+        client.newCall(new Request.Builder().url(URL + "2").build()).execute().close();
+        Assert.assertEquals(1, cache.size());
+    }
+
+    private static String get(OkHttpClient client) throws IOException {
+        return client.newCall(new Request.Builder().url(URL).build()).execute().body().string();
+    }
+
+    private static OkHttpClient client(ResourceCache cache, final List<String> sentETags) {
+        return new OkHttpClient.Builder()
+                .addInterceptor(new ResourceCacheInterceptor(cache))
+                .addInterceptor(new Interceptor() {
+                    @Override
+                    public Response intercept(Chain chain) throws IOException {
+                        Request request = chain.request();
+                        Response.Builder builder = new Response.Builder()
+                                .request(request)
+                                .protocol(Protocol.HTTP_1_1)
+                                .header("ETag", "\"1\"");
+                        if (!"GET".equals(request.method())) {
+                            return builder.code(200).message("OK")
+                                    .body(ResponseBody.create(MediaType.parse("application/json"), "{}"))
+                                    .build();
+                        }
+                        String etag = request.header("If-None-Match");
+                        sentETags.add(etag);
+                        if ("\"1\"".equals(etag)) {
+                            return builder.code(304).message("Not Modified")
+                                    .body(ResponseBody.create(null, new byte[0]))
+                                    .build();
+                        }
+                        return builder.code(200).message("OK")
+                                .body(ResponseBody.create(MediaType.parse("application/json"), CONTENT))
+                                .build();
+                    }
+                })
+                .build();
+    }
+}
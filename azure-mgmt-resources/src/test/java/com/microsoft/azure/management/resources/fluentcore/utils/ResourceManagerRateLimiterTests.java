@@ -0,0 +1,128 @@
+/**
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for
+ * license information.
+ */
+
+package com.microsoft.azure.management.resources.fluentcore.utils;
+
+import okhttp3.Interceptor;
+import okhttp3.MediaType;
+import okhttp3.OkHttpClient;
+import okhttp3.Protocol;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class ResourceManagerRateLimiterTests {
+    @Test
+    public void canReserveWithoutWaitingWhenQuotaAvailable() {
+        ResourceManagerRateLimiter limiter = new ResourceManagerRateLimiter(1200);
+        for (int i = 0; i < 100; i++) {
+            Assert.assertEquals(0, limiter.reserve());
+        }
+    }
+
+    @Test
+    public void canPaceWhenRemainingQuotaIsExhausted() {
+        ResourceManagerRateLimiter limiter = new ResourceManagerRateLimiter(3600);
+        limiter.onRemaining(0);
+        long first = limiter.reserve();
+        long second = limiter.reserve();
+        // 3600 per hour is one token per second
+        Assert.assertTrue(first > 0 && first <= TimeUnit.SECONDS.toNanos(1));
+        Assert.assertTrue(second > first);
+        Assert.assertTrue(second <= TimeUnit.SECONDS.toNanos(2));
+    }
+
+    @Test
+    public void canSkipPacingUntilQuotaIsReported() {
+        ResourceManagerRateLimiter limiter = new ResourceManagerRateLimiter(1200);
+        for (int i = 0; i < 5000; i++) {
+            Assert.assertEquals(0, limiter.reserve());
+        }
+        limiter.onRemaining(0);
+        Assert.assertTrue(limiter.reserve() > 0);
+    }
+
+    @Test
+    public void canSendRequestsOutsideOfSubscriptionsWithoutPacing() throws IOException {
+        HistogramMetricsListener metrics = new HistogramMetricsListener();
+        OkHttpClient client = new OkHttpClient.Builder()
+                .addInterceptor(new ResourceManagerThrottlingInterceptor(metrics))
+                .addInterceptor(new Interceptor() {
+                    @Override
+                    public Response intercept(Chain chain) throws IOException {
+                        // Graph and tenant level responses carry no remaining quota header
+                        return new Response.Builder()
+                                .request(chain.request())
+                                .protocol(Protocol.HTTP_1_1)
+                                .code(201)
+                                .message("Created")
+                                .body(ResponseBody.create(MediaType.parse("application/json"), "{}"))
+                                .build();
+                    }
+                })
+                .build();
+
+        // More writes than the hourly write quota of a subscription
+        for (int i = 0; i < 1500; i++) {
+            client.newCall(new Request.Builder()
+                    .url("https://graph.windows.net/tenant1/servicePrincipals?api-version=1.6")
+                    .post(RequestBody.create(MediaType.parse("application/json"), "{}"))
+                    .build()).execute().close();
+        }
+        Assert.assertTrue(metrics.throttledMillis().isEmpty());
+    }
+
+    @Test
+    public void canStopWaitingWhenInterrupted() throws IOException {
+        final AtomicInteger calls = new AtomicInteger();
+        OkHttpClient client = new OkHttpClient.Builder()
+                .addInterceptor(new ResourceManagerThrottlingInterceptor())
+                .addInterceptor(new Interceptor() {
+                    @Override
+                    public Response intercept(Chain chain) throws IOException {
+                        calls.incrementAndGet();
+                        return new Response.Builder()
+                                .request(chain.request())
+                                .protocol(Protocol.HTTP_1_1)
+                                .code(429)
+                                .message("Too Many Requests")
+                                .header("Retry-After", "10")
+                                .body(ResponseBody.create(MediaType.parse("application/json"), "{}"))
+                                .build();
+                    }
+                })
+                .build();
+
+        Thread.currentThread().interrupt();
+        try {
+            client.newCall(new Request.Builder()
+                    .url("https://management.azure.com/subscriptions/interrupted-sub/resourceGroups/rg")
+                    .build()).execute();
+            Assert.fail("Expected the wait to stop");
+        } catch (InterruptedIOException e) {
+            Assert.assertEquals(1, calls.get());
+        } finally {
+            Thread.interrupted();
+        }
+    }
+
+    @Test
+    public void canPauseAfterThrottling() {
+        ResourceManagerRateLimiter limiter = new ResourceManagerRateLimiter(15000);
+        limiter.pause(10, TimeUnit.SECONDS);
+        long wait = limiter.reserve();
+        Assert.assertTrue(wait > TimeUnit.SECONDS.toNanos(9));
+        Assert.assertTrue(wait <= TimeUnit.SECONDS.toNanos(10));
+    }
+}
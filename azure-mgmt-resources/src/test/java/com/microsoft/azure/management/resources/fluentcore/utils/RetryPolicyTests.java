@@ -0,0 +1,218 @@
+/**
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for
+ * license information.
+ */
+
+package com.microsoft.azure.management.resources.fluentcore.utils;
+
+import com.microsoft.azure.AzureEnvironment;
+import com.microsoft.azure.credentials.AzureTokenCredentials;
+import com.microsoft.azure.management.resources.implementation.ResourceManager;
+import okhttp3.Interceptor;
+import okhttp3.MediaType;
+import okhttp3.OkHttpClient;
+import okhttp3.Protocol;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class RetryPolicyTests {
+    @Test
+    public void canApplyStatusCodeRules() {
+        RetryPolicy policy = new RetryPolicy()
+            .withMaxRetries(5)
+            .withRetryOnStatusCode(409, 1)
+            .withoutRetryOnStatusCode(500);
+
+        Assert.assertEquals(5, policy.maxRetries(503));
+        Assert.assertEquals(1, policy.maxRetries(409));
+        Assert.assertEquals(0, policy.maxRetries(500));
+        Assert.assertEquals(0, policy.maxRetries(404));
+    }
+
+    @Test
+    public void canBackoffExponentiallyWithinBounds() {
+        RetryPolicy policy = new RetryPolicy()
+            .withInitialDelay(1, TimeUnit.SECONDS)
+            .withMaxDelay(10, TimeUnit.SECONDS);
+
+        for (int i = 0; i < 100; i++) {
+            long first = policy.delayMillis(0, null);
+            Assert.assertTrue(first >= 500 && first <= 1000);
+            long third = policy.delayMillis(2, null);
+            Assert.assertTrue(third >= 2000 && third <= 4000);
+            long capped = policy.delayMillis(20, null);
+            Assert.assertTrue(capped >= 5000 && capped <= 10000);
+        }
+    }
+
+    @Test
+    public void canExhaustRetryBudget() {
+        RetryPolicy policy = new RetryPolicy()
+            .withRetryBudget(0, 0.001)
+            .withMaxRetriesPerSecond(1000);
+
+        // The budget starts with 10 seconds worth of minimum retries, which is none here
+        Assert.assertFalse(policy.tryAcquireRetry("subscription"));
+        for (int i = 0; i < 10; i++) {
+            policy.onRequest("subscription");
+        }
+        Assert.assertFalse(policy.tryAcquireRetry("subscription"));
+
+        policy.withRetryBudget(0.5, 0.001);
+        policy.onRequest("other");
+        policy.onRequest("other");
+        Assert.assertTrue(policy.tryAcquireRetry("other"));
+        Assert.assertFalse(policy.tryAcquireRetry("other"));
+    }
+
+    @Test
+    public void canRetryIdempotentRequestsOnly() throws IOException {
+        RetryPolicy policy = new RetryPolicy()
+            .withInitialDelay(1, TimeUnit.MILLISECONDS)
+            .withMaxDelay(1, TimeUnit.MILLISECONDS);
+        Assert.assertEquals(0, policy.maxRetries("POST", 503));
+        Assert.assertEquals(0, policy.maxRetries("PATCH", 500));
+        Assert.assertEquals(3, policy.maxRetries("PUT", 503));
+        Assert.assertEquals(0, policy.maxRetries("POST"));
+
+        AtomicInteger calls = new AtomicInteger();
+        OkHttpClient client = client(policy, calls);
+        RequestBody empty = RequestBody.create(MediaType.parse("application/json"), "{}");
+        Response response = client.newCall(new Request.Builder()
+            .url("https://management.azure.com/subscriptions/sub/resourceGroups/rg/providers/Microsoft.Compute/virtualMachines/vm/restart")
+            .post(empty)
+            .build()).execute();
+        Assert.assertEquals(503, response.code());
+        Assert.assertEquals(1, calls.get());
+        response.close();
+
+        calls.set(0);
+        response = client.newCall(new Request.Builder()
+            .url("https://management.azure.com/subscriptions/sub/resourceGroups/rg")
+            .get()
+            .build()).execute();
+        Assert.assertEquals(503, response.code());
+        Assert.assertEquals(4, calls.get());
+        response.close();
+
+        calls.set(0);
+        policy.withNonIdempotentRetries(true);
+        response = client.newCall(new Request.Builder()
+            .url("https://management.azure.com/subscriptions/sub/resourceGroups/rg/providers/Microsoft.Compute/virtualMachines/vm/restart")
+            .post(empty)
+            .build()).execute();
+        Assert.assertEquals(4, calls.get());
+        response.close();
+    }
+
+    @Test
+    public void canStopRetryingWhenInterrupted() throws IOException {
+        AtomicInteger calls = new AtomicInteger();
+        OkHttpClient client = client(new RetryPolicy().withInitialDelay(10, TimeUnit.SECONDS), calls);
+        Thread.currentThread().interrupt();
+        try {
+            client.newCall(new Request.Builder()
+                .url("https://management.azure.com/subscriptions/sub/resourceGroups/rg")
+                .get()
+                .build()).execute();
+            Assert.fail("Expected the retries to stop");
+        } catch (InterruptedIOException e) {
+            Assert.assertEquals(1, calls.get());
+            Assert.assertTrue(Thread.currentThread().isInterrupted());
+        } finally {
+            Thread.interrupted();
+        }
+    }
+
+    @Test
+    public void canReplaceClientRuntimeRetries() throws IOException {
+        MockWebServer server = new MockWebServer();
+        server.setDispatcher(new Dispatcher() {
+            @Override
+            public MockResponse dispatch(RecordedRequest request) {
+                return new MockResponse()
+                    .setResponseCode(503)
+                    .setHeader("Content-Type", "application/json")
+                    .setBody("{\"error\":{\"code\":\"ServiceUnavailable\",\"message\":\"Unavailable\"}}");
+            }
+        });
+        server.start();
+        try {
+            ResourceManager resourceManager = ResourceManager.configure()
+                .withRetryPolicy(new RetryPolicy()
+                    .withInitialDelay(1, TimeUnit.MILLISECONDS)
+                    .withMaxDelay(1, TimeUnit.MILLISECONDS))
+                .authenticate(credentials(server.url("/").toString()))
+                .withSubscription("sub1");
+
+            try {
+                resourceManager.resourceGroups().getByName("rg1");
+                Assert.fail("Expected the request to fail");
+            } catch (RuntimeException e) {
+                // Expected
+            }
+            // Retried by the policy only, not by the client runtime as well
+            Assert.assertEquals(4, server.getRequestCount());
+
+            try {
+                resourceManager.providers().register("Microsoft.Foo");
+                Assert.fail("Expected the request to fail");
+            } catch (RuntimeException e) {
+                // Expected
+            }
+            Assert.assertEquals(5, server.getRequestCount());
+        } finally {
+            server.shutdown();
+        }
+    }
+
+    private static AzureTokenCredentials credentials(String baseUrl) {
+        Map<String, String> endpoints = new HashMap<>();
+        endpoints.put("resourceManagerEndpointUrl", baseUrl);
+        endpoints.put("managementEndpointUrl", baseUrl);
+        endpoints.put("activeDirectoryEndpointUrl", baseUrl);
+        endpoints.put("activeDirectoryResourceId", baseUrl);
+        endpoints.put("activeDirectoryGraphResourceId", baseUrl);
+        return new AzureTokenCredentials(new AzureEnvironment(endpoints), "tenant") {
+            @Override
+            public String getToken(String resource) {
+                return "token";
+            }
+        };
+    }
+
+    private static OkHttpClient client(RetryPolicy policy, final AtomicInteger calls) {
+        return new OkHttpClient.Builder()
+            .addInterceptor(new RetryPolicyInterceptor(policy))
+            .addInterceptor(new Interceptor() {
+                @Override
+                public Response intercept(Chain chain) {
+                    calls.incrementAndGet();
+                    return new Response.Builder()
+                        .request(chain.request())
+                        .protocol(Protocol.HTTP_1_1)
+                        .code(503)
+                        .message("Service Unavailable")
+                        .body(ResponseBody.create(MediaType.parse("application/json"), "{}"))
+                        .build();
+                }
+            })
+            .build();
+    }
+}
@@ -0,0 +1,91 @@
+/**
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for
+ * license information.
+ */
+
+package com.microsoft.azure.management.resources.fluentcore.utils;
+
+import com.microsoft.azure.management.resources.fluentcore.arm.models.ResourceView;
+import com.microsoft.azure.management.resources.implementation.GenericResourceInner;
+import okhttp3.Interceptor;
+import okhttp3.MediaType;
+import okhttp3.OkHttpClient;
+import okhttp3.Protocol;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import org.junit.Assert;
+import org.junit.Test;
+import retrofit2.Retrofit;
+import retrofit2.adapter.rxjava.RxJavaCallAdapterFactory;
+
+import java.io.IOException;
+import java.util.List;
+
+public class StreamingListReaderTests {
+    private static final String PAGE1 = "{\"value\":["
+            + "{\"id\":\"/subscriptions/sub/resourceGroups/rg1/providers/Microsoft.Compute/virtualMachines/vm1\","
+            + "\"name\":\"vm1\",\"type\":\"Microsoft.Compute/virtualMachines\",\"location\":\"westus\","
+            + "\"tags\":{\"env\":\"test\"},"
+            + "\"properties\":{\"hardwareProfile\":{\"vmSize\":\"Standard_D2_v2\"},\"storageProfile\":{\"dataDisks\":[{\"lun\":0}]}}}"
+            + "],\"nextLink\":\"https://management.azure.com/page2\"}";
+    private static final String PAGE2 = "{\"nextLink\":null,\"value\":["
+            + "{\"id\":\"/subscriptions/sub/resourceGroups/rg2/providers/Microsoft.Compute/virtualMachines/vm2\","
+            + "\"name\":\"vm2\",\"type\":\"Microsoft.Compute/virtualMachines\",\"location\":\"eastus\","
+            + "\"properties\":{\"hardwareProfile\":{\"vmSize\":\"Standard_A1\"}}}"
+            + "]}";
+
+    @Test
+    public void canStreamItemsAcrossPages() {
+        List<GenericResourceInner> items = StreamingListReader.listAsync(retrofit(), "page1", GenericResourceInner.class)
+                .toList().toBlocking().single();
+
+        Assert.assertEquals(2, items.size());
+        Assert.assertEquals("vm1", items.get(0).name());
+        Assert.assertEquals("test", items.get(0).getTags().get("env"));
+        Assert.assertEquals("vm2", items.get(1).name());
+    }
+
+    @Test
+    public void canReadRequestedPropertiesOnly() {
+        List<ResourceView> views = StreamingListReader.listViewsAsync(retrofit(), "page1",
+                "properties.hardwareProfile.vmSize", "properties.storageProfile.dataDisks")
+                .toList().toBlocking().single();
+
+        Assert.assertEquals(2, views.size());
+        ResourceView view = views.get(0);
+        Assert.assertEquals("vm1", view.name());
+        Assert.assertEquals("rg1", view.resourceGroupName());
+        Assert.assertEquals("westus", view.regionName());
+        Assert.assertEquals("test", view.tags().get("env"));
+        Assert.assertEquals("Standard_D2_v2", view.property("properties.hardwareProfile.vmSize"));
+        Assert.assertEquals("[{\"lun\":0}]", view.property("properties.storageProfile.dataDisks"));
+        Assert.assertEquals(2, view.properties().size());
+        Assert.assertEquals("Standard_A1", views.get(1).property("properties.hardwareProfile.vmSize"));
+        Assert.assertNull(views.get(1).property("properties.storageProfile.dataDisks"));
+        Assert.assertTrue(views.get(1).tags().isEmpty());
+    }
+
+    private static Retrofit retrofit() {
+        OkHttpClient client = new OkHttpClient.Builder()
+                .addInterceptor(new Interceptor() {
+                    @Override
+                    public Response intercept(Chain chain) throws IOException {
+                        String content = chain.request().url().encodedPath().endsWith("page2") ? PAGE2 : PAGE1;
+                        return new Response.Builder()
+                                .request(chain.request())
+                                .protocol(Protocol.HTTP_1_1)
+                                .code(200)
+                                .message("OK")
+                                .body(ResponseBody.create(MediaType.parse("application/json"), content))
+                                .build();
+                    }
+                })
+                .build();
+        return new Retrofit.Builder()
+                .baseUrl("https://management.azure.com/")
+                .client(client)
+                .addCallAdapterFactory(RxJavaCallAdapterFactory.create())
+                .build();
+    }
+}
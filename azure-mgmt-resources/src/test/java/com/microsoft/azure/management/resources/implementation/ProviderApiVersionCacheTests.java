@@ -0,0 +1,134 @@
+/**
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for
+ * license information.
+ */
+
+package com.microsoft.azure.management.resources.implementation;
+
+import com.microsoft.azure.AzureResponseBuilder;
+import com.microsoft.azure.serializer.AzureJacksonAdapter;
+import com.microsoft.rest.RestClient;
+import okhttp3.Interceptor;
+import okhttp3.MediaType;
+import okhttp3.Protocol;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import org.junit.Assert;
+import org.junit.Test;
+import rx.Observable;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class ProviderApiVersionCacheTests {
+    private static final String PROVIDER = "{\"namespace\":\"Microsoft.Web\",\"resourceTypes\":["
+            + "{\"resourceType\":\"serverFarms\",\"apiVersions\":[]},"
+            + "{\"resourceType\":\"certificates\",\"apiVersions\":[\"2019-08-03\"]},"
+            + "{\"resourceType\":\"sites\",\"apiVersions\":[\"2019-08-01\",\"2018-02-01\"]},"
+            + "{\"resourceType\":\"sites/slots\",\"apiVersions\":[\"2019-08-02\"]}]}";
+    private static final String SITE_ID = "/subscriptions/sub1/resourceGroups/rg1/providers/Microsoft.Web/sites/site1";
+
+    @Test
+    public void canResolveApiVersions() {
+        FakeProviders providers = new FakeProviders(PROVIDER);
+        ProviderApiVersionCache cache = providers.cache();
+
+        // Exact match
+        Assert.assertEquals("2019-08-01", cache.apiVersionAsync(SITE_ID).toBlocking().single());
+        // Child resource type
+        Assert.assertEquals("2019-08-02", cache.apiVersionAsync(SITE_ID + "/slots/slot1").toBlocking().single());
+        // Parent resource type
+        Assert.assertEquals("2019-08-01", cache.apiVersionAsync(SITE_ID + "/config/web").toBlocking().single());
+        // Fallback, a resource type without API versions never being matched
+        Assert.assertEquals("2019-08-03", cache.apiVersionAsync(
+                "/subscriptions/sub1/resourceGroups/rg1/providers/Microsoft.Web/serverFarms/farm1").toBlocking().single());
+        Assert.assertEquals(1, providers.requestCount.get());
+    }
+
+    @Test
+    public void canShareConcurrentFirstLoads() {
+        FakeProviders providers = new FakeProviders(PROVIDER);
+        ProviderApiVersionCache cache = providers.cache();
+
+        List<Observable<String>> lookups = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            lookups.add(cache.apiVersionAsync(SITE_ID));
+        }
+        List<String> apiVersions = Observable.merge(lookups).toList().toBlocking().single();
+
+        Assert.assertEquals(5, apiVersions.size());
+        for (String apiVersion : apiVersions) {
+            Assert.assertEquals("2019-08-01", apiVersion);
+        }
+        Assert.assertEquals(1, providers.requestCount.get());
+    }
+
+    @Test
+    public void canLoadAgainAfterError() {
+        FakeProviders providers = new FakeProviders(PROVIDER);
+        providers.failuresLeft.set(1);
+        ProviderApiVersionCache cache = providers.cache();
+
+        try {
+            cache.apiVersionAsync(SITE_ID).toBlocking().single();
+            Assert.fail("Expected the provider load to fail");
+        } catch (RuntimeException e) {
+            // Expected
+        }
+        Assert.assertEquals("2019-08-01", cache.apiVersionAsync(SITE_ID).toBlocking().single());
+        Assert.assertEquals(2, providers.requestCount.get());
+    }
+
+    @Test
+    public void canRejectProviderWithoutApiVersions() {
+        FakeProviders providers = new FakeProviders("{\"namespace\":\"Microsoft.Web\",\"resourceTypes\":["
+                + "{\"resourceType\":\"sites\",\"apiVersions\":[]}]}");
+        try {
+            providers.cache().apiVersionAsync(SITE_ID).toBlocking().single();
+            Assert.fail("Expected no API version to be found");
+        } catch (IllegalArgumentException e) {
+            Assert.assertTrue(e.getMessage().contains("Microsoft.Web"));
+        }
+    }
+
+    /**
+     * Serves a provider, failing the given number of requests first.
+     */
+    private static class FakeProviders {
+        private final String provider;
+        private final AtomicInteger requestCount = new AtomicInteger();
+        private final AtomicInteger failuresLeft = new AtomicInteger();
+
+        FakeProviders(String provider) {
+            this.provider = provider;
+        }
+
+        ProviderApiVersionCache cache() {
+            RestClient restClient = new RestClient.Builder()
+                    .withBaseUrl("https://management.azure.com/")
+                    .withSerializerAdapter(new AzureJacksonAdapter())
+                    .withResponseBuilderFactory(new AzureResponseBuilder.Factory())
+                    .withInterceptor(new Interceptor() {
+                        @Override
+                        public Response intercept(Chain chain) throws IOException {
+                            requestCount.incrementAndGet();
+                            boolean failed = failuresLeft.getAndDecrement() > 0;
+                            return new Response.Builder()
+                                    .request(chain.request())
+                                    .protocol(Protocol.HTTP_1_1)
+                                    .code(failed ? 400 : 200)
+                                    .message(failed ? "Bad Request" : "OK")
+                                    .body(ResponseBody.create(MediaType.parse("application/json"), failed
+                                            ? "{\"error\":{\"code\":\"BadRequest\",\"message\":\"Failed\"}}"
+                                            : provider))
+                                    .build();
+                        }
+                    })
+                    .build();
+            return new ProviderApiVersionCache(ResourceManager.authenticate(restClient).withSubscription("sub1"));
+        }
+    }
+}
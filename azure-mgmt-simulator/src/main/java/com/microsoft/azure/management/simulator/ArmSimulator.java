@@ -0,0 +1,194 @@
+/**
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for
+ * license information.
+ */
+
+package com.microsoft.azure.management.simulator;
+
+import com.microsoft.azure.credentials.AzureTokenCredentials;
+import okhttp3.mockwebserver.MockWebServer;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * An in-process simulator of Azure Resource Manager, serving the resource groups, the resources and the
+ * resource providers of a subscription from memory.
+ * <p>
+ * The simulator implements the semantics the management libraries rely on: long running operations
+ * polled through the Azure-AsyncOperation and Location headers, 429 responses with a Retry-After header,
+ * and the MissingSubscriptionRegistration error of the resource providers not registered yet. Latency,
+ * errors and throttling can be injected, so that the overhead of the libraries themselves can be
+ * measured, e.g. by creating thousands of resources in a batch:
+ * <pre>{@code
+ * ArmSimulator simulator = new ArmSimulator().withLatency(20).start();
+ * Azure azure = Azure.authenticate(simulator.credentials()).withDefaultSubscription();
+ * }</pre>
+ */
+public final class ArmSimulator implements Closeable {
+    /**
+     * The ID of the simulated subscription.
+     */
+    public static final String SUBSCRIPTION_ID = "00000000-0000-0000-0000-000000000000";
+    /**
+     * The ID of the simulated tenant.
+     */
+    public static final String TENANT_ID = "00000000-0000-0000-0000-000000000000";
+
+    private final MockWebServer server = new MockWebServer();
+    private final SimulatorDispatcher dispatcher = new SimulatorDispatcher(SUBSCRIPTION_ID);
+    private volatile String baseUrl;
+
+    /**
+     * Creates a simulator with no latency, no errors and no throttling, completing the long running
+     * operations after one poll.
+     */
+    public ArmSimulator() {
+        server.setDispatcher(dispatcher);
+    }
+
+    /**
+     * Sets the latency of every response.
+     *
+     * @param latencyMillis the latency in milliseconds
+     * @return the simulator
+     */
+    public ArmSimulator withLatency(long latencyMillis) {
+        dispatcher.latencyMillis = latencyMillis;
+        return this;
+    }
+
+    /**
+     * Sets the fraction of the requests failing with a 500 InternalServerError.
+     *
+     * @param errorRate the fraction, between 0 and 1
+     * @return the simulator
+     */
+    public ArmSimulator withErrorRate(double errorRate) {
+        dispatcher.errorRate = errorRate;
+        return this;
+    }
+
+    /**
+     * Sets the fraction of the requests throttled with a 429 TooManyRequests.
+     *
+     * @param throttleRate the fraction, between 0 and 1
+     * @param retryAfterSeconds the Retry-After value of the throttled responses
+     * @return the simulator
+     */
+    public ArmSimulator withThrottleRate(double throttleRate, int retryAfterSeconds) {
+        dispatcher.throttleRate = throttleRate;
+        dispatcher.retryAfterSeconds = retryAfterSeconds;
+        return this;
+    }
+
+    /**
+     * Sets the number of polls returning InProgress before a long running operation completes.
+     *
+     * @param operationPolls the number of polls, 0 to complete the creations and deletions synchronously
+     * @return the simulator
+     */
+    public ArmSimulator withOperationPolls(int operationPolls) {
+        dispatcher.operationPolls = operationPolls;
+        return this;
+    }
+
+    /**
+     * Sets the number of items in each page of the listings, the following pages being linked by nextLink.
+     *
+     * @param pageSize the number of items, 0 to return every item in a single page
+     * @return the simulator
+     */
+    public ArmSimulator withPageSize(int pageSize) {
+        dispatcher.pageSize = pageSize;
+        return this;
+    }
+
+    /**
+     * Adds a resource provider not registered in the subscription, whose resources fail with a
+     * MissingSubscriptionRegistration error until the provider is registered.
+     *
+     * @param namespace the namespace of the resource provider
+     * @return the simulator
+     */
+    public ArmSimulator withUnregisteredProvider(String namespace) {
+        dispatcher.addProvider(namespace, false);
+        return this;
+    }
+
+    /**
+     * Adds a resource type to a resource provider, so that its API versions can be looked up before any
+     * resource of the type is created. The types of the created resources are added automatically.
+     *
+     * @param namespace the namespace of the resource provider
+     * @param resourceType the resource type, e.g. virtualNetworks or virtualNetworks/subnets
+     * @return the simulator
+     */
+    public ArmSimulator withResourceType(String namespace, String resourceType) {
+        dispatcher.addResourceType(namespace, resourceType);
+        return this;
+    }
+
+    /**
+     * Starts the simulator on a free local port.
+     *
+     * @return the simulator
+     * @throws IOException if the simulator cannot be started
+     */
+    public ArmSimulator start() throws IOException {
+        server.start();
+        baseUrl = server.url("/").toString();
+        return this;
+    }
+
+    /**
+     * @return the base URL of the simulator, ending with a slash
+     */
+    public String baseUrl() {
+        if (baseUrl == null) {
+            throw new IllegalStateException("The simulator is not started.");
+        }
+        return baseUrl;
+    }
+
+    /**
+     * @return credentials whose environment points at the simulator, with the simulated subscription as default
+     */
+    public AzureTokenCredentials credentials() {
+        return new SimulatorCredentials(baseUrl(), TENANT_ID, SUBSCRIPTION_ID);
+    }
+
+    /**
+     * @return the number of resource groups and resources in the subscription
+     */
+    public int resourceCount() {
+        return dispatcher.resourceCount();
+    }
+
+    /**
+     * @return the number of requests received
+     */
+    public long requestCount() {
+        return dispatcher.requestCount.get();
+    }
+
+    /**
+     * @return the number of requests throttled
+     */
+    public long throttledCount() {
+        return dispatcher.throttledCount.get();
+    }
+
+    /**
+     * Removes all the resource groups and resources.
+     */
+    public void reset() {
+        dispatcher.reset();
+    }
+
+    @Override
+    public void close() throws IOException {
+        server.shutdown();
+    }
+}
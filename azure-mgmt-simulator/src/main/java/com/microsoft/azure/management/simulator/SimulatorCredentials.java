@@ -0,0 +1,48 @@
+/**
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for
+ * license information.
+ */
+
+package com.microsoft.azure.management.simulator;
+
+import com.microsoft.azure.AzureEnvironment;
+import com.microsoft.azure.credentials.AzureTokenCredentials;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Credentials of an {@link ArmSimulator}, whose environment points all the endpoints at the simulator.
+ * <p>
+ * They can be passed to Azure.authenticate() or to the authenticate() method of a manager. No token is
+ * requested from Active Directory.
+ */
+public final class SimulatorCredentials extends AzureTokenCredentials {
+    private static final String TOKEN = "simulator-token";
+
+    SimulatorCredentials(String baseUrl, String tenantId, String subscriptionId) {
+        super(environment(baseUrl), tenantId);
+        withDefaultSubscriptionId(subscriptionId);
+    }
+
+    @Override
+    public String getToken(String resource) {
+        return TOKEN;
+    }
+
+    private static AzureEnvironment environment(String baseUrl) {
+        Map<String, String> endpoints = new HashMap<>();
+        endpoints.put("portalUrl", baseUrl);
+        endpoints.put("managementEndpointUrl", baseUrl);
+        endpoints.put("resourceManagerEndpointUrl", baseUrl);
+        endpoints.put("sqlManagementEndpointUrl", baseUrl);
+        endpoints.put("galleryEndpointUrl", baseUrl);
+        endpoints.put("activeDirectoryEndpointUrl", baseUrl);
+        endpoints.put("activeDirectoryResourceId", baseUrl);
+        endpoints.put("activeDirectoryGraphResourceId", baseUrl);
+        endpoints.put("microsoftGraphResourceId", baseUrl);
+        endpoints.put("activeDirectoryGraphApiVersion", "1.6");
+        return new AzureEnvironment(endpoints);
+    }
+}
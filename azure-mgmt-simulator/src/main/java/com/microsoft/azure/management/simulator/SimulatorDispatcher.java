@@ -0,0 +1,587 @@
+/**
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for
+ * license information.
+ */
+
+package com.microsoft.azure.management.simulator;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import okhttp3.HttpUrl;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.RecordedRequest;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Serves the requests of an {@link ArmSimulator} from the resources held in memory.
+ * <p>
+ * The resources are kept as JSON trees keyed by their lower case ID, in a sorted map so that the
+ * resources of a resource group can be listed or deleted as a range. The listings are split in pages
+ * linked by nextLink when a page size is set, the $skiptoken of the next link being the offset of the
+ * next page in the listing as read again.
+ */
+final class SimulatorDispatcher extends Dispatcher {
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final String API_VERSION = "2019-05-01";
+    private static final String DEFAULT_LOCATION = "westus";
+    private static final String RESOURCE_GROUP_TYPE = "Microsoft.Resources/resourceGroups";
+
+    private final String subscriptionId;
+    private final ConcurrentSkipListMap<String, ObjectNode> resources = new ConcurrentSkipListMap<>();
+    private final ConcurrentMap<String, ProviderState> providers = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, Operation> operations = new ConcurrentHashMap<>();
+
+    final AtomicLong requestCount = new AtomicLong();
+    final AtomicLong throttledCount = new AtomicLong();
+    volatile long latencyMillis;
+    volatile double errorRate;
+    volatile double throttleRate;
+    volatile int retryAfterSeconds = 1;
+    volatile int operationPolls = 1;
+    volatile int pageSize;
+
+    SimulatorDispatcher(String subscriptionId) {
+        this.subscriptionId = subscriptionId;
+    }
+
+    @Override
+    public MockResponse dispatch(RecordedRequest request) {
+        requestCount.incrementAndGet();
+        MockResponse response;
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        if (throttleRate > 0 && random.nextDouble() < throttleRate) {
+            throttledCount.incrementAndGet();
+            response = error(429, "TooManyRequests", "The request is being throttled, please try again after '"
+                    + retryAfterSeconds + "' seconds.")
+                    .setHeader("Retry-After", Integer.toString(retryAfterSeconds));
+        } else if (errorRate > 0 && random.nextDouble() < errorRate) {
+            response = error(500, "InternalServerError", "The server encountered an internal error.");
+        } else {
+            try {
+                response = route(request);
+            } catch (IOException | RuntimeException e) {
+                response = error(400, "InvalidRequestContent", String.valueOf(e.getMessage()));
+            }
+        }
+        response.setHeader("x-ms-request-id", UUID.randomUUID().toString())
+                .setHeader("x-ms-ratelimit-remaining-subscription-reads", "11999")
+                .setHeader("x-ms-ratelimit-remaining-subscription-writes", "1199");
+        if (latencyMillis > 0) {
+            response.setHeadersDelay(latencyMillis, TimeUnit.MILLISECONDS);
+        }
+        return response;
+    }
+
+    int resourceCount() {
+        return resources.size();
+    }
+
+    void reset() {
+        resources.clear();
+        operations.clear();
+    }
+
+    void addProvider(String namespace, boolean registered) {
+        ProviderState provider = provider(namespace);
+        provider.registered = registered;
+    }
+
+    void addResourceType(String namespace, String resourceType) {
+        provider(namespace).types.putIfAbsent(resourceType.toLowerCase(Locale.ROOT), resourceType);
+    }
+
+    private MockResponse route(RecordedRequest request) throws IOException {
+        HttpUrl url = request.getRequestUrl();
+        String method = request.getMethod().toUpperCase(Locale.ROOT);
+        List<String> segments = new ArrayList<>(url.pathSegments());
+        if (!segments.isEmpty() && segments.get(segments.size() - 1).isEmpty()) {
+            segments.remove(segments.size() - 1);
+        }
+        if (segments.size() < 2 || !"subscriptions".equalsIgnoreCase(segments.get(0))) {
+            if (segments.size() == 1 && "subscriptions".equalsIgnoreCase(segments.get(0)) && "GET".equals(method)) {
+                return ok(list(subscription()));
+            }
+            return notFound(url);
+        }
+        if (!subscriptionId.equalsIgnoreCase(segments.get(1))) {
+            return error(404, "SubscriptionNotFound", "The subscription '" + segments.get(1) + "' could not be found.");
+        }
+        if (segments.size() == 2) {
+            return "GET".equals(method) ? ok(subscription()) : notFound(url);
+        }
+        String collection = segments.get(2).toLowerCase(Locale.ROOT);
+        if ("operations".equals(collection) && segments.size() == 4) {
+            return pollAsyncOperation(segments.get(3));
+        }
+        if ("operationresults".equals(collection) && segments.size() == 4) {
+            return pollLocation(segments.get(3));
+        }
+        if ("resources".equals(collection) && segments.size() == 3 && "GET".equals(method)) {
+            return page(resources(), url);
+        }
+        if ("providers".equals(collection)) {
+            return segments.size() <= 5 ? providerRequest(method, segments, url) : notFound(url);
+        }
+        if (!"resourcegroups".equals(collection)) {
+            return notFound(url);
+        }
+        if (segments.size() == 3) {
+            return "GET".equals(method) ? page(resourceGroups(), url) : notFound(url);
+        }
+        String groupId = "/subscriptions/" + subscriptionId + "/resourceGroups/" + segments.get(3);
+        if (segments.size() == 4) {
+            return resourceGroupRequest(method, groupId, segments.get(3), request);
+        }
+        if (!resources.containsKey(key(groupId))) {
+            return error(404, "ResourceGroupNotFound", "Resource group '" + segments.get(3) + "' could not be found.");
+        }
+        if (segments.size() == 5 && "resources".equalsIgnoreCase(segments.get(4)) && "GET".equals(method)) {
+            return page(resourcesInGroup(groupId), url);
+        }
+        if (segments.size() < 7 || !"providers".equalsIgnoreCase(segments.get(4))) {
+            return notFound(url);
+        }
+        String namespace = segments.get(5);
+        ProviderState provider = provider(namespace);
+        if (!provider.registered) {
+            return error(409, "MissingSubscriptionRegistration", "The subscription is not registered to use namespace '"
+                    + provider.namespace + "'.");
+        }
+        if (segments.size() % 2 == 1) {
+            // A collection, e.g. .../providers/Microsoft.Network/virtualNetworks
+            return "GET".equals(method) ? listByType(groupId, namespace, type(segments), url) : notFound(url);
+        }
+        return resourceRequest(method, "/" + join(segments), namespace, type(segments), request);
+    }
+
+    private MockResponse providerRequest(String method, List<String> segments, HttpUrl url) throws IOException {
+        if (segments.size() == 3) {
+            if (!"GET".equals(method)) {
+                return notFound(url);
+            }
+            List<ObjectNode> value = new ArrayList<>();
+            for (ProviderState provider : providers.values()) {
+                value.add(provider.toJson(subscriptionId));
+            }
+            return page(value, url);
+        }
+        ProviderState provider = provider(segments.get(3));
+        if (segments.size() == 4 && "GET".equals(method)) {
+            ObjectNode json = provider.toJson(subscriptionId);
+            if (provider.registering.compareAndSet(true, false)) {
+                // Registered from the next poll on
+                provider.registered = true;
+            }
+            return ok(json);
+        }
+        if (segments.size() == 5 && "register".equalsIgnoreCase(segments.get(4)) && "POST".equals(method)) {
+            if (!provider.registered) {
+                provider.registering.set(true);
+            }
+            return ok(provider.toJson(subscriptionId));
+        }
+        if (segments.size() == 5 && "unregister".equalsIgnoreCase(segments.get(4)) && "POST".equals(method)) {
+            provider.registered = false;
+            provider.registering.set(false);
+            return ok(provider.toJson(subscriptionId));
+        }
+        if (segments.size() == 5 && "GET".equals(method)) {
+            return listByType(null, segments.get(3), segments.get(4), url);
+        }
+        return notFound(url);
+    }
+
+    private MockResponse resourceGroupRequest(String method, String groupId, String name, RecordedRequest request) throws IOException {
+        String key = key(groupId);
+        ObjectNode group = resources.get(key);
+        switch (method) {
+            case "GET":
+                return group == null ? groupNotFound(name) : ok(group);
+            case "HEAD":
+                return new MockResponse().setResponseCode(group == null ? 404 : 204);
+            case "PUT":
+                ObjectNode body = body(request);
+                body.put("id", groupId);
+                body.put("name", name);
+                body.put("type", RESOURCE_GROUP_TYPE);
+                ensureLocation(body);
+                properties(body).put("provisioningState", "Succeeded");
+                resources.put(key, body);
+                return json(group == null ? 201 : 200, body);
+            case "PATCH":
+                if (group == null) {
+                    return groupNotFound(name);
+                }
+                ObjectNode patched = merge(group, body(request));
+                resources.put(key, patched);
+                return ok(patched);
+            case "DELETE":
+                if (group == null) {
+                    return new MockResponse().setResponseCode(204);
+                }
+                return delete(key, true, request);
+            default:
+                return notFound(request.getRequestUrl());
+        }
+    }
+
+    private MockResponse resourceRequest(String method, String id, String namespace, String type, RecordedRequest request) throws IOException {
+        String key = key(id);
+        ObjectNode resource = resources.get(key);
+        switch (method) {
+            case "GET":
+                return resource == null ? resourceNotFound(namespace, type, id) : ok(resource);
+            case "HEAD":
+                return new MockResponse().setResponseCode(resource == null ? 404 : 204);
+            case "PUT":
+                ObjectNode body = body(request);
+                body.put("id", id);
+                body.put("name", id.substring(id.lastIndexOf('/') + 1));
+                body.put("type", namespace + "/" + type);
+                ensureLocation(body);
+                addResourceType(namespace, type);
+                return createOrUpdate(key, body, resource == null, request);
+            case "PATCH":
+                if (resource == null) {
+                    return resourceNotFound(namespace, type, id);
+                }
+                ObjectNode patched = merge(resource, body(request));
+                resources.put(key, patched);
+                return ok(patched);
+            case "DELETE":
+                if (resource == null) {
+                    return new MockResponse().setResponseCode(204);
+                }
+                return delete(key, false, request);
+            default:
+                return notFound(request.getRequestUrl());
+        }
+    }
+
+    private MockResponse createOrUpdate(String key, ObjectNode body, boolean created, RecordedRequest request) {
+        int polls = operationPolls;
+        if (polls <= 0) {
+            properties(body).put("provisioningState", "Succeeded");
+            resources.put(key, body);
+            return json(created ? 201 : 200, body);
+        }
+        properties(body).put("provisioningState", created ? "Creating" : "Updating");
+        resources.put(key, body);
+        String operationId = UUID.randomUUID().toString();
+        operations.put(operationId, new Operation(key, false, false, polls));
+        return json(created ? 201 : 200, body)
+                .setHeader("Azure-AsyncOperation", operationUrl(request, "operations", operationId));
+    }
+
+    private MockResponse delete(String key, boolean resourceGroup, RecordedRequest request) {
+        int polls = operationPolls;
+        if (polls <= 0) {
+            remove(key, resourceGroup);
+            return new MockResponse().setResponseCode(200);
+        }
+        String operationId = UUID.randomUUID().toString();
+        operations.put(operationId, new Operation(key, true, resourceGroup, polls));
+        return new MockResponse().setResponseCode(202)
+                .setHeader("Location", operationUrl(request, "operationresults", operationId))
+                .setHeader("Retry-After", "0");
+    }
+
+    private MockResponse pollAsyncOperation(String operationId) {
+        Operation operation = operations.get(operationId);
+        if (operation == null) {
+            return error(404, "OperationNotFound", "The operation '" + operationId + "' could not be found.");
+        }
+        ObjectNode status = MAPPER.createObjectNode();
+        status.put("status", poll(operationId, operation) ? "Succeeded" : "InProgress");
+        return ok(status).setHeader("Retry-After", "0");
+    }
+
+    private MockResponse pollLocation(String operationId) {
+        Operation operation = operations.get(operationId);
+        if (operation == null) {
+            return error(404, "OperationNotFound", "The operation '" + operationId + "' could not be found.");
+        }
+        if (poll(operationId, operation)) {
+            return new MockResponse().setResponseCode(204);
+        }
+        return new MockResponse().setResponseCode(202).setHeader("Retry-After", "0");
+    }
+
+    private boolean poll(String operationId, Operation operation) {
+        if (operation.remainingPolls.decrementAndGet() >= 0) {
+            return false;
+        }
+        if (operation.completed.compareAndSet(false, true)) {
+            if (operation.delete) {
+                remove(operation.key, operation.resourceGroup);
+            } else {
+                ObjectNode resource = resources.get(operation.key);
+                if (resource != null) {
+                    ObjectNode completed = resource.deepCopy();
+                    properties(completed).put("provisioningState", "Succeeded");
+                    resources.replace(operation.key, resource, completed);
+                }
+            }
+        }
+        // Polled again by the clients re-reading the final state
+        return true;
+    }
+
+    private void remove(String key, boolean resourceGroup) {
+        if (resourceGroup) {
+            resources.tailMap(key + "/").headMap(key + "0").clear();
+        }
+        resources.remove(key);
+    }
+
+    private MockResponse listByType(String groupId, String namespace, String type, HttpUrl url) {
+        ProviderState provider = provider(namespace);
+        if (!provider.registered) {
+            return error(409, "MissingSubscriptionRegistration", "The subscription is not registered to use namespace '"
+                    + provider.namespace + "'.");
+        }
+        String fullType = namespace + "/" + type;
+        List<ObjectNode> value = new ArrayList<>();
+        for (ObjectNode resource : groupId != null ? resourcesInGroup(groupId) : resources.values()) {
+            if (fullType.equalsIgnoreCase(resource.path("type").asText())) {
+                value.add(resource);
+            }
+        }
+        return page(value, url);
+    }
+
+    private List<ObjectNode> resourceGroups() {
+        List<ObjectNode> groups = new ArrayList<>();
+        for (ObjectNode resource : resources.values()) {
+            if (RESOURCE_GROUP_TYPE.equals(resource.path("type").asText())) {
+                groups.add(resource);
+            }
+        }
+        return groups;
+    }
+
+    private List<ObjectNode> resources() {
+        List<ObjectNode> value = new ArrayList<>();
+        for (ObjectNode resource : resources.values()) {
+            if (!RESOURCE_GROUP_TYPE.equals(resource.path("type").asText())) {
+                value.add(resource);
+            }
+        }
+        return value;
+    }
+
+    private List<ObjectNode> resourcesInGroup(String groupId) {
+        String prefix = key(groupId) + "/";
+        // '0' follows '/', so the range holds exactly the IDs under the resource group
+        return new ArrayList<>(resources.subMap(prefix, key(groupId) + "0").values());
+    }
+
+    private MockResponse page(List<ObjectNode> items, HttpUrl url) {
+        int size = pageSize;
+        String skipToken = url.queryParameter("$skiptoken");
+        int start = skipToken == null ? 0 : Math.min(Integer.parseInt(skipToken), items.size());
+        int end = size > 0 ? Math.min(items.size(), start + size) : items.size();
+        ObjectNode page = MAPPER.createObjectNode();
+        page.putArray("value").addAll(items.subList(start, end));
+        if (end < items.size()) {
+            page.put("nextLink", url.newBuilder()
+                    .setQueryParameter("$skiptoken", Integer.toString(end))
+                    .build()
+                    .toString());
+        }
+        return ok(page);
+    }
+
+    private static JsonNode list(ObjectNode item) {
+        ArrayNode value = MAPPER.createArrayNode();
+        value.add(item);
+        return MAPPER.createObjectNode().set("value", value);
+    }
+
+    private ObjectNode subscription() {
+        ObjectNode subscription = MAPPER.createObjectNode();
+        subscription.put("id", "/subscriptions/" + subscriptionId);
+        subscription.put("subscriptionId", subscriptionId);
+        subscription.put("displayName", "ARM Simulator");
+        subscription.put("state", "Enabled");
+        return subscription;
+    }
+
+    private ProviderState provider(String namespace) {
+        String key = namespace.toLowerCase(Locale.ROOT);
+        ProviderState provider = providers.get(key);
+        if (provider == null) {
+            providers.putIfAbsent(key, new ProviderState(namespace));
+            provider = providers.get(key);
+        }
+        return provider;
+    }
+
+    private static ObjectNode body(RecordedRequest request) throws IOException {
+        String content = request.getBody().readUtf8();
+        if (content.isEmpty()) {
+            return MAPPER.createObjectNode();
+        }
+        JsonNode body = MAPPER.readTree(content);
+        if (!(body instanceof ObjectNode)) {
+            throw new IOException("The request content is not a JSON object.");
+        }
+        return (ObjectNode) body;
+    }
+
+    private static ObjectNode merge(ObjectNode resource, ObjectNode patch) {
+        ObjectNode merged = resource.deepCopy();
+        for (Iterator<Map.Entry<String, JsonNode>> fields = patch.fields(); fields.hasNext();) {
+            Map.Entry<String, JsonNode> field = fields.next();
+            if ("properties".equals(field.getKey()) && field.getValue().isObject()) {
+                properties(merged).setAll((ObjectNode) field.getValue());
+            } else if (!"id".equals(field.getKey()) && !"name".equals(field.getKey()) && !"type".equals(field.getKey())) {
+                merged.set(field.getKey(), field.getValue());
+            }
+        }
+        return merged;
+    }
+
+    private static ObjectNode properties(ObjectNode resource) {
+        JsonNode properties = resource.get("properties");
+        if (properties instanceof ObjectNode) {
+            return (ObjectNode) properties;
+        }
+        return resource.putObject("properties");
+    }
+
+    private static void ensureLocation(ObjectNode resource) {
+        if (!resource.hasNonNull("location")) {
+            resource.put("location", DEFAULT_LOCATION);
+        }
+    }
+
+    private static String type(List<String> segments) {
+        // The types follow the namespace, separated by the names, e.g. virtualNetworks/vnet1/subnets/subnet1
+        StringBuilder type = new StringBuilder(segments.get(6));
+        for (int i = 8; i < segments.size(); i += 2) {
+            type.append('/').append(segments.get(i));
+        }
+        return type.toString();
+    }
+
+    private static String join(List<String> segments) {
+        StringBuilder path = new StringBuilder();
+        for (String segment : segments) {
+            if (path.length() > 0) {
+                path.append('/');
+            }
+            path.append(segment);
+        }
+        return path.toString();
+    }
+
+    private static String key(String id) {
+        return id.toLowerCase(Locale.ROOT);
+    }
+
+    private String operationUrl(RecordedRequest request, String collection, String operationId) {
+        return request.getRequestUrl().newBuilder()
+                .encodedPath("/subscriptions/" + subscriptionId + "/" + collection + "/" + operationId)
+                .query(null)
+                .addQueryParameter("api-version", API_VERSION)
+                .build()
+                .toString();
+    }
+
+    private static MockResponse ok(JsonNode body) {
+        return json(200, body);
+    }
+
+    private static MockResponse json(int statusCode, JsonNode body) {
+        return new MockResponse()
+                .setResponseCode(statusCode)
+                .setHeader("Content-Type", "application/json; charset=utf-8")
+                .setBody(body.toString());
+    }
+
+    private static MockResponse error(int statusCode, String code, String message) {
+        ObjectNode error = MAPPER.createObjectNode();
+        error.putObject("error").put("code", code).put("message", message);
+        return json(statusCode, error);
+    }
+
+    private static MockResponse notFound(HttpUrl url) {
+        return error(404, "NotFound", "No route for '" + url.encodedPath() + "'.");
+    }
+
+    private static MockResponse groupNotFound(String name) {
+        return error(404, "ResourceGroupNotFound", "Resource group '" + name + "' could not be found.");
+    }
+
+    private static MockResponse resourceNotFound(String namespace, String type, String id) {
+        return error(404, "ResourceNotFound", "The Resource '" + namespace + "/" + type + "/"
+                + id.substring(id.lastIndexOf('/') + 1) + "' was not found.");
+    }
+
+    /**
+     * A resource provider namespace and the resource types seen in it.
+     */
+    private static final class ProviderState {
+        private final String namespace;
+        private final ConcurrentMap<String, String> types = new ConcurrentHashMap<>();
+        private final AtomicBoolean registering = new AtomicBoolean();
+        private volatile boolean registered = true;
+
+        private ProviderState(String namespace) {
+            this.namespace = namespace;
+        }
+
+        private ObjectNode toJson(String subscriptionId) {
+            ObjectNode provider = MAPPER.createObjectNode();
+            provider.put("id", "/subscriptions/" + subscriptionId + "/providers/" + namespace);
+            provider.put("namespace", namespace);
+            provider.put("registrationState", registered ? "Registered" : registering.get() ? "Registering" : "NotRegistered");
+            ArrayNode resourceTypes = provider.putArray("resourceTypes");
+            for (String type : types.values()) {
+                ObjectNode resourceType = resourceTypes.addObject();
+                resourceType.put("resourceType", type);
+                resourceType.putArray("locations").add(DEFAULT_LOCATION);
+                resourceType.putArray("apiVersions").add(API_VERSION);
+            }
+            return provider;
+        }
+    }
+
+    /**
+     * A long running creation or deletion, completed once polled enough times.
+     */
+    private static final class Operation {
+        private final String key;
+        private final boolean delete;
+        private final boolean resourceGroup;
+        private final AtomicInteger remainingPolls;
+        private final AtomicBoolean completed = new AtomicBoolean();
+
+        private Operation(String key, boolean delete, boolean resourceGroup, int polls) {
+            this.key = key;
+            this.delete = delete;
+            this.resourceGroup = resourceGroup;
+            this.remainingPolls = new AtomicInteger(polls);
+        }
+    }
+}
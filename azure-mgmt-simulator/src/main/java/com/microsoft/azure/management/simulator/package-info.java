@@ -0,0 +1,9 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License. See License.txt in the project root for
+// license information.
+
+/**
+ * This package contains an in-process simulator of Azure Resource Manager, to measure and test
+ * the management libraries without an Azure subscription.
+ */
+package com.microsoft.azure.management.simulator;
@@ -0,0 +1,120 @@
+/**
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for
+ * license information.
+ */
+
+package com.microsoft.azure.management.simulator;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.microsoft.azure.management.resources.GenericResource;
+import com.microsoft.azure.management.resources.fluentcore.arm.Region;
+import com.microsoft.azure.management.resources.implementation.ResourceManager;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+
+public class ArmSimulatorTests {
+    private ArmSimulator simulator;
+
+    @Before
+    public void setup() {
+        simulator = new ArmSimulator();
+    }
+
+    @After
+    public void cleanup() throws IOException {
+        simulator.close();
+    }
+
+    @Test
+    public void canCreateListAndDeleteResources() throws IOException {
+        simulator.withOperationPolls(2).start();
+        ResourceManager resourceManager = ResourceManager.authenticate(simulator.credentials())
+                .withSubscription(ArmSimulator.SUBSCRIPTION_ID);
+
+        resourceManager.resourceGroups().define("rg1").withRegion(Region.US_WEST).create();
+        Assert.assertTrue(resourceManager.resourceGroups().contain("rg1"));
+
+        GenericResource resource = resourceManager.genericResources().define("vnet1")
+                .withRegion(Region.US_WEST)
+                .withExistingResourceGroup("rg1")
+                .withResourceType("virtualNetworks")
+                .withProviderNamespace("Microsoft.Network")
+                .withoutPlan()
+                .withApiVersion("2019-05-01")
+                .withProperties(new ObjectMapper().readTree("{\"addressSpace\":{\"addressPrefixes\":[\"10.0.0.0/16\"]}}"))
+                .create();
+        GenericResource fetched = resourceManager.genericResources().getById(resource.id());
+        Assert.assertEquals("Succeeded", new ObjectMapper().valueToTree(fetched.properties()).path("provisioningState").asText());
+        Assert.assertEquals(1, resourceManager.genericResources().listByResourceGroup("rg1").size());
+        Assert.assertEquals(2, simulator.resourceCount());
+
+        resourceManager.resourceGroups().deleteByName("rg1");
+        Assert.assertEquals(0, simulator.resourceCount());
+    }
+
+    @Test
+    public void canListInPages() throws IOException {
+        simulator.withOperationPolls(0).withPageSize(2).start();
+        ResourceManager resourceManager = ResourceManager.authenticate(simulator.credentials())
+                .withSubscription(ArmSimulator.SUBSCRIPTION_ID);
+        for (int i = 0; i < 3; i++) {
+            resourceManager.resourceGroups().define("rg" + i).withRegion(Region.US_WEST).create();
+        }
+        for (int i = 0; i < 5; i++) {
+            resourceManager.genericResources().define("vnet" + i)
+                    .withRegion(Region.US_WEST)
+                    .withExistingResourceGroup("rg1")
+                    .withResourceType("virtualNetworks")
+                    .withProviderNamespace("Microsoft.Network")
+                    .withoutPlan()
+                    .withApiVersion("2019-05-01")
+                    .withProperties(new ObjectMapper().readTree("{}"))
+                    .create();
+        }
+
+        final long requestCount = simulator.requestCount();
+        Assert.assertEquals(3, resourceManager.resourceGroups().list().size());
+        Assert.assertEquals(2, simulator.requestCount() - requestCount);
+        // The resource groups are not listed as resources
+        Assert.assertEquals(5, resourceManager.genericResources().list().size());
+        Assert.assertEquals(5, resourceManager.genericResources().listByResourceGroup("rg1").size());
+        Assert.assertEquals(0, resourceManager.genericResources().listByResourceGroup("rg2").size());
+    }
+
+    @Test
+    public void canRegisterProvidersAndRetryThrottledRequests() throws IOException {
+        simulator.withUnregisteredProvider("Microsoft.Network")
+                .withResourceType("Microsoft.Network", "virtualNetworks")
+                .withOperationPolls(0)
+                .start();
+        ResourceManager resourceManager = ResourceManager.authenticate(simulator.credentials())
+                .withSubscription(ArmSimulator.SUBSCRIPTION_ID);
+        resourceManager.resourceGroups().define("rg1").withRegion(Region.US_WEST).create();
+
+        resourceManager.genericResources().define("vnet1")
+                .withRegion(Region.US_WEST)
+                .withExistingResourceGroup("rg1")
+                .withResourceType("virtualNetworks")
+                .withProviderNamespace("Microsoft.Network")
+                .withoutPlan()
+                .withProperties(new ObjectMapper().readTree("{}"))
+                .create();
+        Assert.assertEquals("Registered", resourceManager.providers().getByName("Microsoft.Network").registrationState());
+
+        simulator.withThrottleRate(1, 1);
+        final long requestCount = simulator.requestCount();
+        try {
+            resourceManager.resourceGroups().getByName("rg1");
+            Assert.fail();
+        } catch (RuntimeException e) {
+            // Throttled again once retried
+        }
+        Assert.assertEquals(2, simulator.requestCount() - requestCount);
+        Assert.assertEquals(2, simulator.throttledCount());
+    }
+}